@@ -0,0 +1,106 @@
+#!/usr/bin/env bash
+# Measures time to ready and first-request latency of the regular build against the fast-start build
+# (AOT-processed context and AppCDS archive).
+#
+# Build the fast-start layout first, then run the script from the backend directory with the environment
+# the application needs (database, Redis, JWT_SECRET, ...):
+#
+#   mvn -DskipTests package -Pfast-start
+#   scripts/measure-startup.sh [runs]
+#
+# Each mode is started RUNS times (default 5) and the median is reported:
+#   baseline    java -jar on the same jar, AOT off, JDK default CDS archive only
+#   fast-start  target/ligera-backend.sh, AOT on, application CDS archive
+#
+# Time to ready is measured from the launch to the first successful readiness probe, the first request is
+# a login, the first thing a client does after a scale-out.
+#
+# The readiness probe is polled without a token, as Kubernetes does; SecurityConfig permits the health
+# endpoint. A probe answered 401 or 403 stops the script rather than waiting for the timeout.
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+BASE_URL=${BASE_URL:-http://localhost:$PORT/api}
+READINESS_URL=${READINESS_URL:-$BASE_URL/actuator/health/readiness}
+FIRST_REQUEST_URL=${FIRST_REQUEST_URL:-$BASE_URL/api/v1/auth/login}
+FIRST_REQUEST_BODY=${FIRST_REQUEST_BODY:-'{"email":"user@ligera.com","password":"password123"}'}
+READY_TIMEOUT_SECONDS=${READY_TIMEOUT_SECONDS:-120}
+JAVA_OPTS_BASELINE=${JAVA_OPTS_BASELINE:-}
+
+TARGET=target
+JAR=$(ls "$TARGET"/ligera-backend-*.jar 2>/dev/null | grep -v -e sources -e original | head -n 1 || true)
+LAUNCHER="$TARGET/ligera-backend.sh"
+if [[ -z "$JAR" || ! -f "$LAUNCHER" ]]; then
+    echo "Fast-start build not found, run: mvn -DskipTests package -Pfast-start" >&2
+    exit 1
+fi
+
+LOG_DIR=$(mktemp -d)
+trap 'rm -rf "$LOG_DIR"' EXIT
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints "<ready ms> <first request ms> <JVM-reported start s>" for one run of a mode
+measure() {
+    local mode=$1 log="$LOG_DIR/$1-$2.log" started pid status ready_ms first_ms reported
+
+    started=$(now_ms)
+    if [[ $mode == baseline ]]; then
+        java $JAVA_OPTS_BASELINE -jar "$JAR" --server.port="$PORT" >"$log" 2>&1 &
+    else
+        sh "$LAUNCHER" --server.port="$PORT" >"$log" 2>&1 &
+    fi
+    pid=$!
+
+    while true; do
+        status=$(curl -s -o /dev/null -w '%{http_code}' "$READINESS_URL" || true)
+        if [[ $status == 200 ]]; then
+            break
+        fi
+        if [[ $status == 401 || $status == 403 ]]; then
+            echo "$READINESS_URL answered $status, the readiness probe must not need a token" >&2
+            kill "$pid"
+            exit 1
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$mode exited before it was ready, see $log" >&2
+            cat "$log" >&2
+            exit 1
+        fi
+        if (( $(now_ms) - started > READY_TIMEOUT_SECONDS * 1000 )); then
+            echo "$mode not ready after ${READY_TIMEOUT_SECONDS}s" >&2
+            kill "$pid"
+            exit 1
+        fi
+        sleep 0.05
+    done
+    ready_ms=$(( $(now_ms) - started ))
+
+    first_ms=$(curl -s -o /dev/null -w '%{time_total}' -X POST -H 'Content-Type: application/json' \
+        -d "$FIRST_REQUEST_BODY" "$FIRST_REQUEST_URL" | awk '{ printf "%d", $1 * 1000 }')
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    reported=$(grep -o 'Started LigeraBackendApplication in [0-9.]* seconds' "$log" | awk '{ print $4 }' || true)
+    echo "$ready_ms $first_ms ${reported:-?}"
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+printf '%-11s %6s %16s %18s %22s\n' mode runs "ready (ms)" "first request (ms)" "reported start (s)"
+for mode in baseline fast-start; do
+    results="$LOG_DIR/$mode.results"
+    for ((run = 1; run <= RUNS; run++)); do
+        measure "$mode" "$run" >>"$results"
+    done
+    printf '%-11s %6d %16s %18s %22s\n' "$mode" "$RUNS" \
+        "$(cut -d' ' -f1 "$results" | median)" \
+        "$(cut -d' ' -f2 "$results" | median)" \
+        "$(cut -d' ' -f3 "$results" | tr '\n' ' ')"
+done
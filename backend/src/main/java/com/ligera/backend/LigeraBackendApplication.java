@@ -9,14 +9,19 @@ import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import io.swagger.v3.oas.annotations.servers.Server;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Ligera Backend
  */
 @SpringBootApplication
 @EnableJpaAuditing
+@EnableAsync
+@EnableScheduling
 @ConfigurationPropertiesScan
 @OpenAPIDefinition(
         info = @Info(
@@ -44,8 +49,13 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 )
 public class LigeraBackendApplication {
 
+    // Startup steps kept for /actuator/startup, later steps are dropped
+    private static final int STARTUP_TIMELINE_CAPACITY = 10_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(LigeraBackendApplication.class, args);
+        SpringApplication application = new SpringApplication(LigeraBackendApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_TIMELINE_CAPACITY));
+        application.run(args);
     }
 
 }
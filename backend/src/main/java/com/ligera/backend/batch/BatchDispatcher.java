@@ -0,0 +1,314 @@
+package com.ligera.backend.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ligera.backend.dtos.request.BatchRequest;
+import com.ligera.backend.dtos.response.BatchResponse;
+import com.ligera.backend.exception.ErrorResponse;
+import com.ligera.backend.exception.InvalidBatchException;
+import com.ligera.backend.filter.MetricsFilter;
+import com.ligera.backend.json.CachedClock;
+import com.ligera.backend.json.ErrorTemplate;
+import com.ligera.backend.security.filter.RateLimitFilter;
+import com.ligera.backend.service.RateLimitService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.WebInvocationPrivilegeEvaluator;
+import org.springframework.security.web.firewall.HttpFirewall;
+import org.springframework.security.web.firewall.RequestRejectedException;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Dispatches the operations of a batch straight to the {@link DispatcherServlet}, concurrently.
+ * <p>
+ * The batch request went through the filter chain once: its token was verified, its rate limit charged and
+ * its metrics and log recorded. Operations skip the filters, so everything the filters decide per request
+ * is done here instead:
+ * <ul>
+ *   <li>the rate limit is charged for the other operations of the batch, in one go;</li>
+ *   <li>each path is checked by the firewall of the security filter chain and authorized by its URL rules;
+ *       method security applies as usual;</li>
+ *   <li>each operation is counted as a hit of its endpoint.</li>
+ * </ul>
+ * One operation runs on the calling thread and the others on the dispatch pool. A failed or rejected
+ * operation only fails its own result.
+ */
+@Slf4j
+public class BatchDispatcher {
+
+    private static final ErrorTemplate UNAUTHORIZED = ErrorTemplate.of(HttpStatus.UNAUTHORIZED,
+            "Authentication is required to access this resource");
+    private static final ErrorTemplate ACCESS_DENIED = ErrorTemplate.of(HttpStatus.FORBIDDEN,
+            "You don't have permission to access this resource");
+    private static final ErrorTemplate REJECTED_PATH = ErrorTemplate.of(HttpStatus.BAD_REQUEST,
+            "The operation path was rejected");
+    private static final ErrorTemplate NESTED_BATCH = ErrorTemplate.of(HttpStatus.BAD_REQUEST,
+            "A batch cannot contain another batch");
+    private static final ErrorTemplate INVALID_BODY = ErrorTemplate.of(HttpStatus.BAD_REQUEST,
+            "The operation body cannot be read");
+    private static final ErrorTemplate TIMED_OUT = ErrorTemplate.of(HttpStatus.GATEWAY_TIMEOUT,
+            "The operation did not complete within the batch timeout");
+    private static final ErrorTemplate FAILED = ErrorTemplate.of(HttpStatus.INTERNAL_SERVER_ERROR,
+            "An unexpected error occurred");
+
+    private final DispatcherServlet dispatcherServlet;
+    private final WebInvocationPrivilegeEvaluator privilegeEvaluator;
+    private final HttpFirewall firewall;
+    private final RateLimitService rateLimitService;
+    private final MetricsFilter metricsFilter;
+    private final ObjectMapper objectMapper;
+    private final BatchProperties properties;
+    private final ExecutorService executor;
+    private final Set<String> methods = new HashSet<>();
+
+    public BatchDispatcher(DispatcherServlet dispatcherServlet, WebInvocationPrivilegeEvaluator privilegeEvaluator,
+                           HttpFirewall firewall, RateLimitService rateLimitService, MetricsFilter metricsFilter,
+                           ObjectMapper objectMapper, BatchProperties properties, ExecutorService executor) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.privilegeEvaluator = privilegeEvaluator;
+        this.firewall = firewall;
+        this.rateLimitService = rateLimitService;
+        this.metricsFilter = metricsFilter;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.executor = executor;
+        properties.getMethods().forEach(method -> methods.add(method.toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * Dispatch the operations of a batch and collect their responses
+     *
+     * @param request the batch request
+     * @param operations the operations, answered in this order
+     * @return the response of each operation
+     * @throws InvalidBatchException if the batch has too many operations
+     */
+    public BatchResponse dispatch(HttpServletRequest request, List<BatchRequest.Operation> operations) {
+        if (operations.size() > properties.getMaxOperations()) {
+            throw new InvalidBatchException("A batch can have at most " + properties.getMaxOperations()
+                    + " operations");
+        }
+        // The RateLimitFilter charged the batch request one token
+        if (properties.isChargePerOperation()) {
+            rateLimitService.consumeRateLimit(RateLimitFilter.getCurrentUserId(),
+                    RateLimitFilter.getClientIp(request), operations.size() - 1L);
+        }
+        metricsFilter.recordBatch(operations.size());
+
+        BatchResponse.Result[] results = new BatchResponse.Result[operations.size()];
+        List<String> ids = new ArrayList<>(operations.size());
+        List<HttpServletRequest> subRequests = new ArrayList<>(operations.size());
+        List<Integer> accepted = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            BatchRequest.Operation operation = operations.get(i);
+            String id = operation.getId() != null ? operation.getId() : String.valueOf(i);
+            ids.add(id);
+            try {
+                subRequests.add(prepare(request, operation, id));
+                accepted.add(i);
+            } catch (RejectedOperationException e) {
+                results[i] = e.result;
+            }
+        }
+
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        List<Future<BatchResponse.Result>> futures = new ArrayList<>(accepted.size());
+        for (int i = 1; i < accepted.size(); i++) {
+            String id = ids.get(accepted.get(i));
+            HttpServletRequest subRequest = subRequests.get(i);
+            futures.add(executor.submit(new DelegatingSecurityContextCallable<>(() -> execute(subRequest, id))));
+        }
+        if (!accepted.isEmpty()) {
+            results[accepted.get(0)] = execute(subRequests.get(0), ids.get(accepted.get(0)));
+        }
+
+        for (int i = 1; i < accepted.size(); i++) {
+            int index = accepted.get(i);
+            Future<BatchResponse.Result> future = futures.get(i - 1);
+            HttpServletRequest subRequest = subRequests.get(i);
+            try {
+                results[index] = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("Batch operation {} {} timed out", subRequest.getMethod(), subRequest.getRequestURI());
+                results[index] = errorResult(ids.get(index), TIMED_OUT.toResponse(subRequest.getRequestURI()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                results[index] = errorResult(ids.get(index), TIMED_OUT.toResponse(subRequest.getRequestURI()));
+            } catch (ExecutionException e) {
+                log.error("Batch operation {} {} failed", subRequest.getMethod(), subRequest.getRequestURI(),
+                        e.getCause());
+                results[index] = errorResult(ids.get(index), FAILED.toResponse(subRequest.getRequestURI()));
+            }
+        }
+
+        return new BatchResponse(List.of(results));
+    }
+
+    /**
+     * Stop the dispatch pool, abandoning operations still running
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Build the request of an operation, or reject the operation if it may not be dispatched
+     */
+    private HttpServletRequest prepare(HttpServletRequest request, BatchRequest.Operation operation, String id)
+            throws RejectedOperationException {
+        String method = operation.getMethod() != null ? operation.getMethod().toUpperCase(Locale.ROOT) : "GET";
+        String path = operation.getPath();
+        int query = path.indexOf('?');
+        String pathWithoutQuery = query < 0 ? path : path.substring(0, query);
+        String fullPath = request.getContextPath() + pathWithoutQuery;
+
+        if (!methods.contains(method)) {
+            throw new RejectedOperationException(errorResult(id, error(HttpStatus.METHOD_NOT_ALLOWED,
+                    "Method " + method + " cannot be used in a batch", fullPath)));
+        }
+        if (fullPath.equals(request.getRequestURI())) {
+            throw new RejectedOperationException(errorResult(id, NESTED_BATCH.toResponse(fullPath)));
+        }
+
+        byte[] body = null;
+        if (operation.getBody() != null && !operation.getBody().isNull()) {
+            try {
+                body = objectMapper.writeValueAsBytes(operation.getBody());
+            } catch (JsonProcessingException e) {
+                throw new RejectedOperationException(errorResult(id, INVALID_BODY.toResponse(fullPath)));
+            }
+        }
+
+        HttpServletRequest subRequest;
+        try {
+            subRequest = firewall.getFirewalledRequest(
+                    new BatchSubRequest(request, method, path, operation.getHeaders(), body));
+        } catch (RequestRejectedException e) {
+            log.warn("Batch operation {} {} rejected: {}", method, path, e.getMessage());
+            throw new RejectedOperationException(errorResult(id, REJECTED_PATH.toResponse(fullPath)));
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!privilegeEvaluator.isAllowed(request.getContextPath(), pathWithoutQuery, method, authentication)) {
+            boolean anonymous = authentication == null || authentication instanceof AnonymousAuthenticationToken;
+            throw new RejectedOperationException(errorResult(id,
+                    (anonymous ? UNAUTHORIZED : ACCESS_DENIED).toResponse(fullPath)));
+        }
+
+        Object requestId = request.getAttribute("requestId");
+        if (requestId != null) {
+            subRequest.setAttribute("requestId", requestId + "/" + id);
+        }
+        subRequest.setAttribute(MetricsFilter.ENDPOINT_ATTRIBUTE, MetricsFilter.getEndpoint(subRequest));
+        return subRequest;
+    }
+
+    /**
+     * Process the request of an operation and turn its response into a result
+     */
+    private BatchResponse.Result execute(HttpServletRequest subRequest, String id) {
+        String path = subRequest.getRequestURI();
+        BatchSubResponse response = new BatchSubResponse();
+        try {
+            dispatcherServlet.service(subRequest, response);
+        } catch (Exception e) {
+            log.error("Batch operation {} {} failed", subRequest.getMethod(), path, e);
+            metricsFilter.recordBatchOperation(MetricsFilter.getEndpoint(subRequest),
+                    HttpStatus.INTERNAL_SERVER_ERROR.value());
+            return errorResult(id, FAILED.toResponse(path));
+        }
+        metricsFilter.recordBatchOperation(MetricsFilter.getEndpoint(subRequest), response.getStatus());
+
+        String body = response.getContentAsString();
+        if (body.isEmpty() && response.isError()) {
+            HttpStatus status = HttpStatus.resolve(response.getStatus());
+            body = json(ErrorResponse.builder()
+                    .timestamp(CachedClock.now())
+                    .status(response.getStatus())
+                    .error(status != null ? status.getReasonPhrase() : "Error")
+                    .message(response.getErrorMessage())
+                    .path(path)
+                    .build());
+        } else if (body.isEmpty()) {
+            body = null;
+        } else if (!isJson(response.getContentType())) {
+            body = json(body);
+        }
+
+        Map<String, String> headers = response.getHeaderMap();
+        return new BatchResponse.Result(id, response.getStatus(), headers.isEmpty() ? null : headers, body);
+    }
+
+    private BatchResponse.Result errorResult(String id, ErrorResponse error) {
+        Map<String, String> headers = Map.of(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        return new BatchResponse.Result(id, error.getStatus(), headers, json(error));
+    }
+
+    private static ErrorResponse error(HttpStatus status, String message, String path) {
+        return ErrorResponse.builder()
+                .timestamp(CachedClock.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(path)
+                .build();
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot write batch result", e);
+        }
+    }
+
+    /**
+     * Check whether a body is a single JSON document, which is embedded in the result as it is
+     */
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return mediaType.getSubtype().equals("json") || mediaType.getSubtype().endsWith("+json");
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Operation answered without being dispatched
+     */
+    private static final class RejectedOperationException extends Exception {
+
+        private final transient BatchResponse.Result result;
+
+        RejectedOperationException(BatchResponse.Result result) {
+            super(null, null, false, false);
+            this.result = result;
+        }
+    }
+}
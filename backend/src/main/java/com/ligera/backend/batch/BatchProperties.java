@@ -0,0 +1,43 @@
+package com.ligera.backend.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch endpoint settings bound from app.batch
+ */
+@ConfigurationProperties(prefix = "app.batch")
+@Getter
+@Setter
+public class BatchProperties {
+
+    private boolean enabled = true;
+
+    // Operations accepted in one batch
+    private int maxOperations = 20;
+
+    // Methods operations may use. Operations run concurrently and in no particular order, so only safe
+    // methods are allowed unless configured otherwise.
+    private List<String> methods = new ArrayList<>(List.of("GET", "HEAD"));
+
+    // Threads dispatching operations, 0 for twice the processor count
+    private int workers = 0;
+
+    // Time the whole batch may take; operations still running then are answered with 504
+    private Duration timeout = Duration.ofSeconds(10);
+
+    // Charge the rate limit one token per operation rather than one per batch
+    private boolean chargePerOperation = true;
+
+    /**
+     * Get the number of dispatch threads
+     */
+    public int effectiveWorkers() {
+        return workers > 0 ? workers : 2 * Runtime.getRuntime().availableProcessors();
+    }
+}
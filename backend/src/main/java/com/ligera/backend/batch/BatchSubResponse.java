@@ -0,0 +1,345 @@
+package com.ligera.backend.batch;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Response of one batch operation, held in memory until the batch response is written. It is not a wrapper
+ * of the batch response, so nothing an operation does can reach the client directly.
+ */
+class BatchSubResponse implements HttpServletResponse {
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+    private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+
+    private int status = SC_OK;
+    private String errorMessage;
+    private boolean committed;
+    private String contentType;
+    private String characterEncoding;
+    private Locale locale = Locale.getDefault();
+
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * Get the body written, decoded with the character encoding of the response
+     */
+    String getContentAsString() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return body.toString(getCharset());
+    }
+
+    /**
+     * Get the message passed to {@link #sendError(int, String)}, if any
+     */
+    String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Check whether the response was ended by {@link #sendError} or {@link #sendRedirect}
+     */
+    boolean isError() {
+        return committed && status >= 400;
+    }
+
+    /**
+     * Get the headers set, multiple values of one header joined by commas
+     */
+    Map<String, String> getHeaderMap() {
+        Map<String, String> map = new LinkedCaseInsensitiveMap<>(headers.size());
+        headers.forEach((name, values) -> map.put(name, String.join(", ", values)));
+        return map;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        }
+        if (outputStream == null) {
+            outputStream = new BodyStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (outputStream != null) {
+            throw new IllegalStateException("getOutputStream() has already been called for this response");
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(body, getCharset()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (committed) {
+            throw new IllegalStateException("The response has already been committed");
+        }
+        body.reset();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+        characterEncoding = null;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+    }
+
+    @Override
+    public int getBufferSize() {
+        return body.size();
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        if (!committed) {
+            status = sc;
+        }
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        if (committed) {
+            throw new IllegalStateException("The response has already been committed");
+        }
+        status = sc;
+        errorMessage = msg;
+        committed = true;
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        if (committed) {
+            throw new IllegalStateException("The response has already been committed");
+        }
+        setHeader(HttpHeaders.LOCATION, location);
+        status = SC_FOUND;
+        committed = true;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setContentType(String type) {
+        contentType = type;
+        if (type == null) {
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return;
+        }
+        int charset = type.toLowerCase().indexOf("charset=");
+        if (charset >= 0) {
+            String value = type.substring(charset + "charset=".length());
+            int end = value.indexOf(';');
+            characterEncoding = (end < 0 ? value : value.substring(0, end)).trim().replace("\"", "");
+        } else if (characterEncoding != null) {
+            contentType = type + ";charset=" + characterEncoding;
+        }
+        headers.put(HttpHeaders.CONTENT_TYPE, new ArrayList<>(List.of(contentType)));
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding != null ? characterEncoding : StandardCharsets.ISO_8859_1.name();
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        if (writer != null) {
+            return;
+        }
+        characterEncoding = charset;
+        if (contentType != null) {
+            int parameters = contentType.indexOf(';');
+            setContentType(parameters < 0 ? contentType : contentType.substring(0, parameters));
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        if (loc != null) {
+            locale = loc;
+        }
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    // The API is stateless, cookies of operations are not forwarded
+    @Override
+    public void addCookie(Cookie cookie) {
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        return new ArrayList<>(headers.getOrDefault(name, List.of()));
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return new ArrayList<>(headers.keySet());
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+            setContentType(value);
+        } else if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            if (value == null) {
+                headers.remove(name);
+            } else {
+                headers.put(name, new ArrayList<>(List.of(value)));
+            }
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+            setContentType(value);
+        } else if (value != null && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            headers.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, formatDate(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, formatDate(date));
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+
+    private Charset getCharset() {
+        return Charset.forName(getCharacterEncoding());
+    }
+
+    private static String formatDate(long date) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(date).atOffset(ZoneOffset.UTC));
+    }
+
+    /**
+     * Output stream writing to the body
+     */
+    private final class BodyStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) {
+            body.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            body.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new IllegalStateException("Batch operations cannot be written asynchronously");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ligera.backend.compression;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chooses the content coding of a response from the Accept-Encoding request header
+ */
+public class AcceptEncodingNegotiator {
+
+    private final List<ContentCoding> preference;
+
+    /**
+     * @param preference the codings the server can produce, most preferred first; used to break ties between
+     *                   codings the client accepts with the same quality
+     */
+    public AcceptEncodingNegotiator(List<ContentCoding> preference) {
+        this.preference = List.copyOf(preference);
+    }
+
+    /**
+     * Choose the coding for a response
+     *
+     * @param acceptEncoding the Accept-Encoding header, may be null
+     * @return the coding with the highest quality for the client, or null to send the body as it is
+     */
+    public ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank() || preference.isEmpty()) {
+            return null;
+        }
+
+        Map<ContentCoding, Float> qualities = new EnumMap<>(ContentCoding.class);
+        float wildcard = -1;
+        int length = acceptEncoding.length();
+        int start = 0;
+        while (start < length) {
+            int end = acceptEncoding.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int parameters = acceptEncoding.indexOf(';', start);
+            int tokenEnd = parameters >= 0 && parameters < end ? parameters : end;
+            String token = acceptEncoding.substring(start, tokenEnd).trim();
+            float quality = tokenEnd < end ? quality(acceptEncoding, tokenEnd + 1, end) : 1f;
+
+            if (token.equals("*")) {
+                wildcard = quality;
+            } else {
+                ContentCoding coding = ContentCoding.fromToken(token);
+                if (coding != null) {
+                    qualities.put(coding, quality);
+                }
+            }
+            start = end + 1;
+        }
+
+        ContentCoding chosen = null;
+        float best = 0;
+        for (ContentCoding coding : preference) {
+            float quality = qualities.getOrDefault(coding, wildcard);
+            if (quality > best) {
+                chosen = coding;
+                best = quality;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Read the q parameter among the parameters of one header element, 1 if absent and 0 if malformed
+     */
+    private static float quality(String header, int start, int end) {
+        String parameters = header.substring(start, end);
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.length() > 2 && (trimmed.charAt(0) == 'q' || trimmed.charAt(0) == 'Q')
+                    && trimmed.charAt(1) == '=') {
+                try {
+                    return Float.parseFloat(trimmed.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0f;
+                }
+            }
+        }
+        return 1f;
+    }
+}
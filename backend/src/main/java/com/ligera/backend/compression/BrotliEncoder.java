@@ -0,0 +1,47 @@
+package com.ligera.backend.compression;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Brotli encoder backed by brotli4j. Levels are Brotli qualities, 0 to 11.
+ */
+public class BrotliEncoder implements ContentEncoder {
+
+    /**
+     * Check whether the native library could be loaded on this platform
+     */
+    public static boolean isAvailable() {
+        try {
+            return Brotli4jLoader.isAvailable();
+        } catch (LinkageError | RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public ContentCoding coding() {
+        return ContentCoding.BR;
+    }
+
+    @Override
+    public byte[] encode(byte[] data, int length, int level) throws IOException {
+        byte[] input = length == data.length ? data : Arrays.copyOf(data, length);
+        return Encoder.compress(input, parameters(level));
+    }
+
+    @Override
+    public OutputStream wrap(OutputStream out, int level) throws IOException {
+        return new BrotliOutputStream(out, parameters(level));
+    }
+
+    // Response bodies handled here are text, which the text mode models better
+    private static Encoder.Parameters parameters(int level) {
+        return new Encoder.Parameters().setQuality(level).setMode(Encoder.Mode.TEXT);
+    }
+}
@@ -0,0 +1,76 @@
+package com.ligera.backend.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of native codec instances, such as {@link java.util.zip.Deflater}s. Each instance holds
+ * native memory that is only released when it is ended, so reusing them avoids allocating and freeing it
+ * for every response. Borrowing never blocks: when the pool is empty a new instance is created, and
+ * instances returned to a full pool are ended.
+ *
+ * @param <T> the codec type
+ */
+public class CodecPool<T> implements AutoCloseable {
+
+    private final BlockingQueue<T> idle;
+    private final Supplier<T> factory;
+    private final Consumer<T> reset;
+    private final Consumer<T> destroy;
+
+    /**
+     * @param maxIdle the maximum number of idle instances kept
+     * @param factory creates an instance
+     * @param reset prepares a returned instance for its next use
+     * @param destroy releases the native memory of an instance that is not kept
+     */
+    public CodecPool(int maxIdle, Supplier<T> factory, Consumer<T> reset, Consumer<T> destroy) {
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+        this.factory = factory;
+        this.reset = reset;
+        this.destroy = destroy;
+    }
+
+    /**
+     * Take an idle instance, or create one if there is none
+     */
+    public T borrow() {
+        T codec = idle.poll();
+        return codec != null ? codec : factory.get();
+    }
+
+    /**
+     * Return an instance taken with {@link #borrow()}
+     */
+    public void release(T codec) {
+        try {
+            reset.accept(codec);
+        } catch (RuntimeException e) {
+            destroy.accept(codec);
+            return;
+        }
+        if (!idle.offer(codec)) {
+            destroy.accept(codec);
+        }
+    }
+
+    /**
+     * Get the number of idle instances
+     */
+    public int idleCount() {
+        return idle.size();
+    }
+
+    /**
+     * End all idle instances
+     */
+    @Override
+    public void close() {
+        T codec;
+        while ((codec = idle.poll()) != null) {
+            destroy.accept(codec);
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.ligera.backend.compression;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Response wrapper of the {@link CompressionFilter}. Whether the body is compressed is decided when it is
+ * first written, from its content type and status:
+ * <ul>
+ *   <li>bodies that are not compressed are written through, flushes included;</li>
+ *   <li>compressed bodies are buffered, ignoring flushes, and compressed in one pass by {@link #finish()},
+ *       unless they are smaller than the minimum size;</li>
+ *   <li>buffered bodies that outgrow the buffer are compressed from then on as they are written.</li>
+ * </ul>
+ * Spring's message converters flush after every body they write, so honouring flushes of compressible
+ * types would stream every response; streaming endpoints use types that are not compressed, such as NDJSON.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private enum State { UNDECIDED, IDENTITY, BUFFERING, STREAMING }
+
+    private final HttpServletRequest request;
+    private final ContentCoding coding;
+    private final CompressionFilter filter;
+
+    private State state = State.UNDECIDED;
+    // Content length set by the handler, applied only if the body is sent as it is
+    private long contentLength = -1;
+    private Buffer buffer;
+
+    private OutputStream encoder;
+    private CountingOutputStream compressedOut;
+    private long bytesIn;
+    private long cpuNanos;
+
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * @param coding the negotiated coding, or null if the client accepts none
+     */
+    CompressingResponseWrapper(HttpServletResponse response, HttpServletRequest request, ContentCoding coding,
+                               CompressionFilter filter) {
+        super(response);
+        this.request = request;
+        this.coding = coding;
+        this.filter = filter;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new BodyStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (state == State.UNDECIDED) {
+            decide();
+        }
+        flush();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (state == State.IDENTITY) {
+            super.setContentLengthLong(len);
+        } else {
+            contentLength = len;
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (!interceptContentLength(name, value)) {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (!interceptContentLength(name, value)) {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (!interceptContentLength(name, String.valueOf(value))) {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (!interceptContentLength(name, String.valueOf(value))) {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        release();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        release();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        release();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (state != State.STREAMING) {
+            state = State.UNDECIDED;
+            buffer = null;
+            contentLength = -1;
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (state == State.BUFFERING) {
+            buffer.reset();
+        }
+    }
+
+    /**
+     * Send the buffered body, compressed if it is large enough, or finish the compressed stream
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (state == State.UNDECIDED) {
+            decide();
+        }
+        if (state == State.BUFFERING) {
+            sendBuffered();
+        } else if (state == State.STREAMING) {
+            long start = filter.cpuTime();
+            encoder.close();
+            cpuNanos += filter.cpuTime() - start;
+            state = State.IDENTITY;
+            filter.recordCompression(coding, bytesIn, compressedOut.count, cpuNanos, false);
+        }
+    }
+
+    /**
+     * Send what was buffered as it is and write the rest of the body through
+     */
+    void passThrough() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (state == State.BUFFERING) {
+            sendIdentity(false);
+        } else if (state == State.UNDECIDED) {
+            state = State.IDENTITY;
+            applyContentLength();
+        }
+    }
+
+    /**
+     * Drop the buffered body and return the encoder of a streamed body, whose end is not sent
+     */
+    void release() {
+        buffer = null;
+        if (state == State.STREAMING) {
+            try {
+                encoder.close();
+            } catch (IOException e) {
+                // The response is being abandoned, the error is reported by the caller
+            }
+        }
+        state = State.IDENTITY;
+    }
+
+    private void decide() {
+        boolean compressibleType = filter.isCompressibleType(getContentType());
+        if (compressibleType) {
+            addVary();
+        }
+        if (compressibleType && coding != null && filter.canCompress(this)) {
+            state = State.BUFFERING;
+            buffer = new Buffer(Math.min(filter.maxBufferSize(), 4096));
+        } else {
+            state = State.IDENTITY;
+            applyContentLength();
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (state == State.UNDECIDED) {
+            decide();
+        }
+        switch (state) {
+            case BUFFERING -> {
+                buffer.write(b, off, len);
+                if (buffer.size() > filter.maxBufferSize()) {
+                    startStreaming();
+                }
+            }
+            case STREAMING -> {
+                long start = filter.cpuTime();
+                encoder.write(b, off, len);
+                cpuNanos += filter.cpuTime() - start;
+                bytesIn += len;
+            }
+            default -> getResponse().getOutputStream().write(b, off, len);
+        }
+    }
+
+    private void flush() throws IOException {
+        if (state == State.STREAMING) {
+            encoder.flush();
+        } else if (state == State.IDENTITY) {
+            getResponse().flushBuffer();
+        }
+    }
+
+    private void sendBuffered() throws IOException {
+        int length = buffer.size();
+        if (length < filter.minResponseSize()) {
+            sendIdentity(true);
+            return;
+        }
+
+        boolean cacheable = getHeader(HttpHeaders.ETAG) != null || filter.isCacheablePath(request);
+        byte[] compressed = filter.compress(coding, getContentType(), buffer.array(), length, cacheable);
+        buffer = null;
+        state = State.IDENTITY;
+        applyEncodingHeaders();
+        super.setContentLength(compressed.length);
+        getResponse().getOutputStream().write(compressed);
+    }
+
+    private void sendIdentity(boolean complete) throws IOException {
+        Buffer body = buffer;
+        buffer = null;
+        state = State.IDENTITY;
+        if (complete && contentLength < 0) {
+            contentLength = body.size();
+        }
+        applyContentLength();
+        body.writeTo(getResponse().getOutputStream());
+    }
+
+    private void startStreaming() throws IOException {
+        applyEncodingHeaders();
+        compressedOut = new CountingOutputStream(getResponse().getOutputStream());
+        long start = filter.cpuTime();
+        encoder = filter.compressStream(coding, getContentType(), compressedOut);
+        encoder.write(buffer.array(), 0, buffer.size());
+        cpuNanos += filter.cpuTime() - start;
+        bytesIn += buffer.size();
+        buffer = null;
+        state = State.STREAMING;
+    }
+
+    private void applyContentLength() {
+        if (contentLength >= 0) {
+            super.setContentLengthLong(contentLength);
+        }
+    }
+
+    /**
+     * Mark the body as encoded. A strong ETag names the uncompressed bytes, so it is made weak; If-None-Match
+     * uses the weak comparison, so the tag still matches on revalidation.
+     */
+    private void applyEncodingHeaders() {
+        super.setHeader(HttpHeaders.CONTENT_ENCODING, coding.token());
+        String entityTag = getHeader(HttpHeaders.ETAG);
+        if (entityTag != null && entityTag.startsWith("\"")) {
+            super.setHeader(HttpHeaders.ETAG, "W/" + entityTag);
+        }
+    }
+
+    private void addVary() {
+        for (String vary : getHeaders(HttpHeaders.VARY)) {
+            if (vary.equals("*") || vary.toLowerCase(Locale.ROOT).contains("accept-encoding")) {
+                return;
+            }
+        }
+        super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private boolean interceptContentLength(String name, String value) {
+        if (state == State.IDENTITY || !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            return false;
+        }
+        contentLength = value != null ? Long.parseLong(value) : -1;
+        return true;
+    }
+
+    /**
+     * Output stream handed to the handler
+     */
+    private final class BodyStream extends ServletOutputStream {
+
+        private final byte[] single = new byte[1];
+
+        @Override
+        public void write(int b) throws IOException {
+            single[0] = (byte) b;
+            CompressingResponseWrapper.this.write(single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            CompressingResponseWrapper.this.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            CompressingResponseWrapper.this.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return getResponse().getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                getResponse().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException("Response output stream is not available", e);
+            }
+        }
+    }
+
+    /**
+     * Buffer whose array is read without a copy
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer(int size) {
+            super(size);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    /**
+     * Counts the compressed bytes; closing it leaves the response stream open for the container
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.ligera.backend.compression;
+
+import com.ligera.backend.filter.MetricsFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compresses response bodies with the coding negotiated from Accept-Encoding. Bodies up to the buffer size
+ * are compressed in one pass once the handler is done, or taken from the {@link PrecompressedCache} when the
+ * response has an ETag or its path is configured as cacheable; larger or flushed bodies are compressed as
+ * they are written. Ratio and CPU time per byte are recorded in the {@link MetricsFilter}.
+ */
+@Slf4j
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private final CompressionProperties properties;
+    private final Map<ContentCoding, ContentEncoder> encoders = new EnumMap<>(ContentCoding.class);
+    private final AcceptEncodingNegotiator negotiator;
+    private final List<MimeType> mimeTypes;
+    private final PrecompressedCache cache;
+    private final MetricsFilter metricsFilter;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * @param encoders the available encoders; configured codings without one are not offered
+     * @param cache the cache of compressed bodies, or null to compress every response
+     */
+    public CompressionFilter(CompressionProperties properties, List<ContentEncoder> encoders,
+                             PrecompressedCache cache, MetricsFilter metricsFilter) {
+        this.properties = properties;
+        encoders.forEach(encoder -> this.encoders.put(encoder.coding(), encoder));
+        this.negotiator = new AcceptEncodingNegotiator(properties.getCodings().stream()
+                .filter(this.encoders::containsKey)
+                .toList());
+        this.mimeTypes = properties.getMimeTypes().stream().map(MimeTypeUtils::parseMimeType).toList();
+        this.cache = cache;
+        this.metricsFilter = metricsFilter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCoding coding = negotiator.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, request, coding, this);
+        try {
+            chain.doFilter(request, wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            wrapper.release();
+            throw e;
+        }
+
+        // The body of an asynchronous request is written after this returns, it is sent as it is
+        if (request.isAsyncStarted()) {
+            wrapper.passThrough();
+            return;
+        }
+        wrapper.finish();
+    }
+
+    /**
+     * Release the pooled native codecs when the container takes the filter out of service
+     */
+    @Override
+    public void destroy() {
+        for (ContentEncoder encoder : encoders.values()) {
+            if (encoder instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close {} encoder", encoder.coding().token(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check whether a content type is one of the compressed MIME types
+     */
+    boolean isCompressibleType(String contentType) {
+        MimeType mimeType = parse(contentType);
+        if (mimeType == null) {
+            return false;
+        }
+        for (MimeType candidate : mimeTypes) {
+            if (candidate.isCompatibleWith(mimeType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a response of a compressible type may be compressed: it has a body, and no coding yet
+     */
+    boolean canCompress(HttpServletResponse response) {
+        int status = response.getStatus();
+        return status >= 200 && status != HttpServletResponse.SC_NO_CONTENT
+                && status != HttpServletResponse.SC_PARTIAL_CONTENT
+                && status != HttpServletResponse.SC_NOT_MODIFIED
+                && !response.containsHeader(HttpHeaders.CONTENT_ENCODING);
+    }
+
+    int minResponseSize() {
+        return properties.getMinResponseSize();
+    }
+
+    int maxBufferSize() {
+        return properties.getMaxBufferSize();
+    }
+
+    /**
+     * Compress a whole body, from the cache if the response is cacheable
+     *
+     * @param cacheable whether the response is sent again unchanged, such as one with an ETag
+     */
+    byte[] compress(ContentCoding coding, String contentType, byte[] data, int length, boolean cacheable)
+            throws IOException {
+        ContentEncoder encoder = encoders.get(coding);
+        long start = cpuTime();
+        byte[] compressed;
+        boolean cached = false;
+
+        if (cache != null && cacheable) {
+            PrecompressedCache.Key key = PrecompressedCache.key(coding, data, length);
+            compressed = cache.get(key);
+            if (compressed != null) {
+                cached = true;
+            } else if (cache.shouldAdmit(key)) {
+                compressed = encoder.encode(data, length, cacheLevel(coding));
+                cache.put(key, compressed);
+            } else {
+                compressed = encoder.encode(data, length, level(coding, contentType));
+            }
+        } else {
+            compressed = encoder.encode(data, length, level(coding, contentType));
+        }
+
+        recordCompression(coding, length, compressed.length, cpuTime() - start, cached);
+        return compressed;
+    }
+
+    /**
+     * Start compressing a body written in parts
+     */
+    OutputStream compressStream(ContentCoding coding, String contentType, OutputStream out) throws IOException {
+        return encoders.get(coding).wrap(out, level(coding, contentType));
+    }
+
+    /**
+     * Check whether the response to a request is configured as cacheable by its path
+     */
+    boolean isCacheablePath(HttpServletRequest request) {
+        if (cache == null) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : properties.getCache().getPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void recordCompression(ContentCoding coding, long bytesIn, long bytesOut, long cpuNanos, boolean cached) {
+        metricsFilter.recordCompression(coding.token(), bytesIn, bytesOut, cpuNanos, cached);
+    }
+
+    /**
+     * Get the CPU time of the current thread, or the wall clock time where CPU time is not measured, such as
+     * on virtual threads
+     */
+    long cpuTime() {
+        long cpuTime = threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : -1;
+        return cpuTime >= 0 ? cpuTime : System.nanoTime();
+    }
+
+    private int level(ContentCoding coding, String contentType) {
+        MimeType mimeType = parse(contentType);
+        String type = mimeType != null ? mimeType.getType() + "/" + mimeType.getSubtype() : "";
+        return properties.levelFor(type, coding);
+    }
+
+    private int cacheLevel(ContentCoding coding) {
+        Integer level = properties.getCache().getLevels().get(coding);
+        return level != null ? level : level(coding, null);
+    }
+
+    private static MimeType parse(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        try {
+            return MimeTypeUtils.parseMimeType(contentType);
+        } catch (InvalidMimeTypeException e) {
+            log.debug("Not compressing response with invalid content type {}", contentType);
+            return null;
+        }
+    }
+}
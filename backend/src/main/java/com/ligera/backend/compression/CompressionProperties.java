@@ -0,0 +1,102 @@
+package com.ligera.backend.compression;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response compression settings bound from app.compression
+ */
+@ConfigurationProperties(prefix = "app.compression")
+@Getter
+@Setter
+public class CompressionProperties {
+
+    private boolean enabled = true;
+
+    // Smaller bodies are sent as they are, the coding overhead outweighs the savings
+    private int minResponseSize = 1024;
+
+    // Bodies are buffered up to this size, larger ones are compressed as they are written
+    private int maxBufferSize = 1024 * 1024;
+
+    // Codings offered, most preferred first. Codings whose native library is missing are skipped.
+    private List<ContentCoding> codings = new ArrayList<>(List.of(ContentCoding.ZSTD, ContentCoding.BR,
+            ContentCoding.GZIP));
+
+    private List<String> mimeTypes = new ArrayList<>(List.of("application/json", "application/xml",
+            "application/problem+json", "text/html", "text/plain", "text/css", "text/javascript",
+            "application/javascript"));
+
+    // Levels per coding, overridden per MIME type by mimeLevels
+    private Map<ContentCoding, Integer> levels = levels(6, 4, 3);
+
+    // Levels per MIME type and coding, keyed by type without parameters, e.g. "[application/json]"
+    private Map<String, Map<ContentCoding, Integer>> mimeLevels = new HashMap<>();
+
+    // Maximum idle Deflaters and zstd contexts kept per coding, 0 for twice the processor count
+    private int poolSize = 0;
+
+    private Cache cache = new Cache();
+
+    /**
+     * Cache of compressed bodies of responses that are sent again unchanged
+     */
+    @Getter
+    @Setter
+    public static class Cache {
+
+        private boolean enabled = true;
+
+        // Total size of the compressed bodies kept
+        private long maxBytes = 4L * 1024 * 1024;
+
+        // Paths, below the context path, whose responses are cached. Responses with an ETag are always cached.
+        private List<String> paths = new ArrayList<>(List.of("/v3/api-docs", "/v3/api-docs/**"));
+
+        // Cached bodies are compressed once, so they use higher levels than responses compressed per request
+        private Map<ContentCoding, Integer> levels = levels(9, 10, 19);
+    }
+
+    /**
+     * Resolve the level for a coding of a MIME type
+     *
+     * @param mimeType the type, without parameters
+     */
+    public int levelFor(String mimeType, ContentCoding coding) {
+        Map<ContentCoding, Integer> forType = mimeLevels.get(mimeType);
+        if (forType != null && forType.containsKey(coding)) {
+            return forType.get(coding);
+        }
+        return levels.getOrDefault(coding, defaultLevel(coding));
+    }
+
+    /**
+     * Get the number of idle codec instances pooled per coding
+     */
+    public int effectivePoolSize() {
+        return poolSize > 0 ? poolSize : 2 * Runtime.getRuntime().availableProcessors();
+    }
+
+    private static Map<ContentCoding, Integer> levels(int gzip, int br, int zstd) {
+        Map<ContentCoding, Integer> levels = new EnumMap<>(ContentCoding.class);
+        levels.put(ContentCoding.GZIP, gzip);
+        levels.put(ContentCoding.BR, br);
+        levels.put(ContentCoding.ZSTD, zstd);
+        return levels;
+    }
+
+    private static int defaultLevel(ContentCoding coding) {
+        return switch (coding) {
+            case GZIP -> 6;
+            case BR -> 4;
+            case ZSTD -> 3;
+        };
+    }
+}
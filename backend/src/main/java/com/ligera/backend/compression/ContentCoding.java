@@ -0,0 +1,38 @@
+package com.ligera.backend.compression;
+
+/**
+ * Content codings the server can apply to response bodies, named as in the Accept-Encoding header
+ */
+public enum ContentCoding {
+
+    GZIP("gzip"),
+    BR("br"),
+    ZSTD("zstd");
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Get the token of this coding in the Accept-Encoding and Content-Encoding headers
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Get the coding named by a header token, ignoring case
+     *
+     * @return the coding, or null if the server does not support it
+     */
+    public static ContentCoding fromToken(String token) {
+        for (ContentCoding coding : values()) {
+            if (coding.token.equalsIgnoreCase(token)) {
+                return coding;
+            }
+        }
+        return null;
+    }
+}
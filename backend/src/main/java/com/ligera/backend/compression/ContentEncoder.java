@@ -0,0 +1,34 @@
+package com.ligera.backend.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Applies one content coding to response bodies
+ */
+public interface ContentEncoder {
+
+    /**
+     * Get the coding this encoder produces
+     */
+    ContentCoding coding();
+
+    /**
+     * Compress a whole body at once
+     *
+     * @param data the buffer holding the body
+     * @param length the number of bytes of the body, from the start of the buffer
+     * @param level the compression level, in the range of this coding
+     * @return the compressed body
+     */
+    byte[] encode(byte[] data, int length, int level) throws IOException;
+
+    /**
+     * Compress a body written in parts. Flushing the returned stream sends everything written so far, and
+     * closing it finishes the body and closes the target.
+     *
+     * @param out the stream the compressed body is written to
+     * @param level the compression level, in the range of this coding
+     */
+    OutputStream wrap(OutputStream out, int level) throws IOException;
+}
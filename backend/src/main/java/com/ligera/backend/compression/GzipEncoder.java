@@ -0,0 +1,123 @@
+package com.ligera.backend.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Gzip encoder drawing its {@link Deflater}s from a pool. {@link java.util.zip.GZIPOutputStream} creates
+ * and ends a Deflater, with its native zlib state, for every stream, so the gzip framing is written here
+ * around a pooled raw Deflater instead.
+ */
+public class GzipEncoder implements ContentEncoder, AutoCloseable {
+
+    // Magic number, deflate method, no flags, no modification time, unknown OS, as GZIPOutputStream writes
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final CodecPool<Deflater> deflaters;
+
+    /**
+     * @param maxIdle the maximum number of idle Deflaters kept
+     */
+    public GzipEncoder(int maxIdle) {
+        this.deflaters = new CodecPool<>(maxIdle,
+                () -> new Deflater(Deflater.DEFAULT_COMPRESSION, true),
+                Deflater::reset,
+                Deflater::end);
+    }
+
+    @Override
+    public ContentCoding coding() {
+        return ContentCoding.GZIP;
+    }
+
+    @Override
+    public byte[] encode(byte[] data, int length, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 4));
+        try (OutputStream gzip = wrap(out, level)) {
+            gzip.write(data, 0, length);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public OutputStream wrap(OutputStream out, int level) throws IOException {
+        Deflater deflater = deflaters.borrow();
+        deflater.setLevel(level);
+        try {
+            return new GzipStream(out, deflater);
+        } catch (IOException | RuntimeException e) {
+            deflaters.release(deflater);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of Deflaters waiting in the pool
+     */
+    public int idleDeflaters() {
+        return deflaters.idleCount();
+    }
+
+    @Override
+    public void close() {
+        deflaters.close();
+    }
+
+    /**
+     * Gzip member written with a pooled Deflater, which is returned to the pool when the stream is closed
+     */
+    private final class GzipStream extends DeflaterOutputStream {
+
+        private final CRC32 crc = new CRC32();
+        private boolean finished;
+        private boolean released;
+
+        GzipStream(OutputStream out, Deflater deflater) throws IOException {
+            super(out, deflater, BUFFER_SIZE, true);
+            out.write(HEADER);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            super.finish();
+            writeInt((int) crc.getValue());
+            writeInt((int) def.getBytesRead());
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!released) {
+                    released = true;
+                    deflaters.release(def);
+                }
+            }
+        }
+
+        // Gzip trailer fields are little-endian
+        private void writeInt(int value) throws IOException {
+            out.write(value & 0xff);
+            out.write((value >>> 8) & 0xff);
+            out.write((value >>> 16) & 0xff);
+            out.write((value >>> 24) & 0xff);
+        }
+    }
+}
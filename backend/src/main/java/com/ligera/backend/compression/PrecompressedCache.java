@@ -0,0 +1,115 @@
+package com.ligera.backend.compression;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small LRU cache of compressed response bodies, keyed by the SHA-256 digest of the uncompressed body and
+ * the coding. A body is only compressed into the cache the second time it is seen, so one-off responses do
+ * not evict the bodies that are actually repeated.
+ */
+public class PrecompressedCache {
+
+    // Digests of bodies seen once, remembered until this many newer ones were seen
+    private static final int MAX_CANDIDATES = 1024;
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final Map<Key, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, Boolean> candidates = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+            return size() > MAX_CANDIDATES;
+        }
+    };
+    private long size;
+
+    /**
+     * @param maxBytes the total size of the compressed bodies kept; a single body may take a quarter of it
+     */
+    public PrecompressedCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxBytes / 4;
+    }
+
+    /**
+     * Compute the key of a body
+     *
+     * @param data the buffer holding the body
+     * @param length the number of bytes of the body, from the start of the buffer
+     */
+    public static Key key(ContentCoding coding, byte[] data, int length) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(data, 0, length);
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+        return new Key(coding, hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    /**
+     * Get the compressed body for a key, and note the key as seen
+     *
+     * @return the compressed body, or null if it is not cached
+     */
+    public synchronized byte[] get(Key key) {
+        byte[] compressed = entries.get(key);
+        if (compressed == null) {
+            candidates.merge(key, Boolean.FALSE, (seen, again) -> Boolean.TRUE);
+        }
+        return compressed;
+    }
+
+    /**
+     * Check whether a body missing from the cache was seen before, so that its compressed form should be
+     * {@link #put stored}
+     */
+    public synchronized boolean shouldAdmit(Key key) {
+        return Boolean.TRUE.equals(candidates.get(key));
+    }
+
+    /**
+     * Store a compressed body, evicting the least recently used bodies as needed
+     */
+    public synchronized void put(Key key, byte[] compressed) {
+        if (compressed.length > maxEntryBytes) {
+            return;
+        }
+        candidates.remove(key);
+        byte[] previous = entries.put(key, compressed);
+        size += compressed.length - (previous != null ? previous.length : 0);
+
+        Iterator<byte[]> eldest = entries.values().iterator();
+        while (size > maxBytes && eldest.hasNext()) {
+            size -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Get the number of cached bodies
+     */
+    public synchronized int entryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Get the total size of the cached bodies
+     */
+    public synchronized long sizeBytes() {
+        return size;
+    }
+
+    /**
+     * Identifies a body in one coding by its digest
+     */
+    public record Key(ContentCoding coding, long hash0, long hash1, long hash2, long hash3) {
+    }
+}
@@ -0,0 +1,193 @@
+package com.ligera.backend.compression;
+
+import com.github.luben.zstd.EndDirective;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.util.Native;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Zstandard encoder backed by zstd-jni, reusing native compression contexts from a pool. Streamed bodies
+ * are compressed through the pooled context too, rather than a {@link com.github.luben.zstd.ZstdOutputStream}
+ * which creates and frees its own native stream for every response.
+ */
+public class ZstdEncoder implements ContentEncoder, AutoCloseable {
+
+    private static final int BUFFER_SIZE = 16384;
+
+    private final CodecPool<Codec> codecs;
+
+    /**
+     * @param maxIdle the maximum number of idle compression contexts kept
+     */
+    public ZstdEncoder(int maxIdle) {
+        this.codecs = new CodecPool<>(maxIdle, Codec::new, Codec::reset, Codec::close);
+    }
+
+    /**
+     * Check whether the native library could be loaded on this platform
+     */
+    public static boolean isAvailable() {
+        try {
+            Native.load();
+            return true;
+        } catch (UnsatisfiedLinkError | RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public ContentCoding coding() {
+        return ContentCoding.ZSTD;
+    }
+
+    @Override
+    public byte[] encode(byte[] data, int length, int level) {
+        Codec codec = codecs.borrow();
+        try {
+            codec.context.setLevel(level);
+            byte[] compressed = new byte[(int) Zstd.compressBound(length)];
+            int size = codec.context.compressByteArray(compressed, 0, compressed.length, data, 0, length);
+            return Arrays.copyOf(compressed, size);
+        } finally {
+            codecs.release(codec);
+        }
+    }
+
+    @Override
+    public OutputStream wrap(OutputStream out, int level) throws IOException {
+        Codec codec = codecs.borrow();
+        try {
+            codec.context.setLevel(level);
+            return new ZstdStream(out, codec);
+        } catch (RuntimeException e) {
+            codecs.release(codec);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of compression contexts waiting in the pool
+     */
+    public int idleContexts() {
+        return codecs.idleCount();
+    }
+
+    @Override
+    public void close() {
+        codecs.close();
+    }
+
+    /**
+     * Native compression context pooled with the direct buffers its streaming calls read from and write to
+     */
+    private static final class Codec {
+
+        final ZstdCompressCtx context = new ZstdCompressCtx();
+        final ByteBuffer input = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        final ByteBuffer output = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        final byte[] chunk = new byte[BUFFER_SIZE];
+
+        void reset() {
+            context.reset();
+            input.clear();
+            output.clear();
+        }
+
+        void close() {
+            context.close();
+        }
+    }
+
+    /**
+     * Zstandard frame written with a pooled context, which is returned to the pool when the stream is closed
+     */
+    private final class ZstdStream extends OutputStream {
+
+        private final OutputStream out;
+        private final Codec codec;
+        private boolean released;
+
+        ZstdStream(OutputStream out, Codec codec) {
+            this.out = out;
+            this.codec = codec;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureOpen();
+            if (!codec.input.hasRemaining()) {
+                compress(EndDirective.CONTINUE);
+            }
+            codec.input.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            while (len > 0) {
+                if (!codec.input.hasRemaining()) {
+                    compress(EndDirective.CONTINUE);
+                }
+                int n = Math.min(len, codec.input.remaining());
+                codec.input.put(b, off, n);
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            ensureOpen();
+            compress(EndDirective.FLUSH);
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (released) {
+                return;
+            }
+            try {
+                compress(EndDirective.END);
+                out.close();
+            } finally {
+                released = true;
+                codecs.release(codec);
+            }
+        }
+
+        // Continue returns once the input is consumed, flush and end once the frame is written out
+        private void compress(EndDirective directive) throws IOException {
+            ByteBuffer input = codec.input;
+            input.flip();
+            boolean done;
+            do {
+                done = codec.context.compressDirectByteBufferStream(codec.output, input, directive);
+                drain();
+            } while (directive == EndDirective.CONTINUE ? input.hasRemaining() : !done);
+            input.compact();
+        }
+
+        private void drain() throws IOException {
+            ByteBuffer output = codec.output;
+            output.flip();
+            while (output.hasRemaining()) {
+                int n = Math.min(output.remaining(), codec.chunk.length);
+                output.get(codec.chunk, 0, n);
+                out.write(codec.chunk, 0, n);
+            }
+            output.clear();
+        }
+
+        private void ensureOpen() throws IOException {
+            if (released) {
+                throw new IOException("Stream closed");
+            }
+        }
+    }
+}
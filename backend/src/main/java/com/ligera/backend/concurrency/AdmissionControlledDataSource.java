@@ -0,0 +1,156 @@
+package com.ligera.backend.concurrency;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DataSource that bounds the number of connections in use and the number of callers waiting for one.
+ * <p>
+ * With virtual threads, request concurrency is no longer capped by the servlet thread pool, so a burst can
+ * queue an unbounded number of threads on the connection pool. Callers beyond {@code maxConcurrent} wait
+ * in FIFO order for at most {@code acquireTimeoutMs}; once {@code maxWaiting} callers are already waiting,
+ * new ones are rejected immediately with a {@link SQLTransientConnectionException} instead of piling up.
+ * A permit is held from {@code getConnection()} until the connection is closed.
+ */
+public class AdmissionControlledDataSource extends DelegatingDataSource {
+
+    private final ResizableSemaphore permits;
+    private volatile int maxConcurrent;
+    private final int maxWaiting;
+    private final long acquireTimeoutMs;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public AdmissionControlledDataSource(DataSource target, int maxConcurrent, int maxWaiting, long acquireTimeoutMs) {
+        super(target);
+        this.permits = new ResizableSemaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Change the number of connections admitted concurrently, e.g. after the pool was resized.
+     * Connections already admitted above a lowered limit are kept until they are closed.
+     *
+     * @param maxConcurrent the new limit
+     */
+    public synchronized void setMaxConcurrent(int maxConcurrent) {
+        int delta = maxConcurrent - this.maxConcurrent;
+        if (delta > 0) {
+            permits.release(delta);
+        } else if (delta < 0) {
+            permits.reduce(-delta);
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Get the number of connections admitted concurrently
+     *
+     * @return the limit
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Get the number of connections currently admitted
+     *
+     * @return the connections in use
+     */
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * Get the number of callers waiting for admission
+     *
+     * @return the waiting callers
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Get the number of callers rejected since startup
+     *
+     * @return the rejected callers
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            throw new SQLTransientConnectionException(
+                    "Database admission rejected: " + maxWaiting + " callers already waiting");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException(
+                        "Database admission timed out after " + acquireTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for database admission", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private Connection releaseOnClose(Connection connection) {
+        return CloseNotifyingConnection.wrap(connection, permits::release);
+    }
+
+    /**
+     * Semaphore whose permit count can be lowered, for pool resizing
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+
+        private ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        private void reduce(int reduction) {
+            reducePermits(reduction);
+        }
+    }
+}
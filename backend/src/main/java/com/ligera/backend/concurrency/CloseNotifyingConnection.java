@@ -0,0 +1,76 @@
+package com.ligera.backend.concurrency;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection proxy running a callback the first time the connection is closed
+ */
+final class CloseNotifyingConnection implements InvocationHandler {
+
+    private final Connection target;
+    private final Runnable onClose;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private CloseNotifyingConnection(Connection target, Runnable onClose) {
+        this.target = target;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Wrap a connection
+     *
+     * @param target the pooled connection
+     * @param onClose the callback, run once after the first close
+     * @return the wrapped connection
+     */
+    static Connection wrap(Connection target, Runnable onClose) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new CloseNotifyingConnection(target, onClose));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close" -> {
+                try {
+                    target.close();
+                } finally {
+                    if (closed.compareAndSet(false, true)) {
+                        onClose.run();
+                    }
+                }
+                return null;
+            }
+            case "equals" -> {
+                return proxy == args[0];
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            case "unwrap" -> {
+                if (((Class<?>) args[0]).isInstance(proxy)) {
+                    return proxy;
+                }
+            }
+            case "isWrapperFor" -> {
+                if (((Class<?>) args[0]).isInstance(proxy)) {
+                    return true;
+                }
+            }
+            default -> {
+                // Delegate to the pooled connection
+            }
+        }
+
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.ligera.backend.concurrency;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes the Hikari pool within configured bounds from the connection usage observed by
+ * {@link InstrumentedDataSource}.
+ * <p>
+ * Every interval, Little's law gives the mean number of connections in use as the checkout rate times the
+ * mean hold time. The target pool size is that load, smoothed, plus headroom. When callers waited longer
+ * than the wait threshold the pool also grows by one step, unless hold times rose sharply since the last
+ * growth: then the database itself is the bottleneck and more connections would only add contention.
+ * Growth is applied immediately, shrinking by at most one step per interval.
+ * <p>
+ * Only the primary pool is sized. With a read replica the application DataSource routes each transaction
+ * to one of two pools, so it would unwrap to either; the replica pool keeps its configured size.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.db.pool.adaptive.enabled", havingValue = "true")
+public class ConnectionPoolSizer {
+
+    private final DataSource dataSource;
+
+    @Value("${app.db.pool.adaptive.min-size:5}")
+    private int minSize;
+
+    @Value("${app.db.pool.adaptive.max-size:50}")
+    private int maxSize;
+
+    @Value("${app.db.pool.adaptive.headroom:0.25}")
+    private double headroom;
+
+    @Value("${app.db.pool.adaptive.wait-threshold-ms:5}")
+    private double waitThresholdMs;
+
+    @Value("${app.db.pool.adaptive.step:2}")
+    private int step;
+
+    // Weight of the latest window in the smoothed load
+    private static final double SMOOTHING = 0.3;
+
+    // Hold time increase after a growth that is taken as database saturation
+    private static final double SATURATION_RATIO = 1.5;
+
+    private InstrumentedDataSource instrumented;
+    private HikariConfigMXBean hikariConfig;
+    private AdmissionControlledDataSource admission;
+    private int configuredMinimumIdle;
+
+    private double smoothedLoad = -1;
+    private double holdMsAtLastGrowth = -1;
+    private long lastRunNanos;
+
+    /**
+     * Constructor
+     *
+     * @param primaryPool the primary pool, defined when a read replica is configured
+     * @param dataSource the application DataSource, the pool itself without a read replica
+     */
+    public ConnectionPoolSizer(@Qualifier("primaryDataSource") ObjectProvider<DataSource> primaryPool,
+                               DataSource dataSource) {
+        this.dataSource = primaryPool.getIfAvailable(() -> dataSource);
+    }
+
+    @PostConstruct
+    public void init() {
+        instrumented = unwrap(InstrumentedDataSource.class);
+        HikariDataSource hikari = unwrap(HikariDataSource.class);
+        admission = unwrap(AdmissionControlledDataSource.class);
+        if (instrumented == null || hikari == null) {
+            log.warn("Adaptive pool sizing disabled: requires connection instrumentation and a Hikari pool");
+            return;
+        }
+        hikariConfig = hikari.getHikariConfigMXBean();
+        configuredMinimumIdle = hikariConfig.getMinimumIdle();
+        lastRunNanos = System.nanoTime();
+        log.info("Adaptive pool sizing between {} and {} connections (current: {})",
+                minSize, maxSize, hikariConfig.getMaximumPoolSize());
+    }
+
+    /**
+     * Recompute the target pool size from the last window and apply it
+     */
+    @Scheduled(fixedDelayString = "${app.db.pool.adaptive.interval-ms:10000}")
+    public void resize() {
+        if (hikariConfig == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        double seconds = (now - lastRunNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        lastRunNanos = now;
+        InstrumentedDataSource.Window window = instrumented.drainWindow();
+
+        int current = hikariConfig.getMaximumPoolSize();
+        int target = targetSize(window, seconds, current);
+        if (target != current) {
+            apply(target);
+            log.info("Resized connection pool from {} to {} (load: {}, window: {})",
+                    current, target, String.format("%.2f", smoothedLoad), window);
+        }
+    }
+
+    /**
+     * Compute the pool size for the observed window
+     */
+    private int targetSize(InstrumentedDataSource.Window window, double seconds, int current) {
+        double holdMs = window.releases() > 0 ? window.holdNanos() / 1e6 / window.releases() : 0;
+        double waitMs = window.acquires() > 0 ? window.acquireNanos() / 1e6 / window.acquires() : 0;
+
+        // Little's law: connections in use = checkout rate * mean hold time
+        double load = seconds > 0 ? (window.acquires() / seconds) * (holdMs / 1000) : 0;
+        smoothedLoad = smoothedLoad < 0 ? load : SMOOTHING * load + (1 - SMOOTHING) * smoothedLoad;
+        int target = (int) Math.ceil(smoothedLoad * (1 + headroom));
+
+        if (waitMs > waitThresholdMs) {
+            boolean saturated = holdMsAtLastGrowth > 0 && holdMs > holdMsAtLastGrowth * SATURATION_RATIO;
+            if (saturated) {
+                log.warn("Connection waits of {} ms but hold time rose to {} ms: database saturated, not growing",
+                        String.format("%.1f", waitMs), String.format("%.1f", holdMs));
+                target = Math.min(target, current);
+            } else {
+                target = Math.max(target, current + step);
+            }
+        }
+
+        target = Math.max(minSize, Math.min(maxSize, target));
+        if (target < current) {
+            target = Math.max(target, current - step);
+        } else if (target > current) {
+            holdMsAtLastGrowth = holdMs;
+        }
+        return target;
+    }
+
+    private void apply(int size) {
+        // Keep minimum-idle within the new maximum
+        hikariConfig.setMinimumIdle(Math.min(configuredMinimumIdle, size));
+        hikariConfig.setMaximumPoolSize(size);
+        if (admission != null) {
+            admission.setMaxConcurrent(size);
+        }
+    }
+
+    private <T> T unwrap(Class<T> type) {
+        try {
+            return dataSource.isWrapperFor(type) ? dataSource.unwrap(type) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.ligera.backend.concurrency;
+
+import com.ligera.backend.filter.MetricsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DataSource recording how long callers wait to acquire a connection and how long they hold it.
+ * <p>
+ * Both are published as Micrometer timers with percentile histograms ({@code db.connection.acquire} and
+ * {@code db.connection.hold}), tagged with the endpoint of the current request as {@link MetricsFilter}
+ * normalizes it, so queueing for a connection can be told apart from time spent in the database. Work outside a request is tagged
+ * {@value #NO_ENDPOINT}. Totals are also accumulated in a window drained by {@link ConnectionPoolSizer}.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    public static final String ACQUIRE_METRIC = "db.connection.acquire";
+    public static final String HOLD_METRIC = "db.connection.hold";
+    public static final String NO_ENDPOINT = "none";
+
+    // Bounds the tag cardinality if endpoints are not normalized as expected
+    private static final int MAX_ENDPOINTS = 200;
+    private static final String OTHER_ENDPOINT = "other";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, EndpointTimers> timers = new ConcurrentHashMap<>();
+
+    private final LongAdder windowAcquires = new LongAdder();
+    private final LongAdder windowAcquireNanos = new LongAdder();
+    private final LongAdder windowReleases = new LongAdder();
+    private final LongAdder windowHoldNanos = new LongAdder();
+
+    public InstrumentedDataSource(DataSource target, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(target);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        return instrument(super.getConnection(), start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        return instrument(super.getConnection(username, password), start);
+    }
+
+    /**
+     * Get the connection timers of each endpoint
+     *
+     * @return the acquire and hold timers, by endpoint
+     */
+    public Map<String, EndpointTimers> getEndpointTimers() {
+        return Map.copyOf(timers);
+    }
+
+    /**
+     * Get the totals recorded since the previous call, and start a new window
+     *
+     * @return the window totals
+     */
+    public Window drainWindow() {
+        return new Window(windowAcquires.sumThenReset(), windowAcquireNanos.sumThenReset(),
+                windowReleases.sumThenReset(), windowHoldNanos.sumThenReset());
+    }
+
+    private Connection instrument(Connection connection, long start) {
+        long acquired = System.nanoTime();
+        EndpointTimers endpointTimers = timersFor(currentEndpoint());
+
+        long acquireNanos = acquired - start;
+        windowAcquires.increment();
+        windowAcquireNanos.add(acquireNanos);
+        if (endpointTimers != null) {
+            endpointTimers.acquire().record(acquireNanos, TimeUnit.NANOSECONDS);
+        }
+
+        return CloseNotifyingConnection.wrap(connection, () -> {
+            long holdNanos = System.nanoTime() - acquired;
+            windowReleases.increment();
+            windowHoldNanos.add(holdNanos);
+            if (endpointTimers != null) {
+                endpointTimers.hold().record(holdNanos, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private EndpointTimers timersFor(String endpoint) {
+        EndpointTimers existing = timers.get(endpoint);
+        if (existing != null) {
+            return existing;
+        }
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return null;
+        }
+        String tag = timers.size() < MAX_ENDPOINTS ? endpoint : OTHER_ENDPOINT;
+        return timers.computeIfAbsent(tag, key -> new EndpointTimers(
+                timer(registry, ACQUIRE_METRIC, "Time waiting to acquire a JDBC connection", key),
+                timer(registry, HOLD_METRIC, "Time a JDBC connection is held before being returned", key)));
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description, String endpoint) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    // The security chain runs before MetricsFilter sets the attribute, so the user lookup of an authenticated
+    // request works the endpoint out from the request itself
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object endpoint = attributes.getAttribute(MetricsFilter.ENDPOINT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (endpoint instanceof String name) {
+                return name;
+            }
+            if (attributes instanceof ServletRequestAttributes servletAttributes) {
+                String name = MetricsFilter.getEndpoint(servletAttributes.getRequest());
+                attributes.setAttribute(MetricsFilter.ENDPOINT_ATTRIBUTE, name, RequestAttributes.SCOPE_REQUEST);
+                return name;
+            }
+        }
+        return NO_ENDPOINT;
+    }
+
+    /**
+     * Acquire and hold timers of one endpoint
+     */
+    public record EndpointTimers(Timer acquire, Timer hold) {
+    }
+
+    /**
+     * Connection totals over one sizing window
+     */
+    public record Window(long acquires, long acquireNanos, long releases, long holdNanos) {
+    }
+}
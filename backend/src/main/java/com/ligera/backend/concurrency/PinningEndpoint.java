@@ -0,0 +1,30 @@
+package com.ligera.backend.concurrency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint exposing the virtual thread pinning report
+ */
+@Component
+@Endpoint(id = "pinning")
+@ConditionalOnThreading(Threading.VIRTUAL)
+@RequiredArgsConstructor
+public class PinningEndpoint {
+
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    /**
+     * Get the pinning hot spots recorded since startup
+     */
+    @ReadOperation
+    public List<VirtualThreadPinningMonitor.HotSpotReport> pinning() {
+        return pinningMonitor.getReport();
+    }
+}
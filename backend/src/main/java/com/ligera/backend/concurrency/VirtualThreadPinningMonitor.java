@@ -0,0 +1,149 @@
+package com.ligera.backend.concurrency;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records virtual threads pinned to their carrier thread (blocking inside {@code synchronized} or native
+ * frames) with an in-process JFR stream, and aggregates them by the application frame responsible.
+ * <p>
+ * Only active when virtual threads are enabled. The report is available from the {@code pinning} actuator
+ * endpoint and the top hot spots are logged periodically.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.ligera.";
+    private static final int MAX_HOT_SPOTS = 500;
+
+    @Value("${app.virtual-threads.pinning-threshold-ms:20}")
+    private long thresholdMs;
+
+    private final Map<String, HotSpot> hotSpots = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold: {} ms)", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Get the pinning hot spots, longest total pinned time first
+     *
+     * @return the hot spots
+     */
+    public List<HotSpotReport> getReport() {
+        return hotSpots.entrySet().stream()
+                .map(entry -> entry.getValue().report(entry.getKey()))
+                .sorted(Comparator.comparingLong(HotSpotReport::totalMs).reversed())
+                .toList();
+    }
+
+    /**
+     * Log the top pinning hot spots
+     */
+    @Scheduled(fixedDelayString = "${app.virtual-threads.pinning-report-interval-ms:300000}")
+    public void logReport() {
+        List<HotSpotReport> report = getReport();
+        if (report.isEmpty()) {
+            return;
+        }
+        log.warn("Virtual thread pinning hot spots (top {} of {}):", Math.min(10, report.size()), report.size());
+        report.stream().limit(10).forEach(hotSpot -> log.warn("  {}", hotSpot));
+    }
+
+    private void record(RecordedEvent event) {
+        String location = locate(event.getStackTrace());
+        HotSpot hotSpot = hotSpots.get(location);
+        if (hotSpot == null) {
+            if (hotSpots.size() >= MAX_HOT_SPOTS) {
+                location = "(other)";
+            }
+            hotSpot = hotSpots.computeIfAbsent(location, key -> new HotSpot());
+        }
+        hotSpot.add(event.getDuration().toNanos());
+    }
+
+    /**
+     * Describe where the pinning happened: the first application frame, and the frame that blocked
+     */
+    private static String locate(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "(no stack trace)";
+        }
+
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        String top = describe(frames.get(0));
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                String application = describe(frame);
+                return application.equals(top) ? top : application + " -> " + top;
+            }
+        }
+        return top;
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    /**
+     * Pinning statistics for one location
+     */
+    private static final class HotSpot {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        private HotSpotReport report(String location) {
+            return new HotSpotReport(location, count.sum(),
+                    Duration.ofNanos(totalNanos.sum()).toMillis(), Duration.ofNanos(maxNanos.get()).toMillis());
+        }
+    }
+
+    /**
+     * Pinning summary of one location
+     */
+    public record HotSpotReport(String location, long count, long totalMs, long maxMs) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.ligera.backend.conditional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Answer GET and HEAD requests to a controller method conditionally.
+ * <p>
+ * The expression is evaluated before the method is invoked, after method security, and must return the
+ * {@link ResourceVersion} of the resource, or null to serve the request as usual. Its validators are sent as
+ * {@code ETag} and {@code Last-Modified}; when {@code If-None-Match} or {@code If-Modified-Since} show the
+ * client already holds that version, the method is not invoked and the response is a bodiless 304.
+ * <p>
+ * The expression is SpEL, as for {@code @Cacheable} keys: the controller is the root object, parameters are
+ * available as {@code #name} and beans as {@code @name}. It should be cheaper than the method it guards,
+ * typically reading a version counter without loading or serializing the resource. Annotated methods must
+ * return an object, the method returning null when the request is not modified.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalGet {
+
+    /**
+     * Expression returning the ResourceVersion of the resource
+     */
+    String value();
+}
@@ -0,0 +1,74 @@
+package com.ligera.backend.conditional;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves 304 responses for methods annotated with {@link ConditionalGet}
+ */
+@Slf4j
+public class ConditionalGetInterceptor implements MethodInterceptor {
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<Method, Expression> expressions = new ConcurrentHashMap<>();
+    private final BeanFactoryResolver beanResolver;
+
+    public ConditionalGetInterceptor(BeanFactory beanFactory) {
+        this.beanResolver = new BeanFactoryResolver(beanFactory);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)
+                || attributes.getResponse() == null) {
+            return invocation.proceed();
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return invocation.proceed();
+        }
+
+        ResourceVersion version = resolveVersion(invocation);
+        if (version == null) {
+            return invocation.proceed();
+        }
+
+        // Sets the validators on the response, and the 304 status if they match the request
+        ServletWebRequest webRequest = new ServletWebRequest(request, attributes.getResponse());
+        if (webRequest.checkNotModified(version.entityTag(), version.lastModifiedMillis())) {
+            log.debug("Not modified: {} {}", request.getRequestURI(), version.entityTag());
+            return null;
+        }
+        return invocation.proceed();
+    }
+
+    private ResourceVersion resolveVersion(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        Expression expression = expressions.computeIfAbsent(method, key -> parser.parseExpression(
+                AnnotationUtils.findAnnotation(key, ConditionalGet.class).value()));
+
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(invocation.getThis(), method,
+                invocation.getArguments(), parameterNameDiscoverer);
+        context.setBeanResolver(beanResolver);
+        return expression.getValue(context, ResourceVersion.class);
+    }
+}
@@ -0,0 +1,39 @@
+package com.ligera.backend.conditional;
+
+import com.ligera.backend.models.BaseEntity;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validators of the current representation of a resource, sent as {@code ETag} and {@code Last-Modified}
+ *
+ * @param entityTag the strong entity tag, unquoted
+ * @param lastModified when the resource last changed, null if unknown
+ */
+public record ResourceVersion(String entityTag, Instant lastModified) {
+
+    /**
+     * Validators of an entity, from its id, version counter and update time
+     *
+     * @param entity the entity
+     * @return the validators
+     */
+    public static ResourceVersion of(BaseEntity entity) {
+        return new ResourceVersion(entity.getClass().getSimpleName() + "-" + entity.getId() + "-" + entity.getVersion(),
+                toInstant(entity.getUpdatedAt()));
+    }
+
+    /**
+     * @return the last modification time in epoch milliseconds, -1 if unknown
+     */
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        // Entity timestamps are written in the server time zone
+        return dateTime == null ? null : dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
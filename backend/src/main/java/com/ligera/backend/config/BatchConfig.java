@@ -0,0 +1,54 @@
+package com.ligera.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ligera.backend.batch.BatchDispatcher;
+import com.ligera.backend.batch.BatchProperties;
+import com.ligera.backend.filter.MetricsFilter;
+import com.ligera.backend.service.RateLimitService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.access.WebInvocationPrivilegeEvaluator;
+import org.springframework.security.web.firewall.StrictHttpFirewall;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration for the batch endpoint, which answers several API requests in one call
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.batch.enabled", havingValue = "true", matchIfMissing = true)
+public class BatchConfig {
+
+    /**
+     * Create the dispatcher of batch operations. Its pool is not a bean, which would replace the task
+     * executor Spring Boot provides for @Async methods.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BatchDispatcher batchDispatcher(DispatcherServlet dispatcherServlet,
+                                           WebInvocationPrivilegeEvaluator privilegeEvaluator,
+                                           RateLimitService rateLimitService, MetricsFilter metricsFilter,
+                                           ObjectMapper objectMapper, BatchProperties properties) {
+        int workers = properties.effectiveWorkers();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, daemonThreadFactory());
+        log.info("Batch endpoint: up to {} operations per batch on {} threads", properties.getMaxOperations(),
+                workers);
+        return new BatchDispatcher(dispatcherServlet, privilegeEvaluator, new StrictHttpFirewall(),
+                rateLimitService, metricsFilter, objectMapper, properties, executor);
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
@@ -48,9 +49,10 @@ public class CacheConfig implements CachingConfigurer {
     private long defaultTtl;
 
     /**
-     * Redis connection factory
+     * Redis connection factory, created and connected on first use rather than during startup
      */
     @Bean
+    @Lazy
     public RedisConnectionFactory redisConnectionFactory() {
         RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration();
         redisConfig.setHostName(redisHost);
@@ -60,13 +62,16 @@ public class CacheConfig implements CachingConfigurer {
             redisConfig.setPassword(redisPassword);
         }
         
-        return new LettuceConnectionFactory(redisConfig);
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(redisConfig);
+        connectionFactory.setEagerInitialization(false);
+        return connectionFactory;
     }
 
     /**
      * Redis template for direct Redis operations
      */
     @Bean
+    @Lazy
     public RedisTemplate<String, Object> redisTemplate() {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(redisConnectionFactory());
@@ -82,7 +87,7 @@ public class CacheConfig implements CachingConfigurer {
      * Cache manager configuration with TTL settings for different caches
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(@Lazy RedisConnectionFactory connectionFactory) {
         // Default cache configuration
         RedisCacheConfiguration defaultCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofSeconds(defaultTtl))
@@ -1,43 +1,86 @@
 package com.ligera.backend.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.ligera.backend.compression.BrotliEncoder;
+import com.ligera.backend.compression.CompressionFilter;
+import com.ligera.backend.compression.CompressionProperties;
+import com.ligera.backend.compression.ContentCoding;
+import com.ligera.backend.compression.ContentEncoder;
+import com.ligera.backend.compression.GzipEncoder;
+import com.ligera.backend.compression.PrecompressedCache;
+import com.ligera.backend.compression.ZstdEncoder;
+import com.ligera.backend.filter.MetricsFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.server.Compression;
 import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Configuration for HTTP response compression
+ * Configuration for HTTP response compression.
+ * <p>
+ * Responses are compressed by the {@link CompressionFilter} rather than by Tomcat, which only offers gzip at
+ * a fixed level and compresses identical bodies again on every request. Brotli and zstd are offered when
+ * their native libraries load on this platform.
  */
+@Slf4j
 @Configuration
+@ConditionalOnProperty(name = "app.compression.enabled", havingValue = "true", matchIfMissing = true)
 public class CompressionConfig {
 
-    @Value("${server.compression.enabled:true}")
-    private boolean compressionEnabled;
-    
-    @Value("${server.compression.min-response-size:2048}")
-    private int minResponseSize;
-    
-    @Value("${server.compression.mime-types:application/json,application/xml,text/html,text/plain,text/css,text/javascript,application/javascript}")
-    private String[] mimeTypes;
-    
-    @Value("${server.compression.excluded-user-agents:}")
-    private String[] excludedUserAgents;
-
     /**
-     * Configure response compression
+     * Turn off Tomcat's compression, the filter replaces it
      */
     @Bean
     public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> compressionCustomizer() {
         return factory -> {
             Compression compression = new Compression();
-            compression.setEnabled(compressionEnabled);
-            compression.setMinResponseSize(minResponseSize);
-            compression.setMimeTypes(mimeTypes);
-            compression.setExcludedUserAgents(excludedUserAgents);
+            compression.setEnabled(false);
             factory.setCompression(compression);
         };
     }
-}
 
+    /**
+     * Register the compression filter ahead of every other filter, so that request logging and metrics see
+     * the uncompressed body and error responses written by the security filters are compressed too
+     */
+    @Bean
+    public FilterRegistrationBean<CompressionFilter> compressionFilterRegistration(
+            CompressionProperties properties, MetricsFilter metricsFilter) {
+        List<ContentEncoder> encoders = new ArrayList<>();
+        encoders.add(new GzipEncoder(properties.effectivePoolSize()));
+        if (properties.getCodings().contains(ContentCoding.ZSTD)) {
+            if (ZstdEncoder.isAvailable()) {
+                encoders.add(new ZstdEncoder(properties.effectivePoolSize()));
+            } else {
+                log.warn("zstd native library is not available on this platform, zstd responses are disabled");
+            }
+        }
+        if (properties.getCodings().contains(ContentCoding.BR)) {
+            if (BrotliEncoder.isAvailable()) {
+                encoders.add(new BrotliEncoder());
+            } else {
+                log.warn("Brotli native library is not available on this platform, br responses are disabled");
+            }
+        }
+
+        PrecompressedCache cache = properties.getCache().isEnabled()
+                ? new PrecompressedCache(properties.getCache().getMaxBytes())
+                : null;
+        log.info("Response compression: {} above {} bytes",
+                encoders.stream().map(encoder -> encoder.coding().token()).toList(),
+                properties.getMinResponseSize());
+
+        FilterRegistrationBean<CompressionFilter> registration = new FilterRegistrationBean<>(
+                new CompressionFilter(properties, encoders, cache, metricsFilter));
+        registration.setName("compressionFilter");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
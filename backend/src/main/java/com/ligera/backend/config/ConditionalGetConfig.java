@@ -0,0 +1,34 @@
+package com.ligera.backend.config;
+
+import com.ligera.backend.conditional.ConditionalGet;
+import com.ligera.backend.conditional.ConditionalGetInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuration for conditional GET on methods annotated with {@link ConditionalGet}
+ */
+@Configuration
+public class ConditionalGetConfig {
+
+    /**
+     * Advise annotated methods, after the method security advice so unauthorized callers never learn the
+     * version of a resource
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor conditionalGetAdvisor(BeanFactory beanFactory) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(ConditionalGet.class),
+                new ConditionalGetInterceptor(beanFactory));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return advisor;
+    }
+}
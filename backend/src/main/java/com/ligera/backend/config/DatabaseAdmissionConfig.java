@@ -0,0 +1,66 @@
+package com.ligera.backend.config;
+
+import com.ligera.backend.concurrency.AdmissionControlledDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration for admission control in front of the JDBC connection pool
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.db.admission.enabled", havingValue = "true")
+public class DatabaseAdmissionConfig {
+
+    /**
+     * Wrap the application DataSource so in-flight and waiting database work stays bounded
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceAdmissionControl(Environment environment) {
+        return new AdmissionControlPostProcessor(environment);
+    }
+
+    /**
+     * Wraps DataSource beans, before the connection metrics wrapper so that admission waits are measured
+     */
+    private static final class AdmissionControlPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+
+        private AdmissionControlPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // Routing DataSources delegate to pools that are wrapped themselves
+            if (!(bean instanceof DataSource dataSource) || bean instanceof AdmissionControlledDataSource
+                    || bean instanceof LazyConnectionDataSourceProxy || bean instanceof AbstractRoutingDataSource) {
+                return bean;
+            }
+
+            int maxConcurrent = environment.getProperty("app.db.admission.max-concurrent", Integer.class,
+                    environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+            int maxWaiting = environment.getProperty("app.db.admission.max-waiting", Integer.class, 200);
+            long acquireTimeoutMs = environment.getProperty("app.db.admission.acquire-timeout-ms", Long.class, 5000L);
+
+            log.info("Database admission control on {}: {} concurrent, {} waiting, {} ms timeout",
+                    beanName, maxConcurrent, maxWaiting, acquireTimeoutMs);
+            return new AdmissionControlledDataSource(dataSource, maxConcurrent, maxWaiting, acquireTimeoutMs);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 10;
+        }
+    }
+}
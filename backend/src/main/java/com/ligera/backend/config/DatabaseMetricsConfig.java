@@ -0,0 +1,57 @@
+package com.ligera.backend.config;
+
+import com.ligera.backend.concurrency.InstrumentedDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration for per-endpoint connection acquire and hold metrics
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseMetricsConfig {
+
+    /**
+     * Wrap the application DataSource to time connection acquisition and use
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new MetricsPostProcessor(meterRegistry);
+    }
+
+    /**
+     * Wraps DataSource beans as the outermost wrapper, so acquire times include any admission wait
+     */
+    private static final class MetricsPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        private MetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // Routing DataSources delegate to pools that are wrapped themselves
+            if (!(bean instanceof DataSource dataSource) || bean instanceof InstrumentedDataSource
+                    || bean instanceof LazyConnectionDataSourceProxy || bean instanceof AbstractRoutingDataSource) {
+                return bean;
+            }
+            return new InstrumentedDataSource(dataSource, meterRegistry);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ligera.backend.config;
+
+import com.ligera.backend.models.User;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration for Hibernate's second-level cache, backed by Ehcache through JCache.
+ * <p>
+ * Every region is created up front with a heap tier and an optional off-heap tier, and Hibernate is set to
+ * fail on a region it does not know rather than silently creating an unbounded one.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheConfig {
+
+    // Regions of the cached entities and natural ids
+    private static final List<String> REGIONS = List.of(User.CACHE_REGION, User.NATURAL_ID_CACHE_REGION);
+
+    private static final URI CACHE_MANAGER_URI = URI.create("urn:ligera:hibernate");
+
+    @Value("${app.cache.l2.heap-entries:10000}")
+    private long heapEntries;
+
+    @Value("${app.cache.l2.offheap-mb:64}")
+    private long offheapMb;
+
+    @Value("${app.cache.l2.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${app.cache.l2.statistics:true}")
+    private boolean statistics;
+
+    /**
+     * JCache manager holding the Hibernate regions
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        return createCacheManager(heapEntries, offheapMb, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * Enable the second-level cache on the JPA EntityManagerFactory
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateSecondLevelCache(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+        };
+    }
+
+    /**
+     * Create a cache manager with every region sized alike
+     *
+     * @param heapEntries maximum entries per region on the heap
+     * @param offheapMb size per region of the off-heap tier in MB, 0 for none
+     * @param timeToLive how long an entry is kept after it was written
+     * @return the cache manager
+     */
+    public static CacheManager createCacheManager(long heapEntries, long offheapMb, Duration timeToLive) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(CACHE_MANAGER_URI,
+                new DefaultConfiguration(HibernateCacheConfig.class.getClassLoader()));
+
+        ResourcePoolsBuilder resources = ResourcePoolsBuilder.newResourcePoolsBuilder()
+                .heap(heapEntries, EntryUnit.ENTRIES);
+        if (offheapMb > 0) {
+            resources = resources.offheap(offheapMb, MemoryUnit.MB);
+        }
+        CacheConfigurationBuilder<Object, Object> region = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, resources)
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive));
+
+        for (String name : REGIONS) {
+            if (cacheManager.getCache(name) == null) {
+                cacheManager.createCache(name, Eh107Configuration.fromEhcacheCacheConfiguration(region));
+            }
+        }
+        return cacheManager;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ligera.backend.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for JSON serialization
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Read and write bean properties through accessors generated with LambdaMetafactory rather than through
+     * reflection. Spring Boot registers Module beans with the application ObjectMapper.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -1,3 +1,5 @@
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -38,7 +40,11 @@ public class SecurityConfig {
                 .requestMatchers("/api/v1/auth/**").permitAll()
                 .requestMatchers("/swagger-ui/**").permitAll()
                 .requestMatchers("/v3/api-docs/**").permitAll()
+                // Liveness and readiness probes carry no token; details are still shown to admins only
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
                 // Protected endpoints
+                // Bean timeline, class names and thread stacks are for operators only
+                .requestMatchers(EndpointRequest.to("startup", "pinning")).hasRole("ADMIN")
                 .requestMatchers("/api/v1/users/**").authenticated()
                 .anyRequest().authenticated()
             )
@@ -0,0 +1,124 @@
+package com.ligera.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * Configuration for the deferred startup mode, enabled with
+ * {@code spring.data.jpa.repositories.bootstrap-mode=deferred}.
+ * <p>
+ * Spring Boot then builds the EntityManagerFactory on the application task executor while the rest of the
+ * context, web server included, starts; repositories are initialized once it is built, before the
+ * application reports itself ready. Flyway migrations move onto the same background task, right before
+ * Hibernate validates the schema, instead of blocking startup up front.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.data.jpa.repositories.bootstrap-mode", havingValue = "deferred")
+public class StartupConfig {
+
+    /**
+     * Skip the migration Spring Boot runs before creating the EntityManagerFactory
+     */
+    @Bean
+    public FlywayMigrationStrategy deferredFlywayMigration() {
+        return flyway -> log.debug("Flyway migration deferred to the EntityManagerFactory bootstrap");
+    }
+
+    /**
+     * Run the Flyway migration at the start of the background EntityManagerFactory bootstrap
+     */
+    @Bean
+    public static BeanPostProcessor backgroundFlywayMigration(ObjectProvider<Flyway> flyway) {
+        return new MigratingBootstrapPostProcessor(flyway);
+    }
+
+    /**
+     * Wraps the bootstrap executor of EntityManagerFactory beans, before they submit their bootstrap
+     */
+    private static final class MigratingBootstrapPostProcessor implements BeanPostProcessor {
+
+        private final ObjectProvider<Flyway> flyway;
+
+        private MigratingBootstrapPostProcessor(ObjectProvider<Flyway> flyway) {
+            this.flyway = flyway;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactory) {
+                AsyncTaskExecutor executor = entityManagerFactory.getBootstrapExecutor();
+                if (executor == null) {
+                    // Migrations would never run
+                    throw new IllegalStateException("Deferred startup requires a bootstrap executor for " + beanName);
+                }
+                entityManagerFactory.setBootstrapExecutor(new MigratingExecutor(executor, flyway.getIfAvailable()));
+            }
+            return bean;
+        }
+    }
+
+    /**
+     * Runs the Flyway migration, if any, ahead of each submitted bootstrap task
+     */
+    private record MigratingExecutor(AsyncTaskExecutor delegate, Flyway flyway) implements AsyncTaskExecutor {
+
+        @Override
+        public void execute(Runnable task) {
+            delegate.execute(() -> {
+                long started = migrate();
+                task.run();
+                logBootstrap(started);
+            });
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            return delegate.submit(() -> {
+                long started = migrate();
+                task.run();
+                logBootstrap(started);
+            });
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return delegate.submit(() -> {
+                long started = migrate();
+                T result = task.call();
+                logBootstrap(started);
+                return result;
+            });
+        }
+
+        /**
+         * @return when the bootstrap started
+         */
+        private long migrate() {
+            long started = System.currentTimeMillis();
+            if (flyway != null) {
+                MigrateResult result = flyway.migrate();
+                log.info("Applied {} Flyway migrations in the background in {} ms", result.migrationsExecuted,
+                        System.currentTimeMillis() - started);
+            }
+            return started;
+        }
+
+        private static void logBootstrap(long started) {
+            log.info("EntityManagerFactory bootstrapped in the background in {} ms",
+                    System.currentTimeMillis() - started);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.ligera.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ligera.backend.dtos.response.ApiResponse;
+import com.ligera.backend.imports.UserImportEvent;
+import com.ligera.backend.imports.UserImportReader;
+import com.ligera.backend.imports.UserImportService;
+import com.ligera.backend.repositories.UserSummary;
+import com.ligera.backend.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Controller for user administration
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/users")
+@RequiredArgsConstructor
+@Validated
+@com.ligera.backend.versioning.ApiVersionRequestMapping(version = com.ligera.backend.versioning.ApiVersion.V1)
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "User Administration", description = "Admin API for managing users")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminUserController {
+
+    private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * List users, newest first.
+     * <p>
+     * Pages are fetched by keyset: pass the {@code nextCursor} of a page to get the following one. Every
+     * page costs the same, however deep.
+     *
+     * @param cursor the cursor of the page, omitted for the first page
+     * @param size the page size
+     * @return the page of users
+     */
+    @GetMapping
+    @Operation(summary = "List users", description = "List users newest first, paginated with an opaque cursor")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Page of users"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or size"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Not an administrator")
+    })
+    public ResponseEntity<ApiResponse<List<UserSummary>>> listUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        return ApiResponse.keyset(userService.listUsers(cursor, size), "Users retrieved successfully")
+                .toResponseEntity();
+    }
+
+    /**
+     * Bulk import users from a CSV or NDJSON request body.
+     * <p>
+     * The body is streamed rather than bound, and so is the response: an NDJSON stream of progress events,
+     * one event per rejected row, then a summary, or an error event if the import was rolled back.
+     *
+     * @param request the request, whose body holds the users
+     * @param response the response the events are streamed to
+     */
+    @PostMapping(value = "/import", consumes = {UserImportReader.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk import users",
+            description = "Create users from CSV (name,email,password header) or NDJSON, streaming progress and rejected rows")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200",
+                description = "Import events, ending with a summary or an error"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unreadable import file"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Not an administrator")
+    })
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException, SQLException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        try (UserImportReader reader = UserImportReader.open(request.getInputStream(), contentType,
+                objectMapper.reader())) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            ObjectWriter writer = objectMapper.writerFor(UserImportEvent.class);
+            OutputStream out = response.getOutputStream();
+            try {
+                userImportService.importUsers(reader, event -> writeEvent(writer, out, event));
+            } catch (IOException | SQLException | RuntimeException e) {
+                if (!response.isCommitted()) {
+                    throw e;
+                }
+                log.error("User import failed after streaming started", e);
+                writeEvent(writer, out, new UserImportEvent.Failure("Import failed, no users were imported"));
+            }
+        }
+    }
+
+    private static void writeEvent(ObjectWriter writer, OutputStream out, UserImportEvent event) {
+        try {
+            out.write(writer.writeValueAsBytes(event));
+            out.write('\n');
+            // Rejects are sent along with the next progress event
+            if (!(event instanceof UserImportEvent.Reject)) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.ligera.backend.dtos.request.LoginRequest;
 import com.ligera.backend.dtos.request.PasswordChangeRequest;
 import com.ligera.backend.dtos.request.RegisterRequest;
 import com.ligera.backend.dtos.response.AuthResponse;
+import com.ligera.backend.security.JwtKeyRing;
 import com.ligera.backend.service.AuthenticationService;
+import io.jsonwebtoken.security.JwkSet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -30,6 +32,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthenticationService authenticationService;
+    private final JwtKeyRing jwtKeyRing;
 
     /**
      * Register a new user
@@ -119,5 +122,21 @@ public class AuthController {
             "User profile retrieved successfully"
         ).toResponseEntity();
     }
-}
 
+    /**
+     * Get the public JWT verification keys
+     *
+     * @return JSON Web Key Set with the asymmetric verification keys
+     */
+    @GetMapping("/jwks")
+    @Operation(
+        summary = "Get JWT verification keys", 
+        description = "Publish the public keys used to verify asymmetrically signed tokens as a JSON Web Key Set"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Key set retrieved successfully")
+    })
+    public ResponseEntity<JwkSet> getJwks() {
+        return ResponseEntity.ok(jwtKeyRing.getJwkSet());
+    }
+}
@@ -0,0 +1,60 @@
+package com.ligera.backend.controller;
+
+import com.ligera.backend.batch.BatchDispatcher;
+import com.ligera.backend.dtos.request.BatchRequest;
+import com.ligera.backend.dtos.response.BatchResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for batches of API requests
+ */
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.batch.enabled", havingValue = "true", matchIfMissing = true)
+@com.ligera.backend.versioning.ApiVersionRequestMapping(version = com.ligera.backend.versioning.ApiVersion.V1)
+@PreAuthorize("isAuthenticated()")
+@Tag(name = "Batch", description = "Batch API")
+@SecurityRequirement(name = "bearerAuth")
+public class BatchController {
+
+    private final BatchDispatcher batchDispatcher;
+
+    /**
+     * Send several requests in one call.
+     * <p>
+     * The batch is authenticated and rate limited once, at one token per operation, and its operations are
+     * processed concurrently. The response holds the status, headers and body of every operation, in the
+     * order of the operations; a failed operation does not fail the batch.
+     *
+     * @param batchRequest the operations
+     * @param request the batch request
+     * @return the result of each operation
+     */
+    @PostMapping
+    @Operation(summary = "Send a batch of requests",
+            description = "Process several API requests in one call and return the response of each")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Results of the operations"),
+        @ApiResponse(responseCode = "400", description = "Invalid batch or too many operations"),
+        @ApiResponse(responseCode = "429", description = "Rate limit exceeded by the operations of the batch")
+    })
+    public ResponseEntity<BatchResponse> batch(@Valid @RequestBody BatchRequest batchRequest,
+                                               HttpServletRequest request) {
+        return ResponseEntity.ok(batchDispatcher.dispatch(request, batchRequest.getOperations()));
+    }
+}
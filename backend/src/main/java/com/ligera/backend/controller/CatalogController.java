@@ -0,0 +1,323 @@
+package com.ligera.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ligera.backend.conditional.ConditionalGet;
+import com.ligera.backend.dtos.response.ApiResponse;
+import com.ligera.backend.dtos.response.ProductListingResponse;
+import com.ligera.backend.enums.ProductEventType;
+import com.ligera.backend.ranking.PopularityTracker;
+import com.ligera.backend.ranking.ProductRankings;
+import com.ligera.backend.ranking.RankingKind;
+import com.ligera.backend.repositories.CategorySummary;
+import com.ligera.backend.repositories.ProductSort;
+import com.ligera.backend.repositories.ProductSummary;
+import com.ligera.backend.search.ProductFacet;
+import com.ligera.backend.search.ProductFacetService;
+import com.ligera.backend.search.ProductListing;
+import com.ligera.backend.search.ProductSearchService;
+import com.ligera.backend.service.CatalogService;
+import com.ligera.backend.sync.CatalogChange;
+import com.ligera.backend.sync.CatalogSyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.Principal;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Controller for the product catalog browsed by the mobile app
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Validated
+@com.ligera.backend.versioning.ApiVersionRequestMapping(version = com.ligera.backend.versioning.ApiVersion.V1)
+@PreAuthorize("isAuthenticated()")
+@Tag(name = "Catalog", description = "Product catalog API")
+@SecurityRequirement(name = "bearerAuth")
+public class CatalogController {
+
+    private final CatalogService catalogService;
+    private final CatalogSyncService catalogSyncService;
+    private final ProductSearchService productSearchService;
+    private final ProductFacetService productFacetService;
+    private final ProductRankings productRankings;
+    private final PopularityTracker popularityTracker;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * List products by name or price, optionally within a category.
+     * <p>
+     * Pages are fetched by keyset: pass the {@code nextCursor} of a page, with the same sort, direction and
+     * category, to get the following one. Every page costs the same, however deep.
+     *
+     * @param sort the attribute to sort on, {@code name} or {@code price}
+     * @param direction the sort direction, {@code asc} or {@code desc}
+     * @param category the category to list, omitted for the whole catalog
+     * @param cursor the cursor of the page, omitted for the first page
+     * @param size the page size
+     * @return the page of products
+     */
+    @GetMapping("/products")
+    @Operation(summary = "List products", description = "List products sorted by name or price, paginated with an opaque cursor")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Page of products"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid sort, cursor or size")
+    })
+    public ResponseEntity<ApiResponse<List<ProductSummary>>> listProducts(
+            @RequestParam(defaultValue = "name") @Pattern(regexp = "name|price") String sort,
+            @RequestParam(defaultValue = "asc") @Pattern(regexp = "asc|desc") String direction,
+            @RequestParam(required = false) Long category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        return ApiResponse.keyset(catalogService.listProducts(ProductSort.valueOf(sort.toUpperCase(Locale.ROOT)),
+                        Sort.Direction.fromString(direction), category, cursor, size), "Products retrieved successfully")
+                .toResponseEntity();
+    }
+
+    /**
+     * Search products by name, brand and description.
+     * <p>
+     * Every word must match, the last one as a prefix, and words within one typo match too; results are
+     * ranked by relevance, matches in the name first. Newly saved products are found within about a second.
+     *
+     * @param q the query
+     * @param offset the number of best matches to skip
+     * @param limit the maximum number of products
+     * @return the matching products, best first
+     */
+    @GetMapping("/products/search")
+    @Operation(summary = "Search products", description = "Full-text product search with prefix and typo-tolerant matching")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Matching products"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid query, offset or limit")
+    })
+    public ResponseEntity<ApiResponse<List<ProductSummary>>> searchProducts(
+            @RequestParam @NotBlank @Size(max = 200) String q,
+            @RequestParam(defaultValue = "0") @Min(0) int offset,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        return ApiResponse.success(productSearchService.search(q, offset, limit), "Products retrieved successfully")
+                .toResponseEntity();
+    }
+
+    /**
+     * List products filtered on category, brand, size, price band and stock, with the number of products of
+     * each value of these facets.
+     * <p>
+     * Values of one facet are alternatives and facets are all required, e.g. {@code brand=a&brand=b&inStock=true}
+     * lists the products of either brand that are in stock. The counts of a facet leave out its own filter, so
+     * they tell how many products selecting another value of it would add. Pages are in id order; pass the
+     * {@code nextCursor} of a page, with the same filters, to get the following one.
+     *
+     * @param category the category ids to keep
+     * @param brand the brands to keep
+     * @param size the sizes to keep
+     * @param price the price bands to keep, as named in the counts, e.g. {@code 25-50} or {@code 500-max}
+     * @param inStock whether to keep the products in stock or those out of stock, omitted for both
+     * @param cursor the cursor of the page, omitted for the first page
+     * @param limit the page size
+     * @return the page of products and the facet counts
+     */
+    @GetMapping("/catalog/products")
+    @Operation(summary = "Filter products", description = "List products filtered on facets, with the facet counts")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Page of products and facet counts"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
+    public ResponseEntity<ApiResponse<ProductListingResponse>> filterProducts(
+            @RequestParam(required = false) List<Long> category,
+            @RequestParam(required = false) List<String> brand,
+            @RequestParam(required = false) List<String> size,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        Map<ProductFacet, Set<String>> filters = new EnumMap<>(ProductFacet.class);
+        if (category != null) {
+            filters.put(ProductFacet.CATEGORY, new HashSet<>(category.stream().map(String::valueOf).toList()));
+        }
+        if (brand != null) {
+            filters.put(ProductFacet.BRAND, new HashSet<>(brand));
+        }
+        if (size != null) {
+            filters.put(ProductFacet.SIZE, new HashSet<>(size));
+        }
+        if (price != null) {
+            filters.put(ProductFacet.PRICE, new HashSet<>(price));
+        }
+        if (inStock != null) {
+            filters.put(ProductFacet.IN_STOCK, Set.of(inStock.toString()));
+        }
+        ProductListing listing = productFacetService.list(filters, cursor, limit);
+        return ApiResponse.keyset(new ProductListingResponse(listing.page().content(), listing.facets()),
+                        listing.page(), listing.total(), "Products retrieved successfully")
+                .toResponseEntity();
+    }
+
+    /**
+     * List the most popular products, optionally within a category.
+     * <p>
+     * Popularity counts views, favorites and purchases, recent ones weighing more; the list is recomputed
+     * every minute or so and revalidates with {@code If-None-Match} until it changes.
+     *
+     * @param category the category to list, omitted for the whole catalog
+     * @param limit the maximum number of products
+     * @return the products, most popular first
+     */
+    @GetMapping("/products/popular")
+    @ConditionalGet("@productRankings.getPopularVersion(#category)")
+    @Operation(summary = "List popular products", description = "List the products with the most recent views, favorites and purchases")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Popular products"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "List not modified"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    public ResponseEntity<ApiResponse<List<ProductSummary>>> listPopularProducts(
+            @RequestParam(required = false) Long category,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        return ApiResponse.success(productRankings.getList(RankingKind.POPULAR, category, limit),
+                        "Products retrieved successfully")
+                .toResponseEntity();
+    }
+
+    /**
+     * List the featured products, optionally within a category, the most popular first
+     *
+     * @param category the category to list, omitted for the whole catalog
+     * @param limit the maximum number of products
+     * @return the featured products
+     */
+    @GetMapping("/products/featured")
+    @ConditionalGet("@productRankings.getFeaturedVersion(#category)")
+    @Operation(summary = "List featured products", description = "List the featured products, the most popular first")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Featured products"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "List not modified"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    public ResponseEntity<ApiResponse<List<ProductSummary>>> listFeaturedProducts(
+            @RequestParam(required = false) Long category,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        return ApiResponse.success(productRankings.getList(RankingKind.FEATURED, category, limit),
+                        "Products retrieved successfully")
+                .toResponseEntity();
+    }
+
+    /**
+     * Report that the user viewed or favorited a product, counted towards its popularity.
+     * <p>
+     * A user counts once per product and kind of event within the event window; events replayed within it
+     * are accepted but not counted. Purchases are not reported by clients.
+     *
+     * @param id the product id
+     * @param type the kind of event, {@code view} or {@code favorite}
+     * @param principal the user reporting the event
+     * @return an empty response
+     */
+    @PostMapping("/products/{id}/events")
+    @Operation(summary = "Report a product event", description = "Count a view or favorite towards the popularity of a product")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Event recorded"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid event type"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    public ResponseEntity<ApiResponse<Void>> recordProductEvent(
+            @PathVariable @Min(1) long id,
+            @RequestParam @Pattern(regexp = "view|favorite") String type,
+            Principal principal) {
+        catalogService.requireProduct(id);
+        popularityTracker.record(principal.getName(), id, ProductEventType.valueOf(type.toUpperCase(Locale.ROOT)));
+        return ApiResponse.success("Event recorded").toResponseEntity();
+    }
+
+    /**
+     * List the categories of the menu
+     *
+     * @return the active menu categories, in menu order
+     */
+    @GetMapping("/categories")
+    @Operation(summary = "List categories", description = "List the active categories shown in the menu")
+    public ResponseEntity<ApiResponse<List<CategorySummary>>> listCategories() {
+        return ApiResponse.success(catalogService.listCategories(), "Categories retrieved successfully")
+                .toResponseEntity();
+    }
+
+    /**
+     * Stream the catalog changes after a sequence number, for devices keeping a replica of the catalog.
+     * <p>
+     * The response is an NDJSON stream of category and product changes and tombstones, in chunks each ending
+     * with a checkpoint. Clients apply each chunk in one transaction and call again with the sequence number
+     * of the last checkpoint applied, until a checkpoint says there is no more. A stream cut short is
+     * resumed the same way.
+     *
+     * @param since the sequence number of the last checkpoint applied, 0 for a first sync
+     * @param snapshot whether the client got a reset and has not caught up since
+     * @param response the response the changes are streamed to
+     */
+    @GetMapping(value = "/catalog/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Catalog change feed",
+            description = "Stream catalog changes after a sequence number as NDJSON chunks ending with checkpoints")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200",
+                description = "Changes, or a reset and a snapshot for clients too far behind"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid sequence number")
+    })
+    public void streamChanges(@RequestParam(defaultValue = "0") @Min(0) long since,
+                              @RequestParam(defaultValue = "false") boolean snapshot,
+                              HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ObjectWriter writer = objectMapper.writerFor(CatalogChange.class);
+        OutputStream out = response.getOutputStream();
+        try {
+            catalogSyncService.streamChanges(since, snapshot, change -> writeChange(writer, out, change));
+        } catch (RuntimeException e) {
+            if (!response.isCommitted()) {
+                throw e;
+            }
+            // The client keeps what it applied up to the last checkpoint and resumes from there
+            log.warn("Catalog change feed from {} cut short: {}", since, e.getMessage());
+        }
+    }
+
+    private static void writeChange(ObjectWriter writer, OutputStream out, CatalogChange change) {
+        try {
+            out.write(writer.writeValueAsBytes(change));
+            out.write('\n');
+            // Chunks are sent whole, the client applies nothing before their checkpoint anyway
+            if (change instanceof CatalogChange.Checkpoint) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
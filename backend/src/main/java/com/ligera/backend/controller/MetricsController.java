@@ -1,24 +1,41 @@
 package com.ligera.backend.controller;
 
+import com.ligera.backend.concurrency.InstrumentedDataSource;
+import com.ligera.backend.conditional.ConditionalGet;
+import com.ligera.backend.conditional.ResourceVersion;
 import com.ligera.backend.dtos.response.ApiResponse;
 import com.ligera.backend.filter.MetricsFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.sql.DataSource;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.MemoryUsage;
 import java.lang.management.RuntimeMXBean;
+import java.security.SecureRandom;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Controller for application metrics and monitoring
@@ -30,7 +47,18 @@ import java.util.Map;
 @com.ligera.backend.versioning.ApiVersionRequestMapping(version = com.ligera.backend.versioning.ApiVersion.V1)
 public class MetricsController {
 
+    // Tells the snapshots of this instance from those of other instances serving the same URL
+    private static final String INSTANCE_TAG = Long.toHexString(new SecureRandom().nextLong());
+
     private final MetricsFilter metricsFilter;
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.metrics.snapshot-ttl-ms:1000}")
+    private long snapshotTtlMs;
+
+    private final AtomicLong snapshotGeneration = new AtomicLong();
+    private volatile MetricsSnapshot snapshot;
 
     /**
      * Get system metrics including memory usage, uptime, etc.
@@ -42,7 +70,33 @@ public class MetricsController {
         security = { @SecurityRequirement(name = "bearerAuth") }
     )
     @PreAuthorize("hasRole('ADMIN')")
+    @ConditionalGet("getMetricsVersion()")
     public ApiResponse<Map<String, Object>> getMetrics() {
+        return ApiResponse.success(currentSnapshot().metrics(), "System metrics retrieved successfully");
+    }
+    
+    /**
+     * Get the version of the metrics served by {@link #getMetrics()}, which only change once the snapshot
+     * expires
+     */
+    public ResourceVersion getMetricsVersion() {
+        return new ResourceVersion("metrics-" + INSTANCE_TAG + "-" + currentSnapshot().generation(), null);
+    }
+    
+    /**
+     * Get the metrics snapshot, taking a new one if it expired
+     */
+    private MetricsSnapshot currentSnapshot() {
+        MetricsSnapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        if (current == null || now - current.takenAt() >= snapshotTtlMs) {
+            current = new MetricsSnapshot(snapshotGeneration.incrementAndGet(), now, collectMetrics());
+            snapshot = current;
+        }
+        return current;
+    }
+    
+    private Map<String, Object> collectMetrics() {
         Map<String, Object> metrics = new HashMap<>();
         
         // JVM memory metrics
@@ -74,7 +128,19 @@ public class MetricsController {
         // Available processors
         metrics.put("availableProcessors", Runtime.getRuntime().availableProcessors());
         
-        return ApiResponse.success(metrics, "System metrics retrieved successfully");
+        // Connection pool usage and per-endpoint connection timings
+        metrics.put("connectionPool", getConnectionPoolMetrics());
+        
+        // Hibernate second-level cache hits and misses per region
+        metrics.put("secondLevelCache", getSecondLevelCacheMetrics());
+        
+        // Response compression ratio and CPU time per byte by content coding
+        metrics.put("compression", metricsFilter.getCompressionMetrics());
+        
+        // Batches and the operations they carried
+        metrics.put("batch", metricsFilter.getBatchMetrics());
+        
+        return metrics;
     }
     
     /**
@@ -89,14 +155,110 @@ public class MetricsController {
     @PreAuthorize("hasRole('ADMIN')")
     public ApiResponse<Void> resetMetrics() {
         metricsFilter.resetMetrics();
+        snapshot = null;
         return ApiResponse.success("Metrics reset successfully");
     }
     
+    /**
+     * Get connection pool state and, when instrumented, per-endpoint acquire and hold times
+     */
+    private Map<String, Object> getConnectionPoolMetrics() {
+        Map<String, Object> poolMetrics = new HashMap<>();
+        
+        HikariDataSource hikari = unwrap(HikariDataSource.class);
+        if (hikari != null && hikari.getHikariPoolMXBean() != null) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            poolMetrics.put("maximumPoolSize", hikari.getHikariConfigMXBean().getMaximumPoolSize());
+            poolMetrics.put("activeConnections", pool.getActiveConnections());
+            poolMetrics.put("idleConnections", pool.getIdleConnections());
+            poolMetrics.put("threadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+        }
+        
+        InstrumentedDataSource instrumented = unwrap(InstrumentedDataSource.class);
+        if (instrumented != null) {
+            Map<String, Object> endpoints = new HashMap<>();
+            instrumented.getEndpointTimers().forEach((endpoint, timers) -> {
+                Map<String, Object> endpointMetrics = new HashMap<>();
+                endpointMetrics.put("connections", timers.acquire().count());
+                endpointMetrics.put("acquire", timerSummary(timers.acquire()));
+                endpointMetrics.put("hold", timerSummary(timers.hold()));
+                endpoints.put(endpoint, endpointMetrics);
+            });
+            poolMetrics.put("endpoints", endpoints);
+        }
+        
+        return poolMetrics;
+    }
+    
+    /**
+     * Get second-level cache statistics per region, empty when the cache or statistics are disabled
+     */
+    private Map<String, Object> getSecondLevelCacheMetrics() {
+        Map<String, Object> cacheMetrics = new HashMap<>();
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return cacheMetrics;
+        }
+        
+        Map<String, Object> regions = new HashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            Map<String, Object> regionMetrics = new HashMap<>();
+            regionMetrics.put("hits", regionStatistics.getHitCount());
+            regionMetrics.put("misses", regionStatistics.getMissCount());
+            regionMetrics.put("puts", regionStatistics.getPutCount());
+            regionMetrics.put("hitRatio", hitRatio(regionStatistics.getHitCount(), regionStatistics.getMissCount()));
+            regions.put(region, regionMetrics);
+        }
+        cacheMetrics.put("regions", regions);
+        cacheMetrics.put("hits", statistics.getSecondLevelCacheHitCount());
+        cacheMetrics.put("misses", statistics.getSecondLevelCacheMissCount());
+        cacheMetrics.put("naturalIdHits", statistics.getNaturalIdCacheHitCount());
+        cacheMetrics.put("naturalIdMisses", statistics.getNaturalIdCacheMissCount());
+        
+        return cacheMetrics;
+    }
+    
+    private double hitRatio(long hits, long misses) {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+    
+    /**
+     * Summarize a timer as mean, max and percentiles in milliseconds
+     */
+    private Map<String, Object> timerSummary(Timer timer) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("meanMs", timer.mean(TimeUnit.MILLISECONDS));
+        summary.put("maxMs", timer.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            summary.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return summary;
+    }
+    
+    private <T> T unwrap(Class<T> type) {
+        try {
+            return dataSource.isWrapperFor(type) ? dataSource.unwrap(type) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+    
     /**
      * Convert bytes to MB for more readable output
      */
     private double bytesToMB(long bytes) {
         return (double) bytes / (1024 * 1024);
     }
+    
+    /**
+     * Metrics collected at one point in time, served until they are older than the snapshot TTL
+     */
+    private record MetricsSnapshot(long generation, long takenAt, Map<String, Object> metrics) {
+    }
 }
 
@@ -1,5 +1,6 @@
 package com.ligera.backend.controller;
 
+import com.ligera.backend.conditional.ConditionalGet;
 import com.ligera.backend.dtos.request.UpdateProfileRequest;
 import com.ligera.backend.dtos.response.UserResponse;
 import com.ligera.backend.models.User;
@@ -30,11 +31,12 @@ public class UserController {
     private final UserService userService;
 
     /**
-     * Get current user profile
+     * Get current user profile, or 304 when the client holds its current version
      *
      * @return user profile data
      */
     @GetMapping("/me")
+    @ConditionalGet("@userService.getCurrentUserVersion()")
     @Operation(summary = "Get current user", description = "Retrieve the authenticated user's profile")
     public ResponseEntity<UserResponse> getCurrentUser() {
         return ResponseEntity.ok(userService.getCurrentUserProfile());
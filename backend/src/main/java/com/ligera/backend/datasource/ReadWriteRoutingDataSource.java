@@ -0,0 +1,92 @@
+package com.ligera.backend.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes read-only transactions to the read replica and everything else to the primary.
+ * <p>
+ * Reads fall back to the primary when the replica lags too far behind ({@link ReplicaLagMonitor}) or when
+ * the current user wrote within the stickiness window ({@link ReadYourWritesTracker}), so users always see
+ * their own changes. Committed write transactions mark their user as sticky.
+ * <p>
+ * The read-only flag of a transaction is only known once it has begun, so this DataSource must be wrapped
+ * in a {@code LazyConnectionDataSourceProxy}, which defers the routing decision to the first statement.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Target data sources
+     */
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+
+    private final LongAdder primaryRoutes = new LongAdder();
+    private final LongAdder replicaRoutes = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWrites) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = route();
+        (route == Route.REPLICA ? replicaRoutes : primaryRoutes).increment();
+        return route;
+    }
+
+    /**
+     * Get the number of connections routed to each target since startup
+     *
+     * @return the connection counts by route
+     */
+    public Map<Route, Long> getRouteCounts() {
+        return Map.of(Route.PRIMARY, primaryRoutes.sum(), Route.REPLICA, replicaRoutes.sum());
+    }
+
+    private Route route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return Route.PRIMARY;
+        }
+
+        String key = readYourWrites.currentKey();
+        if (readYourWrites.isSticky(key)) {
+            log.debug("Routing read of {} to the primary after a recent write", key);
+            return Route.PRIMARY;
+        }
+        return lagMonitor.isReplicaUsable() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    /**
+     * Mark the current user as sticky once the write transaction commits
+     */
+    private void trackWrite() {
+        String key = readYourWrites.currentKey();
+        if (key == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.markWrite(key);
+            }
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.ligera.backend.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which users wrote recently, so that their reads stay on the primary until replicas have caught
+ * up with their own changes.
+ * <p>
+ * Users are identified by the authenticated principal's name (the email), or by a key set explicitly with
+ * {@link #callAs(String, Supplier)} when no one is authenticated yet, e.g. while loading the user for login.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<String> KEY_OVERRIDE = new ThreadLocal<>();
+
+    @Value("${app.datasource.replica.stickiness-ms:5000}")
+    private long stickinessMs;
+
+    // Time of the last write per user, as System.nanoTime()
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Record a write by a user, keeping their reads on the primary for the stickiness window
+     *
+     * @param key the user key
+     */
+    public void markWrite(String key) {
+        if (key != null) {
+            lastWrites.put(key, System.nanoTime());
+        }
+    }
+
+    /**
+     * Check whether a user wrote within the stickiness window
+     *
+     * @param key the user key
+     * @return true if the user's reads must go to the primary
+     */
+    public boolean isSticky(String key) {
+        Long lastWrite = key != null ? lastWrites.get(key) : null;
+        return lastWrite != null && System.nanoTime() - lastWrite < TimeUnit.MILLISECONDS.toNanos(stickinessMs);
+    }
+
+    /**
+     * Get the key of the user on whose behalf the current thread works
+     *
+     * @return the user key, or null if unknown
+     */
+    public String currentKey() {
+        String override = KEY_OVERRIDE.get();
+        if (override != null) {
+            return override;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Run an action on behalf of a user that is not (yet) the authenticated principal
+     *
+     * @param key the user key
+     * @param action the action
+     * @return the action's result
+     */
+    public <T> T callAs(String key, Supplier<T> action) {
+        String previous = KEY_OVERRIDE.get();
+        KEY_OVERRIDE.set(key);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                KEY_OVERRIDE.set(previous);
+            } else {
+                KEY_OVERRIDE.remove();
+            }
+        }
+    }
+
+    /**
+     * Forget writes older than the stickiness window
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.stickiness-ms:5000}")
+    public void evictExpired() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(stickinessMs);
+        lastWrites.values().removeIf(lastWrite -> lastWrite - cutoff < 0);
+    }
+}
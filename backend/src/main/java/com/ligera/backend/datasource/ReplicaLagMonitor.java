@@ -0,0 +1,86 @@
+package com.ligera.backend.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Polls the replication lag of the read replica and decides whether it may serve reads.
+ * <p>
+ * The replica is usable while its lag is at most {@code maxLagMs}. It is taken out of rotation when it
+ * lags further behind or cannot be queried, and brought back on the first healthy check. Until the first
+ * check has run, reads go to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * PostgreSQL lag in milliseconds: zero when the replica has replayed everything it received, so that an
+     * idle primary does not look like growing lag
+     */
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE"
+            + " WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagMs;
+
+    private volatile long lagMs = -1;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMs) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+    }
+
+    /**
+     * Measure the replica lag and update its usability
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            lagMs = resultSet.next() ? (long) resultSet.getDouble(1) : 0;
+            usable = lagMs <= maxLagMs;
+            if (wasUsable && !usable) {
+                log.warn("Read replica lags {} ms behind (max {} ms), routing reads to the primary", lagMs, maxLagMs);
+            }
+        } catch (SQLException e) {
+            lagMs = -1;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Read replica unavailable, routing reads to the primary: {}", e.getMessage());
+            }
+        }
+        if (!wasUsable && usable) {
+            log.info("Read replica usable (lag {} ms)", lagMs);
+        }
+    }
+
+    /**
+     * Check whether the replica may serve reads
+     *
+     * @return true if the replica was reachable and within the lag limit on the last check
+     */
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    /**
+     * Get the replica lag measured on the last check
+     *
+     * @return the lag in milliseconds, or -1 if the replica could not be queried
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ligera.backend.dtos.request;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object for a batch of API requests sent in one call
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequest {
+
+    @NotEmpty(message = "At least one operation is required")
+    @Valid
+    private List<Operation> operations;
+
+    /**
+     * One request of the batch
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Operation {
+
+        // Returned with the result; defaults to the index of the operation
+        private String id;
+
+        @Builder.Default
+        private String method = "GET";
+
+        // Path below the context path, with its query, e.g. /api/v1/users/me
+        @NotBlank(message = "Path is required")
+        @Pattern(regexp = "/[^#]*", message = "Path must start with / and have no fragment")
+        private String path;
+
+        // Added to the headers of the batch request, replacing those of the same name
+        private Map<String, String> headers;
+
+        private JsonNode body;
+    }
+}
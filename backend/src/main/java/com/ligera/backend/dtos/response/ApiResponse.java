@@ -1,6 +1,8 @@
 package com.ligera.backend.dtos.response;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ligera.backend.json.CachedClock;
+import com.ligera.backend.pagination.KeysetPage;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,8 +26,11 @@ import java.util.Map;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ApiResponse<T> {
 
+    private static final String SUCCESS = "success";
+    private static final String ERROR = "error";
+
     @Builder.Default
-    private LocalDateTime timestamp = LocalDateTime.now();
+    private LocalDateTime timestamp = CachedClock.now();
     
     private String status;
     private int code;
@@ -43,12 +48,7 @@ public class ApiResponse<T> {
      * @return API response
      */
     public static <T> ApiResponse<T> success(T data, String message) {
-        return ApiResponse.<T>builder()
-                .status("success")
-                .code(HttpStatus.OK.value())
-                .message(message)
-                .data(data)
-                .build();
+        return new ApiResponse<>(CachedClock.now(), SUCCESS, HttpStatus.OK.value(), message, data, null, null);
     }
 
     /**
@@ -81,12 +81,7 @@ public class ApiResponse<T> {
      * @return API response
      */
     public static <T> ApiResponse<T> created(T data, String message) {
-        return ApiResponse.<T>builder()
-                .status("success")
-                .code(HttpStatus.CREATED.value())
-                .message(message)
-                .data(data)
-                .build();
+        return new ApiResponse<>(CachedClock.now(), SUCCESS, HttpStatus.CREATED.value(), message, data, null, null);
     }
 
     /**
@@ -108,11 +103,7 @@ public class ApiResponse<T> {
      * @return API response
      */
     public static ApiResponse<Void> error(HttpStatus status, String message) {
-        return ApiResponse.<Void>builder()
-                .status("error")
-                .code(status.value())
-                .message(message)
-                .build();
+        return new ApiResponse<>(CachedClock.now(), ERROR, status.value(), message, null, null, null);
     }
 
     /**
@@ -124,12 +115,7 @@ public class ApiResponse<T> {
      * @return API response
      */
     public static ApiResponse<Void> error(HttpStatus status, String message, Map<String, String> errors) {
-        return ApiResponse.<Void>builder()
-                .status("error")
-                .code(status.value())
-                .message(message)
-                .errors(errors)
-                .build();
+        return new ApiResponse<>(CachedClock.now(), ERROR, status.value(), message, null, errors, null);
     }
 
     /**
@@ -191,13 +177,8 @@ public class ApiResponse<T> {
      * @return API response
      */
     public static <T> ApiResponse<List<T>> paginated(Page<T> data, String message) {
-        return ApiResponse.<List<T>>builder()
-                .status("success")
-                .code(HttpStatus.OK.value())
-                .message(message)
-                .data(data.getContent())
-                .meta(Meta.fromPage(data))
-                .build();
+        return new ApiResponse<>(CachedClock.now(), SUCCESS, HttpStatus.OK.value(), message, data.getContent(), null,
+                Meta.fromPage(data));
     }
 
     /**
@@ -211,6 +192,35 @@ public class ApiResponse<T> {
         return paginated(data, "Data retrieved successfully");
     }
 
+    /**
+     * Keyset-paginated response
+     * 
+     * @param page page of data
+     * @param message success message
+     * @param <T> type of data
+     * @return API response
+     */
+    public static <T> ApiResponse<List<T>> keyset(KeysetPage<T> page, String message) {
+        return new ApiResponse<>(CachedClock.now(), SUCCESS, HttpStatus.OK.value(), message, page.content(), null,
+                Meta.fromKeysetPage(page));
+    }
+
+    /**
+     * Keyset-paginated response whose rows come with other data, such as facet counts
+     * 
+     * @param data response data, holding the rows of the page
+     * @param page page the rows come from
+     * @param totalElements total number of rows across pages
+     * @param message success message
+     * @param <T> type of data
+     * @return API response
+     */
+    public static <T> ApiResponse<T> keyset(T data, KeysetPage<?> page, long totalElements, String message) {
+        Meta meta = Meta.fromKeysetPage(page);
+        meta.setTotalElements(totalElements);
+        return new ApiResponse<>(CachedClock.now(), SUCCESS, HttpStatus.OK.value(), message, data, null, meta);
+    }
+
     /**
      * Convert to ResponseEntity
      * 
@@ -231,20 +241,25 @@ public class ApiResponse<T> {
     }
 
     /**
-     * Metadata for paginated responses
+     * Metadata for paginated responses.
+     * <p>
+     * Offset pages report their number and totals; keyset pages report the cursor of the next page instead,
+     * since counting the rows would cost as much as reading them.
      */
     @Data
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class Meta {
-        private int page;
+        private Integer page;
         private int size;
-        private long totalElements;
-        private int totalPages;
-        private boolean first;
+        private Long totalElements;
+        private Integer totalPages;
+        private Boolean first;
         private boolean last;
         private boolean empty;
+        private String nextCursor;
 
         /**
          * Create Meta from a Page object
@@ -253,15 +268,19 @@ public class ApiResponse<T> {
          * @return Meta object
          */
         public static Meta fromPage(Page<?> page) {
-            return Meta.builder()
-                    .page(page.getNumber())
-                    .size(page.getSize())
-                    .totalElements(page.getTotalElements())
-                    .totalPages(page.getTotalPages())
-                    .first(page.isFirst())
-                    .last(page.isLast())
-                    .empty(page.isEmpty())
-                    .build();
+            return new Meta(page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages(),
+                    page.isFirst(), page.isLast(), page.isEmpty(), null);
+        }
+
+        /**
+         * Create Meta from a keyset page
+         * 
+         * @param page the keyset page
+         * @return Meta object
+         */
+        public static Meta fromKeysetPage(KeysetPage<?> page) {
+            return new Meta(null, page.size(), null, null, null, page.nextCursor() == null,
+                    page.content().isEmpty(), page.nextCursor());
         }
     }
 }
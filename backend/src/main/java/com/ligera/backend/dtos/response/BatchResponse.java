@@ -0,0 +1,44 @@
+package com.ligera.backend.dtos.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object for the results of a batch, in the order of its operations
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponse {
+
+    private List<Result> results;
+
+    /**
+     * Response to one operation of the batch
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Result {
+
+        private String id;
+
+        private int status;
+
+        private Map<String, String> headers;
+
+        // JSON as the handler wrote it, embedded without parsing it again
+        @JsonRawValue
+        private String body;
+    }
+}
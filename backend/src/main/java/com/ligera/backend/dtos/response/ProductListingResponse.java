@@ -0,0 +1,25 @@
+package com.ligera.backend.dtos.response;
+
+import com.ligera.backend.repositories.ProductSummary;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object for a page of the filtered product listing, with the facet counts
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductListingResponse {
+
+    private List<ProductSummary> products;
+
+    // Facet name to value to number of matching products, most frequent values first
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,9 @@
+package com.ligera.backend.enums;
+
+/**
+ * Enum representing the kinds of entities replicated by the catalog change feed
+ */
+public enum CatalogEntityType {
+    CATEGORY,
+    PRODUCT
+}
@@ -0,0 +1,10 @@
+package com.ligera.backend.enums;
+
+/**
+ * Enum representing the kinds of product interactions counted towards popularity
+ */
+public enum ProductEventType {
+    VIEW,
+    FAVORITE,
+    PURCHASE
+}
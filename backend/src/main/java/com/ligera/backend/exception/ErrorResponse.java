@@ -1,6 +1,10 @@
 package com.ligera.backend.exception;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.ligera.backend.json.ErrorResponseSerializer;
+import com.ligera.backend.json.ErrorTemplate;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,6 +23,7 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonSerialize(using = ErrorResponseSerializer.class)
 public class ErrorResponse {
 
     private LocalDateTime timestamp;
@@ -30,6 +35,10 @@ public class ErrorResponse {
     @Builder.Default
     private List<ValidationError> validationErrors = new ArrayList<>();
     
+    // Template the response was created from, whose status, error and message are written pre-encoded
+    @JsonIgnore
+    private ErrorTemplate template;
+    
     /**
      * Validation error details
      */
@@ -52,5 +61,20 @@ public class ErrorResponse {
             validationErrors.add(new ValidationError(field, message))
         );
     }
+    
+    /**
+     * Add a validation error, unless the field already has one
+     * 
+     * @param field the field name
+     * @param message the error message
+     */
+    public void addValidationError(String field, String message) {
+        for (ValidationError validationError : validationErrors) {
+            if (validationError.getField().equals(field)) {
+                return;
+            }
+        }
+        validationErrors.add(new ValidationError(field, message));
+    }
 }
 
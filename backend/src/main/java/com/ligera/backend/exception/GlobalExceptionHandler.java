@@ -1,5 +1,7 @@
 package com.ligera.backend.exception;
 
+import com.ligera.backend.json.CachedClock;
+import com.ligera.backend.json.ErrorTemplate;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,6 +12,7 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
@@ -18,6 +21,7 @@ import org.springframework.security.authentication.AuthenticationServiceExceptio
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -25,11 +29,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Global exception handler for the application
@@ -39,6 +39,26 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Errors with a fixed message, encoded once
+    private static final ErrorTemplate PASSWORD_VALIDATION_FAILED = ErrorTemplate.of(HttpStatus.BAD_REQUEST,
+            "Password validation failed");
+    private static final ErrorTemplate ACCESS_DENIED = ErrorTemplate.of(HttpStatus.FORBIDDEN,
+            "You don't have permission to access this resource");
+    private static final ErrorTemplate VALIDATION_FAILED = ErrorTemplate.of(HttpStatus.BAD_REQUEST,
+            "Validation failed for request");
+    private static final ErrorTemplate CONSTRAINT_VIOLATION = ErrorTemplate.of(HttpStatus.BAD_REQUEST,
+            "Constraint violation");
+    private static final ErrorTemplate BINDING_FAILED = ErrorTemplate.of(HttpStatus.BAD_REQUEST,
+            "Binding failed for request");
+    private static final ErrorTemplate CONCURRENT_MODIFICATION = ErrorTemplate.of(HttpStatus.CONFLICT,
+            "The resource was modified concurrently, reload it and retry");
+    private static final ErrorTemplate INTERNAL_ERROR = ErrorTemplate.of(HttpStatus.INTERNAL_SERVER_ERROR,
+            "An internal server error occurred");
+    private static final ErrorTemplate SERVICE_BUSY = ErrorTemplate.of(HttpStatus.SERVICE_UNAVAILABLE,
+            "The service is busy. Please try again shortly.");
+    private static final ErrorTemplate UNEXPECTED_ERROR = ErrorTemplate.of(HttpStatus.INTERNAL_SERVER_ERROR,
+            "An unexpected error occurred. Please try again later.");
+
     /**
      * Handle password validation exceptions
      */
@@ -53,21 +73,13 @@ public class GlobalExceptionHandler {
             PasswordValidationException ex, HttpServletRequest request) {
         log.warn("Password validation failed: {}", ex.getMessage());
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.BAD_REQUEST.value())
-                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
-                .message("Password validation failed")
-                .path(request.getRequestURI())
-                .build();
+        ErrorResponse errorResponse = PASSWORD_VALIDATION_FAILED.toResponse(request.getRequestURI());
         
         // Add validation errors as field errors
-        Map<String, String> fieldErrors = new HashMap<>();
         List<String> errors = ex.getValidationErrors();
         for (int i = 0; i < errors.size(); i++) {
-            fieldErrors.put("passwordRequirement" + (i+1), errors.get(i));
+            errorResponse.addValidationError("passwordRequirement" + (i+1), errors.get(i));
         }
-        errorResponse.addValidationErrors(fieldErrors);
 
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
@@ -86,7 +98,7 @@ public class GlobalExceptionHandler {
         log.error("Authentication error: {}", ex.getMessage());
 
         ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
+                .timestamp(CachedClock.now())
                 .status(HttpStatus.UNAUTHORIZED.value())
                 .error(HttpStatus.UNAUTHORIZED.getReasonPhrase())
                 .message(ex.getMessage())
@@ -109,13 +121,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleAccessDeniedException(AccessDeniedException ex, HttpServletRequest request) {
         log.error("Access denied: {}", ex.getMessage());
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.FORBIDDEN.value())
-                .error(HttpStatus.FORBIDDEN.getReasonPhrase())
-                .message("You don't have permission to access this resource")
-                .path(request.getRequestURI())
-                .build();
+        ErrorResponse errorResponse = ACCESS_DENIED.toResponse(request.getRequestURI());
 
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
     }
@@ -134,7 +140,7 @@ public class GlobalExceptionHandler {
         log.error("Authentication failed: {}", ex.getMessage());
 
         ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
+                .timestamp(CachedClock.now())
                 .status(HttpStatus.UNAUTHORIZED.value())
                 .error(HttpStatus.UNAUTHORIZED.getReasonPhrase())
                 .message("Authentication failed: " + ex.getMessage())
@@ -158,7 +164,7 @@ public class GlobalExceptionHandler {
         log.error("User not found: {}", ex.getMessage());
 
         ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
+                .timestamp(CachedClock.now())
                 .status(HttpStatus.NOT_FOUND.value())
                 .error(HttpStatus.NOT_FOUND.getReasonPhrase())
                 .message(ex.getMessage())
@@ -181,24 +187,9 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex, HttpServletRequest request) {
         log.error("Validation error: {}", ex.getMessage());
 
-        Map<String, String> fieldErrors = ex.getBindingResult()
-                .getFieldErrors()
-                .stream()
-                .collect(Collectors.toMap(
-                        FieldError::getField,
-                        error -> error.getDefaultMessage() == null ? "Invalid value" : error.getDefaultMessage(),
-                        (error1, error2) -> error1
-                ));
-
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.BAD_REQUEST.value())
-                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
-                .message("Validation failed for request")
-                .path(request.getRequestURI())
-                .build();
+        ErrorResponse errorResponse = VALIDATION_FAILED.toResponse(request.getRequestURI());
 
-        errorResponse.addValidationErrors(fieldErrors);
+        addFieldErrors(errorResponse, ex.getBindingResult().getFieldErrors());
 
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
@@ -216,24 +207,14 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleConstraintViolationException(ConstraintViolationException ex, HttpServletRequest request) {
         log.error("Constraint violation: {}", ex.getMessage());
 
-        Map<String, String> fieldErrors = new HashMap<>();
+        ErrorResponse errorResponse = CONSTRAINT_VIOLATION.toResponse(request.getRequestURI());
 
         for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
             String propertyPath = violation.getPropertyPath().toString();
             String field = propertyPath.substring(propertyPath.lastIndexOf('.') + 1);
-            fieldErrors.put(field, violation.getMessage());
+            errorResponse.addValidationError(field, violation.getMessage());
         }
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.BAD_REQUEST.value())
-                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
-                .message("Constraint violation")
-                .path(request.getRequestURI())
-                .build();
-
-        errorResponse.addValidationErrors(fieldErrors);
-
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
@@ -250,24 +231,9 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleBindException(BindException ex, HttpServletRequest request) {
         log.error("Binding error: {}", ex.getMessage());
 
-        Map<String, String> fieldErrors = ex.getBindingResult()
-                .getFieldErrors()
-                .stream()
-                .collect(Collectors.toMap(
-                        FieldError::getField,
-                        error -> error.getDefaultMessage() == null ? "Invalid value" : error.getDefaultMessage(),
-                        (error1, error2) -> error1
-                ));
+        ErrorResponse errorResponse = BINDING_FAILED.toResponse(request.getRequestURI());
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.BAD_REQUEST.value())
-                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
-                .message("Binding failed for request")
-                .path(request.getRequestURI())
-                .build();
-
-        errorResponse.addValidationErrors(fieldErrors);
+        addFieldErrors(errorResponse, ex.getBindingResult().getFieldErrors());
 
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
@@ -286,7 +252,7 @@ public class GlobalExceptionHandler {
         log.error("Entity not found: {}", ex.getMessage());
 
         ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
+                .timestamp(CachedClock.now())
                 .status(HttpStatus.NOT_FOUND.value())
                 .error(HttpStatus.NOT_FOUND.getReasonPhrase())
                 .message(ex.getMessage())
@@ -296,6 +262,78 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handle pagination cursors that cannot be decoded
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid page cursor",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+    )
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException ex, HttpServletRequest request) {
+        log.warn("Invalid page cursor: {}", request.getParameter("cursor"));
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(CachedClock.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handle batches that cannot be accepted, such as batches with too many operations
+     */
+    @ExceptionHandler(InvalidBatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid batch",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+    )
+    public ResponseEntity<ErrorResponse> handleInvalidBatchException(InvalidBatchException ex, HttpServletRequest request) {
+        log.warn("Invalid batch: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(CachedClock.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handle import files that cannot be read
+     */
+    @ExceptionHandler(ImportFormatException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid import file",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+    )
+    public ResponseEntity<ErrorResponse> handleImportFormatException(ImportFormatException ex, HttpServletRequest request) {
+        log.warn("Invalid import file: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(CachedClock.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handle data integrity violation exceptions
      */
@@ -320,7 +358,7 @@ public class GlobalExceptionHandler {
         }
 
         ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
+                .timestamp(CachedClock.now())
                 .status(HttpStatus.CONFLICT.value())
                 .error(HttpStatus.CONFLICT.getReasonPhrase())
                 .message(message)
@@ -330,6 +368,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Handle updates of an entity changed since it was read
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ApiResponse(
+            responseCode = "409",
+            description = "Concurrent modification",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+    )
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        log.warn("Concurrent modification: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = CONCURRENT_MODIFICATION.toResponse(request.getRequestURI());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handle all other runtime exceptions
      */
@@ -343,13 +399,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex, HttpServletRequest request) {
         log.error("Runtime exception: ", ex);
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-                .error(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
-                .message("An internal server error occurred")
-                .path(request.getRequestURI())
-                .build();
+        ErrorResponse errorResponse = INTERNAL_ERROR.toResponse(request.getRequestURI());
 
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
@@ -368,7 +418,7 @@ public class GlobalExceptionHandler {
         log.warn("Rate limit exceeded: {}", request.getRemoteAddr());
 
         ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
+                .timestamp(CachedClock.now())
                 .status(HttpStatus.TOO_MANY_REQUESTS.value())
                 .error("Too Many Requests")
                 .message(ex.getMessage())
@@ -384,6 +434,31 @@ public class GlobalExceptionHandler {
                 .body(errorResponse);
     }
 
+    /**
+     * Handle requests that could not obtain a database connection, e.g. rejected by admission control
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ApiResponse(
+            responseCode = "503",
+            description = "Database temporarily unavailable",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+    )
+    public ResponseEntity<ErrorResponse> handleCannotCreateTransactionException(
+            CannotCreateTransactionException ex, HttpServletRequest request) {
+        log.warn("Could not obtain database connection: {}", ex.getMostSpecificCause().getMessage());
+
+        ErrorResponse errorResponse = SERVICE_BUSY.toResponse(request.getRequestURI());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Retry-After", "1");
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .headers(headers)
+                .body(errorResponse);
+    }
+
     /**
      * Handle all other exceptions
      */
@@ -397,14 +472,18 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleException(Exception ex, HttpServletRequest request) {
         log.error("Unhandled exception: ", ex);
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-                .error(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
-                .message("An unexpected error occurred. Please try again later.")
-                .path(request.getRequestURI())
-                .build();
+        ErrorResponse errorResponse = UNEXPECTED_ERROR.toResponse(request.getRequestURI());
 
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    /**
+     * Add the first error of each field, without a message falling back to "Invalid value"
+     */
+    private static void addFieldErrors(ErrorResponse errorResponse, List<FieldError> fieldErrors) {
+        for (FieldError fieldError : fieldErrors) {
+            String message = fieldError.getDefaultMessage();
+            errorResponse.addValidationError(fieldError.getField(), message == null ? "Invalid value" : message);
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package com.ligera.backend.exception;
+
+/**
+ * Exception thrown when an import file cannot be read at all, e.g. a CSV file without the required columns
+ */
+public class ImportFormatException extends RuntimeException {
+
+    public ImportFormatException(String message) {
+        super(message);
+    }
+}
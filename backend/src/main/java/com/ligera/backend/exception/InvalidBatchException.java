@@ -0,0 +1,11 @@
+package com.ligera.backend.exception;
+
+/**
+ * Exception thrown when a batch of requests cannot be accepted as a whole
+ */
+public class InvalidBatchException extends RuntimeException {
+
+    public InvalidBatchException(String message) {
+        super(message);
+    }
+}
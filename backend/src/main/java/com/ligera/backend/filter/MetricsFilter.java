@@ -10,9 +10,11 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Filter to collect metrics about API requests
@@ -22,6 +24,9 @@ import java.util.concurrent.atomic.AtomicLong;
 @Order(2) // Execute after rate limiting
 public class MetricsFilter implements Filter {
 
+    // Request attribute holding the normalized endpoint, used to tag metrics recorded further down the stack
+    public static final String ENDPOINT_ATTRIBUTE = MetricsFilter.class.getName() + ".endpoint";
+
     // Metrics counters
     private final AtomicLong totalRequests = new AtomicLong(0);
     private final AtomicLong successfulRequests = new AtomicLong(0);
@@ -34,6 +39,14 @@ public class MetricsFilter implements Filter {
     private final AtomicLong requestCount = new AtomicLong(0);
     private final AtomicLong maxResponseTimeMs = new AtomicLong(0);
     
+    // Response compression metrics per content coding
+    private final Map<String, CompressionCounters> compressionCounters = new ConcurrentHashMap<>();
+    
+    // Batch metrics; the operations of a batch are also counted as endpoint hits
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchOperations = new LongAdder();
+    private final LongAdder failedBatchOperations = new LongAdder();
+    
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) 
             throws IOException, ServletException {
@@ -61,6 +74,7 @@ public class MetricsFilter implements Filter {
         // Track endpoint hits
         String endpoint = getEndpoint(httpRequest);
         endpointHits.computeIfAbsent(endpoint, k -> new AtomicLong()).incrementAndGet();
+        httpRequest.setAttribute(ENDPOINT_ATTRIBUTE, endpoint);
         
         try {
             // Process the request
@@ -151,7 +165,7 @@ public class MetricsFilter implements Filter {
      * Get a normalized endpoint path
      * Groups similar endpoints like /users/123 and /users/456 as /users/{id}
      */
-    private String getEndpoint(HttpServletRequest request) {
+    public static String getEndpoint(HttpServletRequest request) {
         String uri = request.getRequestURI();
         String method = request.getMethod();
         
@@ -178,6 +192,84 @@ public class MetricsFilter implements Filter {
                path.contains("/v3/api-docs/");
     }
     
+    /**
+     * Record a compressed response body
+     *
+     * @param coding the content coding token, such as gzip
+     * @param bytesIn the size of the body before compression
+     * @param bytesOut the size of the compressed body
+     * @param cpuNanos the CPU time spent compressing, or looking up the cached body
+     * @param cached whether the compressed body came from the cache of pre-compressed bodies
+     */
+    public void recordCompression(String coding, long bytesIn, long bytesOut, long cpuNanos, boolean cached) {
+        CompressionCounters counters = compressionCounters.computeIfAbsent(coding, k -> new CompressionCounters());
+        counters.responses.increment();
+        if (cached) {
+            counters.cachedResponses.increment();
+        }
+        counters.bytesIn.add(bytesIn);
+        counters.bytesOut.add(bytesOut);
+        counters.cpuNanos.add(cpuNanos);
+    }
+    
+    /**
+     * Get compression ratio (bytes in per byte out) and CPU time per uncompressed byte for each coding
+     */
+    public Map<String, Object> getCompressionMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        compressionCounters.forEach((coding, counters) -> {
+            long bytesIn = counters.bytesIn.sum();
+            long bytesOut = counters.bytesOut.sum();
+            Map<String, Object> codingMetrics = new HashMap<>();
+            codingMetrics.put("responses", counters.responses.sum());
+            codingMetrics.put("cachedResponses", counters.cachedResponses.sum());
+            codingMetrics.put("bytesIn", bytesIn);
+            codingMetrics.put("bytesOut", bytesOut);
+            codingMetrics.put("ratio", bytesOut == 0 ? 0 : (double) bytesIn / bytesOut);
+            codingMetrics.put("cpuNanosPerByte", bytesIn == 0 ? 0 : (double) counters.cpuNanos.sum() / bytesIn);
+            metrics.put(coding, codingMetrics);
+        });
+        return metrics;
+    }
+    
+    /**
+     * Record a batch of requests dispatched in one call
+     *
+     * @param operations the number of operations in the batch
+     */
+    public void recordBatch(int operations) {
+        batches.increment();
+        batchOperations.add(operations);
+    }
+    
+    /**
+     * Record one operation of a batch as a hit of its endpoint
+     *
+     * @param endpoint the normalized endpoint of the operation
+     * @param statusCode the status of the operation
+     */
+    public void recordBatchOperation(String endpoint, int statusCode) {
+        endpointHits.computeIfAbsent(endpoint, k -> new AtomicLong()).incrementAndGet();
+        statusCodeCounts.computeIfAbsent(statusCode, k -> new AtomicLong()).incrementAndGet();
+        if (statusCode >= 400) {
+            failedBatchOperations.increment();
+        }
+    }
+    
+    /**
+     * Get the number of batches and the operations they carried
+     */
+    public Map<String, Object> getBatchMetrics() {
+        long batchCount = batches.sum();
+        long operations = batchOperations.sum();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("batches", batchCount);
+        metrics.put("operations", operations);
+        metrics.put("failedOperations", failedBatchOperations.sum());
+        metrics.put("operationsPerBatch", batchCount == 0 ? 0 : (double) operations / batchCount);
+        return metrics;
+    }
+    
     /**
      * Reset all metrics (for admin purposes)
      */
@@ -190,6 +282,21 @@ public class MetricsFilter implements Filter {
         totalResponseTimeMs.set(0);
         requestCount.set(0);
         maxResponseTimeMs.set(0);
+        compressionCounters.clear();
+        batches.reset();
+        batchOperations.reset();
+        failedBatchOperations.reset();
+    }
+    
+    /**
+     * Compression counters of one content coding
+     */
+    private static final class CompressionCounters {
+        private final LongAdder responses = new LongAdder();
+        private final LongAdder cachedResponses = new LongAdder();
+        private final LongAdder bytesIn = new LongAdder();
+        private final LongAdder bytesOut = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
     }
 }
 
@@ -0,0 +1,49 @@
+package com.ligera.backend.imports;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+/**
+ * Event reported while a bulk user import runs, streamed to the client as one JSON line each
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(UserImportEvent.Progress.class),
+        @JsonSubTypes.Type(UserImportEvent.Reject.class),
+        @JsonSubTypes.Type(UserImportEvent.Summary.class),
+        @JsonSubTypes.Type(UserImportEvent.Failure.class)
+})
+public sealed interface UserImportEvent {
+
+    /**
+     * Rows read so far, and how many of them were staged for insertion or rejected
+     */
+    @JsonTypeName("progress")
+    record Progress(String phase, long processed, long staged, long rejected) implements UserImportEvent {
+    }
+
+    /**
+     * A row that was not imported
+     */
+    @JsonTypeName("reject")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Reject(long line, String email, String reason) implements UserImportEvent {
+    }
+
+    /**
+     * Final outcome; skipped rows were valid but lost a race with a concurrent registration of their email
+     */
+    @JsonTypeName("summary")
+    record Summary(long processed, long imported, long rejected, long skipped, long durationMs)
+            implements UserImportEvent {
+    }
+
+    /**
+     * The import failed after streaming had started and was rolled back
+     */
+    @JsonTypeName("error")
+    record Failure(String message) implements UserImportEvent {
+    }
+}
@@ -0,0 +1,251 @@
+package com.ligera.backend.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ligera.backend.exception.ImportFormatException;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming reader of users to import, one record at a time.
+ * <p>
+ * CSV files start with a header naming the {@code name}, {@code email} and {@code password} columns, in any
+ * order, and follow RFC 4180 quoting. NDJSON files hold one object with these fields per line. Records that
+ * cannot be read are returned as rejected rows, so one bad line does not abort the import.
+ */
+public abstract class UserImportReader implements Closeable {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
+    protected final BufferedReader reader;
+    protected long lineNumber;
+
+    private UserImportReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    /**
+     * Open a reader for the format of a request body
+     *
+     * @param in the request body
+     * @param contentType its content type, text/csv or application/x-ndjson
+     * @param jsonReader the JSON reader used for NDJSON lines
+     * @return the reader
+     * @throws IOException if the CSV header cannot be read
+     * @throws ImportFormatException if the format is not supported or the CSV header is invalid
+     */
+    public static UserImportReader open(InputStream in, MediaType contentType, ObjectReader jsonReader)
+            throws IOException {
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return new Csv(in);
+        }
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return new Ndjson(in, jsonReader);
+        }
+        throw new ImportFormatException("Unsupported import format: " + contentType);
+    }
+
+    /**
+     * Read the next record
+     *
+     * @return the next row, possibly rejected, or null at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    public abstract UserImportRow next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * RFC 4180 CSV with a header line
+     */
+    private static final class Csv extends UserImportReader {
+
+        private final int nameColumn;
+        private final int emailColumn;
+        private final int passwordColumn;
+        private final int columnCount;
+        private final StringBuilder field = new StringBuilder();
+
+        private Csv(InputStream in) throws IOException {
+            super(in);
+            List<String> header;
+            try {
+                header = readRecord();
+            } catch (MalformedRecordException e) {
+                throw new ImportFormatException("Malformed CSV header: " + e.getMessage());
+            }
+            if (header == null) {
+                throw new ImportFormatException("CSV import is empty");
+            }
+            int name = -1;
+            int email = -1;
+            int password = -1;
+            for (int i = 0; i < header.size(); i++) {
+                switch (header.get(i).trim().toLowerCase(Locale.ROOT)) {
+                    case "name" -> name = i;
+                    case "email" -> email = i;
+                    case "password" -> password = i;
+                    default -> {
+                        // Extra columns are ignored
+                    }
+                }
+            }
+            if (name < 0 || email < 0 || password < 0) {
+                throw new ImportFormatException("CSV header must contain name, email and password columns");
+            }
+            this.nameColumn = name;
+            this.emailColumn = email;
+            this.passwordColumn = password;
+            this.columnCount = Math.max(name, Math.max(email, password)) + 1;
+        }
+
+        @Override
+        public UserImportRow next() throws IOException {
+            while (true) {
+                long line = lineNumber + 1;
+                List<String> record;
+                try {
+                    record = readRecord();
+                } catch (MalformedRecordException e) {
+                    return UserImportRow.rejected(line, null, e.getMessage());
+                }
+                if (record == null) {
+                    return null;
+                }
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                if (record.size() < columnCount) {
+                    String email = record.size() > emailColumn ? record.get(emailColumn) : null;
+                    return UserImportRow.rejected(line, email, "Expected at least " + columnCount + " columns");
+                }
+                return new UserImportRow(line, record.get(nameColumn), record.get(emailColumn),
+                        record.get(passwordColumn), null);
+            }
+        }
+
+        /**
+         * Read one record, which spans several lines when a quoted field contains line breaks
+         *
+         * @return the fields, or null at the end of the input
+         */
+        private List<String> readRecord() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+
+            List<String> fields = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean afterQuote = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // The quoted field continues on the next line
+                    line = reader.readLine();
+                    if (line == null) {
+                        throw new MalformedRecordException("Unterminated quoted field");
+                    }
+                    lineNumber++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                    }
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    afterQuote = false;
+                } else if (afterQuote) {
+                    // The rest of the line is dropped with the record
+                    throw new MalformedRecordException("Unexpected character after quoted field");
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /**
+     * One JSON object per line
+     */
+    private static final class Ndjson extends UserImportReader {
+
+        private final ObjectReader jsonReader;
+
+        private Ndjson(InputStream in, ObjectReader jsonReader) {
+            super(in);
+            this.jsonReader = jsonReader;
+        }
+
+        @Override
+        public UserImportRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                lineNumber++;
+            } while (line.isBlank());
+
+            JsonNode node;
+            try {
+                node = jsonReader.readTree(line);
+            } catch (JsonProcessingException e) {
+                return UserImportRow.rejected(lineNumber, null, "Malformed JSON");
+            }
+            if (!node.isObject()) {
+                return UserImportRow.rejected(lineNumber, null, "Expected a JSON object");
+            }
+            return new UserImportRow(lineNumber, text(node, "name"), text(node, "email"),
+                    text(node, "password"), null);
+        }
+
+        private static String text(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+    }
+
+    private static final class MalformedRecordException extends IOException {
+
+        private MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ligera.backend.imports;
+
+/**
+ * One user read from an import file
+ *
+ * @param line the line the record starts on, 1-based and counting the CSV header
+ * @param name the user name
+ * @param email the email as read, or lower-cased once processed
+ * @param password the plain-text password as read, or its hash once processed
+ * @param rejectReason why the row cannot be imported, null for a valid row
+ */
+public record UserImportRow(long line, String name, String email, String password, String rejectReason) {
+
+    static UserImportRow rejected(long line, String email, String reason) {
+        return new UserImportRow(line, null, email, null, reason);
+    }
+
+    UserImportRow reject(String reason) {
+        return rejected(line, email, reason);
+    }
+
+    UserImportRow accept(String normalizedEmail, String passwordHash) {
+        return new UserImportRow(line, name, normalizedEmail, passwordHash, null);
+    }
+
+    public boolean isRejected() {
+        return rejectReason != null;
+    }
+}
@@ -0,0 +1,343 @@
+package com.ligera.backend.imports;
+
+import com.ligera.backend.dtos.request.RegisterRequest;
+import com.ligera.backend.enums.AccountStatus;
+import com.ligera.backend.enums.Role;
+import com.ligera.backend.models.User;
+import com.ligera.backend.security.validation.PasswordValidator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import of users into PostgreSQL.
+ * <p>
+ * Rows are read from the stream in chunks and validated and BCrypt-hashed on a worker pool, with a bounded
+ * number of chunks in flight so memory stays flat whatever the size of the file. Processed chunks are
+ * written in order with {@code COPY ... FROM STDIN} into a temporary staging table, which is then merged
+ * into {@code users} with set-based statements instead of one {@code existsByEmail} and one insert per
+ * user. Everything runs in one transaction: either all valid rows are imported or none.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMP TABLE user_import_staging (
+                line BIGINT NOT NULL,
+                name VARCHAR(50) NOT NULL,
+                email VARCHAR(100) NOT NULL,
+                password VARCHAR(255) NOT NULL
+            ) ON COMMIT DROP""";
+
+    private static final String COPY_STAGING = "COPY user_import_staging (line, name, email, password) FROM STDIN";
+
+    private static final String DELETE_DUPLICATES = """
+            DELETE FROM user_import_staging s
+            USING user_import_staging kept
+            WHERE s.email = kept.email AND s.line > kept.line
+            RETURNING s.line, s.email""";
+
+    private static final String DELETE_EXISTING = """
+            DELETE FROM user_import_staging s
+            USING users u
+            WHERE u.email = s.email
+            RETURNING s.line, s.email""";
+
+    // Ids come from the users_seq column default
+    private static final String MERGE = """
+            INSERT INTO users (name, email, password, role, account_status, created_at, updated_at)
+            SELECT name, email, password, ?, ?, now(), now()
+            FROM user_import_staging
+            ORDER BY line
+            ON CONFLICT DO NOTHING""";
+
+    private static final int MAX_EMAIL_LENGTH = 100;
+
+    private final DataSource dataSource;
+    private final PasswordValidator passwordValidator;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+
+    @Value("${app.import.workers:0}")
+    private int workers;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.import.max-in-flight-chunks:0}")
+    private int maxInFlightChunks;
+
+    @Value("${app.import.progress-interval:10000}")
+    private int progressInterval;
+
+    private ExecutorService executor;
+    private int inFlightLimit;
+
+    @PostConstruct
+    void start() {
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(threads, daemonThreadFactory());
+        inFlightLimit = maxInFlightChunks > 0 ? maxInFlightChunks : threads * 2;
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Import users as new, active accounts with the USER role
+     *
+     * @param reader the rows to import
+     * @param events receives progress, every rejected row and the summary, on the calling thread
+     * @return the summary, also sent to {@code events}
+     * @throws IOException if the input cannot be read
+     * @throws SQLException if staging or merging fails, in which case nothing is imported
+     */
+    public UserImportEvent.Summary importUsers(UserImportReader reader, Consumer<UserImportEvent> events)
+            throws IOException, SQLException {
+        long started = System.currentTimeMillis();
+        Counters counters = new Counters();
+
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                throw new IllegalStateException("Bulk user import requires PostgreSQL");
+            }
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_STAGING_TABLE);
+                }
+                stage(reader, connection.unwrap(PGConnection.class), events, counters);
+                events.accept(counters.progress("merging"));
+                long imported = merge(connection, events, counters);
+                connection.commit();
+
+                UserImportEvent.Summary summary = new UserImportEvent.Summary(counters.processed, imported,
+                        counters.rejected, counters.staged - imported, System.currentTimeMillis() - started);
+                log.info("Imported {} of {} users ({} rejected, {} skipped) in {} ms", imported,
+                        summary.processed(), summary.rejected(), summary.skipped(), summary.durationMs());
+                events.accept(summary);
+                return summary;
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Validate and hash rows on the worker pool and copy the valid ones into the staging table, in input order
+     */
+    private void stage(UserImportReader reader, PGConnection connection, Consumer<UserImportEvent> events,
+                       Counters counters) throws IOException, SQLException {
+        Deque<Future<List<UserImportRow>>> inFlight = new ArrayDeque<>();
+        PGCopyOutputStream copy = new PGCopyOutputStream(connection, COPY_STAGING, 1 << 16);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), 1 << 16)) {
+            List<UserImportRow> chunk = new ArrayList<>(chunkSize);
+            UserImportRow row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    inFlight.add(submit(chunk));
+                    chunk = new ArrayList<>(chunkSize);
+                    if (inFlight.size() >= inFlightLimit) {
+                        write(inFlight.poll(), out, events, counters);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.add(submit(chunk));
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), out, events, counters);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Future<List<UserImportRow>> submit(List<UserImportRow> chunk) {
+        return executor.submit(() -> {
+            List<UserImportRow> processed = new ArrayList<>(chunk.size());
+            for (UserImportRow row : chunk) {
+                processed.add(process(row));
+            }
+            return processed;
+        });
+    }
+
+    /**
+     * Apply the registration rules to a row and hash its password
+     */
+    private UserImportRow process(UserImportRow row) {
+        if (row.isRejected()) {
+            return row;
+        }
+
+        Set<ConstraintViolation<RegisterRequest>> violations =
+                validator.validate(new RegisterRequest(row.name(), row.email(), row.password()));
+        if (!violations.isEmpty()) {
+            return row.reject(violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(ConstraintViolation::getMessage)
+                    .reduce((first, second) -> first + "; " + second)
+                    .orElseThrow());
+        }
+        if (row.email().length() > MAX_EMAIL_LENGTH) {
+            return row.reject("Email must be at most " + MAX_EMAIL_LENGTH + " characters");
+        }
+
+        PasswordValidator.ValidationResult result = passwordValidator.validate(row.password());
+        if (!result.valid()) {
+            return row.reject(String.join("; ", result.errors()));
+        }
+        return row.accept(User.normalizeEmail(row.email()), passwordEncoder.encode(row.password()));
+    }
+
+    private void write(Future<List<UserImportRow>> future, Writer out, Consumer<UserImportEvent> events,
+                       Counters counters) throws IOException {
+        List<UserImportRow> rows;
+        try {
+            rows = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("User import interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Processing import rows failed", e.getCause());
+        }
+
+        for (UserImportRow row : rows) {
+            if (row.isRejected()) {
+                counters.rejected++;
+                events.accept(new UserImportEvent.Reject(row.line(), row.email(), row.rejectReason()));
+            } else {
+                out.write(Long.toString(row.line()));
+                out.write('\t');
+                writeCopyText(out, row.name());
+                out.write('\t');
+                writeCopyText(out, row.email());
+                out.write('\t');
+                writeCopyText(out, row.password());
+                out.write('\n');
+                counters.staged++;
+            }
+            if (++counters.processed % progressInterval == 0) {
+                events.accept(counters.progress("staging"));
+            }
+        }
+    }
+
+    /**
+     * Drop rows whose email is taken, then insert the rest
+     *
+     * @return the number of users inserted
+     */
+    private long merge(Connection connection, Consumer<UserImportEvent> events, Counters counters)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX ON user_import_staging (email)");
+            statement.execute("ANALYZE user_import_staging");
+        }
+        reject(connection, DELETE_DUPLICATES, "Duplicate email in import", events, counters);
+        reject(connection, DELETE_EXISTING, "Email already in use", events, counters);
+
+        try (PreparedStatement statement = connection.prepareStatement(MERGE)) {
+            statement.setString(1, Role.USER.name());
+            statement.setString(2, AccountStatus.ACTIVE.name());
+            return statement.executeLargeUpdate();
+        }
+    }
+
+    private static void reject(Connection connection, String sql, String reason, Consumer<UserImportEvent> events,
+                               Counters counters) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setFetchSize(1000);
+            try (ResultSet rows = statement.executeQuery(sql)) {
+                while (rows.next()) {
+                    counters.staged--;
+                    counters.rejected++;
+                    events.accept(new UserImportEvent.Reject(rows.getLong(1), rows.getString(2), reason));
+                }
+            }
+        }
+    }
+
+    /**
+     * Write a value in the COPY text format, escaping the delimiter, line breaks and backslashes
+     */
+    private static void writeCopyText(Writer out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.write("\\\\");
+                case '\t' -> out.write("\\t");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                default -> out.write(c);
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "user-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Running totals, only updated by the importing thread
+     */
+    private static final class Counters {
+
+        private long processed;
+        private long staged;
+        private long rejected;
+
+        private UserImportEvent.Progress progress(String phase) {
+            return new UserImportEvent.Progress(phase, processed, staged, rejected);
+        }
+    }
+}
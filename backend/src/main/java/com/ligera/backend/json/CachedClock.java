@@ -0,0 +1,41 @@
+package com.ligera.backend.json;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Clock for response timestamps, at millisecond granularity. {@link LocalDateTime#now()} looks up the default
+ * zone and converts the instant on every call; here the conversion is done once per millisecond and the
+ * same instance is returned to every caller within it.
+ */
+public final class CachedClock {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static volatile Tick tick = new Tick(Long.MIN_VALUE, null);
+
+    private CachedClock() {
+    }
+
+    /**
+     * Get the current local date-time, truncated to the millisecond
+     */
+    public static LocalDateTime now() {
+        long millis = System.currentTimeMillis();
+        Tick current = tick;
+        if (current.millis() == millis) {
+            return current.dateTime();
+        }
+        LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE);
+        tick = new Tick(millis, dateTime);
+        return dateTime;
+    }
+
+    /**
+     * Date-time of one millisecond, published as a whole so readers never pair one millisecond with another's
+     * date-time
+     */
+    private record Tick(long millis, LocalDateTime dateTime) {
+    }
+}
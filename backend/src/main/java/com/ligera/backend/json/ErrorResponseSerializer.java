@@ -0,0 +1,82 @@
+package com.ligera.backend.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.ligera.backend.exception.ErrorResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes {@link ErrorResponse}s with field names encoded once, and their status, error and message copied
+ * from the pre-encoded fragment of their {@link ErrorTemplate}. The output is the same as the bean serializer
+ * with NON_NULL inclusion: fields in declaration order, null fields left out.
+ */
+public class ErrorResponseSerializer extends StdSerializer<ErrorResponse> {
+
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString ERROR = new SerializedString("error");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString PATH = new SerializedString("path");
+    private static final SerializableString VALIDATION_ERRORS = new SerializedString("validationErrors");
+    private static final SerializableString FIELD = new SerializedString("field");
+
+    public ErrorResponseSerializer() {
+        super(ErrorResponse.class);
+    }
+
+    @Override
+    public void serialize(ErrorResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+
+        // The fragment starts with a comma, so it can only follow a field; the generator does not track raw
+        // content, and only plain JSON output without indentation takes it as it is
+        ErrorTemplate template = value.getTimestamp() != null && gen instanceof JsonGeneratorImpl
+                && gen.getPrettyPrinter() == null ? ErrorTemplate.forResponse(value) : null;
+
+        if (value.getTimestamp() != null) {
+            gen.writeFieldName(TIMESTAMP);
+            provider.defaultSerializeValue(value.getTimestamp(), gen);
+        }
+        if (template != null) {
+            gen.writeRaw(template.fragment());
+        } else {
+            gen.writeFieldName(STATUS);
+            gen.writeNumber(value.getStatus());
+            writeString(gen, ERROR, value.getError());
+        }
+        if (template == null || !template.hasMessage()) {
+            writeString(gen, MESSAGE, value.getMessage());
+        }
+        writeString(gen, PATH, value.getPath());
+
+        List<ErrorResponse.ValidationError> validationErrors = value.getValidationErrors();
+        if (validationErrors != null) {
+            gen.writeFieldName(VALIDATION_ERRORS);
+            gen.writeStartArray(validationErrors, validationErrors.size());
+            for (ErrorResponse.ValidationError validationError : validationErrors) {
+                gen.writeStartObject(validationError);
+                gen.writeFieldName(FIELD);
+                gen.writeString(validationError.getField());
+                gen.writeFieldName(MESSAGE);
+                gen.writeString(validationError.getMessage());
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+
+        gen.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+}
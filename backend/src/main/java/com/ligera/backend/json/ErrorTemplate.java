@@ -0,0 +1,106 @@
+package com.ligera.backend.json;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.ligera.backend.exception.ErrorResponse;
+import org.springframework.http.HttpStatus;
+
+import java.util.Objects;
+
+/**
+ * Error with a fixed status, reason and message, whose JSON is encoded once. Responses created from it are
+ * written by {@link ErrorResponseSerializer} with the encoded fields copied as they are.
+ */
+public final class ErrorTemplate {
+
+    // Templates of the status and reason alone, for errors with a message that varies
+    private static final ErrorTemplate[] STATUS_TEMPLATES = new ErrorTemplate[600];
+
+    static {
+        for (HttpStatus status : HttpStatus.values()) {
+            if (STATUS_TEMPLATES[status.value()] == null) {
+                STATUS_TEMPLATES[status.value()] = new ErrorTemplate(status.value(), status.getReasonPhrase(), null);
+            }
+        }
+    }
+
+    private final int status;
+    private final String error;
+    private final String message;
+    private final SerializableString fragment;
+
+    private ErrorTemplate(int status, String error, String message) {
+        this.status = status;
+        this.error = error;
+        this.message = message;
+        this.fragment = new SerializedString(encode(status, error, message));
+    }
+
+    /**
+     * Create a template for an error with a fixed message
+     */
+    public static ErrorTemplate of(HttpStatus status, String message) {
+        return new ErrorTemplate(status.value(), status.getReasonPhrase(), message);
+    }
+
+    /**
+     * Create an error response from this template
+     *
+     * @param path the request path
+     */
+    public ErrorResponse toResponse(String path) {
+        return ErrorResponse.builder()
+                .timestamp(CachedClock.now())
+                .status(status)
+                .error(error)
+                .message(message)
+                .path(path)
+                .template(this)
+                .build();
+    }
+
+    /**
+     * Find the template holding the encoded fields of a response: its own template, or the template of its
+     * status if the reason is the standard one
+     *
+     * @return the template, or null if the fields of the response are written one by one
+     */
+    static ErrorTemplate forResponse(ErrorResponse response) {
+        ErrorTemplate template = response.getTemplate();
+        if (template != null && template.status == response.getStatus() && template.error.equals(response.getError())
+                && Objects.equals(template.message, response.getMessage())) {
+            return template;
+        }
+        int status = response.getStatus();
+        if (status < 0 || status >= STATUS_TEMPLATES.length || STATUS_TEMPLATES[status] == null) {
+            return null;
+        }
+        template = STATUS_TEMPLATES[status];
+        return template.error.equals(response.getError()) ? template : null;
+    }
+
+    /**
+     * Check whether the fragment of this template includes the message
+     */
+    boolean hasMessage() {
+        return message != null;
+    }
+
+    /**
+     * Get the status, error and message fields as JSON, each preceded by a comma
+     */
+    SerializableString fragment() {
+        return fragment;
+    }
+
+    private static String encode(int status, String error, String message) {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        StringBuilder json = new StringBuilder(",\"status\":").append(status)
+                .append(",\"error\":\"").append(encoder.quoteAsString(error)).append('"');
+        if (message != null) {
+            json.append(",\"message\":\"").append(encoder.quoteAsString(message)).append('"');
+        }
+        return json.toString();
+    }
+}
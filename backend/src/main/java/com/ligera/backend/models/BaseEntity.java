@@ -5,11 +5,21 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import java.time.LocalDateTime;
 
 /**
  * Abstract base class for all entities with common fields and behaviors
+ * <p>
+ * Ids come from one sequence per entity table ({@code <table>_seq}) with the pooled-lo optimizer: every
+ * sequence call reserves a block of {@link #ID_ALLOCATION_SIZE} ids, so new entities get their id without
+ * a round-trip and Hibernate can batch their inserts. Sequences must be created with the same increment.
+ * <p>
+ * The version counter is incremented on every update. It guards updates against lost writes and, with the
+ * update time, identifies the state of an entity for conditional requests (see ResourceVersion).
  */
 @Getter
 @Setter
@@ -18,10 +28,21 @@ import java.time.LocalDateTime;
 @MappedSuperclass
 public abstract class BaseEntity {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooled_lo")
+    @GenericGenerator(name = "pooled_lo", type = SequenceStyleGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.CONFIG_SEQUENCE_PER_ENTITY_SUFFIX, value = "_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "" + ID_ALLOCATION_SIZE),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,29 @@
+package com.ligera.backend.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Base class of catalog entities, which are replicated to the mobile app through the catalog change feed.
+ * <p>
+ * Every mutation takes the next number of the catalog change sequence (see CatalogChangeLog). The entity
+ * keeps the number of its creation, telling inserts from updates, and of its latest change, which orders
+ * the feed.
+ */
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@MappedSuperclass
+public abstract class CatalogEntity extends BaseEntity {
+
+    @Column(name = "created_seq", nullable = false, updatable = false)
+    private long createdSeq;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+}
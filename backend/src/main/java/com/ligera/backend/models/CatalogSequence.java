@@ -0,0 +1,42 @@
+package com.ligera.backend.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The catalog change sequence, a single row holding the number of the latest catalog mutation
+ * <p>
+ * Unlike a database sequence, numbers are taken under a row lock held until commit, so mutations become
+ * visible in the order of their numbers and a client that has read up to a number can never see a lower
+ * one appear later.
+ */
+@Entity
+@Table(name = "catalog_sequence")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CatalogSequence {
+
+    public static final int ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    // Number of the latest mutation
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    // Number of the latest tombstone dropped: changes up to it can no longer be replayed
+    @Column(name = "compacted_seq", nullable = false)
+    private long compactedSeq;
+
+    public CatalogSequence(Integer id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ligera.backend.models;
+
+import com.ligera.backend.enums.CatalogEntityType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted catalog entity, kept so clients syncing later learn about the deletion.
+ * <p>
+ * Tombstones are dropped once older than the retention period; clients behind the last one dropped get a
+ * snapshot instead of changes.
+ */
+@Entity
+@Table(name = "catalog_tombstones")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogTombstone {
+
+    // Number of the deletion in the catalog change sequence
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private CatalogEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,63 @@
+package com.ligera.backend.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Entity representing a product category of the catalog, mirroring the category table of the mobile app
+ */
+@Entity
+@Table(name = "categories", uniqueConstraints = {
+    @UniqueConstraint(columnNames = "slug_url", name = "uk_categories_slug_url")
+})
+@Getter
+@Setter
+@ToString(exclude = "parent")
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class Category extends CatalogEntity {
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 100, message = "Name must be at most 100 characters")
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "description", columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "image")
+    private String image;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id", foreignKey = @ForeignKey(name = "fk_categories_parent"))
+    private Category parent;
+
+    @Builder.Default
+    @Column(name = "product_count", nullable = false)
+    private int productCount = 0;
+
+    @Builder.Default
+    @Column(name = "position", nullable = false)
+    private int position = 0;
+
+    @Builder.Default
+    @Column(name = "is_active", nullable = false)
+    private boolean active = true;
+
+    @Builder.Default
+    @Column(name = "display_in_menu", nullable = false)
+    private boolean displayInMenu = true;
+
+    @Column(name = "meta_title")
+    private String metaTitle;
+
+    @Column(name = "meta_description", length = 500)
+    private String metaDescription;
+
+    @Column(name = "slug_url", length = 150)
+    private String slugUrl;
+}
@@ -0,0 +1,82 @@
+package com.ligera.backend.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+
+/**
+ * Entity representing a product of the catalog, mirroring the product table of the mobile app
+ * <p>
+ * Favorites are a per-user flag on the device and have no column here. Listings are paginated by keyset on
+ * {@code (name, id)} and {@code (price, id)}, optionally within a category, each backed by an index.
+ */
+@Entity
+@Table(name = "products")
+@Getter
+@Setter
+@ToString(exclude = "category")
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class Product extends CatalogEntity {
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 255, message = "Name must be at most 255 characters")
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "description", columnDefinition = "TEXT")
+    private String description;
+
+    @NotNull(message = "Price is required")
+    @DecimalMin(value = "0.00", message = "Price cannot be negative")
+    @Column(name = "price", nullable = false, precision = 12, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "image_url", length = 500)
+    private String imageUrl;
+
+    @Builder.Default
+    @Column(name = "quantity", nullable = false)
+    private int quantity = 0;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", foreignKey = @ForeignKey(name = "fk_products_category"))
+    private Category category;
+
+    @Column(name = "brand", length = 100)
+    private String brand;
+
+    @Column(name = "size", length = 50)
+    private String size;
+
+    @Builder.Default
+    @Column(name = "featured", nullable = false)
+    private boolean featured = false;
+
+    @Builder.Default
+    @Column(name = "popular", nullable = false)
+    private boolean popular = false;
+
+    @Builder.Default
+    @Column(name = "discount_percent", nullable = false)
+    private int discountPercent = 0;
+
+    @Builder.Default
+    @Column(name = "rating", nullable = false)
+    private float rating = 0f;
+
+    @Builder.Default
+    @Column(name = "rating_count", nullable = false)
+    private int ratingCount = 0;
+
+    @Builder.Default
+    @Column(name = "popularity_score", nullable = false)
+    private int popularityScore = 0;
+}
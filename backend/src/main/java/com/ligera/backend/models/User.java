@@ -8,9 +8,18 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import java.util.Locale;
 
 /**
  * Entity representing a user in the system
+ * <p>
+ * Users and their email natural id are kept in Hibernate's second-level cache (see HibernateCacheConfig).
+ * Emails are stored lower-cased, so the natural id matches whatever the case of the address entered.
  */
 @Entity
 @Table(name = "users", uniqueConstraints = {
@@ -22,8 +31,13 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 public class User extends BaseEntity {
 
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-email";
+
     @NotBlank(message = "Name is required")
     @Size(min = 2, max = 50, message = "Name must be between 2 and 50 characters")
     @Column(name = "name", nullable = false, length = 50)
@@ -31,6 +45,7 @@ public class User extends BaseEntity {
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
+    @NaturalId(mutable = true)
     @Column(name = "email", nullable = false, unique = true, length = 100)
     private String email;
 
@@ -46,6 +61,28 @@ public class User extends BaseEntity {
     @Column(name = "account_status", nullable = false, length = 20)
     private AccountStatus accountStatus;
 
+    /**
+     * Normalize an email to the form it is stored and looked up in
+     *
+     * @param email the email, may be null
+     * @return the lower-cased email
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    protected void onCreate() {
+        super.onCreate();
+        email = normalizeEmail(email);
+    }
+
+    @Override
+    protected void onUpdate() {
+        super.onUpdate();
+        email = normalizeEmail(email);
+    }
+
     /**
      * Default constructor with initial values
      */
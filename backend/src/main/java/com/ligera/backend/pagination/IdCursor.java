@@ -0,0 +1,42 @@
+package com.ligera.backend.pagination;
+
+import com.ligera.backend.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by id alone
+ *
+ * @param id id of the last row returned
+ */
+public record IdCursor(long id) implements PageCursor {
+
+    @Override
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     *
+     * @param token the token, null or blank for the first page
+     * @return the cursor, or null for the first page
+     * @throws InvalidCursorException if the token is not a valid cursor
+     */
+    public static IdCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            long id = Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            if (id < 0) {
+                throw new InvalidCursorException("Invalid page cursor");
+            }
+            return new IdCursor(id);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ligera.backend.pagination;
+
+import com.ligera.backend.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by {@code (created_at, id)}: the key of the last row of the previous page.
+ * <p>
+ * The next page is fetched with a seek predicate on that key, so it is read straight from the index
+ * whatever its depth, where {@code OFFSET} reads and discards every row before the page. Clients get the
+ * cursor as an opaque URL-safe token.
+ *
+ * @param createdAt creation time of the last row returned
+ * @param id id of the last row returned, breaking ties between equal creation times
+ */
+public record KeysetCursor(LocalDateTime createdAt, long id) implements PageCursor {
+
+    private static final char SEPARATOR = '|';
+
+    @Override
+    public String encode() {
+        String key = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     *
+     * @param token the token, null or blank for the first page
+     * @return the cursor, or null for the first page
+     * @throws InvalidCursorException if the token is not a valid cursor
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = key.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid page cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(key.substring(0, separator)),
+                    Long.parseLong(key.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ligera.backend.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing
+ *
+ * @param content the rows of the page
+ * @param size the requested page size
+ * @param nextCursor the cursor of the following page, null on the last page
+ * @param <T> type of the rows
+ */
+public record KeysetPage<T>(List<T> content, int size, String nextCursor) {
+
+    /**
+     * Build a page from rows fetched with a limit of {@code size + 1}, the extra row only telling whether a
+     * next page exists
+     *
+     * @param rows the fetched rows
+     * @param size the page size
+     * @param cursorOf the cursor pointing after a row
+     * @param <T> type of the rows
+     * @return the page
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, ? extends PageCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, size, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new KeysetPage<>(content, size, cursorOf.apply(content.get(size - 1)).encode());
+    }
+}
@@ -0,0 +1,14 @@
+package com.ligera.backend.pagination;
+
+/**
+ * Position in a keyset-paginated listing, handed to clients as an opaque URL-safe token
+ */
+public interface PageCursor {
+
+    /**
+     * Encode the cursor as an opaque token
+     *
+     * @return the token
+     */
+    String encode();
+}
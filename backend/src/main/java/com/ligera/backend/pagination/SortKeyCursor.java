@@ -0,0 +1,48 @@
+package com.ligera.backend.pagination;
+
+import com.ligera.backend.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by {@code (<sort column>, id)}, for listings that can be sorted on several
+ * columns. The value of the sort column is kept as text; the listing parses it back to the column type.
+ *
+ * @param key value of the sort column in the last row returned
+ * @param id id of the last row returned, breaking ties between equal sort values
+ */
+public record SortKeyCursor(String key, long id) implements PageCursor {
+
+    private static final char SEPARATOR = '|';
+
+    @Override
+    public String encode() {
+        String token = key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     *
+     * @param token the token, null or blank for the first page
+     * @return the cursor, or null for the first page
+     * @throws InvalidCursorException if the token is not a valid cursor
+     */
+    public static SortKeyCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The key may itself hold the separator, the id never does
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid page cursor");
+            }
+            return new SortKeyCursor(decoded.substring(0, separator), Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+}
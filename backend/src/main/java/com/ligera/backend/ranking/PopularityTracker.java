@@ -0,0 +1,105 @@
+package com.ligera.backend.ranking;
+
+import com.ligera.backend.enums.ProductEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts product events between two runs of the ranking job.
+ * <p>
+ * Events are not kept: each one adds its weight to the pending points of its product, so memory grows
+ * with the number of products having events, not with the traffic. The job drains the points and adds
+ * them to the shared scores in one round trip.
+ * <p>
+ * A user counts once per product and kind of event within the event window, so replaying an event does
+ * not push a product up the rankings. Only the time each was last counted is kept, until the window ends.
+ */
+@Component
+@RequiredArgsConstructor
+public class PopularityTracker {
+
+    private final RankingProperties properties;
+
+    private final ConcurrentHashMap<Long, Double> pending = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<EventKey, Long> lastCounted = new ConcurrentHashMap<>();
+
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * Count an event, unless the user had one of the same kind for the product within the event window
+     *
+     * @param user the name of the user
+     * @param productId the product id
+     * @param type the kind of event
+     * @return whether the event was counted
+     */
+    public boolean record(String user, long productId, ProductEventType type) {
+        if (!properties.isEnabled()) {
+            // Nothing would drain them
+            return false;
+        }
+        Double weight = properties.getWeights().get(type);
+        if (weight == null || weight <= 0 || !firstInWindow(new EventKey(user, productId, type))) {
+            return false;
+        }
+        pending.merge(productId, weight, Double::sum);
+        return true;
+    }
+
+    private boolean firstInWindow(EventKey key) {
+        long now = clock.millis();
+        Long last = lastCounted.get(key);
+        if (last != null && now - last < properties.getEventWindow().toMillis()) {
+            return false;
+        }
+        // Of concurrent events, only the one swapping the time in counts
+        return last == null ? lastCounted.putIfAbsent(key, now) == null : lastCounted.replace(key, last, now);
+    }
+
+    /**
+     * Take the points counted since the last drain
+     *
+     * @return the points of each product
+     */
+    public Map<Long, Double> drain() {
+        long windowStart = clock.millis() - properties.getEventWindow().toMillis();
+        lastCounted.values().removeIf(counted -> counted <= windowStart);
+
+        Map<Long, Double> drained = new HashMap<>();
+        // Removed one by one so that points added meanwhile are either drained now or left for the next time
+        for (Long productId : pending.keySet()) {
+            Double points = pending.remove(productId);
+            if (points != null) {
+                drained.put(productId, points);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Put back points drained but not added to the scores, to add them on the next run
+     *
+     * @param points the points of each product
+     */
+    public void restore(Map<Long, Double> points) {
+        points.forEach((productId, value) -> pending.merge(productId, value, Double::sum));
+    }
+
+    /**
+     * Get the number of products with points pending
+     *
+     * @return the number of products
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    private record EventKey(String user, long productId, ProductEventType type) {
+    }
+}
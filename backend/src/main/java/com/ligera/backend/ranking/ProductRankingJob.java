@@ -0,0 +1,250 @@
+package com.ligera.backend.ranking;
+
+import com.ligera.backend.repositories.ProductRepository;
+import com.ligera.backend.repositories.ProductSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Background job turning product events into the popular and featured lists.
+ * <p>
+ * Every instance adds the points of the events it received since its last run to popularity scores kept in
+ * Redis sorted sets, one for the whole catalog and one per category, so scores are aggregated as events
+ * come instead of recomputed from a history. One instance at a time, holding a lock, then computes:
+ * <ul>
+ *   <li>the decay of the scores, multiplying them all in Redis so that points lose half their weight every
+ *   half-life, and dropping the products left with next to nothing;</li>
+ *   <li>the lists, from the best few scores of each set and the featured products, published in one hash
+ *   swapped in whole, which every instance then copies into memory.</li>
+ * </ul>
+ * A failed run is logged and retried on the next one; points not yet added are kept until then.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.ranking.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductRankingJob {
+
+    private static final String POPULARITY_KEY = "ranking:popularity:all";
+    private static final String CATEGORY_POPULARITY_KEY = "ranking:popularity:category:";
+    private static final String CATEGORIES_KEY = "ranking:popularity:categories";
+    private static final String DECAYED_AT_KEY = "ranking:decayed-at";
+    private static final String LOCK_KEY = "ranking:lock";
+    private static final String NEXT_LISTS_KEY = ProductRankings.LISTS_KEY + ":next";
+
+    // Products loaded per query, within the limits of IN lists
+    private static final int BATCH_SIZE = 1000;
+
+    private final PopularityTracker tracker;
+    private final ProductRankings rankings;
+    private final ProductRepository productRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RankingProperties properties;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * Add the pending points to the scores, compute the lists if this instance holds the lock, and copy the
+     * latest lists into memory
+     */
+    @Scheduled(fixedDelayString = "${app.ranking.refresh-interval-ms:60000}")
+    public void run() {
+        try {
+            flush();
+            if (acquireLock()) {
+                decay();
+                publish();
+            }
+            rankings.refresh();
+        } catch (RuntimeException e) {
+            log.warn("Product ranking run failed: {}", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        Map<Long, Double> points = tracker.drain();
+        if (points.isEmpty()) {
+            return;
+        }
+        try {
+            // Points of products that no longer exist are dropped
+            Map<Long, ProductSummary> products = summaries(points.keySet());
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redis = (RedisOperations<String, Object>) operations;
+                    products.forEach((productId, product) -> {
+                        double value = points.get(productId);
+                        redis.opsForZSet().incrementScore(POPULARITY_KEY, productId, value);
+                        if (product.categoryId() != null) {
+                            redis.opsForZSet().incrementScore(categoryKey(product.categoryId()), productId, value);
+                            redis.opsForSet().add(CATEGORIES_KEY, product.categoryId());
+                        }
+                    });
+                    return null;
+                }
+            });
+        } catch (RuntimeException e) {
+            tracker.restore(points);
+            throw e;
+        }
+    }
+
+    private boolean acquireLock() {
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, instanceId, properties.getLockTtl()))) {
+            return true;
+        }
+        if (instanceId.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+            redisTemplate.expire(LOCK_KEY, properties.getLockTtl());
+            return true;
+        }
+        return false;
+    }
+
+    private void decay() {
+        long now = System.currentTimeMillis();
+        Object last = redisTemplate.opsForValue().get(DECAYED_AT_KEY);
+        if (last != null && now - Long.parseLong(last.toString()) < properties.getDecayInterval().toMillis()) {
+            return;
+        }
+        // Swapped atomically: should two instances get here, the second one decays by the time in between
+        Object previous = redisTemplate.opsForValue().getAndSet(DECAYED_AT_KEY, Long.toString(now));
+        if (previous == null) {
+            return;
+        }
+        long elapsed = now - Long.parseLong(previous.toString());
+        if (elapsed <= 0) {
+            return;
+        }
+        double factor = Math.pow(0.5, (double) elapsed / properties.getHalfLife().toMillis());
+        decay(POPULARITY_KEY, factor);
+        for (Long categoryId : categories()) {
+            String key = categoryKey(categoryId);
+            decay(key, factor);
+            Long size = redisTemplate.opsForZSet().zCard(key);
+            if (size == null || size == 0) {
+                redisTemplate.opsForSet().remove(CATEGORIES_KEY, categoryId);
+            }
+        }
+    }
+
+    private void decay(String key, double factor) {
+        ZSetOperations<String, Object> zSet = redisTemplate.opsForZSet();
+        // A union of the set alone, weighted, multiplies its scores in place
+        zSet.unionAndStore(key, List.of(), key, Aggregate.SUM, Weights.of(factor));
+        zSet.removeRangeByScore(key, Double.NEGATIVE_INFINITY, properties.getMinScore());
+    }
+
+    private void publish() {
+        // Deeper candidates make up for those dropped as deleted or moved to another category
+        int candidates = properties.getTopN() * 2;
+        Map<String, Set<Long>> candidateKeys = new HashMap<>();
+        Map<Long, Double> scores = new HashMap<>();
+        List<String> keys = new ArrayList<>();
+        keys.add(POPULARITY_KEY);
+        categories().forEach(categoryId -> keys.add(categoryKey(categoryId)));
+        for (String key : keys) {
+            Set<ZSetOperations.TypedTuple<Object>> best =
+                    redisTemplate.opsForZSet().reverseRangeWithScores(key, 0, candidates - 1);
+            if (best == null) {
+                continue;
+            }
+            for (ZSetOperations.TypedTuple<Object> tuple : best) {
+                if (tuple.getValue() instanceof Number id && tuple.getScore() != null) {
+                    scores.merge(id.longValue(), tuple.getScore(), Math::max);
+                    candidateKeys.computeIfAbsent(key, k -> new HashSet<>()).add(id.longValue());
+                }
+            }
+        }
+
+        RankingBuilder builder = new RankingBuilder(properties.getTopN());
+        Map<Long, ProductSummary> products = summaries(scores.keySet());
+        products.forEach((productId, product) -> builder.popular(product, scores.get(productId)));
+        removeDeleted(candidateKeys, products);
+
+        List<ProductSummary> featured = productRepository.findFeaturedSummaries();
+        if (!featured.isEmpty()) {
+            List<Double> featuredScores = redisTemplate.opsForZSet().score(POPULARITY_KEY,
+                    featured.stream().map(ProductSummary::id).toArray());
+            for (int i = 0; i < featured.size(); i++) {
+                Double score = featuredScores != null ? featuredScores.get(i) : null;
+                builder.featured(featured.get(i), score != null ? score : 0);
+            }
+        }
+
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(ProductRankings.LISTS_KEY);
+        Map<String, RankedList> previous = rankings.readLists(entries);
+        Object previousVersion = entries.get(ProductRankings.VERSION_FIELD);
+        long version = previousVersion != null ? Long.parseLong(previousVersion.toString()) + 1 : 1;
+        Map<String, RankedList> lists = RankingBuilder.version(previous, builder.build(), version,
+                System.currentTimeMillis());
+        if (lists.equals(previous)) {
+            return;
+        }
+
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(ProductRankings.VERSION_FIELD, Long.toString(version));
+        lists.forEach((key, list) -> fields.put(key, rankings.writeList(list)));
+        // Written aside and renamed, so that readers see either publication whole and lists gone are removed
+        redisTemplate.delete(NEXT_LISTS_KEY);
+        redisTemplate.opsForHash().putAll(NEXT_LISTS_KEY, fields);
+        redisTemplate.rename(NEXT_LISTS_KEY, ProductRankings.LISTS_KEY);
+        log.debug("Published product rankings version {}: {} lists", version, lists.size());
+    }
+
+    private void removeDeleted(Map<String, Set<Long>> candidateKeys, Map<Long, ProductSummary> products) {
+        candidateKeys.forEach((key, ids) -> {
+            Object[] deleted = ids.stream().filter(id -> !products.containsKey(id)).toArray();
+            if (deleted.length > 0) {
+                redisTemplate.opsForZSet().remove(key, deleted);
+            }
+        });
+    }
+
+    private Set<Long> categories() {
+        Set<Object> members = redisTemplate.opsForSet().members(CATEGORIES_KEY);
+        Set<Long> categories = new HashSet<>();
+        if (members != null) {
+            for (Object member : members) {
+                if (member instanceof Number id) {
+                    categories.add(id.longValue());
+                }
+            }
+        }
+        return categories;
+    }
+
+    private Map<Long, ProductSummary> summaries(Set<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        Map<Long, ProductSummary> summaries = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            for (ProductSummary summary : productRepository.findSummaries(
+                    ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE)))) {
+                summaries.put(summary.id(), summary);
+            }
+        }
+        return summaries;
+    }
+
+    private static String categoryKey(Long categoryId) {
+        return CATEGORY_POPULARITY_KEY + categoryId;
+    }
+}
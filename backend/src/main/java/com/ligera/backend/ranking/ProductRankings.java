@@ -0,0 +1,145 @@
+package com.ligera.backend.ranking;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ligera.backend.conditional.ResourceVersion;
+import com.ligera.backend.repositories.ProductSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the popular and featured product lists published by the ranking job.
+ * <p>
+ * The lists are materialized in a Redis hash, each with the products as they were when ranked, and copied
+ * into memory whenever a new publication appears; serving a list is one map lookup, with no Redis or
+ * database access. Each list carries the version in which its products last changed, which makes its
+ * entity tag: clients revalidating a list that was republished unchanged get a 304.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductRankings {
+
+    static final String LISTS_KEY = "ranking:lists";
+    static final String VERSION_FIELD = "version";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot = new Snapshot(0, Map.of());
+
+    /**
+     * Get a ranked list
+     *
+     * @param kind the kind of list
+     * @param categoryId the category of the list, null for the whole catalog
+     * @param limit the maximum number of products
+     * @return the products, first ranked first; empty until the list is first published
+     */
+    public List<ProductSummary> getList(RankingKind kind, Long categoryId, int limit) {
+        RankedList list = snapshot.lists().get(kind.key(categoryId));
+        if (list == null) {
+            return List.of();
+        }
+        return list.products().size() > limit ? list.products().subList(0, limit) : list.products();
+    }
+
+    /**
+     * Get the version of a ranked list, for conditional requests
+     *
+     * @param kind the kind of list
+     * @param categoryId the category of the list, null for the whole catalog
+     * @return the validators of the list
+     */
+    public ResourceVersion getVersion(RankingKind kind, Long categoryId) {
+        String key = kind.key(categoryId);
+        RankedList list = snapshot.lists().get(key);
+        if (list == null) {
+            return new ResourceVersion("ranking-" + key + "-0", null);
+        }
+        // The change time tells apart versions numbered again after the rankings were wiped
+        return new ResourceVersion("ranking-" + key + "-" + list.version() + "-" + list.changedAt(),
+                Instant.ofEpochMilli(list.changedAt()));
+    }
+
+    /**
+     * Get the version of a popular list, for conditional requests
+     *
+     * @param categoryId the category of the list, null for the whole catalog
+     * @return the validators of the list
+     */
+    public ResourceVersion getPopularVersion(Long categoryId) {
+        return getVersion(RankingKind.POPULAR, categoryId);
+    }
+
+    /**
+     * Get the version of a featured list, for conditional requests
+     *
+     * @param categoryId the category of the list, null for the whole catalog
+     * @return the validators of the list
+     */
+    public ResourceVersion getFeaturedVersion(Long categoryId) {
+        return getVersion(RankingKind.FEATURED, categoryId);
+    }
+
+    /**
+     * Copy the published lists into memory if they were published again since the last copy
+     */
+    public void refresh() {
+        Object published = redisTemplate.opsForHash().get(LISTS_KEY, VERSION_FIELD);
+        if (published == null || Long.parseLong(published.toString()) == snapshot.version()) {
+            return;
+        }
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(LISTS_KEY);
+        Object version = entries.get(VERSION_FIELD);
+        if (version != null) {
+            snapshot = new Snapshot(Long.parseLong(version.toString()), readLists(entries));
+        }
+    }
+
+    /**
+     * Read the lists of a publication
+     *
+     * @param entries the fields of the publication hash
+     * @return the lists by key
+     */
+    Map<String, RankedList> readLists(Map<Object, Object> entries) {
+        Map<String, RankedList> lists = new HashMap<>();
+        entries.forEach((field, value) -> {
+            if (!VERSION_FIELD.equals(field)) {
+                try {
+                    lists.put(field.toString(), objectMapper.readValue(value.toString(), RankedList.class));
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        return lists;
+    }
+
+    /**
+     * Write a list for a publication
+     *
+     * @param list the list
+     * @return the field value
+     */
+    String writeList(RankedList list) {
+        try {
+            return objectMapper.writeValueAsString(list);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The lists of one publication
+     */
+    private record Snapshot(long version, Map<String, RankedList> lists) {
+    }
+}
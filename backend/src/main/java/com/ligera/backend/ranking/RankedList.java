@@ -0,0 +1,15 @@
+package com.ligera.backend.ranking;
+
+import com.ligera.backend.repositories.ProductSummary;
+
+import java.util.List;
+
+/**
+ * A list of products as published by the ranking job
+ *
+ * @param version the number of the publication in which the list last changed
+ * @param changedAt when the list last changed, in epoch milliseconds
+ * @param products the products, first ranked first
+ */
+public record RankedList(long version, long changedAt, List<ProductSummary> products) {
+}
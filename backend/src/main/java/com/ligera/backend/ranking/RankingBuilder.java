@@ -0,0 +1,106 @@
+package com.ligera.backend.ranking;
+
+import com.ligera.backend.repositories.ProductSummary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the ranked lists of one run of the ranking job from scored products.
+ * <p>
+ * A product offered to a kind of list goes to the list of the whole catalog and to the list of its
+ * category. Each list keeps its best products, highest score first and lowest id first on ties, so that
+ * instances computing the same scores publish the same lists.
+ */
+public class RankingBuilder {
+
+    private static final Comparator<Scored> RANKING = Comparator.comparingDouble(Scored::score).reversed()
+            .thenComparing(scored -> scored.product().id());
+
+    private final int size;
+    private final Map<String, Map<Long, Scored>> lists = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param size the number of products per list
+     */
+    public RankingBuilder(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Offer a product to the popular lists
+     *
+     * @param product the product
+     * @param score its popularity
+     */
+    public void popular(ProductSummary product, double score) {
+        offer(RankingKind.POPULAR, product, score);
+    }
+
+    /**
+     * Offer a featured product to the featured lists
+     *
+     * @param product the product
+     * @param score its popularity, 0 if it has none
+     */
+    public void featured(ProductSummary product, double score) {
+        offer(RankingKind.FEATURED, product, score);
+    }
+
+    /**
+     * Get the lists
+     *
+     * @return the products of each list by key, best first
+     */
+    public Map<String, List<ProductSummary>> build() {
+        Map<String, List<ProductSummary>> built = new HashMap<>();
+        lists.forEach((key, scored) -> {
+            List<Scored> ranked = new ArrayList<>(scored.values());
+            ranked.sort(RANKING);
+            built.put(key, ranked.subList(0, Math.min(size, ranked.size())).stream().map(Scored::product).toList());
+        });
+        return built;
+    }
+
+    /**
+     * Version lists against those previously published: a list keeps its version while its products are the
+     * same, so clients holding it are not sent it again
+     *
+     * @param previous the lists previously published by key
+     * @param lists the lists computed by key
+     * @param version the number of this publication
+     * @param now the current time in epoch milliseconds
+     * @return the versioned lists by key
+     */
+    public static Map<String, RankedList> version(Map<String, RankedList> previous,
+                                                  Map<String, List<ProductSummary>> lists, long version, long now) {
+        Map<String, RankedList> versioned = new HashMap<>();
+        lists.forEach((key, products) -> {
+            RankedList before = previous.get(key);
+            versioned.put(key, before != null && before.products().equals(products)
+                    ? before
+                    : new RankedList(version, now, products));
+        });
+        return versioned;
+    }
+
+    private void offer(RankingKind kind, ProductSummary product, double score) {
+        add(kind.key(null), product, score);
+        if (product.categoryId() != null) {
+            add(kind.key(product.categoryId()), product, score);
+        }
+    }
+
+    private void add(String key, ProductSummary product, double score) {
+        lists.computeIfAbsent(key, k -> new HashMap<>())
+                .merge(product.id(), new Scored(product, score), (a, b) -> a.score() >= b.score() ? a : b);
+    }
+
+    private record Scored(ProductSummary product, double score) {
+    }
+}
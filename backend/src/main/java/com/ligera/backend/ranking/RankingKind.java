@@ -0,0 +1,26 @@
+package com.ligera.backend.ranking;
+
+import java.util.Locale;
+
+/**
+ * Kinds of product lists computed by the ranking job, each with one list for the whole catalog and one per
+ * category
+ */
+public enum RankingKind {
+    // Products with the most events lately
+    POPULAR,
+    // Products flagged as featured, the most popular first
+    FEATURED;
+
+    private static final String ALL = "all";
+
+    /**
+     * Get the key of a list, e.g. {@code popular:all} or {@code featured:12}
+     *
+     * @param categoryId the category of the list, null for the whole catalog
+     * @return the key
+     */
+    public String key(Long categoryId) {
+        return name().toLowerCase(Locale.ROOT) + ":" + (categoryId != null ? categoryId.toString() : ALL);
+    }
+}
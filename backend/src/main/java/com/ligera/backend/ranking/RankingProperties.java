@@ -0,0 +1,46 @@
+package com.ligera.backend.ranking;
+
+import com.ligera.backend.enums.ProductEventType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Product ranking settings bound from app.ranking
+ */
+@ConfigurationProperties(prefix = "app.ranking")
+@Getter
+@Setter
+public class RankingProperties {
+
+    // Whether events are counted and the lists computed; disabled, the lists stay empty
+    private boolean enabled = true;
+
+    // Points an event adds to the popularity of its product
+    private Map<ProductEventType, Double> weights = new EnumMap<>(Map.of(
+            ProductEventType.VIEW, 1.0,
+            ProductEventType.FAVORITE, 5.0,
+            ProductEventType.PURCHASE, 20.0));
+
+    // Time within which a user counts once per product and kind of event
+    private Duration eventWindow = Duration.ofHours(1);
+
+    // Time after which the points of an event count half
+    private Duration halfLife = Duration.ofDays(3);
+
+    // Least time between two decays of the scores
+    private Duration decayInterval = Duration.ofMinutes(15);
+
+    // Score below which a product is dropped from the rankings until it gets events again
+    private double minScore = 0.01;
+
+    // Products per list
+    private int topN = 50;
+
+    // How long the computing instance holds the ranking lock; longer than a run, shorter than a few intervals
+    private Duration lockTtl = Duration.ofMinutes(5);
+}
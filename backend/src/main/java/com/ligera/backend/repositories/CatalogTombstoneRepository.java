@@ -0,0 +1,34 @@
+package com.ligera.backend.repositories;
+
+import com.ligera.backend.enums.CatalogEntityType;
+import com.ligera.backend.models.CatalogTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for the tombstones of deleted catalog entities
+ */
+@Repository
+public interface CatalogTombstoneRepository extends JpaRepository<CatalogTombstone, Long> {
+
+    /**
+     * List the deletions of one kind of entity after a number of the catalog change sequence, up to another
+     *
+     * @param entityType the kind of entity
+     * @param after the change number to start after
+     * @param upTo the last change number included
+     * @param limit the maximum number of tombstones
+     * @return the tombstones, in change order
+     */
+    @Query("""
+            select t from CatalogTombstone t
+            where t.entityType = :entityType and t.seq > :after and t.seq <= :upTo
+            order by t.seq""")
+    List<CatalogTombstone> findBetween(@Param("entityType") CatalogEntityType entityType, @Param("after") long after,
+                                       @Param("upTo") long upTo, Limit limit);
+}
@@ -0,0 +1,46 @@
+package com.ligera.backend.repositories;
+
+import com.ligera.backend.models.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for Category entity operations
+ */
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    /**
+     * List the categories shown in the menu
+     *
+     * @return the active menu categories, in menu order
+     */
+    @Query("""
+            select c.id as id, c.name as name, c.image as image, c.parent.id as parentId,
+                   c.productCount as productCount, c.slugUrl as slugUrl
+            from Category c
+            where c.active = true and c.displayInMenu = true
+            order by c.position, c.name, c.id""")
+    List<CategorySummary> findMenu();
+
+    /**
+     * List the categories changed after a number of the catalog change sequence
+     *
+     * @param after the change number to start after
+     * @return the categories, in change order
+     */
+    @Query("select c from Category c where c.changeSeq > :after order by c.changeSeq")
+    List<Category> findChangedAfter(@Param("after") long after);
+
+    /**
+     * List the subcategories of a category
+     *
+     * @param parent the parent category
+     * @return the subcategories
+     */
+    List<Category> findByParent(Category parent);
+}
@@ -0,0 +1,19 @@
+package com.ligera.backend.repositories;
+
+/**
+ * Projection of the category columns shown in the category menu
+ */
+public interface CategorySummary {
+
+    Long getId();
+
+    String getName();
+
+    String getImage();
+
+    Long getParentId();
+
+    int getProductCount();
+
+    String getSlugUrl();
+}
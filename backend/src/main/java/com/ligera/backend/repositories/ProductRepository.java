@@ -0,0 +1,56 @@
+package com.ligera.backend.repositories;
+
+import com.ligera.backend.models.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for Product entity operations
+ */
+@Repository
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    /**
+     * List the products changed after a number of the catalog change sequence, up to another
+     *
+     * @param after the change number to start after
+     * @param upTo the last change number included
+     * @param limit the maximum number of products
+     * @return the products, in change order
+     */
+    @Query("select p from Product p where p.changeSeq > :after and p.changeSeq <= :upTo order by p.changeSeq")
+    List<Product> findChangedBetween(@Param("after") long after, @Param("upTo") long upTo, Limit limit);
+
+    /**
+     * Get the summaries of products by id
+     *
+     * @param ids the product ids
+     * @return the summaries of the products found, in no particular order
+     */
+    @Query("""
+            select new com.ligera.backend.repositories.ProductSummary(
+                p.id, p.name, p.price, p.imageUrl, c.id,
+                p.quantity, p.discountPercent, p.rating, p.ratingCount)
+            from Product p left join p.category c
+            where p.id in :ids""")
+    List<ProductSummary> findSummaries(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Get the summaries of the featured products
+     *
+     * @return the summaries, in no particular order
+     */
+    @Query("""
+            select new com.ligera.backend.repositories.ProductSummary(
+                p.id, p.name, p.price, p.imageUrl, c.id,
+                p.quantity, p.discountPercent, p.rating, p.ratingCount)
+            from Product p left join p.category c
+            where p.featured = true""")
+    List<ProductSummary> findFeaturedSummaries();
+}
@@ -0,0 +1,25 @@
+package com.ligera.backend.repositories;
+
+import com.ligera.backend.pagination.SortKeyCursor;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Product listings built from JPQL fragments, one query shape per sort, direction and category filter
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * List products in keyset order, seeking past a position on the {@code (<sort>, id)} index
+     *
+     * @param sort the attribute sorted on
+     * @param direction the direction of both the attribute and the id
+     * @param categoryId the category to list, null for the whole catalog
+     * @param after the last product of the previous page, null for the first page
+     * @param limit the maximum number of products
+     * @return the products following that position
+     */
+    List<ProductSummary> findPage(ProductSort sort, Sort.Direction direction, Long categoryId, SortKeyCursor after,
+                                  int limit);
+}
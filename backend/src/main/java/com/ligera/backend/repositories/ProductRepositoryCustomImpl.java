@@ -0,0 +1,59 @@
+package com.ligera.backend.repositories;
+
+import com.ligera.backend.pagination.SortKeyCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Implementation of the product listings
+ * <p>
+ * Queries are assembled from fixed fragments rather than written out for every sort, direction and filter, and
+ * never contain client input: the category and cursor are bound as parameters. Each combination has exactly
+ * the predicate and order of one index, so it is planned as a range scan of that index stopping after the
+ * limit, with no sort step.
+ */
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String SELECT = """
+            select new com.ligera.backend.repositories.ProductSummary(
+                p.id, p.name, p.price, p.imageUrl, p.category.id,
+                p.quantity, p.discountPercent, p.rating, p.ratingCount)
+            from Product p""";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ProductSummary> findPage(ProductSort sort, Sort.Direction direction, Long categoryId,
+                                         SortKeyCursor after, int limit) {
+        String attribute = "p." + sort.attribute();
+        String order = direction.isAscending() ? " asc" : " desc";
+
+        StringBuilder jpql = new StringBuilder(SELECT);
+        String keyword = " where ";
+        if (categoryId != null) {
+            jpql.append(keyword).append("p.category.id = :categoryId");
+            keyword = " and ";
+        }
+        if (after != null) {
+            jpql.append(keyword).append('(').append(attribute).append(", p.id) ")
+                    .append(direction.isAscending() ? '>' : '<').append(" (:key, :id)");
+        }
+        jpql.append(" order by ").append(attribute).append(order).append(", p.id").append(order);
+
+        TypedQuery<ProductSummary> query = entityManager.createQuery(jpql.toString(), ProductSummary.class)
+                .setMaxResults(limit);
+        if (categoryId != null) {
+            query.setParameter("categoryId", categoryId);
+        }
+        if (after != null) {
+            query.setParameter("key", sort.parseKey(after.key()));
+            query.setParameter("id", after.id());
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.ligera.backend.repositories;
+
+import com.ligera.backend.exception.InvalidCursorException;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * Orders of product listings. Each is paired with the id to make a unique keyset, and backed by an index on
+ * {@code (<column>, id)} and one on {@code (category_id, <column>, id)}.
+ */
+public enum ProductSort {
+
+    NAME("name", ProductSummary::name) {
+        @Override
+        Object parseKey(String key) {
+            return key;
+        }
+    },
+    PRICE("price", product -> product.price().toPlainString()) {
+        @Override
+        Object parseKey(String key) {
+            try {
+                return new BigDecimal(key);
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException("Invalid page cursor");
+            }
+        }
+    };
+
+    private final String attribute;
+    private final Function<ProductSummary, String> keyOf;
+
+    ProductSort(String attribute, Function<ProductSummary, String> keyOf) {
+        this.attribute = attribute;
+        this.keyOf = keyOf;
+    }
+
+    /**
+     * Get the Product attribute sorted on
+     */
+    String attribute() {
+        return attribute;
+    }
+
+    /**
+     * Get the sort key of a listed product, as kept in a page cursor
+     *
+     * @param product the product
+     * @return the sort key as text
+     */
+    public String keyOf(ProductSummary product) {
+        return keyOf.apply(product);
+    }
+
+    /**
+     * Parse a sort key kept in a page cursor back to the type of the attribute
+     *
+     * @param key the sort key as text
+     * @return the sort key
+     * @throws InvalidCursorException if the key is not a value of the attribute
+     */
+    abstract Object parseKey(String key);
+}
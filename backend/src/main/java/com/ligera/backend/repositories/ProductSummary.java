@@ -0,0 +1,23 @@
+package com.ligera.backend.repositories;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact row of product listings: the columns of a product card, without description or merchandising flags
+ *
+ * @param id the product id
+ * @param name the product name
+ * @param price the price before discount
+ * @param imageUrl URL of the product image, omitted when there is none
+ * @param categoryId id of the category, omitted for uncategorized products
+ * @param quantity the quantity in stock
+ * @param discountPercent the discount applied to the price
+ * @param rating the average rating
+ * @param ratingCount the number of ratings
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductSummary(Long id, String name, BigDecimal price, String imageUrl, Long categoryId,
+                             int quantity, int discountPercent, float rating, int ratingCount) {
+}
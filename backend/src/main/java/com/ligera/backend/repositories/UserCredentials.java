@@ -0,0 +1,15 @@
+package com.ligera.backend.repositories;
+
+import com.ligera.backend.enums.Role;
+
+/**
+ * Projection of the user columns read to authenticate a request
+ */
+public interface UserCredentials {
+
+    String getEmail();
+
+    String getPassword();
+
+    Role getRole();
+}
@@ -1,31 +1,71 @@
 package com.ligera.backend.repositories;
 
 import com.ligera.backend.models.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for User entity operations
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     
     /**
-     * Find a user by their email address
+     * Check if a user exists with the given email, ignoring case
      * 
+     * @param email the email to check
+     * @return true if a user exists with this email
+     */
+    @Query("select count(u) > 0 from User u where lower(u.email) = lower(:email)")
+    boolean existsByEmail(@Param("email") String email);
+
+    /**
+     * Find the credentials of a user by email, ignoring case
+     * <p>
+     * Only reads columns included in the {@code lower(email)} index, so the lookup is an index-only scan.
+     *
      * @param email the email to search for
-     * @return an Optional containing the user if found
+     * @return an Optional containing the credentials if found
      */
-    Optional<User> findByEmail(String email);
-    
+    @Query("""
+            select u.email as email, u.password as password, u.role as role
+            from User u
+            where lower(u.email) = lower(:email)""")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
     /**
-     * Check if a user exists with the given email
-     * 
-     * @param email the email to check
-     * @return true if a user exists with this email
+     * List the newest users
+     *
+     * @param limit the maximum number of users
+     * @return the users, newest first
      */
-    boolean existsByEmail(String email);
-}
+    @Query("""
+            select u.id as id, u.name as name, u.email as email, u.role as role,
+                   u.accountStatus as accountStatus, u.createdAt as createdAt
+            from User u
+            order by u.createdAt desc, u.id desc""")
+    List<UserSummary> findNewest(Limit limit);
 
+    /**
+     * List the users created before a keyset position, seeking on the (created_at, id) index
+     *
+     * @param createdAt creation time of the last user of the previous page
+     * @param id id of the last user of the previous page
+     * @param limit the maximum number of users
+     * @return the users following that position, newest first
+     */
+    @Query("""
+            select u.id as id, u.name as name, u.email as email, u.role as role,
+                   u.accountStatus as accountStatus, u.createdAt as createdAt
+            from User u
+            where (u.createdAt, u.id) < (:createdAt, :id)
+            order by u.createdAt desc, u.id desc""")
+    List<UserSummary> findNewestBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+}
@@ -0,0 +1,22 @@
+package com.ligera.backend.repositories;
+
+import com.ligera.backend.models.User;
+
+import java.util.Optional;
+
+/**
+ * User lookups implemented with the Hibernate Session rather than derived queries
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Find a user by their email address, the natural id of users.
+     * <p>
+     * Resolved through the natural-id and entity caches, so a cached user is found without a query. The
+     * email is matched case-insensitively.
+     *
+     * @param email the email to search for
+     * @return an Optional containing the user if found
+     */
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,26 @@
+package com.ligera.backend.repositories;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.ligera.backend.enums.AccountStatus;
+import com.ligera.backend.enums.Role;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the user columns shown in listings, so the password hash and other columns are never loaded
+ */
+public interface UserSummary {
+
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+
+    Role getRole();
+
+    AccountStatus getAccountStatus();
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime getCreatedAt();
+}
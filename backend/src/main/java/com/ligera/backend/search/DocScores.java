@@ -0,0 +1,135 @@
+package com.ligera.backend.search;
+
+import java.util.Arrays;
+
+/**
+ * Scores of the documents matching a query so far, so scoring hundreds of thousands of documents allocates
+ * a few arrays rather than boxed entries.
+ * <p>
+ * Few documents are kept in an open-addressing map from document to score. When a good share of the index
+ * is expected, scores are kept in an array indexed by document instead, with the list of documents set.
+ */
+final class DocScores {
+
+    private static final int FREE = -1;
+
+    private final boolean dense;
+    private int[] keys;
+    private float[] values;
+    private int size;
+
+    /**
+     * Constructor
+     *
+     * @param expected the expected number of documents
+     * @param docCount the number of documents in the index
+     */
+    DocScores(int expected, int docCount) {
+        dense = expected > docCount / 8;
+        if (dense) {
+            keys = new int[Math.max(16, expected)];
+            values = new float[docCount];
+            Arrays.fill(values, Float.NaN);
+        } else {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new int[capacity];
+            values = new float[capacity];
+            Arrays.fill(keys, FREE);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the score of a document
+     *
+     * @return the score, or NaN if the document has none
+     */
+    float get(int doc) {
+        if (dense) {
+            return values[doc];
+        }
+        int mask = keys.length - 1;
+        for (int slot = mix(doc) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == doc) {
+                return values[slot];
+            }
+            if (keys[slot] == FREE) {
+                return Float.NaN;
+            }
+        }
+    }
+
+    /**
+     * Keep the higher of the current score of a document and a new one
+     */
+    void max(int doc, float score) {
+        if (dense) {
+            if (Float.isNaN(values[doc])) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                }
+                keys[size++] = doc;
+                values[doc] = score;
+            } else {
+                values[doc] = Math.max(values[doc], score);
+            }
+            return;
+        }
+        int mask = keys.length - 1;
+        int slot = mix(doc) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == doc) {
+                values[slot] = Math.max(values[slot], score);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = doc;
+        values[slot] = score;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    // Slots are iterated by index from 0 to capacity(), skipping those whose doc is negative
+    int capacity() {
+        return dense ? size : keys.length;
+    }
+
+    int docAt(int slot) {
+        return keys[slot];
+    }
+
+    float scoreAt(int slot) {
+        return dense ? values[keys[slot]] : values[slot];
+    }
+
+    void addAt(int slot, float score) {
+        if (dense) {
+            values[keys[slot]] += score;
+        } else {
+            values[slot] += score;
+        }
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        float[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new float[oldKeys.length * 2];
+        Arrays.fill(keys, FREE);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                max(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(int doc) {
+        return doc * 0x9E3779B9 >>> 7 ^ doc;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ligera.backend.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Products matching facet filters, and the facet counts
+ *
+ * @param productIds the ids of the page of products, in id order, with one more when a next page exists
+ * @param total the number of products matching the filters
+ * @param counts for each facet, the number of products of each value, most frequent first
+ */
+public record FacetResult(List<Long> productIds, int total, Map<ProductFacet, Map<String, Integer>> counts) {
+}
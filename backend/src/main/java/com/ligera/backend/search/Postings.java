@@ -0,0 +1,32 @@
+package com.ligera.backend.search;
+
+import java.util.Arrays;
+
+/**
+ * Documents containing a term, in increasing document order, with the weighted frequency of the term in each
+ */
+final class Postings {
+
+    int[] docs = new int[4];
+    short[] frequencies = new short[4];
+    int size;
+
+    void add(int doc, int frequency) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            frequencies = Arrays.copyOf(frequencies, size * 2);
+        }
+        docs[size] = doc;
+        frequencies[size] = (short) Math.min(frequency, Short.MAX_VALUE);
+        size++;
+    }
+
+    /**
+     * Find a document, documents being added in increasing order
+     *
+     * @return the position of the document, or a negative value if absent
+     */
+    int indexOf(int doc) {
+        return Arrays.binarySearch(docs, 0, size, doc);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ligera.backend.search;
+
+import java.util.Locale;
+
+/**
+ * Product attributes the catalog listing is filtered and counted on. Facet names are both the request
+ * parameters filtering on them and the keys of their counts in responses.
+ */
+public enum ProductFacet {
+    CATEGORY,
+    BRAND,
+    SIZE,
+    // Price bands configured in app.search.price-bands
+    PRICE,
+    // "true" when the product has stock, "false" otherwise
+    IN_STOCK;
+
+    /**
+     * Get the name of the facet in requests and responses
+     *
+     * @return the name, e.g. {@code inStock}
+     */
+    public String getName() {
+        return this == IN_STOCK ? "inStock" : name().toLowerCase(Locale.ROOT);
+    }
+}
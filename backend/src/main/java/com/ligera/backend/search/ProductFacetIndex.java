@@ -0,0 +1,307 @@
+package com.ligera.backend.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory facet index of the catalog: for every value of every {@link ProductFacet}, the bitmap of the
+ * ids of the products having it.
+ * <p>
+ * Filters select values; values of one facet are alternatives (OR), facets are all required (AND), so the
+ * matching products are a few bitmap unions and intersections. The count of a value is the size of the
+ * intersection of its bitmap with the products matching the filters on the other facets, leaving out the
+ * facet's own filter so its other values keep their counts and stay selectable.
+ * <p>
+ * Bitmaps are keyed by product id, so listings come out in id order and page by id. Updates move a product
+ * between the bitmaps of its old and new values. Searches share a read lock, updates take the write lock.
+ */
+public class ProductFacetIndex {
+
+    private static final String OPEN_ENDED = "max";
+
+    // Values are counted by reading those of the products when they are fewer than 1 in this many
+    private static final int SCAN_RATIO = 256;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<BigDecimal> priceBands;
+    private final int maxValues;
+
+    private final IdBitmap all = new IdBitmap();
+    private final Map<ProductFacet, Map<String, IdBitmap>> bitmaps = new EnumMap<>(ProductFacet.class);
+    // Values of each product, indexed by facet ordinal, to know which bitmaps to update
+    private final Map<Integer, String[]> values = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param priceBands lower bounds of the price bands after the first, in increasing order
+     * @param maxValues maximum number of values counted per facet, the most frequent kept
+     */
+    public ProductFacetIndex(List<BigDecimal> priceBands, int maxValues) {
+        this.priceBands = List.copyOf(priceBands);
+        this.maxValues = maxValues;
+        for (ProductFacet facet : ProductFacet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+        }
+    }
+
+    /**
+     * Index a product, replacing what was indexed for it before
+     *
+     * @param productId the product id
+     * @param categoryId the category id, may be null
+     * @param brand the brand, may be null
+     * @param size the size, may be null
+     * @param price the price, may be null
+     * @param quantity the quantity in stock
+     */
+    public void put(long productId, Long categoryId, String brand, String size, BigDecimal price, int quantity) {
+        int id = toId(productId);
+        String[] updated = new String[ProductFacet.values().length];
+        updated[ProductFacet.CATEGORY.ordinal()] = categoryId != null ? categoryId.toString() : null;
+        updated[ProductFacet.BRAND.ordinal()] = blankToNull(brand);
+        updated[ProductFacet.SIZE.ordinal()] = blankToNull(size);
+        updated[ProductFacet.PRICE.ordinal()] = price != null ? priceBand(price) : null;
+        updated[ProductFacet.IN_STOCK.ordinal()] = Boolean.toString(quantity > 0);
+
+        lock.writeLock().lock();
+        try {
+            String[] previous = values.put(id, updated);
+            all.add(id);
+            for (ProductFacet facet : ProductFacet.values()) {
+                String before = previous != null ? previous[facet.ordinal()] : null;
+                String after = updated[facet.ordinal()];
+                if (!Objects.equals(before, after)) {
+                    removeFrom(facet, before, id);
+                    if (after != null) {
+                        bitmaps.get(facet).computeIfAbsent(after, value -> new IdBitmap()).add(id);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product from the index
+     *
+     * @param productId the product id
+     */
+    public void remove(long productId) {
+        int id = toId(productId);
+        lock.writeLock().lock();
+        try {
+            String[] previous = values.remove(id);
+            if (previous == null) {
+                return;
+            }
+            all.remove(id);
+            for (ProductFacet facet : ProductFacet.values()) {
+                removeFrom(facet, previous[facet.ordinal()], id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Leave the products of a deleted category without one, as the foreign key does in the database
+     *
+     * @param categoryId the category id
+     */
+    public void removeCategory(long categoryId) {
+        lock.writeLock().lock();
+        try {
+            IdBitmap bitmap = bitmaps.get(ProductFacet.CATEGORY).remove(Long.toString(categoryId));
+            if (bitmap == null) {
+                return;
+            }
+            for (int id = bitmap.next(0); id >= 0; id = next(bitmap, id)) {
+                values.get(id)[ProductFacet.CATEGORY.ordinal()] = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of products indexed
+     *
+     * @return the number of products
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return values.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the price band of a price, as named in filters and counts
+     *
+     * @param price the price
+     * @return the band, e.g. {@code 25-50}, or {@code 500-max} for the last one
+     */
+    public String priceBand(BigDecimal price) {
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal bound : priceBands) {
+            if (price.compareTo(bound) < 0) {
+                return format(lower) + "-" + format(bound);
+            }
+            lower = bound;
+        }
+        return format(lower) + "-" + OPEN_ENDED;
+    }
+
+    /**
+     * List the products matching filters and count the values of every facet among them
+     *
+     * @param filters the values selected for each facet; facets absent or with no value are not filtered on
+     * @param afterId the id of the last product of the previous page, 0 for the first page
+     * @param limit the page size
+     * @return the page and the counts
+     */
+    public FacetResult filter(Map<ProductFacet, Set<String>> filters, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<ProductFacet, IdBitmap> selections = new EnumMap<>(ProductFacet.class);
+            for (Map.Entry<ProductFacet, Set<String>> filter : filters.entrySet()) {
+                if (!filter.getValue().isEmpty()) {
+                    selections.put(filter.getKey(), union(filter.getKey(), filter.getValue()));
+                }
+            }
+            IdBitmap matching = intersect(selections, null);
+
+            Map<ProductFacet, Map<String, Integer>> counts = new EnumMap<>(ProductFacet.class);
+            for (ProductFacet facet : ProductFacet.values()) {
+                IdBitmap base = selections.containsKey(facet) ? intersect(selections, facet) : matching;
+                counts.put(facet, count(facet, base));
+            }
+            return new FacetResult(page(matching, afterId, limit), matching.cardinality(), counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeFrom(ProductFacet facet, String value, int id) {
+        if (value == null) {
+            return;
+        }
+        Map<String, IdBitmap> facetBitmaps = bitmaps.get(facet);
+        IdBitmap bitmap = facetBitmaps.get(value);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                facetBitmaps.remove(value);
+            }
+        }
+    }
+
+    private IdBitmap union(ProductFacet facet, Set<String> selected) {
+        IdBitmap union = new IdBitmap();
+        for (String value : selected) {
+            IdBitmap bitmap = bitmaps.get(facet).get(value);
+            if (bitmap != null) {
+                union = IdBitmap.or(union, bitmap);
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Intersect the products with the selections of every facet but one
+     */
+    private IdBitmap intersect(Map<ProductFacet, IdBitmap> selections, ProductFacet except) {
+        // Smallest first, every later intersection is then at most that small
+        List<IdBitmap> required = new ArrayList<>();
+        selections.forEach((facet, selection) -> {
+            if (facet != except) {
+                required.add(selection);
+            }
+        });
+        if (required.isEmpty()) {
+            return all;
+        }
+        required.sort(Comparator.comparingInt(IdBitmap::cardinality));
+        IdBitmap result = required.get(0);
+        for (int i = 1; i < required.size() && !result.isEmpty(); i++) {
+            result = IdBitmap.and(result, required.get(i));
+        }
+        return result;
+    }
+
+    private Map<String, Integer> count(ProductFacet facet, IdBitmap base) {
+        Map<String, IdBitmap> facetBitmaps = bitmaps.get(facet);
+        Map<String, Integer> counted = new HashMap<>();
+        if (base == all) {
+            facetBitmaps.forEach((value, bitmap) -> counted.put(value, bitmap.cardinality()));
+        } else if (base.cardinality() * SCAN_RATIO < all.cardinality()) {
+            // Few products: looking up their values is cheaper than intersecting every value with them
+            for (int id = base.next(0); id >= 0; id = next(base, id)) {
+                String value = values.get(id)[facet.ordinal()];
+                if (value != null) {
+                    counted.merge(value, 1, Integer::sum);
+                }
+            }
+        } else {
+            // Probed once per product of every value
+            IdBitmap probed = base.toBitmaps();
+            facetBitmaps.forEach((value, bitmap) -> {
+                int count = IdBitmap.andCardinality(bitmap, probed);
+                if (count > 0) {
+                    counted.put(value, count);
+                }
+            });
+        }
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<>(counted.entrySet());
+        sorted.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : sorted.subList(0, Math.min(sorted.size(), maxValues))) {
+            counts.put(entry.getKey(), entry.getValue());
+        }
+        return counts;
+    }
+
+    private static List<Long> page(IdBitmap matching, long afterId, int limit) {
+        List<Long> ids = new ArrayList<>(limit + 1);
+        if (afterId >= Integer.MAX_VALUE) {
+            return ids;
+        }
+        for (int id = matching.next((int) afterId + 1); id >= 0 && ids.size() <= limit; id = next(matching, id)) {
+            ids.add((long) id);
+        }
+        return ids;
+    }
+
+    private static int next(IdBitmap bitmap, int id) {
+        return id == Integer.MAX_VALUE ? -1 : bitmap.next(id + 1);
+    }
+
+    private static int toId(long productId) {
+        if (productId < 0 || productId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Product id out of the facet index range: " + productId);
+        }
+        return (int) productId;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static String format(BigDecimal amount) {
+        return amount.stripTrailingZeros().toPlainString();
+    }
+}
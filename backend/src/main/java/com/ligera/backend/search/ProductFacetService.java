@@ -0,0 +1,70 @@
+package com.ligera.backend.search;
+
+import com.ligera.backend.pagination.IdCursor;
+import com.ligera.backend.pagination.KeysetPage;
+import com.ligera.backend.repositories.ProductRepository;
+import com.ligera.backend.repositories.ProductSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service listing the product catalog filtered on facets, with the facet counts
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductFacetService {
+
+    private final ProductSearchIndexer indexer;
+    private final ProductRepository productRepository;
+
+    /**
+     * List products matching facet filters, one page at a time by id
+     * <p>
+     * Filtering and counting are done by the in-memory facet index; only the page of products is read from
+     * the database. Products deleted since the index was last refreshed are left out, so a page can be
+     * shorter than the size.
+     *
+     * @param filters the values selected for each facet; values of a facet are alternatives
+     * @param cursor the cursor returned with the previous page, null for the first page
+     * @param size the page size
+     * @return the page, the number of matching products and the facet counts; empty while the index is being
+     *         built for the first time
+     */
+    @Transactional(readOnly = true)
+    public ProductListing list(Map<ProductFacet, Set<String>> filters, String cursor, int size) {
+        IdCursor after = IdCursor.decode(cursor);
+        ProductFacetIndex index = indexer.getFacetIndex();
+        if (index == null) {
+            return new ProductListing(new KeysetPage<>(List.of(), size, null), 0, Map.of());
+        }
+        FacetResult result = index.filter(filters, after != null ? after.id() : 0, size);
+
+        // One id past the page when there is a next one
+        List<Long> ids = result.productIds();
+        List<Long> pageIds = ids.subList(0, Math.min(ids.size(), size));
+        Map<Long, ProductSummary> summaries = pageIds.isEmpty() ? Map.of() : productRepository.findSummaries(pageIds)
+                .stream()
+                .collect(Collectors.toMap(ProductSummary::id, Function.identity()));
+        List<ProductSummary> products = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            ProductSummary summary = summaries.get(id);
+            if (summary != null) {
+                products.add(summary);
+            }
+        }
+        String nextCursor = ids.size() > size ? new IdCursor(pageIds.get(size - 1)).encode() : null;
+
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        result.counts().forEach((facet, counts) -> facets.put(facet.getName(), counts));
+        return new ProductListing(new KeysetPage<>(products, size, nextCursor), result.total(), facets);
+    }
+}
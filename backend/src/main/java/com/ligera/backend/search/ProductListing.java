@@ -0,0 +1,16 @@
+package com.ligera.backend.search;
+
+import com.ligera.backend.pagination.KeysetPage;
+import com.ligera.backend.repositories.ProductSummary;
+
+import java.util.Map;
+
+/**
+ * Page of products matching facet filters
+ *
+ * @param page the page of products, in id order
+ * @param total the number of products matching the filters
+ * @param facets facet name to value to number of matching products, most frequent values first
+ */
+public record ProductListing(KeysetPage<ProductSummary> page, int total, Map<String, Map<String, Integer>> facets) {
+}
@@ -0,0 +1,433 @@
+package com.ligera.backend.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of product names, brands and descriptions, ranked with BM25.
+ * <p>
+ * Every query token must match (AND), exactly, as a prefix when it is the last token (the user is still
+ * typing it), or within one typo when the exact term is not in the index. Looser matches score less than
+ * exact ones. Terms found in the name weigh more than in the brand, and in the brand more than in the
+ * description, by counting their occurrences with the weight of the field (BM25F with one length norm).
+ * <p>
+ * Documents are appended: updating a product adds a new document and marks the previous one deleted,
+ * so postings stay sorted by document without being rewritten. Deleted documents are skipped at query
+ * time and only reclaimed by building a new index, once {@link #garbageRatio()} gets high.
+ * <p>
+ * Searches share a read lock and run concurrently; updates take the write lock for the few microseconds
+ * they need.
+ */
+public class ProductSearchIndex {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    static final int NAME_WEIGHT = 3;
+    static final int BRAND_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    // Score factors of looser matches, so "shirt" ranks exact matches above "shirtdress" and "shrit"
+    static final float PREFIX_FACTOR = 0.8f;
+    static final float TYPO_FACTOR = 0.6f;
+
+    // Shorter prefixes match too much of the vocabulary to mean anything
+    static final int MIN_PREFIX_LENGTH = 2;
+    // One typo in a shorter term is often another word
+    static final int MIN_TYPO_LENGTH = 4;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxExpansions;
+
+    // Sorted, so completions of a prefix are a sub-map
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    // Terms by each variant with one character deleted, to find terms one typo away without scanning
+    private final Map<String, List<String>> deletions = new HashMap<>();
+
+    private long[] productIds = new long[1024];
+    private float[] lengths = new float[1024];
+    private final BitSet deleted = new BitSet();
+    private final Map<Long, Integer> docs = new HashMap<>();
+    private int docCount;
+    private int liveCount;
+    private double totalLength;
+
+    /**
+     * Constructor
+     *
+     * @param maxExpansions maximum number of terms a prefix or a typo expands to, the most frequent kept
+     */
+    public ProductSearchIndex(int maxExpansions) {
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * Index a product, replacing what was indexed for it before
+     *
+     * @param productId the product id
+     * @param name the product name
+     * @param brand the brand, may be null
+     * @param description the description, may be null
+     */
+    public void put(long productId, String name, String brand, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = count(frequencies, name, NAME_WEIGHT)
+                + count(frequencies, brand, BRAND_WEIGHT)
+                + count(frequencies, description, DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            int doc = docCount++;
+            if (doc == productIds.length) {
+                productIds = Arrays.copyOf(productIds, doc * 2);
+                lengths = Arrays.copyOf(lengths, doc * 2);
+            }
+            productIds[doc] = productId;
+            lengths[doc] = length;
+            docs.put(productId, doc);
+            liveCount++;
+            totalLength += length;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                Postings postings = terms.get(entry.getKey());
+                if (postings == null) {
+                    postings = new Postings();
+                    terms.put(entry.getKey(), postings);
+                    indexDeletions(entry.getKey());
+                }
+                postings.add(doc, entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product from the index
+     *
+     * @param productId the product id
+     */
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of products indexed
+     *
+     * @return the number of products
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the share of documents that are deleted but still take memory and postings
+     *
+     * @return the ratio, between 0 and 1
+     */
+    public double garbageRatio() {
+        lock.readLock().lock();
+        try {
+            return docCount == 0 ? 0 : (double) (docCount - liveCount) / docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search products
+     *
+     * @param query the query, as typed
+     * @param offset the number of best hits to skip
+     * @param limit the maximum number of hits
+     * @return the hits, best first
+     */
+    public List<SearchHit> search(String query, int offset, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.terms(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (liveCount == 0) {
+                return List.of();
+            }
+            List<Expansion[]> matches = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                Expansion[] expansions = expand(tokens.get(i), i == tokens.size() - 1);
+                if (expansions.length == 0) {
+                    // Every token must match
+                    return List.of();
+                }
+                matches.add(expansions);
+            }
+            // Rarest token first, so later ones only probe its few candidates
+            matches.sort(Comparator.comparingLong(ProductSearchIndex::cost));
+
+            float averageLength = (float) (totalLength / liveCount);
+            DocScores scores = null;
+            for (Expansion[] expansions : matches) {
+                scores = scores == null ? score(expansions, averageLength) : intersect(scores, expansions, averageLength);
+                if (scores.size() == 0) {
+                    return List.of();
+                }
+            }
+            return top(scores, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(long productId) {
+        Integer doc = docs.remove(productId);
+        if (doc != null) {
+            deleted.set(doc);
+            liveCount--;
+            totalLength -= lengths[doc];
+        }
+    }
+
+    private static int count(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> fieldTerms = TextAnalyzer.terms(text);
+        for (String term : fieldTerms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+        return fieldTerms.size() * weight;
+    }
+
+    private void indexDeletions(String term) {
+        if (term.length() < MIN_TYPO_LENGTH - 1) {
+            return;
+        }
+        for (String variant : deletionsOf(term)) {
+            deletions.computeIfAbsent(variant, key -> new ArrayList<>(1)).add(term);
+        }
+    }
+
+    private static Set<String> deletionsOf(String term) {
+        Set<String> variants = new HashSet<>();
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    /**
+     * Find the terms a query token matches, with the score factor of each
+     */
+    private Expansion[] expand(String token, boolean last) {
+        List<Expansion> expansions = new ArrayList<>();
+        Postings exact = terms.get(token);
+        // Completions are rarer than the word typed, which must not make them outrank it
+        float maxIdf = Float.MAX_VALUE;
+        if (exact != null) {
+            maxIdf = idf(exact);
+            expansions.add(new Expansion(exact, maxIdf, 1f));
+        }
+        if (last && token.length() >= MIN_PREFIX_LENGTH) {
+            List<Postings> completions = new ArrayList<>();
+            for (Map.Entry<String, Postings> entry : terms.subMap(token, false, token + Character.MAX_VALUE, false)
+                    .entrySet()) {
+                completions.add(entry.getValue());
+            }
+            for (Postings postings : mostFrequent(completions)) {
+                expansions.add(new Expansion(postings, Math.min(idf(postings), maxIdf), PREFIX_FACTOR));
+            }
+        }
+        if (exact == null && token.length() >= MIN_TYPO_LENGTH) {
+            List<Postings> corrections = new ArrayList<>();
+            for (String term : typoCandidates(token)) {
+                corrections.add(terms.get(term));
+            }
+            for (Postings postings : mostFrequent(corrections)) {
+                expansions.add(new Expansion(postings, idf(postings), TYPO_FACTOR));
+            }
+        }
+        return expansions.toArray(new Expansion[0]);
+    }
+
+    /**
+     * Find the terms one insertion, deletion, substitution or transposition away from a token: those sharing
+     * a variant with at most one character deleted, checked against the actual distance
+     */
+    private Set<String> typoCandidates(String token) {
+        Set<String> variants = deletionsOf(token);
+        variants.add(token);
+        Set<String> candidates = new HashSet<>();
+        for (String variant : variants) {
+            if (!variant.equals(token) && terms.containsKey(variant)) {
+                candidates.add(variant);
+            }
+            List<String> similar = deletions.get(variant);
+            if (similar != null) {
+                candidates.addAll(similar);
+            }
+        }
+        candidates.removeIf(term -> term.equals(token) || distance(token, term) > 1);
+        return candidates;
+    }
+
+    private List<Postings> mostFrequent(List<Postings> postings) {
+        if (postings.size() > maxExpansions) {
+            postings.sort(Comparator.comparingInt((Postings p) -> p.size).reversed());
+            return postings.subList(0, maxExpansions);
+        }
+        return postings;
+    }
+
+    private static long cost(Expansion[] expansions) {
+        long cost = 0;
+        for (Expansion expansion : expansions) {
+            cost += expansion.postings.size;
+        }
+        return cost;
+    }
+
+    /**
+     * Score every document matching the first token
+     */
+    private DocScores score(Expansion[] expansions, float averageLength) {
+        DocScores scores = new DocScores((int) Math.min(cost(expansions), liveCount), docCount);
+        for (Expansion expansion : expansions) {
+            Postings postings = expansion.postings;
+            for (int i = 0; i < postings.size; i++) {
+                int doc = postings.docs[i];
+                if (!deleted.get(doc)) {
+                    scores.max(doc, expansion.score(postings.frequencies[i], lengths[doc], averageLength));
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Keep the documents matching both the previous tokens and this one, adding up their scores. Postings much
+     * longer than the candidates are binary-searched for each candidate instead of being read through.
+     */
+    private DocScores intersect(DocScores previous, Expansion[] expansions, float averageLength) {
+        int candidates = previous.size();
+        long scanCost = cost(expansions);
+        long probeCost = (long) candidates * expansions.length * (32 - Integer.numberOfLeadingZeros(liveCount));
+        DocScores tokenScores = new DocScores(candidates, docCount);
+        if (probeCost < scanCost) {
+            for (int slot = 0; slot < previous.capacity(); slot++) {
+                int doc = previous.docAt(slot);
+                if (doc < 0) {
+                    continue;
+                }
+                for (Expansion expansion : expansions) {
+                    int i = expansion.postings.indexOf(doc);
+                    if (i >= 0) {
+                        tokenScores.max(doc, expansion.score(expansion.postings.frequencies[i], lengths[doc],
+                                averageLength));
+                    }
+                }
+            }
+        } else {
+            for (Expansion expansion : expansions) {
+                Postings postings = expansion.postings;
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    if (!Float.isNaN(previous.get(doc))) {
+                        tokenScores.max(doc, expansion.score(postings.frequencies[i], lengths[doc], averageLength));
+                    }
+                }
+            }
+        }
+        for (int slot = 0; slot < tokenScores.capacity(); slot++) {
+            int doc = tokenScores.docAt(slot);
+            if (doc >= 0) {
+                tokenScores.addAt(slot, previous.get(doc));
+            }
+        }
+        return tokenScores;
+    }
+
+    // Document frequencies count deleted documents until the next rebuild, which barely moves scores
+    private float idf(Postings postings) {
+        return (float) Math.log(1 + (liveCount - postings.size + 0.5) / (postings.size + 0.5));
+    }
+
+    private List<SearchHit> top(DocScores scores, int offset, int limit) {
+        int k = offset + limit;
+        // Worst of the best k on top, ties broken by product id so pages are stable
+        Comparator<SearchHit> worstFirst = Comparator.comparingDouble(SearchHit::score)
+                .thenComparing(Comparator.comparingLong(SearchHit::productId).reversed());
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(Math.min(k, scores.size()) + 1, worstFirst);
+        for (int slot = 0; slot < scores.capacity(); slot++) {
+            int doc = scores.docAt(slot);
+            if (doc < 0) {
+                continue;
+            }
+            float score = scores.scoreAt(slot);
+            if (best.size() < k) {
+                best.add(new SearchHit(productIds[doc], score));
+            } else if (score > best.peek().score()
+                    || (score == best.peek().score() && productIds[doc] < best.peek().productId())) {
+                best.poll();
+                best.add(new SearchHit(productIds[doc], score));
+            }
+        }
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(worstFirst.reversed());
+        return offset >= hits.size() ? List.of() : hits.subList(offset, hits.size());
+    }
+
+    /**
+     * Optimal string alignment distance: insertions, deletions, substitutions and adjacent transpositions
+     */
+    static int distance(String a, String b) {
+        if (Math.abs(a.length() - b.length()) > 1) {
+            return 2;
+        }
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    /**
+     * Postings of a term a query token matches, and how much that kind of match counts
+     */
+    private record Expansion(Postings postings, float idf, float factor) {
+
+        float score(int frequency, float length, float averageLength) {
+            return factor * idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+        }
+    }
+}
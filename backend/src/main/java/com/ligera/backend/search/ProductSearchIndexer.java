@@ -0,0 +1,139 @@
+package com.ligera.backend.search;
+
+import com.ligera.backend.sync.CatalogChange;
+import com.ligera.backend.sync.CatalogSyncService;
+import com.ligera.backend.warmup.Warmable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Keeps the product search and facet indexes up to date by following the catalog change feed.
+ * <p>
+ * The indexes are built from a snapshot of the feed at startup, then every refresh applies the product
+ * changes and deletions made since the last one, so they lag catalog writes by about the refresh interval.
+ * New indexes are built next to those serving requests, and swapped in once caught up, when the feed resets
+ * or when too much of the search index is deleted documents. Requests keep using the previous indexes,
+ * without further updates, until the swap; the build takes twice the memory while it runs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndexer implements Warmable {
+
+    private final CatalogSyncService catalogSyncService;
+    private final SearchProperties properties;
+
+    private volatile ProductSearchIndex index;
+    private volatile ProductFacetIndex facetIndex;
+    // Sequence number of the last checkpoint applied to the index
+    private long seq;
+
+    /**
+     * Get the index searches should use
+     *
+     * @return the index, or null until the first one is built
+     */
+    public ProductSearchIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Get the facet index listings should use
+     *
+     * @return the index, or null until the first one is built
+     */
+    public ProductFacetIndex getFacetIndex() {
+        return facetIndex;
+    }
+
+    @Override
+    public void warmUp() {
+        refresh();
+    }
+
+    /**
+     * Apply the catalog changes made since the last refresh, or rebuild the indexes
+     */
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval-ms:1000}")
+    public synchronized void refresh() {
+        ProductSearchIndex current = index;
+        if (current != null && current.garbageRatio() <= properties.getMaxGarbageRatio()) {
+            Applier applier = catchUp(current, facetIndex, seq, false);
+            seq = applier.seq;
+            if (!applier.reset) {
+                return;
+            }
+            log.info("Catalog change feed reset, rebuilding the product search and facet indexes");
+        }
+        long started = System.currentTimeMillis();
+        ProductSearchIndex rebuilt = new ProductSearchIndex(properties.getMaxExpansions());
+        ProductFacetIndex rebuiltFacets = new ProductFacetIndex(properties.getPriceBands(),
+                properties.getMaxFacetValues());
+        Applier applier = catchUp(rebuilt, rebuiltFacets, 0, true);
+        index = rebuilt;
+        facetIndex = rebuiltFacets;
+        seq = applier.seq;
+        log.info("Product search and facet indexes built with {} products in {} ms", rebuilt.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Read the feed until caught up, one response at a time
+     */
+    private Applier catchUp(ProductSearchIndex target, ProductFacetIndex facets, long since, boolean snapshot) {
+        Applier applier = new Applier(target, facets, since);
+        do {
+            catalogSyncService.streamChanges(applier.seq, snapshot, applier);
+        } while (applier.more && !applier.reset);
+        return applier;
+    }
+
+    /**
+     * Applies product changes and deletions to the indexes, tracking the last checkpoint
+     */
+    private static final class Applier implements Consumer<CatalogChange> {
+
+        private final ProductSearchIndex target;
+        private final ProductFacetIndex facets;
+        private long seq;
+        private boolean more = true;
+        private boolean reset;
+
+        private Applier(ProductSearchIndex target, ProductFacetIndex facets, long seq) {
+            this.target = target;
+            this.facets = facets;
+            this.seq = seq;
+        }
+
+        @Override
+        public void accept(CatalogChange change) {
+            if (reset) {
+                return;
+            }
+            if (change instanceof CatalogChange.ProductChange productChange) {
+                CatalogChange.ProductState product = productChange.product();
+                target.put(product.id(), product.name(), product.brand(), product.description());
+                facets.put(product.id(), product.categoryId(), product.brand(), product.size(), product.price(),
+                        product.quantity());
+            } else if (change instanceof CatalogChange.Tombstone tombstone) {
+                if ("product".equals(tombstone.entity())) {
+                    target.remove(tombstone.id());
+                    facets.remove(tombstone.id());
+                } else {
+                    // Its products lost their category without being numbered again
+                    facets.removeCategory(tombstone.id());
+                }
+            } else if (change instanceof CatalogChange.Checkpoint checkpoint) {
+                seq = checkpoint.seq();
+                more = checkpoint.more();
+            } else if (change instanceof CatalogChange.Reset) {
+                reset = true;
+            }
+            // Other categories are not searched, products are counted by category id
+        }
+    }
+}
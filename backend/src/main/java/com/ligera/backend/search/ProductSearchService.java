@@ -0,0 +1,61 @@
+package com.ligera.backend.search;
+
+import com.ligera.backend.repositories.ProductRepository;
+import com.ligera.backend.repositories.ProductSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service searching the product catalog by name, brand and description
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService {
+
+    private final ProductSearchIndexer indexer;
+    private final ProductRepository productRepository;
+    private final SearchProperties properties;
+
+    /**
+     * Search products, best matches first
+     * <p>
+     * Ranking is done by the in-memory index; only the page of hits is read from the database. Products
+     * deleted since the index was last refreshed are left out, so a page can be shorter than the limit.
+     *
+     * @param query the query, as typed
+     * @param offset the number of best matches to skip
+     * @param limit the maximum number of products
+     * @return the matching products, empty while the index is being built for the first time
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSummary> search(String query, int offset, int limit) {
+        ProductSearchIndex index = indexer.getIndex();
+        int end = Math.min(offset + limit, properties.getMaxResults());
+        if (index == null || offset >= end) {
+            return List.of();
+        }
+        List<SearchHit> hits = index.search(query, offset, end - offset);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductSummary> summaries = productRepository.findSummaries(
+                        hits.stream().map(SearchHit::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(ProductSummary::id, Function.identity()));
+        List<ProductSummary> products = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            ProductSummary summary = summaries.get(hit.productId());
+            if (summary != null) {
+                products.add(summary);
+            }
+        }
+        return products;
+    }
+}
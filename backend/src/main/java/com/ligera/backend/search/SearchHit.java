@@ -0,0 +1,10 @@
+package com.ligera.backend.search;
+
+/**
+ * Product matching a search, with its relevance score
+ *
+ * @param productId the product id
+ * @param score the BM25 score, higher is more relevant
+ */
+public record SearchHit(long productId, float score) {
+}
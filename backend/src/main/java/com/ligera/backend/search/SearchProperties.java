@@ -0,0 +1,33 @@
+package com.ligera.backend.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Product search and facet settings bound from app.search
+ */
+@ConfigurationProperties(prefix = "app.search")
+@Getter
+@Setter
+public class SearchProperties {
+
+    // Terms a prefix or a typo expands to at most, the most frequent ones
+    private int maxExpansions = 32;
+
+    // Hits reachable by paging; deeper pages of a search are not worth ranking
+    private int maxResults = 1000;
+
+    // Share of deleted documents above which the index is rebuilt to reclaim them
+    private double maxGarbageRatio = 0.3;
+
+    // Lower bounds of the price bands after the first, which starts at 0
+    private List<BigDecimal> priceBands = List.of(new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100"),
+            new BigDecimal("200"), new BigDecimal("500"));
+
+    // Values counted per facet at most, the most frequent ones
+    private int maxFacetValues = 50;
+}
@@ -0,0 +1,53 @@
+package com.ligera.backend.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into the terms of the search index: lower-cased, without accents, on letter and digit runs
+ */
+public final class TextAnalyzer {
+
+    // Longer runs are not words (hashes, serial numbers) and are not indexed
+    static final int MAX_TERM_LENGTH = 40;
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Get the terms of a text, in order and with repetitions
+     *
+     * @param text the text, may be null
+     * @return the terms
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKD).toLowerCase(Locale.ROOT);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                term.append(c);
+            } else {
+                flush(term, terms);
+            }
+        }
+        flush(term, terms);
+        return terms;
+    }
+
+    private static void flush(StringBuilder term, List<String> terms) {
+        if (!term.isEmpty() && term.length() <= MAX_TERM_LENGTH) {
+            terms.add(term.toString());
+        }
+        term.setLength(0);
+    }
+}
@@ -0,0 +1,306 @@
+package com.ligera.backend.security;
+
+import com.ligera.backend.warmup.Warmable;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the set of keys used to sign and verify JWT tokens, indexed by key id ({@code kid}).
+ * <p>
+ * Keys are loaded from an optional local PKCS12 keystore in which every entry alias is used as its
+ * {@code kid}. All entries remain valid for verification, while only the newest entry (by keystore
+ * creation date, unless overridden) is used for signing new tokens. The keystore file is polled for
+ * changes and reloaded in place, so keys can be rotated without a restart and without invalidating
+ * tokens that are still in flight.
+ * <p>
+ * Secret key entries sign with HMAC (HS256/384/512). Private key entries sign asymmetrically, with the
+ * algorithm derived from the key type (ES256 for P-256, EdDSA for Ed25519, RS256 for RSA), and their
+ * certificate's public key is published through {@link #getJwkSet()} so that other services can verify
+ * tokens without holding any shared secret.
+ * <p>
+ * The configured {@code app.jwt.secret} stays registered under {@link #DEFAULT_KEY_ID} and is used to
+ * verify tokens issued without a {@code kid} header.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing implements Warmable {
+
+    public static final String DEFAULT_KEY_ID = "default";
+
+    @Value("${app.jwt.secret:defaultSecretKeyWhichShouldBeChangedInProduction}")
+    private String jwtSecret;
+
+    @Value("${app.jwt.keystore.path:}")
+    private String keystorePath;
+
+    @Value("${app.jwt.keystore.password:}")
+    private String keystorePassword;
+
+    @Value("${app.jwt.keystore.signing-kid:}")
+    private String signingKidOverride;
+
+    // Immutable snapshot swapped atomically on reload
+    private volatile KeySet keySet;
+
+    private volatile long keystoreLastModified = -1;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        this.keySet = loadKeySet();
+        log.info("JWT key ring initialized with keys {} (signing kid: {})",
+                keySet.verificationKeys().keySet(), keySet.signingKeyId());
+    }
+
+    /**
+     * Sign and verify a throwaway token, so that the first login does not pay for loading the JWT stack
+     */
+    @Override
+    public void warmUp() {
+        String token = Jwts.builder()
+                .header().keyId(getSigningKeyId()).and()
+                .subject("warmup")
+                .signWith(getSigningKey())
+                .compact();
+        getParser().parseSignedClaims(token);
+    }
+
+    /**
+     * Reload the keystore if the file changed since the last load
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.keystore.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        if (!hasKeystore()) {
+            return;
+        }
+
+        try {
+            long lastModified = Files.getLastModifiedTime(Path.of(keystorePath)).toMillis();
+            if (lastModified != keystoreLastModified) {
+                reload();
+            }
+        } catch (IOException e) {
+            log.error("Unable to check JWT keystore {}: {}", keystorePath, e.getMessage());
+        }
+    }
+
+    /**
+     * Reload all keys, keeping the current key set if the keystore cannot be read
+     */
+    public void reload() {
+        // Keystore I/O inside synchronized would pin a virtual scheduler thread
+        reloadLock.lock();
+        try {
+            KeySet reloaded = loadKeySet();
+            this.keySet = reloaded;
+            log.info("JWT key ring reloaded with keys {} (signing kid: {})",
+                    reloaded.verificationKeys().keySet(), reloaded.signingKeyId());
+        } catch (IllegalStateException e) {
+            log.error("JWT key ring reload failed, keeping previous keys: {}", e.getMessage());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Get the key id of the key currently used for signing
+     *
+     * @return the signing key id
+     */
+    public String getSigningKeyId() {
+        return keySet.signingKeyId();
+    }
+
+    /**
+     * Get the key currently used for signing
+     *
+     * @return the signing key
+     */
+    public Key getSigningKey() {
+        return keySet.signingKey();
+    }
+
+    /**
+     * Get the parser bound to the current key set. The parser is thread-safe and reused across requests.
+     *
+     * @return the JWT parser
+     */
+    public JwtParser getParser() {
+        return keySet.parser();
+    }
+
+    /**
+     * Get the ids of all keys accepted for verification
+     *
+     * @return the verification key ids
+     */
+    public Set<String> getKeyIds() {
+        return keySet.verificationKeys().keySet();
+    }
+
+    /**
+     * Get the public verification keys as a JSON Web Key Set. Secret keys are never included.
+     *
+     * @return the JWK set of all asymmetric verification keys
+     */
+    public JwkSet getJwkSet() {
+        return keySet.jwkSet();
+    }
+
+    /**
+     * Build a new key set from the configured secret and the keystore
+     */
+    private KeySet loadKeySet() {
+        Map<String, Key> signingKeys = new LinkedHashMap<>();
+        Map<String, Key> verificationKeys = new LinkedHashMap<>();
+        if (jwtSecret != null && !jwtSecret.isEmpty()) {
+            Key secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+            signingKeys.put(DEFAULT_KEY_ID, secretKey);
+            verificationKeys.put(DEFAULT_KEY_ID, secretKey);
+        }
+
+        String signingKid = DEFAULT_KEY_ID;
+        if (hasKeystore()) {
+            signingKid = loadKeystore(signingKeys, verificationKeys);
+        }
+
+        if (signingKidOverride != null && !signingKidOverride.isEmpty()) {
+            signingKid = signingKidOverride;
+        }
+
+        Key signingKey = signingKeys.get(signingKid);
+        if (signingKey == null) {
+            throw new IllegalStateException("No JWT signing key available for kid: " + signingKid);
+        }
+
+        Map<String, Key> keys = Collections.unmodifiableMap(verificationKeys);
+        return new KeySet(signingKid, signingKey, keys, buildParser(keys), buildJwkSet(keys));
+    }
+
+    /**
+     * Load the key entries of the keystore into the given maps
+     *
+     * @return the kid of the newest entry
+     */
+    private String loadKeystore(Map<String, Key> signingKeys, Map<String, Key> verificationKeys) {
+        Path path = Path.of(keystorePath);
+        char[] password = keystorePassword.toCharArray();
+
+        try (InputStream is = Files.newInputStream(path)) {
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(is, password);
+
+            String newestKid = null;
+            Date newestDate = null;
+            Enumeration<String> aliases = keyStore.aliases();
+            while (aliases.hasMoreElements()) {
+                String alias = aliases.nextElement();
+                if (keyStore.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)) {
+                    SecretKey secretKey = (SecretKey) keyStore.getKey(alias, password);
+                    Key hmacKey = Keys.hmacShaKeyFor(secretKey.getEncoded());
+                    signingKeys.put(alias, hmacKey);
+                    verificationKeys.put(alias, hmacKey);
+                } else if (keyStore.entryInstanceOf(alias, KeyStore.PrivateKeyEntry.class)) {
+                    Certificate certificate = keyStore.getCertificate(alias);
+                    signingKeys.put(alias, keyStore.getKey(alias, password));
+                    verificationKeys.put(alias, certificate.getPublicKey());
+                } else {
+                    continue;
+                }
+
+                Date created = keyStore.getCreationDate(alias);
+                if (newestDate == null || (created != null && created.after(newestDate))) {
+                    newestDate = created;
+                    newestKid = alias;
+                }
+            }
+
+            if (newestKid == null) {
+                throw new IllegalStateException("JWT keystore contains no keys: " + keystorePath);
+            }
+
+            keystoreLastModified = lastModified;
+            return newestKid;
+        } catch (IOException | GeneralSecurityException | JwtException e) {
+            // JwtException covers secret entries too short for HMAC, rejected by Keys.hmacShaKeyFor
+            throw new IllegalStateException("Failed to load JWT keystore " + keystorePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Build a parser that resolves the verification key from the token's kid header
+     */
+    private JwtParser buildParser(Map<String, Key> verificationKeys) {
+        return Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        String kid = header.getKeyId() != null ? header.getKeyId() : DEFAULT_KEY_ID;
+                        Key key = verificationKeys.get(kid);
+                        if (key == null) {
+                            throw new SignatureException("Unknown JWT key id: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Build the JWK set published for asymmetric verification keys
+     */
+    private JwkSet buildJwkSet(Map<String, Key> verificationKeys) {
+        var builder = Jwks.set();
+        verificationKeys.forEach((kid, key) -> {
+            if (key instanceof PublicKey publicKey) {
+                builder.add(Jwks.builder().key(publicKey).id(kid).build());
+            }
+        });
+        return builder.build();
+    }
+
+    private boolean hasKeystore() {
+        return keystorePath != null && !keystorePath.isEmpty();
+    }
+
+    /**
+     * Immutable snapshot of the keys and the parser built for them
+     */
+    private record KeySet(String signingKeyId, Key signingKey, Map<String, Key> verificationKeys,
+                          JwtParser parser, JwkSet jwkSet) {
+    }
+}
@@ -1,16 +1,14 @@
 package com.ligera.backend.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
-import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -21,21 +19,14 @@ import java.util.function.Function;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtUtils {
 
-    @Value("${app.jwt.secret:defaultSecretKeyWhichShouldBeChangedInProduction}")
-    private String jwtSecret;
+    private final JwtKeyRing keyRing;
 
     @Value("${app.jwt.expiration-ms:86400000}") // Default: 24 hours
     private long jwtExpirationMs;
 
-    private Key key;
-
-    @PostConstruct
-    public void init() {
-        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-    }
-
     /**
      * Generate a JWT token for an authenticated user
      *
@@ -70,11 +61,12 @@ public class JwtUtils {
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(key)
+                .header().keyId(keyRing.getSigningKeyId()).and()
+                .claims(claims)
+                .subject(subject)
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(keyRing.getSigningKey())
                 .compact();
     }
 
@@ -86,7 +78,7 @@ public class JwtUtils {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            keyRing.getParser().parseSignedClaims(token);
             return true;
         } catch (SignatureException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
@@ -142,11 +134,9 @@ public class JwtUtils {
      * @return all claims
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return keyRing.getParser()
+                .parseSignedClaims(token)
+                .getPayload();
     }
 
     /**
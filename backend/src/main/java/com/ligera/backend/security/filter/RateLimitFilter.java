@@ -29,8 +29,8 @@ public class RateLimitFilter implements Filter {
         
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         
-        // Skip rate limiting for static resources and non-API requests
-        if (isStaticResource(httpRequest) || !isApiRequest(httpRequest)) {
+        // Skip rate limiting for static resources, actuator endpoints and non-API requests
+        if (isStaticResource(httpRequest) || isActuatorRequest(httpRequest) || !isApiRequest(httpRequest)) {
             chain.doFilter(request, response);
             return;
         }
@@ -51,7 +51,7 @@ public class RateLimitFilter implements Filter {
     /**
      * Get the current authenticated user ID, or null if not authenticated
      */
-    private String getCurrentUserId() {
+    public static String getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated() && 
                 !"anonymousUser".equals(authentication.getPrincipal())) {
@@ -76,6 +76,13 @@ public class RateLimitFilter implements Filter {
                path.contains("/v3/api-docs/");
     }
     
+    /**
+     * Check if the request is for an actuator endpoint, polled by probes and scrapers rather than clients
+     */
+    private boolean isActuatorRequest(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator/");
+    }
+    
     /**
      * Check if the request is an API request
      */
@@ -87,7 +94,7 @@ public class RateLimitFilter implements Filter {
     /**
      * Get the client IP address, handling proxies
      */
-    private String getClientIp(HttpServletRequest request) {
+    public static String getClientIp(HttpServletRequest request) {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
             // Get the first IP in case of multiple proxies
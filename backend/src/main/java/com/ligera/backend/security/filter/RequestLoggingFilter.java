@@ -1,11 +1,13 @@
 package com.ligera.backend.security.filter;
 
+import com.ligera.backend.imports.UserImportReader;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
@@ -17,6 +19,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -24,12 +27,15 @@ import java.util.Map;
  */
 @Component
 @Slf4j
-@Order(Ordered.HIGHEST_PRECEDENCE)
+@Order(Ordered.HIGHEST_PRECEDENCE + 1) // Inside the compression filter, so bodies are logged uncompressed
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
     
     private static final int MAX_PAYLOAD_LENGTH = 1000; // Limit payload logging to prevent excessive logs
+
+    // Endpoints streaming their response, matched whatever the context path and API version
+    private static final List<String> STREAMED_RESPONSE_PATHS = List.of("/catalog/changes");
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) 
@@ -41,6 +47,24 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
             return;
         }
         
+        // Stream bulk uploads and streamed responses through, the caching wrappers would hold the whole body
+        // and response in memory and send nothing before the end
+        if (isStreamingRequest(request)) {
+            long startTime = System.currentTimeMillis();
+            logRequest(request);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                log.info("[RESPONSE] [{}] [{}] [Status: {}] [Duration: {} ms]",
+                        request.getAttribute("requestId"),
+                        LocalDateTime.now().format(TIMESTAMP_FORMAT),
+                        response.getStatus(),
+                        System.currentTimeMillis() - startTime
+                );
+            }
+            return;
+        }
+
         // Wrap request and response to allow reading the body multiple times
         ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
         ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
@@ -66,7 +90,7 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
     /**
      * Log the incoming request
      */
-    private void logRequest(ContentCachingRequestWrapper request) {
+    private void logRequest(HttpServletRequest request) {
         String requestId = generateRequestId();
         request.setAttribute("requestId", requestId);
         
@@ -144,6 +168,20 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
                path.contains("/v3/api-docs/");
     }
     
+    /**
+     * Check if the request body is a stream of records, such as a bulk import, or the endpoint streams its
+     * response, such as the catalog change feed. Decided from the path rather than the Accept header, so a
+     * client asking for any type still gets the feed as it is written.
+     */
+    private boolean isStreamingRequest(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        String path = request.getRequestURI();
+        return (contentType != null &&
+                (contentType.startsWith(UserImportReader.TEXT_CSV_VALUE) ||
+                 contentType.startsWith(MediaType.APPLICATION_NDJSON_VALUE))) ||
+               STREAMED_RESPONSE_PATHS.stream().anyMatch(path::endsWith);
+    }
+    
     /**
      * Generate a unique request ID
      */
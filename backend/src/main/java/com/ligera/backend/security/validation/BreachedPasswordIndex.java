@@ -0,0 +1,257 @@
+package com.ligera.backend.security.validation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Read-only, memory-mapped index of breached passwords produced by {@link BreachedPasswordIndexBuilder}.
+ * <p>
+ * The file holds the first 64 bits of the SHA-1 of every lowercased password, sorted as signed longs, so a
+ * lookup is a binary search over the mapped pages. Opening the index only maps the file: nothing is read
+ * up front and the heap cost is the same whatever the size of the list. An optional blocked Bloom filter
+ * stored in the same file answers most lookups of passwords that are not in the list with a single cache
+ * line, before touching the sorted entries.
+ * <p>
+ * File layout, big-endian:
+ * <pre>
+ * int   magic ("LGBP")
+ * int   version
+ * long  entry count
+ * int   Bloom filter blocks of 512 bits, 0 when absent
+ * int   reserved
+ * long[] Bloom filter bits (blocks * 8)
+ * long[] sorted entries (entry count)
+ * </pre>
+ */
+final class BreachedPasswordIndex {
+
+    static final int MAGIC = 0x4C475042;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+
+    // Bloom filter blocks span one 64-byte cache line
+    static final int BLOOM_BLOCK_LONGS = 8;
+    private static final int BLOOM_PROBES = 7;
+    private static final long BLOOM_MIX = 0x9E3779B97F4A7C15L;
+
+    // A single mapping is limited to 2 GiB, so entries are mapped in segments of 2^27 longs (1 GiB)
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private static final ThreadLocal<Sha1> SHA1 = ThreadLocal.withInitial(Sha1::new);
+
+    private final LongBuffer[] segments;
+    private final long size;
+    private final LongBuffer bloomFilter;
+    private final int bloomBlocks;
+
+    private BreachedPasswordIndex(LongBuffer[] segments, long size, LongBuffer bloomFilter, int bloomBlocks) {
+        this.segments = segments;
+        this.size = size;
+        this.bloomFilter = bloomFilter;
+        this.bloomBlocks = bloomBlocks;
+    }
+
+    /**
+     * Map an index file
+     *
+     * @param path the index file
+     * @param useBloomFilter whether to consult the Bloom filter, if the file has one
+     * @return the mapped index
+     * @throws IOException if the file cannot be read or is not a valid index
+     */
+    static BreachedPasswordIndex open(Path path, boolean useBloomFilter) throws IOException {
+        // The mappings stay valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read the full header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException("Not a breached password index: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported breached password index version " + version + ": " + path);
+            }
+            long size = header.getLong();
+            int bloomBlocks = header.getInt();
+
+            long bloomBytes = (long) bloomBlocks * BLOOM_BLOCK_LONGS * Long.BYTES;
+            long entriesOffset = HEADER_SIZE + bloomBytes;
+            if (size < 0 || bloomBlocks < 0 || channel.size() != entriesOffset + size * Long.BYTES) {
+                throw new IOException("Truncated breached password index: " + path);
+            }
+
+            LongBuffer bloomFilter = null;
+            if (useBloomFilter && bloomBlocks > 0) {
+                bloomFilter = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, bloomBytes).asLongBuffer();
+            }
+
+            int segmentCount = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+            LongBuffer[] segments = new LongBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = (long) i << SEGMENT_SHIFT;
+                long entries = Math.min(size - first, 1L << SEGMENT_SHIFT);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        entriesOffset + first * Long.BYTES, entries * Long.BYTES).asLongBuffer();
+            }
+
+            return new BreachedPasswordIndex(segments, size, bloomFilter, bloomFilter != null ? bloomBlocks : 0);
+        }
+    }
+
+    /**
+     * Check whether a lowercased password is in the index
+     *
+     * @param lowercasePassword the lowercased password
+     * @return true if the password (or, very rarely, another one sharing its hash prefix) is in the index
+     */
+    boolean contains(String lowercasePassword) {
+        return containsKey(keyOf(lowercasePassword));
+    }
+
+    /**
+     * Check whether an ASCII password is in the index, ignoring case
+     *
+     * @param asciiPassword the password, containing only ASCII characters
+     * @return true if the lowercased password is in the index
+     */
+    boolean containsAsciiIgnoreCase(String asciiPassword) {
+        return containsKey(SHA1.get().asciiLowercaseKey(asciiPassword));
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean hasBloomFilter() {
+        return bloomFilter != null;
+    }
+
+    /**
+     * Compute the index key of a lowercased password: the first 64 bits of its UTF-8 SHA-1
+     *
+     * @param lowercasePassword the lowercased password
+     * @return the key
+     */
+    static long keyOf(String lowercasePassword) {
+        return SHA1.get().key(lowercasePassword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Set the Bloom filter bits of a key
+     *
+     * @param bloomFilter the Bloom filter bits, {@link #BLOOM_BLOCK_LONGS} longs per block
+     * @param bloomBlocks the number of blocks
+     * @param key the key to add
+     */
+    static void addToBloomFilter(LongBuffer bloomFilter, int bloomBlocks, long key) {
+        int base = bloomBlock(key, bloomBlocks) * BLOOM_BLOCK_LONGS;
+        long probes = key * BLOOM_MIX;
+        for (int i = 0; i < BLOOM_PROBES; i++, probes >>>= 9) {
+            int bit = (int) (probes & 511);
+            int index = base + (bit >>> 6);
+            bloomFilter.put(index, bloomFilter.get(index) | 1L << (bit & 63));
+        }
+    }
+
+    private boolean containsKey(long key) {
+        if (bloomFilter != null && !mightContain(key)) {
+            return false;
+        }
+
+        long low = 0;
+        long high = size - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            long value = entry(mid);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean mightContain(long key) {
+        int base = bloomBlock(key, bloomBlocks) * BLOOM_BLOCK_LONGS;
+        long probes = key * BLOOM_MIX;
+        for (int i = 0; i < BLOOM_PROBES; i++, probes >>>= 9) {
+            int bit = (int) (probes & 511);
+            if ((bloomFilter.get(base + (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Select the block of a key, each of its probes then picks a bit from 9 bits of the mixed key
+     */
+    private static int bloomBlock(long key, int bloomBlocks) {
+        return (int) Long.remainderUnsigned(key, bloomBlocks);
+    }
+
+    private long entry(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+    }
+
+    /**
+     * Per-thread SHA-1 digest with its output buffer, so hashing a password allocates nothing
+     */
+    private static final class Sha1 {
+
+        private final MessageDigest digest;
+        private final byte[] output = new byte[20];
+
+        private Sha1() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-1 is not available", e);
+            }
+        }
+
+        private long key(byte[] bytes) {
+            digest.update(bytes);
+            return finish();
+        }
+
+        private long asciiLowercaseKey(String asciiPassword) {
+            for (int i = 0; i < asciiPassword.length(); i++) {
+                char c = asciiPassword.charAt(i);
+                if (c >= 'A' && c <= 'Z') {
+                    c += 'a' - 'A';
+                }
+                digest.update((byte) c);
+            }
+            return finish();
+        }
+
+        private long finish() {
+            try {
+                digest.digest(output, 0, output.length);
+            } catch (DigestException e) {
+                throw new IllegalStateException("SHA-1 digest failed", e);
+            }
+            long key = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                key = (key << 8) | (output[i] & 0xFF);
+            }
+            return key;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.ligera.backend.security.validation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Build step compiling plain-text password lists (one password per line) into a {@link BreachedPasswordIndex}.
+ * <p>
+ * Passwords are hashed and sorted in bounded chunks that are spilled to temporary files and merged, so lists
+ * of hundreds of millions of entries can be compiled with a small heap. The merge runs twice: once to count
+ * the distinct passwords the Bloom filter is sized for, then to write them while setting the filter bits in
+ * a memory-mapped region of the output file. Run through the
+ * {@code breached-passwords} Maven profile, or directly:
+ * <pre>
+ * java -cp ... com.ligera.backend.security.validation.BreachedPasswordIndexBuilder \
+ *     [--bloom-bits-per-entry 10] output.idx list1.txt [list2.txt ...]
+ * </pre>
+ */
+@Slf4j
+public final class BreachedPasswordIndexBuilder {
+
+    // 16M keys (128 MiB) sorted in memory per chunk
+    private static final int CHUNK_SIZE = 1 << 24;
+
+    private static final int DEFAULT_BLOOM_BITS_PER_ENTRY = 10;
+
+    private BreachedPasswordIndexBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int bloomBitsPerEntry = DEFAULT_BLOOM_BITS_PER_ENTRY;
+        int first = 0;
+        if (args.length > 1 && args[0].equals("--bloom-bits-per-entry")) {
+            bloomBitsPerEntry = Integer.parseInt(args[1]);
+            first = 2;
+        }
+        if (args.length - first < 2) {
+            throw new IllegalArgumentException(
+                    "Usage: BreachedPasswordIndexBuilder [--bloom-bits-per-entry N] <output> <password list>...");
+        }
+
+        List<Path> sources = new ArrayList<>();
+        for (int i = first + 1; i < args.length; i++) {
+            sources.add(Path.of(args[i]));
+        }
+        build(sources, Path.of(args[first]), bloomBitsPerEntry);
+    }
+
+    /**
+     * Compile password lists into an index file
+     *
+     * @param sources the plain-text password lists
+     * @param output the index file to write
+     * @param bloomBitsPerEntry Bloom filter size in bits per password, 0 for no Bloom filter
+     * @return the number of distinct entries written
+     * @throws IOException if a list cannot be read or the index cannot be written
+     */
+    public static long build(List<Path> sources, Path output, int bloomBitsPerEntry) throws IOException {
+        long started = System.currentTimeMillis();
+        Path workDir = Files.createTempDirectory("breached-passwords");
+        try {
+            List<Path> chunks = new ArrayList<>();
+            long total = sortChunks(sources, workDir, chunks);
+            // A first pass counts the distinct passwords, lists overlap too much to size the filter from total
+            long distinct = merge(chunks, key -> { });
+            long entries = write(chunks, output, bloomBlocks(distinct, bloomBitsPerEntry));
+            log.info("Built breached password index {} with {} entries from {} passwords in {} ms",
+                    output, entries, total, System.currentTimeMillis() - started);
+            return entries;
+        } finally {
+            try (var files = Files.list(workDir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(workDir);
+        }
+    }
+
+    /**
+     * Hash the passwords into sorted, de-duplicated chunk files
+     *
+     * @return the number of passwords read
+     */
+    private static long sortChunks(List<Path> sources, Path workDir, List<Path> chunks) throws IOException {
+        long[] chunk = new long[CHUNK_SIZE];
+        int count = 0;
+        long total = 0;
+
+        for (Path source : sources) {
+            try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    chunk[count++] = BreachedPasswordIndex.keyOf(line.toLowerCase(Locale.ROOT));
+                    total++;
+                    if (count == chunk.length) {
+                        chunks.add(writeChunk(chunk, count, workDir));
+                        count = 0;
+                    }
+                }
+            }
+        }
+        if (count > 0 || chunks.isEmpty()) {
+            chunks.add(writeChunk(chunk, count, workDir));
+        }
+        return total;
+    }
+
+    private static Path writeChunk(long[] chunk, int count, Path workDir) throws IOException {
+        Arrays.sort(chunk, 0, count);
+        Path file = Files.createTempFile(workDir, "chunk", ".bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || chunk[i] != chunk[i - 1]) {
+                    out.writeLong(chunk[i]);
+                }
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Merge the sorted chunks into the index file, filling the Bloom filter on the way
+     * <p>
+     * The Bloom filter is set in a mapped region of the output file rather than on the heap; its pages are
+     * written back by the operating system.
+     *
+     * @return the number of distinct entries
+     */
+    private static long write(List<Path> chunks, Path output, int bloomBlocks) throws IOException {
+        long bloomBytes = (long) bloomBlocks * BreachedPasswordIndex.BLOOM_BLOCK_LONGS * Long.BYTES;
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer bloomRegion = bloomBlocks > 0
+                    ? channel.map(FileChannel.MapMode.READ_WRITE, BreachedPasswordIndex.HEADER_SIZE, bloomBytes)
+                    : null;
+            LongBuffer bloomFilter = bloomRegion != null ? bloomRegion.asLongBuffer() : null;
+
+            channel.position(BreachedPasswordIndex.HEADER_SIZE + bloomBytes);
+            // The channel is closed by the enclosing try
+            OutputStream channelOut = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(channelOut, 1 << 16));
+            long entries = merge(chunks, key -> {
+                out.writeLong(key);
+                if (bloomFilter != null) {
+                    BreachedPasswordIndex.addToBloomFilter(bloomFilter, bloomBlocks, key);
+                }
+            });
+            out.flush();
+            if (bloomRegion != null) {
+                bloomRegion.force();
+            }
+
+            writeHeader(channel, entries, bloomBlocks);
+            return entries;
+        }
+    }
+
+    /**
+     * Merge the sorted chunks, passing every distinct key once, in order
+     *
+     * @return the number of distinct keys
+     */
+    private static long merge(List<Path> chunks, KeySink sink) throws IOException {
+        long entries = 0;
+        PriorityQueue<ChunkReader> queue = new PriorityQueue<>();
+        try {
+            for (Path chunk : chunks) {
+                ChunkReader reader = new ChunkReader(chunk);
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+
+            long previous = 0;
+            while (!queue.isEmpty()) {
+                ChunkReader reader = queue.poll();
+                long key = reader.current;
+                if (entries == 0 || key != previous) {
+                    sink.accept(key);
+                    previous = key;
+                    entries++;
+                }
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+        } finally {
+            for (ChunkReader reader : queue) {
+                reader.close();
+            }
+        }
+        return entries;
+    }
+
+    private static void writeHeader(FileChannel channel, long entries, int bloomBlocks) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(BreachedPasswordIndex.HEADER_SIZE);
+        header.putInt(BreachedPasswordIndex.MAGIC)
+                .putInt(BreachedPasswordIndex.VERSION)
+                .putLong(entries)
+                .putInt(bloomBlocks)
+                .putInt(0);
+        header.flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+
+    private static int bloomBlocks(long entries, int bitsPerEntry) {
+        if (bitsPerEntry <= 0 || entries == 0) {
+            return 0;
+        }
+        long blocks = (entries * bitsPerEntry + 511) / 512;
+        // The filter is mapped as one region when the index is opened
+        if (blocks > Integer.MAX_VALUE / (BreachedPasswordIndex.BLOOM_BLOCK_LONGS * Long.BYTES)) {
+            throw new IllegalArgumentException("Bloom filter too large: " + blocks + " blocks");
+        }
+        return (int) blocks;
+    }
+
+    /**
+     * Receiver of the merged keys
+     */
+    @FunctionalInterface
+    private interface KeySink {
+        void accept(long key) throws IOException;
+    }
+
+    /**
+     * Sequential reader over one sorted chunk file
+     */
+    private static final class ChunkReader implements Comparable<ChunkReader> {
+
+        private final DataInputStream in;
+        private long current;
+
+        private ChunkReader(Path file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+        }
+
+        private boolean advance() throws IOException {
+            try {
+                current = in.readLong();
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+
+        private void close() throws IOException {
+            in.close();
+        }
+
+        @Override
+        public int compareTo(ChunkReader other) {
+            return Long.compare(current, other.current);
+        }
+    }
+}
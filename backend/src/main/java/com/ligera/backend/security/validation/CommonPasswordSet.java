@@ -0,0 +1,117 @@
+package com.ligera.backend.security.validation;
+
+import java.util.Collection;
+
+/**
+ * Immutable open-addressing set of lowercased common passwords.
+ * <p>
+ * Entries are indexed by {@link String#hashCode()} of their lowercase form, which lets an ASCII password be
+ * looked up with a hash accumulated while it is scanned, without building its lowercase copy.
+ */
+final class CommonPasswordSet {
+
+    private final int[] hashes;
+    private final String[] entries;
+    private final int mask;
+    private final int size;
+    private final int maxLength;
+
+    private CommonPasswordSet(Collection<String> lowercasePasswords) {
+        int capacity = Integer.highestOneBit(Math.max(4, lowercasePasswords.size() * 2) - 1) << 1;
+        this.hashes = new int[capacity];
+        this.entries = new String[capacity];
+        this.mask = capacity - 1;
+
+        int count = 0;
+        int longest = 0;
+        for (String password : lowercasePasswords) {
+            int hash = password.hashCode();
+            int index = indexFor(hash);
+            while (entries[index] != null && !entries[index].equals(password)) {
+                index = (index + 1) & mask;
+            }
+            if (entries[index] == null) {
+                hashes[index] = hash;
+                entries[index] = password;
+                count++;
+                longest = Math.max(longest, password.length());
+            }
+        }
+        this.size = count;
+        this.maxLength = longest;
+    }
+
+    /**
+     * Create a set from already lowercased passwords
+     *
+     * @param lowercasePasswords the passwords, lowercased
+     * @return the set
+     */
+    static CommonPasswordSet of(Collection<String> lowercasePasswords) {
+        return new CommonPasswordSet(lowercasePasswords);
+    }
+
+    /**
+     * Check whether a lowercased password is in the set
+     *
+     * @param lowercasePassword the lowercased password
+     * @return true if the password is common
+     */
+    boolean contains(String lowercasePassword) {
+        if (lowercasePassword.length() > maxLength) {
+            return false;
+        }
+
+        int hash = lowercasePassword.hashCode();
+        for (int index = indexFor(hash); entries[index] != null; index = (index + 1) & mask) {
+            if (hashes[index] == hash && entries[index].equals(lowercasePassword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether an ASCII password is in the set, ignoring case
+     *
+     * @param asciiPassword the password, containing only ASCII characters
+     * @param lowercaseHash the {@link String#hashCode()} of the lowercased password
+     * @return true if the password is common
+     */
+    boolean containsAsciiIgnoreCase(String asciiPassword, int lowercaseHash) {
+        if (asciiPassword.length() > maxLength) {
+            return false;
+        }
+
+        for (int index = indexFor(lowercaseHash); entries[index] != null; index = (index + 1) & mask) {
+            if (hashes[index] == lowercaseHash && equalsAsciiIgnoreCase(entries[index], asciiPassword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int indexFor(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static boolean equalsAsciiIgnoreCase(String lowercaseEntry, String asciiPassword) {
+        if (lowercaseEntry.length() != asciiPassword.length()) {
+            return false;
+        }
+        for (int i = 0; i < asciiPassword.length(); i++) {
+            char c = asciiPassword.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != lowercaseEntry.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
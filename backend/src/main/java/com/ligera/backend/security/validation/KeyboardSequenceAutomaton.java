@@ -0,0 +1,170 @@
+package com.ligera.backend.security.validation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton matching every forward and reverse 3-character run of the alphabet, the digits
+ * and the keyboard rows, case-insensitively.
+ * <p>
+ * The automaton is compiled once into a dense transition table, so matching a password costs one array
+ * lookup per character and allocates nothing. Case folding follows {@code String.toLowerCase(Locale.ROOT)}
+ * for every character that lowercases into ASCII.
+ */
+final class KeyboardSequenceAutomaton {
+
+    static final int START = 0;
+
+    private static final String[] SEQUENCES = {
+            "abcdefghijklmnopqrstuvwxyz",
+            "0123456789",
+            "qwertyuiop",
+            "asdfghjkl",
+            "zxcvbnm"
+    };
+
+    private static final int PATTERN_LENGTH = 3;
+
+    // Characters that lowercase into ASCII outside of A-Z
+    private static final char KELVIN_SIGN = '\u212A';
+    private static final char CAPITAL_I_WITH_DOT = '\u0130';
+
+    private static final KeyboardSequenceAutomaton INSTANCE = new KeyboardSequenceAutomaton();
+
+    // Symbol index per ASCII character, otherSymbol for characters that never appear in a sequence
+    private final byte[] symbols = new byte[128];
+    private final int otherSymbol;
+    private final int symbolCount;
+    private final short[] transitions;
+    private final boolean[] accepting;
+
+    private KeyboardSequenceAutomaton() {
+        int nextSymbol = 0;
+        Arrays.fill(symbols, (byte) -1);
+        for (String sequence : SEQUENCES) {
+            for (char c : sequence.toCharArray()) {
+                if (symbols[c] < 0) {
+                    symbols[c] = (byte) nextSymbol++;
+                }
+            }
+        }
+        otherSymbol = nextSymbol;
+        symbolCount = nextSymbol + 1;
+        for (int c = 0; c < symbols.length; c++) {
+            if (symbols[c] < 0) {
+                symbols[c] = (byte) otherSymbol;
+            }
+        }
+
+        // Build the trie of all forward and reverse patterns
+        List<int[]> trie = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        trie.add(newNode());
+        terminal.add(false);
+        for (String sequence : SEQUENCES) {
+            String reversed = new StringBuilder(sequence).reverse().toString();
+            for (String source : new String[]{sequence, reversed}) {
+                for (int i = 0; i <= source.length() - PATTERN_LENGTH; i++) {
+                    int node = START;
+                    for (int j = i; j < i + PATTERN_LENGTH; j++) {
+                        int symbol = symbols[source.charAt(j)];
+                        if (trie.get(node)[symbol] < 0) {
+                            trie.get(node)[symbol] = trie.size();
+                            trie.add(newNode());
+                            terminal.add(false);
+                        }
+                        node = trie.get(node)[symbol];
+                    }
+                    terminal.set(node, true);
+                }
+            }
+        }
+
+        // Resolve failure links breadth-first into a complete transition table
+        int stateCount = trie.size();
+        transitions = new short[stateCount * symbolCount];
+        accepting = new boolean[stateCount];
+        int[] failure = new int[stateCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            int child = trie.get(START)[symbol];
+            if (child < 0) {
+                transitions[symbol] = START;
+            } else {
+                transitions[symbol] = (short) child;
+                failure[child] = START;
+                queue.add(child);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepting[state] = terminal.get(state) || accepting[failure[state]];
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int child = trie.get(state)[symbol];
+                int fallback = transitions[failure[state] * symbolCount + symbol];
+                if (child < 0) {
+                    transitions[state * symbolCount + symbol] = (short) fallback;
+                } else {
+                    transitions[state * symbolCount + symbol] = (short) child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    static KeyboardSequenceAutomaton getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Advance the automaton by one password character
+     *
+     * @param state the current state
+     * @param c the next character, in its original case
+     * @return the new state
+     */
+    int next(int state, char c) {
+        if (c == CAPITAL_I_WITH_DOT) {
+            // Lowercases to 'i' followed by a combining dot, which breaks any run after the 'i'
+            int afterI = step(state, symbols['i']);
+            return accepting[afterI] ? afterI : step(afterI, otherSymbol);
+        }
+        return step(state, symbolOf(c));
+    }
+
+    /**
+     * Check whether a sequence has been matched on the way to this state
+     *
+     * @param state the current state
+     * @return true if a sequential pattern ends at this state
+     */
+    boolean isMatch(int state) {
+        return accepting[state];
+    }
+
+    private int step(int state, int symbol) {
+        return transitions[state * symbolCount + symbol];
+    }
+
+    private int symbolOf(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return symbols[c + ('a' - 'A')];
+        }
+        if (c < 128) {
+            return symbols[c];
+        }
+        return c == KELVIN_SIGN ? symbols['k'] : otherSymbol;
+    }
+
+    private int[] newNode() {
+        int[] node = new int[symbolCount];
+        Arrays.fill(node, -1);
+        return node;
+    }
+}
@@ -1,6 +1,8 @@
 package com.ligera.backend.security.validation;
 
+import com.ligera.backend.warmup.Warmable;
 import jakarta.annotation.Nonnull;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -11,11 +13,13 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Validates password strength according to configurable security requirements
@@ -25,7 +29,7 @@ import java.util.regex.Pattern;
 @Slf4j
 @Getter
 @Setter
-public class PasswordValidator {
+public class PasswordValidator implements Warmable {
 
     // Configurable password requirements with defaults
     private int minLength = 8;
@@ -35,43 +39,92 @@ public class PasswordValidator {
     private int minSpecialChars = 1;
     private boolean checkCommonPasswords = true;
     private String commonPasswordsPath = "security/common-passwords.txt";
+    // Optional index of breached passwords built by BreachedPasswordIndexBuilder
+    private String breachedPasswordsPath = "";
+    private boolean breachedPasswordsBloomFilter = true;
     
-    // Common patterns for password validation
-    private static final Pattern UPPERCASE_PATTERN = Pattern.compile("[A-Z]");
-    private static final Pattern LOWERCASE_PATTERN = Pattern.compile("[a-z]");
-    private static final Pattern DIGIT_PATTERN = Pattern.compile("[0-9]");
-    private static final Pattern SPECIAL_CHAR_PATTERN = Pattern.compile("[^A-Za-z0-9]");
+    // Minimum length of a run of identical characters that is rejected
+    private static final int REPEAT_COUNT = 3;
     
-    // Cache of common passwords
-    private Set<String> commonPasswords;
+    private static final ValidationResult VALID = new ValidationResult(true, List.of());
+    
+    // Cache of common passwords, published once fully loaded
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile CommonPasswordSet commonPasswords;
+    
+    // Memory-mapped breached password index, if configured. Written before commonPasswords is published.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile BreachedPasswordIndex breachedPasswords;
+    
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final ReentrantLock initializationLock = new ReentrantLock();
     
     /**
-     * Initialize common passwords list if enabled
+     * Initialize common passwords list if enabled. Runs at most once, concurrent callers wait for the first.
      */
     public void initializeCommonPasswords() {
-        if (checkCommonPasswords && commonPasswords == null) {
+        if (!checkCommonPasswords || commonPasswords != null) {
+            return;
+        }
+        
+        // A lock rather than synchronized, so a virtual thread doing the file I/O does not pin its carrier
+        initializationLock.lock();
+        try {
+            if (commonPasswords != null) {
+                return;
+            }
+            
+            CommonPasswordSet loaded;
             try {
-                loadCommonPasswords();
+                loaded = loadCommonPasswords();
             } catch (IOException e) {
                 log.error("Failed to load common passwords list", e);
                 // Fallback to a minimal set of extremely common passwords
-                commonPasswords = new HashSet<>(List.of(
+                loaded = CommonPasswordSet.of(List.of(
                         "password", "123456", "qwerty", "admin", "welcome", 
                         "password123", "abc123", "letmein", "monkey", "1234567890"
                 ));
             }
+            breachedPasswords = loadBreachedPasswords();
+            commonPasswords = loaded;
+        } finally {
+            initializationLock.unlock();
         }
     }
     
     /**
-     * Validates a password against the security requirements
+     * Load the password lists and run one validation, so that the first request does not pay for it
+     */
+    @Override
+    public void warmUp() {
+        initializeCommonPasswords();
+        validate("Warm-Up#1");
+    }
+    
+    /**
+     * Check whether the password lists have been loaded
+     *
+     * @return true if validation will not trigger any loading
+     */
+    public boolean isInitialized() {
+        return !checkCommonPasswords || commonPasswords != null;
+    }
+    
+    /**
+     * Validates a password against the security requirements.
+     * <p>
+     * Character classes, repeated characters and sequential patterns are all detected in a single pass over
+     * the password, without regular expressions or intermediate strings.
      * 
      * @param password the password to validate
      * @return ValidationResult with validation details
      */
     public ValidationResult validate(String password) {
         // Initialize common passwords if needed
-        if (checkCommonPasswords && commonPasswords == null) {
+        if (!isInitialized()) {
             try {
                 initializeCommonPasswords();
             } catch (Exception e) {
@@ -79,11 +132,11 @@ public class PasswordValidator {
             }
         }
         
-        List<String> validationErrors = new ArrayList<>();
+        List<String> validationErrors = null;
         
         // Check password length
         if (password == null || password.length() < minLength) {
-            validationErrors.add("Password must be at least " + minLength + " characters long");
+            validationErrors = addError(validationErrors, "Password must be at least " + minLength + " characters long");
             
             // If password is too short, don't do other checks
             if (password == null || password.length() < 4) {
@@ -91,131 +144,120 @@ public class PasswordValidator {
             }
         }
         
+        KeyboardSequenceAutomaton sequences = KeyboardSequenceAutomaton.getInstance();
+        int uppercase = 0;
+        int lowercase = 0;
+        int digits = 0;
+        int specialChars = 0;
+        boolean ascii = true;
+        int lowercaseHash = 0;
+        int sequenceState = KeyboardSequenceAutomaton.START;
+        boolean sequential = false;
+        int runLength = 0;
+        boolean repeated = false;
+        
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            char lower = c;
+            
+            // Classify the character
+            if (c >= 'A' && c <= 'Z') {
+                uppercase++;
+                lower = (char) (c + ('a' - 'A'));
+            } else if (c >= 'a' && c <= 'z') {
+                lowercase++;
+            } else if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (!(Character.isLowSurrogate(c) && i > 0 && Character.isHighSurrogate(password.charAt(i - 1)))) {
+                // A surrogate pair counts as a single special character
+                specialChars++;
+            }
+            ascii &= c < 128;
+            lowercaseHash = 31 * lowercaseHash + lower;
+            
+            // Track runs of identical characters
+            runLength = i > 0 && c == password.charAt(i - 1) ? runLength + 1 : 1;
+            repeated |= runLength >= REPEAT_COUNT;
+            
+            // Match sequential patterns
+            if (!sequential) {
+                sequenceState = sequences.next(sequenceState, c);
+                sequential = sequences.isMatch(sequenceState);
+            }
+        }
+        
         // Check for uppercase letters
-        if (minUppercase > 0 && (!UPPERCASE_PATTERN.matcher(password).find() || 
-                countMatches(password, UPPERCASE_PATTERN) < minUppercase)) {
-            validationErrors.add("Password must contain at least " + minUppercase + " uppercase letter(s)");
+        if (minUppercase > 0 && uppercase < minUppercase) {
+            validationErrors = addError(validationErrors, "Password must contain at least " + minUppercase + " uppercase letter(s)");
         }
         
         // Check for lowercase letters
-        if (minLowercase > 0 && (!LOWERCASE_PATTERN.matcher(password).find() || 
-                countMatches(password, LOWERCASE_PATTERN) < minLowercase)) {
-            validationErrors.add("Password must contain at least " + minLowercase + " lowercase letter(s)");
+        if (minLowercase > 0 && lowercase < minLowercase) {
+            validationErrors = addError(validationErrors, "Password must contain at least " + minLowercase + " lowercase letter(s)");
         }
         
         // Check for digits
-        if (minDigits > 0 && (!DIGIT_PATTERN.matcher(password).find() || 
-                countMatches(password, DIGIT_PATTERN) < minDigits)) {
-            validationErrors.add("Password must contain at least " + minDigits + " digit(s)");
+        if (minDigits > 0 && digits < minDigits) {
+            validationErrors = addError(validationErrors, "Password must contain at least " + minDigits + " digit(s)");
         }
         
         // Check for special characters
-        if (minSpecialChars > 0 && (!SPECIAL_CHAR_PATTERN.matcher(password).find() || 
-                countMatches(password, SPECIAL_CHAR_PATTERN) < minSpecialChars)) {
-            validationErrors.add("Password must contain at least " + minSpecialChars + " special character(s)");
+        if (minSpecialChars > 0 && specialChars < minSpecialChars) {
+            validationErrors = addError(validationErrors, "Password must contain at least " + minSpecialChars + " special character(s)");
         }
         
         // Check if password is a common password
-        if (checkCommonPasswords && commonPasswords != null && commonPasswords.contains(password.toLowerCase())) {
-            validationErrors.add("Password is too common and easily guessable");
+        CommonPasswordSet common = commonPasswords;
+        if (checkCommonPasswords && common != null && isCommonPassword(common, password, ascii, lowercaseHash)) {
+            validationErrors = addError(validationErrors, "Password is too common and easily guessable");
         }
         
         // Check for sequential patterns
-        if (hasSequentialPattern(password)) {
-            validationErrors.add("Password contains sequential patterns like '123' or 'abc'");
+        if (sequential) {
+            validationErrors = addError(validationErrors, "Password contains sequential patterns like '123' or 'abc'");
         }
         
         // Check for repeated characters
-        if (hasRepeatedCharacters(password, 3)) {
-            validationErrors.add("Password contains repeated characters (e.g., 'aaa')");
+        if (repeated) {
+            validationErrors = addError(validationErrors, "Password contains repeated characters (e.g., 'aaa')");
         }
         
-        return new ValidationResult(validationErrors.isEmpty(), validationErrors);
-    }
-    
-    /**
-     * Count the number of matches for a pattern in a string
-     */
-    private int countMatches(String string, Pattern pattern) {
-        var matcher = pattern.matcher(string);
-        int count = 0;
-        while (matcher.find()) {
-            count++;
-        }
-        return count;
+        return validationErrors == null ? VALID : new ValidationResult(false, validationErrors);
     }
     
     /**
-     * Check if a password has sequential patterns
+     * Add an error, creating the error list on first use
      */
-    private boolean hasSequentialPattern(String password) {
-        // Common sequences to check
-        String[] sequences = {
-                "abcdefghijklmnopqrstuvwxyz",
-                "0123456789",
-                "qwertyuiop",
-                "asdfghjkl",
-                "zxcvbnm"
-        };
-        
-        String lowerPass = password.toLowerCase();
-        
-        // Check for common sequences (forward and backward)
-        for (String seq : sequences) {
-            for (int i = 0; i < seq.length() - 2; i++) {
-                String pattern = seq.substring(i, i + 3);
-                if (lowerPass.contains(pattern)) {
-                    return true;
-                }
-                
-                // Check reverse pattern
-                String reversePattern = new StringBuilder(pattern).reverse().toString();
-                if (lowerPass.contains(reversePattern)) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
+    private static List<String> addError(List<String> errors, String error) {
+        List<String> result = errors != null ? errors : new ArrayList<>(4);
+        result.add(error);
+        return result;
     }
     
     /**
-     * Check if a password has repeated characters
+     * Check the common password list, only lowercasing non-ASCII passwords
      */
-    private boolean hasRepeatedCharacters(String password, int repeatCount) {
-        if (password == null || password.length() < repeatCount) {
-            return false;
-        }
-        
-        for (int i = 0; i <= password.length() - repeatCount; i++) {
-            char c = password.charAt(i);
-            boolean repeated = true;
-            
-            for (int j = 1; j < repeatCount; j++) {
-                if (password.charAt(i + j) != c) {
-                    repeated = false;
-                    break;
-                }
-            }
-            
-            if (repeated) {
-                return true;
-            }
+    private boolean isCommonPassword(CommonPasswordSet common, String password, boolean ascii, int lowercaseHash) {
+        BreachedPasswordIndex breached = breachedPasswords;
+        if (ascii) {
+            return common.containsAsciiIgnoreCase(password, lowercaseHash)
+                    || (breached != null && breached.containsAsciiIgnoreCase(password));
         }
-        
-        return false;
+        String lowercase = password.toLowerCase(Locale.ROOT);
+        return common.contains(lowercase)
+                || (breached != null && breached.contains(lowercase));
     }
     
     /**
      * Load the list of common passwords from a file
      */
-    private void loadCommonPasswords() throws IOException {
-        commonPasswords = new HashSet<>();
+    private CommonPasswordSet loadCommonPasswords() throws IOException {
+        Set<String> passwords = new HashSet<>();
         
         try (InputStream is = getClass().getClassLoader().getResourceAsStream(commonPasswordsPath)) {
             if (is == null) {
                 log.warn("Common passwords file not found: {}", commonPasswordsPath);
-                return;
+                return CommonPasswordSet.of(passwords);
             }
             
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
@@ -223,13 +265,34 @@ public class PasswordValidator {
                 while ((line = reader.readLine()) != null) {
                     line = line.trim();
                     if (!line.isEmpty()) {
-                        commonPasswords.add(line.toLowerCase());
+                        passwords.add(line.toLowerCase(Locale.ROOT));
                     }
                 }
             }
         }
         
-        log.info("Loaded {} common passwords from {}", commonPasswords.size(), commonPasswordsPath);
+        CommonPasswordSet loaded = CommonPasswordSet.of(passwords);
+        log.info("Loaded {} common passwords from {}", loaded.size(), commonPasswordsPath);
+        return loaded;
+    }
+    
+    /**
+     * Map the breached password index, if one is configured
+     */
+    private BreachedPasswordIndex loadBreachedPasswords() {
+        if (breachedPasswordsPath == null || breachedPasswordsPath.isEmpty()) {
+            return null;
+        }
+        
+        try {
+            BreachedPasswordIndex index = BreachedPasswordIndex.open(Path.of(breachedPasswordsPath), breachedPasswordsBloomFilter);
+            log.info("Mapped {} breached passwords from {} (Bloom filter: {})",
+                    index.size(), breachedPasswordsPath, index.hasBloomFilter());
+            return index;
+        } catch (IOException e) {
+            log.error("Failed to map breached password index {}", breachedPasswordsPath, e);
+            return null;
+        }
     }
     
     /**
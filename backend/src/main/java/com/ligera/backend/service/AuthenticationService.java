@@ -1,5 +1,6 @@
 package com.ligera.backend.service;
 
+import com.ligera.backend.datasource.ReadYourWritesTracker;
 import com.ligera.backend.dtos.request.LoginRequest;
 import com.ligera.backend.dtos.request.PasswordChangeRequest;
 import com.ligera.backend.dtos.request.RegisterRequest;
@@ -38,6 +39,7 @@ public class AuthenticationService {
     private final JwtUtils jwtUtils;
     private final AuthenticationManager authenticationManager;
     private final PasswordValidator passwordValidator;
+    private final ReadYourWritesTracker readYourWrites;
 
     /**
      * Register a new user
@@ -75,6 +77,7 @@ public class AuthenticationService {
                 .build();
 
         userRepository.save(user);
+        readYourWrites.markWrite(user.getEmail());
         log.info("User registered successfully: {}", user.getEmail());
 
         // Generate JWT token
@@ -216,7 +219,7 @@ public class AuthenticationService {
         }
         
         // Check if email is already taken by another user
-        if (!getCurrentUser().getEmail().equals(user.getEmail()) && 
+        if (!getCurrentUser().getEmail().equals(User.normalizeEmail(user.getEmail())) && 
                 userRepository.findByEmail(user.getEmail()).isPresent()) {
             log.warn("Email already in use: {}", user.getEmail());
             throw new AuthException("Email already in use");
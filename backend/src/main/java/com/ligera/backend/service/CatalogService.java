@@ -0,0 +1,136 @@
+package com.ligera.backend.service;
+
+import com.ligera.backend.enums.CatalogEntityType;
+import com.ligera.backend.models.Category;
+import com.ligera.backend.models.Product;
+import com.ligera.backend.pagination.KeysetPage;
+import com.ligera.backend.pagination.SortKeyCursor;
+import com.ligera.backend.repositories.CategoryRepository;
+import com.ligera.backend.repositories.CategorySummary;
+import com.ligera.backend.repositories.ProductRepository;
+import com.ligera.backend.repositories.ProductSort;
+import com.ligera.backend.repositories.ProductSummary;
+import com.ligera.backend.sync.CatalogChangeLog;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Service serving the product catalog to the mobile app
+ * <p>
+ * Catalog writes must go through this service: each one is numbered in the catalog change log, which is
+ * how the change feed learns about it.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogService {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final CatalogChangeLog changeLog;
+
+    /**
+     * List products one keyset page at a time
+     * <p>
+     * A cursor is only meaningful with the sort it was returned for; one of another sort gives a page from
+     * an arbitrary position or is rejected.
+     *
+     * @param sort the attribute to sort on
+     * @param direction the sort direction
+     * @param categoryId the category to list, null for the whole catalog
+     * @param cursor the cursor returned with the previous page, null for the first page
+     * @param size the page size
+     * @return the page of product summaries
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ProductSummary> listProducts(ProductSort sort, Sort.Direction direction, Long categoryId,
+                                                   String cursor, int size) {
+        List<ProductSummary> products = productRepository.findPage(sort, direction, categoryId,
+                SortKeyCursor.decode(cursor), size + 1);
+        return KeysetPage.of(products, size, product -> new SortKeyCursor(sort.keyOf(product), product.id()));
+    }
+
+    /**
+     * List the categories of the menu
+     *
+     * @return the active menu categories, in menu order
+     */
+    @Transactional(readOnly = true)
+    public List<CategorySummary> listCategories() {
+        return categoryRepository.findMenu();
+    }
+
+    /**
+     * Check that a product exists
+     *
+     * @param id the product id
+     * @throws EntityNotFoundException if there is no product with this id
+     */
+    @Transactional(readOnly = true)
+    public void requireProduct(Long id) {
+        if (!productRepository.existsById(id)) {
+            throw new EntityNotFoundException("Product not found with ID: " + id);
+        }
+    }
+
+    /**
+     * Create or update a product
+     *
+     * @param product the product
+     * @return the saved product
+     */
+    @Transactional
+    public Product saveProduct(Product product) {
+        changeLog.stamp(product);
+        return productRepository.save(product);
+    }
+
+    /**
+     * Delete a product
+     *
+     * @param id the product id
+     */
+    @Transactional
+    public void deleteProduct(Long id) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + id));
+        productRepository.delete(product);
+        changeLog.tombstone(CatalogEntityType.PRODUCT, id);
+    }
+
+    /**
+     * Create or update a category
+     *
+     * @param category the category
+     * @return the saved category
+     */
+    @Transactional
+    public Category saveCategory(Category category) {
+        changeLog.stamp(category);
+        return categoryRepository.save(category);
+    }
+
+    /**
+     * Delete a category. Its subcategories become top-level categories.
+     * <p>
+     * Its products are left without a category by the foreign key, as they are on the devices, where the
+     * same foreign key applies when the tombstone is replayed; they are not numbered again.
+     *
+     * @param id the category id
+     */
+    @Transactional
+    public void deleteCategory(Long id) {
+        Category category = categoryRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Category not found with ID: " + id));
+        for (Category child : categoryRepository.findByParent(category)) {
+            child.setParent(null);
+            changeLog.stamp(child);
+        }
+        categoryRepository.delete(category);
+        changeLog.tombstone(CatalogEntityType.CATEGORY, id);
+    }
+}
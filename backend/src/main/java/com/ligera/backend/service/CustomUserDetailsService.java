@@ -1,6 +1,7 @@
 package com.ligera.backend.service;
 
-import com.ligera.backend.models.User;
+import com.ligera.backend.datasource.ReadYourWritesTracker;
+import com.ligera.backend.repositories.UserCredentials;
 import com.ligera.backend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +23,7 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final ReadYourWritesTracker readYourWrites;
 
     /**
      * Load a user by username (email in our case)
@@ -35,26 +37,28 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         log.debug("Loading user by username: {}", username);
         
-        User user = userRepository.findByEmail(username)
+        // Loaded on behalf of this user, so a read right after their registration or update stays on the primary
+        UserCredentials credentials = readYourWrites
+                .callAs(username, () -> userRepository.findCredentialsByEmail(username))
                 .orElseThrow(() -> {
                     log.error("User not found with email: {}", username);
                     return new UsernameNotFoundException("User not found with email: " + username);
                 });
 
-        return mapUserToUserDetails(user);
+        return mapUserToUserDetails(credentials);
     }
 
     /**
-     * Map our User entity to Spring Security's UserDetails
+     * Map the user's credentials to Spring Security's UserDetails
      *
-     * @param user the User entity
+     * @param credentials the user's credentials
      * @return UserDetails object
      */
-    private UserDetails mapUserToUserDetails(User user) {
+    private UserDetails mapUserToUserDetails(UserCredentials credentials) {
         return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
+                credentials.getEmail(),
+                credentials.getPassword(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + credentials.getRole().name()))
         );
     }
 }
@@ -44,15 +44,27 @@ public class RateLimitService {
      * @return true if request is allowed, false if rate limit exceeded
      */
     public boolean checkRateLimit(String userId, String ipAddress) {
-        if (!rateLimitConfig.isEnabled()) {
+        return checkRateLimit(userId, ipAddress, 1);
+    }
+    
+    /**
+     * Check if a request costing several tokens should be allowed based on rate limits
+     * 
+     * @param userId user ID for authenticated users, null for anonymous
+     * @param ipAddress client IP address (used for anonymous users)
+     * @param tokens the number of tokens the request costs
+     * @return true if request is allowed, false if rate limit exceeded
+     */
+    public boolean checkRateLimit(String userId, String ipAddress, long tokens) {
+        if (!rateLimitConfig.isEnabled() || tokens <= 0) {
             return true;
         }
         
         // Get the appropriate bucket based on authentication status
         Bucket bucket = getBucket(userId, ipAddress);
         
-        // Try to consume a token
-        return bucket.tryConsume(1);
+        // Try to consume the tokens, all or none
+        return bucket.tryConsume(tokens);
     }
     
     /**
@@ -63,12 +75,24 @@ public class RateLimitService {
      * @throws RateLimitExceededException if rate limit is exceeded
      */
     public void consumeRateLimit(String userId, String ipAddress) {
+        consumeRateLimit(userId, ipAddress, 1);
+    }
+    
+    /**
+     * Consume several tokens from the rate limit bucket and throw exception if limit exceeded
+     * 
+     * @param userId user ID for authenticated users, null for anonymous
+     * @param ipAddress client IP address (used for anonymous users)
+     * @param tokens the number of tokens the request costs
+     * @throws RateLimitExceededException if rate limit is exceeded
+     */
+    public void consumeRateLimit(String userId, String ipAddress, long tokens) {
         if (!rateLimitConfig.isEnabled()) {
             return;
         }
         
         // Check if rate limit is exceeded
-        if (!checkRateLimit(userId, ipAddress)) {
+        if (!checkRateLimit(userId, ipAddress, tokens)) {
             String requestSource = userId != null ? "user ID: " + userId : "IP: " + ipAddress;
             log.warn("Rate limit exceeded for {}", requestSource);
             throw new RateLimitExceededException();
@@ -1,19 +1,25 @@
 package com.ligera.backend.service;
 
+import com.ligera.backend.conditional.ResourceVersion;
 import com.ligera.backend.config.CacheConfig;
 import com.ligera.backend.dtos.response.UserResponse;
 import com.ligera.backend.exception.AuthException;
 import com.ligera.backend.models.User;
+import com.ligera.backend.pagination.KeysetCursor;
+import com.ligera.backend.pagination.KeysetPage;
 import com.ligera.backend.repositories.UserRepository;
+import com.ligera.backend.repositories.UserSummary;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -98,5 +104,34 @@ public class UserService {
         User currentUser = authenticationService.getCurrentUser();
         return UserResponse.fromEntity(currentUser);
     }
-}
 
+    /**
+     * Get the version of the current user's profile.
+     * <p>
+     * The user is read by natural id, normally from the second-level cache, and nothing is mapped or
+     * serialized, so a profile the client already holds costs no query.
+     *
+     * @return the profile validators
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getCurrentUserVersion() {
+        return ResourceVersion.of(authenticationService.getCurrentUser());
+    }
+
+    /**
+     * List users, newest first, one keyset page at a time
+     *
+     * @param cursor the cursor returned with the previous page, null for the first page
+     * @param size the page size
+     * @return the page of user summaries
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<UserSummary> listUsers(String cursor, int size) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Limit limit = Limit.of(size + 1);
+        List<UserSummary> users = position == null
+                ? userRepository.findNewest(limit)
+                : userRepository.findNewestBefore(position.createdAt(), position.id(), limit);
+        return KeysetPage.of(users, size, user -> new KeysetCursor(user.getCreatedAt(), user.getId()));
+    }
+}
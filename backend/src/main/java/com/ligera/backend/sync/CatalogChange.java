@@ -0,0 +1,123 @@
+package com.ligera.backend.sync;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.ligera.backend.models.CatalogEntity;
+import com.ligera.backend.models.Category;
+import com.ligera.backend.models.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Line of the catalog change feed, streamed to the client as one JSON line each.
+ * <p>
+ * A response is a preamble of category changes followed by chunks of product changes, each chunk ending
+ * with a checkpoint. Clients apply a chunk atomically and resume from the sequence number of its checkpoint.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(CatalogChange.Reset.class),
+        @JsonSubTypes.Type(CatalogChange.CategoryChange.class),
+        @JsonSubTypes.Type(CatalogChange.ProductChange.class),
+        @JsonSubTypes.Type(CatalogChange.Tombstone.class),
+        @JsonSubTypes.Type(CatalogChange.Checkpoint.class)
+})
+public sealed interface CatalogChange {
+
+    String INSERT = "insert";
+    String UPDATE = "update";
+
+    /**
+     * The client is too far behind to be sent changes: it gets a snapshot of the whole catalog, and must
+     * drop the rows it holds that are not in the snapshot or changed after it
+     */
+    @JsonTypeName("reset")
+    record Reset(long seq) implements CatalogChange {
+    }
+
+    /**
+     * A category was created or updated
+     */
+    @JsonTypeName("category")
+    record CategoryChange(long seq, String op, CategoryState category) implements CatalogChange {
+
+        static CategoryChange of(Category category, long since) {
+            return new CategoryChange(category.getChangeSeq(), operation(category, since), CategoryState.of(category));
+        }
+    }
+
+    /**
+     * A product was created or updated
+     */
+    @JsonTypeName("product")
+    record ProductChange(long seq, String op, ProductState product) implements CatalogChange {
+
+        static ProductChange of(Product product, long since) {
+            return new ProductChange(product.getChangeSeq(), operation(product, since), ProductState.of(product));
+        }
+    }
+
+    /**
+     * A category or product was deleted
+     */
+    @JsonTypeName("tombstone")
+    record Tombstone(long seq, String entity, long id) implements CatalogChange {
+    }
+
+    /**
+     * End of a chunk: the client has every change up to this sequence number once the chunk is applied
+     */
+    @JsonTypeName("checkpoint")
+    record Checkpoint(long seq, boolean more) implements CatalogChange {
+    }
+
+    /**
+     * Current state of a category, with the columns of the mobile category table
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record CategoryState(Long id, String name, String description, String image, Long parentId, int productCount,
+                         int position, boolean active, boolean displayInMenu, String metaTitle,
+                         String metaDescription, String slugUrl, long createdAt, long lastUpdated) {
+
+        static CategoryState of(Category category) {
+            return new CategoryState(category.getId(), category.getName(), category.getDescription(),
+                    category.getImage(), category.getParent() != null ? category.getParent().getId() : null,
+                    category.getProductCount(), category.getPosition(), category.isActive(),
+                    category.isDisplayInMenu(), category.getMetaTitle(), category.getMetaDescription(),
+                    category.getSlugUrl(), epochMillis(category.getCreatedAt()), epochMillis(category.getUpdatedAt()));
+        }
+    }
+
+    /**
+     * Current state of a product, with the columns of the mobile product table but the favorite flag
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record ProductState(Long id, String name, String description, BigDecimal price, String imageUrl, int quantity,
+                        Long categoryId, String brand, String size, boolean featured, boolean popular,
+                        int discountPercent, float rating, int ratingCount, int popularityScore, long createdAt,
+                        long lastUpdated) {
+
+        static ProductState of(Product product) {
+            // Reading the id of a lazy category does not load it
+            return new ProductState(product.getId(), product.getName(), product.getDescription(),
+                    product.getPrice(), product.getImageUrl(), product.getQuantity(),
+                    product.getCategory() != null ? product.getCategory().getId() : null, product.getBrand(),
+                    product.getSize(), product.isFeatured(), product.isPopular(), product.getDiscountPercent(),
+                    product.getRating(), product.getRatingCount(), product.getPopularityScore(),
+                    epochMillis(product.getCreatedAt()), epochMillis(product.getUpdatedAt()));
+        }
+    }
+
+    private static String operation(CatalogEntity entity, long since) {
+        return entity.getCreatedSeq() > since ? INSERT : UPDATE;
+    }
+
+    // The mobile tables hold times as epoch milliseconds
+    private static long epochMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
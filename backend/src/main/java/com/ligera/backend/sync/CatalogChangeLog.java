@@ -0,0 +1,99 @@
+package com.ligera.backend.sync;
+
+import com.ligera.backend.enums.CatalogEntityType;
+import com.ligera.backend.models.CatalogEntity;
+import com.ligera.backend.models.CatalogSequence;
+import com.ligera.backend.models.CatalogTombstone;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Numbers catalog mutations for the change feed.
+ * <p>
+ * Numbers are taken from the catalog sequence row under a pessimistic lock held until the transaction ends.
+ * Catalog writers are therefore serialized, which is cheap for a catalog edited far less often than it is
+ * read, and commit in the order of their numbers: the feed never skips a number that commits late.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogChangeLog {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Take the next number of the catalog change sequence
+     *
+     * @return the number
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next() {
+        CatalogSequence sequence = lockSequence();
+        sequence.setLastSeq(sequence.getLastSeq() + 1);
+        return sequence.getLastSeq();
+    }
+
+    /**
+     * Number a mutation of a catalog entity about to be saved
+     *
+     * @param entity the created or updated entity
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void stamp(CatalogEntity entity) {
+        long seq = next();
+        if (entity.getCreatedSeq() == 0) {
+            entity.setCreatedSeq(seq);
+        }
+        entity.setChangeSeq(seq);
+    }
+
+    /**
+     * Number the deletion of a catalog entity and leave a tombstone for it
+     *
+     * @param type the kind of entity deleted
+     * @param id the id of the entity deleted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void tombstone(CatalogEntityType type, Long id) {
+        entityManager.persist(new CatalogTombstone(next(), type, id, LocalDateTime.now()));
+    }
+
+    /**
+     * Drop the tombstones of deletions made before a time. Clients that have not synced since the latest of
+     * them must then start over from a snapshot.
+     *
+     * @param before the time before which tombstones are dropped
+     * @return the number of tombstones dropped
+     */
+    @Transactional
+    public int compact(LocalDateTime before) {
+        CatalogSequence sequence = lockSequence();
+        Long latest = entityManager.createQuery(
+                        "select max(t.seq) from CatalogTombstone t where t.deletedAt < :before", Long.class)
+                .setParameter("before", before)
+                .getSingleResult();
+        if (latest == null) {
+            return 0;
+        }
+        sequence.setCompactedSeq(Math.max(sequence.getCompactedSeq(), latest));
+        return entityManager.createQuery("delete from CatalogTombstone t where t.seq <= :latest")
+                .setParameter("latest", latest)
+                .executeUpdate();
+    }
+
+    private CatalogSequence lockSequence() {
+        CatalogSequence sequence = entityManager.find(CatalogSequence.class, CatalogSequence.ID,
+                LockModeType.PESSIMISTIC_WRITE);
+        if (sequence == null) {
+            // Only when the schema is not managed by Flyway, as in tests
+            sequence = new CatalogSequence(CatalogSequence.ID);
+            entityManager.persist(sequence);
+        }
+        return sequence;
+    }
+}
@@ -0,0 +1,137 @@
+package com.ligera.backend.sync;
+
+import com.ligera.backend.enums.CatalogEntityType;
+import com.ligera.backend.models.CatalogSequence;
+import com.ligera.backend.models.CatalogTombstone;
+import com.ligera.backend.models.Category;
+import com.ligera.backend.models.Product;
+import com.ligera.backend.repositories.CatalogTombstoneRepository;
+import com.ligera.backend.repositories.CategoryRepository;
+import com.ligera.backend.repositories.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the catalog change feed for {@link CatalogSyncService}, one short transaction per chunk.
+ * <p>
+ * Each read returns the changes already mapped, so the connection is back in the pool before they are
+ * written to a client however slow it is. Products and tombstones are only read up to the head of the
+ * sequence taken with the categories, so every chunk of a response sees the catalog as it was then: rows
+ * changed since have a later sequence number and are left to the next sync.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogFeedReader {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final CatalogTombstoneRepository tombstoneRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * Read the head of the sequence and the categories to send first
+     *
+     * @param since the sequence number of the last checkpoint the client applied, 0 for none
+     * @param completingSnapshot whether the client got a reset and has not caught up since
+     * @return the head, whether the client is reset, and the reset and category changes
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Preamble readPreamble(long since, boolean completingSnapshot) {
+        CatalogSequence sequence = entityManager.find(CatalogSequence.class, CatalogSequence.ID);
+        long head = sequence != null ? sequence.getLastSeq() : 0;
+        long compacted = sequence != null ? sequence.getCompactedSeq() : 0;
+
+        // A client ahead of the head holds a catalog this server never had. One completing a snapshot only
+        // lacks tombstones of rows it never received.
+        boolean reset = since > head || (since < compacted && !completingSnapshot);
+        long from = reset ? 0 : since;
+        List<CatalogChange> changes = new ArrayList<>();
+        if (reset) {
+            changes.add(new CatalogChange.Reset(head));
+        }
+
+        for (Category category : categoryRepository.findChangedAfter(from)) {
+            changes.add(CatalogChange.CategoryChange.of(category, from));
+        }
+        if (!reset) {
+            for (CatalogTombstone tombstone : tombstoneRepository.findBetween(CatalogEntityType.CATEGORY, from,
+                    head, Limit.unlimited())) {
+                changes.add(tombstoneOf(tombstone));
+            }
+        }
+        entityManager.clear();
+        return new Preamble(head, reset, from, changes);
+    }
+
+    /**
+     * Read the next chunk of product changes and tombstones, merged in sequence order
+     *
+     * @param preamble the preamble read for the response
+     * @param after the sequence number of the last change sent
+     * @param chunkSize the maximum number of changes
+     * @return the changes, and whether nothing is left up to the head
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Chunk readChunk(Preamble preamble, long after, int chunkSize) {
+        long head = preamble.head();
+        List<Product> products = productRepository.findChangedBetween(after, head, Limit.of(chunkSize));
+        List<CatalogTombstone> tombstones = preamble.reset() ? List.of()
+                : tombstoneRepository.findBetween(CatalogEntityType.PRODUCT, after, head, Limit.of(chunkSize));
+
+        // Merge both in sequence order up to a chunk; the rest is read again with the next chunk
+        List<CatalogChange> changes = new ArrayList<>(chunkSize);
+        int p = 0;
+        int t = 0;
+        while (p + t < chunkSize && (p < products.size() || t < tombstones.size())) {
+            if (t == tombstones.size()
+                    || (p < products.size() && products.get(p).getChangeSeq() < tombstones.get(t).getSeq())) {
+                Product product = products.get(p++);
+                changes.add(CatalogChange.ProductChange.of(product, preamble.from()));
+                after = product.getChangeSeq();
+            } else {
+                CatalogTombstone tombstone = tombstones.get(t++);
+                changes.add(tombstoneOf(tombstone));
+                after = tombstone.getSeq();
+            }
+        }
+        entityManager.clear();
+
+        boolean caughtUp = products.size() < chunkSize && tombstones.size() < chunkSize
+                && p == products.size() && t == tombstones.size();
+        return new Chunk(changes, after, caughtUp);
+    }
+
+    private static CatalogChange.Tombstone tombstoneOf(CatalogTombstone tombstone) {
+        return new CatalogChange.Tombstone(tombstone.getSeq(), tombstone.getEntityType().name().toLowerCase(Locale.ROOT),
+                tombstone.getEntityId());
+    }
+
+    /**
+     * Start of a response
+     *
+     * @param head the last sequence number when the response started, the bound of every chunk
+     * @param reset whether the client is sent a snapshot
+     * @param from the sequence number changes are read after, 0 for a snapshot
+     * @param changes the reset, if any, and the category changes and tombstones
+     */
+    public record Preamble(long head, boolean reset, long from, List<CatalogChange> changes) {
+    }
+
+    /**
+     * Product changes and tombstones read in one transaction
+     *
+     * @param changes the changes, in sequence order
+     * @param after the sequence number of the last change, or the one read after if there are none
+     * @param caughtUp whether no change is left up to the head
+     */
+    public record Chunk(List<CatalogChange> changes, long after, boolean caughtUp) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.ligera.backend.sync;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Catalog change feed settings bound from app.catalog.sync
+ */
+@ConfigurationProperties(prefix = "app.catalog.sync")
+@Getter
+@Setter
+public class CatalogSyncProperties {
+
+    // Product changes per chunk, the unit clients apply in one transaction
+    private int chunkSize = 500;
+
+    // Product changes per response; clients behind by more call again from the last checkpoint
+    private int maxChanges = 10000;
+
+    // How long tombstones are kept. Clients that have not synced for longer get a snapshot.
+    private Duration tombstoneRetention = Duration.ofDays(30);
+}
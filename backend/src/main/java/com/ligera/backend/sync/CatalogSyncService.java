@@ -0,0 +1,77 @@
+package com.ligera.backend.sync;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Change feed replicating the catalog to the mobile app.
+ * <p>
+ * Clients send the sequence number of the last checkpoint they applied and get what changed after it:
+ * the latest state of every category and product changed since, and a tombstone for each one deleted.
+ * Rows changed several times are sent once, so the feed is compacted by construction. Clients behind the
+ * oldest tombstone kept get a reset followed by every row instead, a snapshot that is just the feed read
+ * from the start without tombstones. A snapshot longer than a response is resumed from its last checkpoint
+ * like any other feed, the client telling it is completing a snapshot so it is not reset again.
+ * <p>
+ * Categories are few and all sent first, so a product never references a category the client does not have
+ * yet. Products follow in chunks read by keyset on {@code change_seq}, each by {@link CatalogFeedReader} in its
+ * own transaction and handed to the sink only once that transaction has ended, so a slow client does not hold a
+ * connection or a database snapshot while it downloads. Chunks are bounded by the head of the sequence when
+ * the response started, so the response stays consistent however long it takes to stream.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogSyncService {
+
+    private final CatalogFeedReader reader;
+    private final CatalogChangeLog changeLog;
+    private final CatalogSyncProperties properties;
+
+    /**
+     * Stream the catalog changes after a sequence number
+     *
+     * @param since the sequence number of the last checkpoint the client applied, 0 for none
+     * @param completingSnapshot whether the client got a reset and has not caught up since
+     * @param sink receiver of the changes, in the order they are to be applied, called outside any transaction
+     */
+    public void streamChanges(long since, boolean completingSnapshot, Consumer<CatalogChange> sink) {
+        CatalogFeedReader.Preamble preamble = reader.readPreamble(since, completingSnapshot);
+        preamble.changes().forEach(sink);
+
+        int chunkSize = properties.getChunkSize();
+        long after = preamble.from();
+        int sent = 0;
+        while (true) {
+            CatalogFeedReader.Chunk chunk = reader.readChunk(preamble, after, chunkSize);
+            chunk.changes().forEach(sink);
+            after = chunk.after();
+            sent += chunk.changes().size();
+
+            if (chunk.caughtUp()) {
+                sink.accept(new CatalogChange.Checkpoint(preamble.head(), false));
+                return;
+            }
+            sink.accept(new CatalogChange.Checkpoint(after, true));
+            if (sent >= properties.getMaxChanges()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drop the tombstones older than the retention period
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.sync.compaction-interval-ms:3600000}")
+    public void compactTombstones() {
+        int dropped = changeLog.compact(LocalDateTime.now().minus(properties.getTombstoneRetention()));
+        if (dropped > 0) {
+            log.info("Dropped {} catalog tombstones older than {}", dropped, properties.getTombstoneRetention());
+        }
+    }
+}
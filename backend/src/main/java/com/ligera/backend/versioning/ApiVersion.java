@@ -3,6 +3,8 @@ package com.ligera.backend.versioning;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.util.Arrays;
+
 /**
  * Enum representing available API versions
  */
@@ -13,37 +15,98 @@ public enum ApiVersion {
     V2("v2", "v2"),
     LATEST("latest", "v2"); // Always points to the latest version
     
+    private static final ApiVersion[] VALUES = values();
+    
+    // Versions named v<number>, indexed by number
+    private static final ApiVersion[] BY_NUMBER = numberedVersions();
+    
     private final String name;
     private final String mappedVersion; // The actual version this value maps to
     
     /**
      * Convert a string version to enum
      * 
-     * @param version string version (e.g., "v1", "v2", "latest")
+     * @param version string version (e.g., "v1", "v2", "1", "latest")
      * @return the corresponding ApiVersion, or null if not found
      */
     public static ApiVersion fromString(String version) {
-        if (version == null) {
+        return version == null ? null : parse(version, 0, version.length());
+    }
+    
+    /**
+     * Parse a version token within a string, without allocating
+     * <p>
+     * The token is matched ignoring case and surrounding whitespace, and the {@code v} prefix of numbered
+     * versions is optional.
+     * 
+     * @param text the string holding the token
+     * @param start index of the first character of the token
+     * @param end index after the last character of the token
+     * @return the corresponding ApiVersion, or null if not found
+     */
+    public static ApiVersion parse(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
             return null;
         }
         
-        // Standardize version string
-        String normalizedVersion = version.toLowerCase().trim();
-        
-        // Check for prefix addition
-        if (normalizedVersion.matches("\\d+")) {
-            normalizedVersion = "v" + normalizedVersion;
+        char first = text.charAt(start);
+        if (first == 'v' || first == 'V') {
+            ApiVersion numbered = byNumber(text, start + 1, end);
+            if (numbered != null) {
+                return numbered;
+            }
+        } else if (first >= '0' && first <= '9') {
+            return byNumber(text, start, end);
         }
         
-        for (ApiVersion apiVersion : ApiVersion.values()) {
-            if (apiVersion.name.equalsIgnoreCase(normalizedVersion)) {
+        for (ApiVersion apiVersion : VALUES) {
+            if (apiVersion.name.length() == end - start
+                    && text.regionMatches(true, start, apiVersion.name, 0, end - start)) {
                 return apiVersion;
             }
         }
-        
         return null;
     }
     
+    private static ApiVersion byNumber(String text, int start, int end) {
+        // No leading zeros, as in the version names
+        if (start == end || (text.charAt(start) == '0' && end - start > 1)) {
+            return null;
+        }
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            number = number * 10 + (c - '0');
+            if (number >= BY_NUMBER.length) {
+                return null;
+            }
+        }
+        return BY_NUMBER[number];
+    }
+    
+    private static ApiVersion[] numberedVersions() {
+        ApiVersion[] byNumber = new ApiVersion[0];
+        for (ApiVersion apiVersion : VALUES) {
+            if (apiVersion.name.matches("v[1-9]\\d*")) {
+                int number = Integer.parseInt(apiVersion.name.substring(1));
+                if (number >= byNumber.length) {
+                    byNumber = Arrays.copyOf(byNumber, number + 1);
+                }
+                byNumber[number] = apiVersion;
+            }
+        }
+        return byNumber;
+    }
+    
     /**
      * Get the default version if none is specified
      * 
@@ -0,0 +1,90 @@
+package com.ligera.backend.versioning;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Resolves the API version a request asks for, once per request.
+ * <p>
+ * The version is taken from the path segment following the API path prefix, then from the version header,
+ * then from the vendor media type of the Accept header, and defaults to {@link ApiVersion#getDefault()}. It
+ * is stored as a request attribute, which the version conditions of every candidate mapping read back.
+ */
+public class ApiVersionResolver {
+
+    /**
+     * Request attribute holding the resolved {@link ApiVersion}
+     */
+    public static final String VERSION_ATTRIBUTE = ApiVersionResolver.class.getName() + ".version";
+
+    private final String apiPathPrefix;
+    private final String versionHeaderName;
+    private final String acceptHeaderPrefix;
+
+    public ApiVersionResolver(String apiPathPrefix, String versionHeaderName, String acceptHeaderPrefix) {
+        this.apiPathPrefix = apiPathPrefix;
+        this.versionHeaderName = versionHeaderName;
+        this.acceptHeaderPrefix = acceptHeaderPrefix;
+    }
+
+    /**
+     * Get the version requested, resolving it on the first call for the request
+     *
+     * @param request the request
+     * @return the requested version, or the default version
+     */
+    public ApiVersion resolve(HttpServletRequest request) {
+        if (request.getAttribute(VERSION_ATTRIBUTE) instanceof ApiVersion resolved) {
+            return resolved;
+        }
+
+        ApiVersion version = fromPath(request.getRequestURI(), request.getContextPath().length());
+        if (version == null) {
+            version = fromHeader(request.getHeader(versionHeaderName));
+        }
+        if (version == null) {
+            version = fromAccept(request.getHeader(HttpHeaders.ACCEPT));
+        }
+        if (version == null) {
+            version = ApiVersion.getDefault();
+        }
+        request.setAttribute(VERSION_ATTRIBUTE, version);
+        return version;
+    }
+
+    /**
+     * Parse the segment following the API path prefix, e.g. {@code v1} in {@code /api/v1/products}
+     */
+    private ApiVersion fromPath(String uri, int start) {
+        if (!uri.startsWith(apiPathPrefix, start)) {
+            return null;
+        }
+        start += apiPathPrefix.length();
+        if (start >= uri.length() || uri.charAt(start) != '/') {
+            return null;
+        }
+        start++;
+        int end = uri.indexOf('/', start);
+        return ApiVersion.parse(uri, start, end < 0 ? uri.length() : end);
+    }
+
+    private static ApiVersion fromHeader(String header) {
+        return header == null ? null : ApiVersion.parse(header, 0, header.length());
+    }
+
+    /**
+     * Parse the version of the vendor media type, e.g. {@code v2} in {@code application/vnd.ligera.v2+json}
+     */
+    private ApiVersion fromAccept(String accept) {
+        if (accept == null) {
+            return null;
+        }
+        int start = accept.indexOf(acceptHeaderPrefix);
+        if (start < 0) {
+            return null;
+        }
+        start += acceptHeaderPrefix.length();
+        int end = accept.indexOf('+', start);
+        return end > start ? ApiVersion.parse(accept, start, end) : null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ligera.backend.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Logs a summary of the startup timeline recorded by {@link BufferingApplicationStartup}: the time to ready
+ * and the slowest bean instantiations.
+ * <p>
+ * The full timeline is served by the {@code /actuator/startup} endpoint; the summary lets cold-start time be
+ * compared across releases from the logs alone. Bean durations include the beans they depend on.
+ */
+@Slf4j
+@Component
+public class StartupTimelineReporter {
+
+    private static final String BEAN_INSTANTIATION = "spring.beans.instantiate";
+
+    @Value("${app.startup.report.slowest-beans:10}")
+    private int slowestBeans;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+
+        // Not drained, so the timeline stays available to the actuator endpoint
+        StartupTimeline timeline = startup.getBufferedTimeline();
+        String slowest = timeline.getEvents().stream()
+                .filter(startupEvent -> startupEvent.getStartupStep().getName().equals(BEAN_INSTANTIATION))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(slowestBeans)
+                .map(startupEvent -> beanName(startupEvent.getStartupStep()) + "="
+                        + startupEvent.getDuration().toMillis() + "ms")
+                .collect(Collectors.joining(", "));
+
+        Duration timeTaken = event.getTimeTaken();
+        log.info("Startup of {} ready in {} ms, {} steps recorded; slowest beans: {}", version(),
+                timeTaken == null ? "?" : timeTaken.toMillis(), timeline.getEvents().size(), slowest);
+    }
+
+    private static String beanName(StartupStep step) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+                .filter(tag -> tag.getKey().equals("beanName"))
+                .map(StartupStep.Tag::getValue)
+                .findFirst()
+                .orElse("?");
+    }
+
+    private static String version() {
+        String version = StartupTimelineReporter.class.getPackage().getImplementationVersion();
+        return version == null ? "development build" : "version " + version;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ligera.backend.warmup;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Component with expensive state (lists, indexes, caches) that should be built at startup rather than on
+ * the first request that needs it. Every Warmable bean is warmed up in parallel by {@link WarmupManager}.
+ */
+public interface Warmable {
+
+    /**
+     * Build the component's state. Must be idempotent and safe to call concurrently with requests.
+     *
+     * @throws Exception if the state cannot be built
+     */
+    void warmUp() throws Exception;
+
+    /**
+     * Get the name reported in the warmup health details
+     *
+     * @return the warmup name
+     */
+    default String getWarmupName() {
+        String name = ClassUtils.getUserClass(this).getSimpleName();
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ligera.backend.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Reports warmup progress as the {@code warmup} health component, which is part of the readiness group.
+ * <p>
+ * OUT_OF_SERVICE while warmups are running, DOWN if any failed, UP once all are done.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupManager warmupManager;
+
+    @Override
+    public Health health() {
+        Map<String, WarmupManager.WarmupStatus> statuses = warmupManager.getStatuses();
+        boolean failed = statuses.values().stream()
+                .anyMatch(status -> status.state() == WarmupManager.WarmupStatus.State.FAILED);
+
+        Health.Builder builder;
+        if (!warmupManager.isComplete()) {
+            builder = Health.outOfService();
+        } else if (failed) {
+            builder = Health.down();
+        } else {
+            builder = Health.up();
+        }
+        return builder.withDetails(statuses).build();
+    }
+}
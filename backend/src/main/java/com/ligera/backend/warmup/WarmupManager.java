@@ -0,0 +1,154 @@
+package com.ligera.backend.warmup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms up every {@link Warmable} bean in parallel during startup.
+ * <p>
+ * Warmups start as soon as all singletons are instantiated, overlapping with the rest of the context
+ * startup (web server, schedulers), and the {@link ApplicationReadyEvent} waits for them to finish. Since
+ * the readiness state only switches to accepting traffic after that event, no request is routed to the
+ * instance while a warmup is still running. Progress is reported by {@link WarmupHealthIndicator}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmupManager implements SmartInitializingSingleton {
+
+    private final ObjectProvider<Warmable> warmables;
+
+    @Value("${app.warmup.timeout-ms:60000}")
+    private long timeoutMs;
+
+    @Value("${app.warmup.parallelism:0}")
+    private int parallelism;
+
+    // Replaced entry by entry, each status is immutable
+    private final Map<String, WarmupStatus> statuses = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private volatile CompletableFuture<Void> completion = CompletableFuture.completedFuture(null);
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Warmable> components = warmables.orderedStream().toList();
+        if (components.isEmpty()) {
+            return;
+        }
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, components.size()),
+                daemonThreadFactory());
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Warmable component : components) {
+            statuses.put(component.getWarmupName(), WarmupStatus.pending());
+            futures.add(CompletableFuture.runAsync(() -> warmUp(component), executor));
+        }
+        completion = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .whenComplete((result, error) -> executor.shutdown());
+        log.info("Warming up {} component(s) on {} thread(s)", components.size(), Math.min(threads, components.size()));
+    }
+
+    /**
+     * Hold the application ready event, and with it readiness, until every warmup has finished
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void awaitWarmup() {
+        try {
+            completion.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Warmup still running after {} ms, continuing startup: {}", timeoutMs, statuses);
+        } catch (ExecutionException e) {
+            log.error("Warmup failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Check whether all warmups have finished, successfully or not
+     *
+     * @return true if no warmup is running
+     */
+    public boolean isComplete() {
+        return completion.isDone();
+    }
+
+    /**
+     * Get the status of each warmup
+     *
+     * @return a snapshot of the statuses, by warmup name
+     */
+    public Map<String, WarmupStatus> getStatuses() {
+        synchronized (statuses) {
+            return new LinkedHashMap<>(statuses);
+        }
+    }
+
+    private void warmUp(Warmable component) {
+        String name = component.getWarmupName();
+        long start = System.nanoTime();
+        try {
+            component.warmUp();
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            statuses.put(name, WarmupStatus.done(durationMs));
+            log.info("Warmed up {} in {} ms", name, durationMs);
+        } catch (Exception e) {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            statuses.put(name, WarmupStatus.failed(durationMs, e.getMessage()));
+            log.error("Warmup of {} failed after {} ms", name, durationMs, e);
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Outcome of a single warmup
+     */
+    public record WarmupStatus(State state, long durationMs, String error) {
+
+        public enum State {
+            PENDING, DONE, FAILED
+        }
+
+        static WarmupStatus pending() {
+            return new WarmupStatus(State.PENDING, 0, null);
+        }
+
+        static WarmupStatus done(long durationMs) {
+            return new WarmupStatus(State.DONE, durationMs, null);
+        }
+
+        static WarmupStatus failed(long durationMs, String error) {
+            return new WarmupStatus(State.FAILED, durationMs, error);
+        }
+    }
+}
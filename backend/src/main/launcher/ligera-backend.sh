@@ -0,0 +1,28 @@
+#!/bin/sh
+# Ligera Backend launcher of the fast-start build (mvn package -Pfast-start).
+#
+# Runs the AOT-processed application with the AppCDS archive next to it, when there is one. An archive only
+# matches the JDK and the jar location it was trained with, and the JVM silently ignores one that does not,
+# so train again wherever the application is installed:
+#
+#   ligera-backend.sh --train-cds
+#
+# JAVA_OPTS is passed to the JVM and the remaining arguments to the application.
+set -e
+
+DIR=$(cd "$(dirname "$0")" && pwd)
+JAR="$DIR/@project.build.finalName@.jar"
+ARCHIVE="$DIR/@project.artifactId@.jsa"
+
+if [ "$1" = "--train-cds" ]; then
+    shift
+    rm -f "$ARCHIVE"
+    # Refresh the context and exit: every class loaded by then is dumped into the archive
+    exec java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+        $JAVA_OPTS -jar "$JAR" "$@"
+fi
+
+if [ -f "$ARCHIVE" ]; then
+    exec java -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true $JAVA_OPTS -jar "$JAR" "$@"
+fi
+exec java -Dspring.aot.enabled=true $JAVA_OPTS -jar "$JAR" "$@"
@@ -0,0 +1,11 @@
+-- Switch users.id from BIGSERIAL to a pooled-lo sequence so Hibernate can batch inserts.
+-- The increment must match BaseEntity.ID_ALLOCATION_SIZE: each value reserves a block of 50 ids.
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+
+-- Plain SQL inserts keep working: each nextval() claims a whole block, so it never collides with Hibernate
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+DROP SEQUENCE IF EXISTS users_id_seq;
@@ -0,0 +1,3 @@
+-- Index for keyset pagination of users on (created_at, id), read backwards for newest-first listings.
+-- Built concurrently so large users tables stay writable; Flyway runs this script outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
@@ -0,0 +1,10 @@
+-- Emails are compared case-insensitively: store them lower-cased, as the application now does on write.
+-- Fails on addresses that only differ in case, which have to be merged by hand first.
+UPDATE users SET email = lower(email) WHERE email <> lower(email);
+
+-- Duplicates the index of the UNIQUE constraint, which serves natural-id resolution (WHERE email = ?)
+DROP INDEX IF EXISTS idx_users_email;
+
+-- Case-insensitive uniqueness and lookups on lower(email), covering the columns read by authentication
+-- so it is answered by an index-only scan
+CREATE UNIQUE INDEX IF NOT EXISTS idx_users_email_lower ON users (lower(email)) INCLUDE (id, email, password, role);
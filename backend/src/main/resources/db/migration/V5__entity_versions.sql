@@ -0,0 +1,2 @@
+-- Version counter of optimistic locking, also identifying the state of a user in ETags
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
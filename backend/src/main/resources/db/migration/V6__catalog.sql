@@ -0,0 +1,57 @@
+-- Product catalog served to the mobile app, mirroring its Room schema (favorites stay on the device).
+-- Sequence increments must match BaseEntity.ID_ALLOCATION_SIZE.
+CREATE SEQUENCE IF NOT EXISTS categories_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS categories (
+    id BIGINT PRIMARY KEY DEFAULT nextval('categories_seq'),
+    name VARCHAR(100) NOT NULL,
+    description TEXT,
+    image VARCHAR(255),
+    parent_id BIGINT,
+    product_count INTEGER NOT NULL DEFAULT 0,
+    position INTEGER NOT NULL DEFAULT 0,
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    display_in_menu BOOLEAN NOT NULL DEFAULT TRUE,
+    meta_title VARCHAR(255),
+    meta_description VARCHAR(500),
+    slug_url VARCHAR(150),
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_categories_slug_url UNIQUE (slug_url),
+    CONSTRAINT fk_categories_parent FOREIGN KEY (parent_id) REFERENCES categories(id) ON DELETE SET NULL
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    id BIGINT PRIMARY KEY DEFAULT nextval('products_seq'),
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    price NUMERIC(12, 2) NOT NULL CHECK (price >= 0),
+    image_url VARCHAR(500),
+    quantity INTEGER NOT NULL DEFAULT 0,
+    category_id BIGINT,
+    brand VARCHAR(100),
+    size VARCHAR(50),
+    featured BOOLEAN NOT NULL DEFAULT FALSE,
+    popular BOOLEAN NOT NULL DEFAULT FALSE,
+    discount_percent INTEGER NOT NULL DEFAULT 0,
+    rating REAL NOT NULL DEFAULT 0,
+    rating_count INTEGER NOT NULL DEFAULT 0,
+    popularity_score INTEGER NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE SET NULL
+);
+
+ALTER SEQUENCE categories_seq OWNED BY categories.id;
+ALTER SEQUENCE products_seq OWNED BY products.id;
+
+-- One index per keyset listing, so every page is a bounded range scan whatever its depth.
+-- Descending listings read the same indexes backwards. The tables are new, so no need to build concurrently.
+CREATE INDEX IF NOT EXISTS idx_products_name_id ON products (name, id);
+CREATE INDEX IF NOT EXISTS idx_products_price_id ON products (price, id);
+CREATE INDEX IF NOT EXISTS idx_products_category_name_id ON products (category_id, name, id);
+CREATE INDEX IF NOT EXISTS idx_products_category_price_id ON products (category_id, price, id);
+CREATE INDEX IF NOT EXISTS idx_categories_parent_id ON categories (parent_id);
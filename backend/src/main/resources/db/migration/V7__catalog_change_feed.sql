@@ -0,0 +1,37 @@
+-- Catalog change feed: every catalog mutation takes the next number of a single counter row, locked until
+-- commit so numbers become visible in order. Rows keep the number of their creation and latest change.
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS created_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS created_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+
+-- Number existing rows, categories first so they precede the products referencing them
+WITH numbered AS (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS seq FROM categories)
+UPDATE categories c SET created_seq = n.seq, change_seq = n.seq FROM numbered n WHERE c.id = n.id;
+
+WITH numbered AS (
+    SELECT id, (SELECT COUNT(*) FROM categories) + ROW_NUMBER() OVER (ORDER BY id) AS seq FROM products
+)
+UPDATE products p SET created_seq = n.seq, change_seq = n.seq FROM numbered n WHERE p.id = n.id;
+
+CREATE TABLE IF NOT EXISTS catalog_sequence (
+    id INTEGER PRIMARY KEY,
+    last_seq BIGINT NOT NULL,
+    compacted_seq BIGINT NOT NULL
+);
+
+INSERT INTO catalog_sequence (id, last_seq, compacted_seq)
+VALUES (1, (SELECT COUNT(*) FROM categories) + (SELECT COUNT(*) FROM products), 0)
+ON CONFLICT (id) DO NOTHING;
+
+CREATE TABLE IF NOT EXISTS catalog_tombstones (
+    seq BIGINT PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+-- The feed reads each table in change order from a position
+CREATE INDEX IF NOT EXISTS idx_categories_change_seq ON categories (change_seq);
+CREATE INDEX IF NOT EXISTS idx_products_change_seq ON products (change_seq);
+CREATE INDEX IF NOT EXISTS idx_catalog_tombstones_type_seq ON catalog_tombstones (entity_type, seq);
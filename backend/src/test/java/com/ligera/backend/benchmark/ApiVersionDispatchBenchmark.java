@@ -0,0 +1,147 @@
+package com.ligera.backend.benchmark;
+
+import com.ligera.backend.versioning.ApiVersion;
+import com.ligera.backend.versioning.ApiVersionRequestMappingHandler;
+import com.ligera.backend.versioning.ApiVersionResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures handler lookup through ApiVersionRequestMappingHandler with 200 mappings, half of them v1 and
+ * half v2, against a plain RequestMappingHandlerMapping holding the same paths without versioning.
+ * <p>
+ * Paths carry a variable, so every lookup goes through the full scan of the mappings rather than the
+ * direct path index. The version token parser is measured against the original regex-based lookup too.
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ligera.backend.benchmark.ApiVersionDispatchBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiVersionDispatchBenchmark {
+
+    private static final int RESOURCES = 100;
+
+    @Param({"versioned", "unversioned"})
+    private String mappingType;
+
+    @Param({"v1", "v2"})
+    private String version;
+
+    private RequestMappingHandlerMapping mapping;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.refresh();
+        Method handle = ApiVersionDispatchBenchmark.class.getMethod("handle");
+
+        if (mappingType.equals("versioned")) {
+            BenchmarkMapping versioned = new BenchmarkMapping();
+            versioned.setApplicationContext(context);
+            versioned.afterPropertiesSet();
+            for (int i = 0; i < RESOURCES; i++) {
+                for (ApiVersion apiVersion : new ApiVersion[] {ApiVersion.V1, ApiVersion.V2}) {
+                    versioned.register("/products" + i + "/{id}", apiVersion, this, handle);
+                }
+            }
+            mapping = versioned;
+        } else {
+            mapping = new RequestMappingHandlerMapping();
+            mapping.setApplicationContext(context);
+            mapping.afterPropertiesSet();
+            for (int i = 0; i < RESOURCES; i++) {
+                for (String pathVersion : new String[] {"v1", "v2"}) {
+                    mapping.registerMapping(RequestMappingInfo.paths("/api/" + pathVersion + "/products" + i + "/{id}")
+                            .options(mapping.getBuilderConfiguration())
+                            .build(), this, handle);
+                }
+            }
+        }
+
+        // A resource in the middle of the registrations
+        request = new MockHttpServletRequest("GET", "/api/" + version + "/products" + RESOURCES / 2 + "/42");
+        ServletRequestPathUtils.parseAndCache(request);
+    }
+
+    @Benchmark
+    public HandlerExecutionChain dispatch() throws Exception {
+        // Resolve the version again on every lookup, as for a new request
+        request.removeAttribute(ApiVersionResolver.VERSION_ATTRIBUTE);
+        return mapping.getHandler(request);
+    }
+
+    @Benchmark
+    public ApiVersion parseVersion() {
+        return ApiVersion.fromString(version);
+    }
+
+    @Benchmark
+    public ApiVersion parseVersionWithRegex() {
+        String normalizedVersion = version.toLowerCase().trim();
+        if (normalizedVersion.matches("\\d+")) {
+            normalizedVersion = "v" + normalizedVersion;
+        }
+        for (ApiVersion apiVersion : ApiVersion.values()) {
+            if (apiVersion.getName().equalsIgnoreCase(normalizedVersion)) {
+                return apiVersion;
+            }
+        }
+        return null;
+    }
+
+    public String handle() {
+        return "";
+    }
+
+    /**
+     * Registers versioned mappings the way annotated controller methods are
+     */
+    private static class BenchmarkMapping extends ApiVersionRequestMappingHandler {
+
+        BenchmarkMapping() {
+            super("/api", "X-API-Version", "application/vnd.ligera.");
+        }
+
+        void register(String path, ApiVersion apiVersion, Object handler, Method method) {
+            RequestMappingInfo mappingInfo = RequestMappingInfo.paths(path)
+                    .options(getBuilderConfiguration())
+                    .build();
+            registerMapping(versionedMapping(mappingInfo, apiVersion), handler, method);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ApiVersionDispatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.ligera.backend.benchmark;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JWT sign and verify cost for the algorithms supported by the key ring.
+ * <p>
+ * Tokens carry the same header and claims as the ones issued by JwtUtils, so the numbers reflect our
+ * real token size. Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ligera.backend.benchmark.JwtSignatureBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtSignatureBenchmark {
+
+    private static final String SUBJECT = "regular.user@ligera.com";
+    private static final long EXPIRATION_MS = 86400000;
+
+    @Param({"HS256", "ES256", "Ed25519"})
+    private String algorithm;
+
+    private Key signingKey;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        Key verificationKey;
+        switch (algorithm) {
+            case "HS256" -> {
+                signingKey = Jwts.SIG.HS256.key().build();
+                verificationKey = signingKey;
+            }
+            case "ES256" -> {
+                KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+                signingKey = keyPair.getPrivate();
+                verificationKey = keyPair.getPublic();
+            }
+            case "Ed25519" -> {
+                KeyPair keyPair = Jwks.CRV.Ed25519.keyPair().build();
+                signingKey = keyPair.getPrivate();
+                verificationKey = keyPair.getPublic();
+            }
+            default -> throw new IllegalArgumentException("Unsupported algorithm: " + algorithm);
+        }
+
+        Key resolvedKey = verificationKey;
+        parser = Jwts.parser().keyLocator(header -> resolvedKey).build();
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        Date now = new Date();
+        return Jwts.builder()
+                .header().keyId("2024-01").and()
+                .subject(SUBJECT)
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + EXPIRATION_MS))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    @Benchmark
+    public Object verify() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtSignatureBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+package com.ligera.backend.benchmark;
+
+import com.ligera.backend.security.validation.PasswordValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures password validation for a strong password, a weak one failing most rules and a common one.
+ * <p>
+ * Add {@code -prof gc} to the JMH arguments to see the bytes allocated per validation. Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ligera.backend.benchmark.PasswordValidatorBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordValidatorBenchmark {
+
+    @Param({"Xy7!Kl9#Pq2$vB", "aaabc", "Password123"})
+    private String password;
+
+    private PasswordValidator validator;
+
+    @Setup
+    public void setUp() {
+        validator = new PasswordValidator();
+        validator.initializeCommonPasswords();
+    }
+
+    @Benchmark
+    public PasswordValidator.ValidationResult validate() {
+        return validator.validate(password);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordValidatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
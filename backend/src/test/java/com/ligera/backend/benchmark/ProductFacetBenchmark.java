@@ -0,0 +1,84 @@
+package com.ligera.backend.benchmark;
+
+import com.ligera.backend.search.FacetResult;
+import com.ligera.backend.search.ProductFacet;
+import com.ligera.backend.search.ProductFacetIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures filtering and counting facets on a million products: no filter, one broad filter (in stock),
+ * two narrow ones (categories and a size) and three mixed ones (brands, a price band and in stock).
+ * <p>
+ * Products get one of 200 categories and 6 sizes uniformly, one of 500 brands with a skewed frequency and
+ * a price up to 1000. Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ligera.backend.benchmark.ProductFacetBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ProductFacetBenchmark {
+
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL", "XXL"};
+
+    @Param({"none", "inStock", "categoriesAndSize", "brandsPriceAndStock"})
+    private String filters;
+
+    private ProductFacetIndex index;
+    private Map<ProductFacet, Set<String>> selected;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new ProductFacetIndex(List.of(new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100"),
+                new BigDecimal("200"), new BigDecimal("500")), 50);
+        for (int id = 1; id <= 1_000_000; id++) {
+            index.put(id, (long) random.nextInt(200), "brand" + (int) (Math.pow(random.nextDouble(), 2) * 500),
+                    SIZES[random.nextInt(SIZES.length)], BigDecimal.valueOf(random.nextInt(100_000), 2),
+                    random.nextInt(10));
+        }
+        selected = switch (filters) {
+            case "inStock" -> Map.of(ProductFacet.IN_STOCK, Set.of("true"));
+            case "categoriesAndSize" -> Map.of(ProductFacet.CATEGORY, Set.of("5", "6"), ProductFacet.SIZE, Set.of("M"));
+            case "brandsPriceAndStock" -> Map.of(ProductFacet.BRAND, Set.of("brand1", "brand2"),
+                    ProductFacet.PRICE, Set.of("25-50"), ProductFacet.IN_STOCK, Set.of("true"));
+            default -> Map.of();
+        };
+    }
+
+    @Benchmark
+    public FacetResult filter() {
+        return index.filter(selected, 0, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductFacetBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.ligera.backend.benchmark;
+
+import com.ligera.backend.search.ProductSearchIndex;
+import com.ligera.backend.search.SearchHit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency distribution of product searches on an index of a million products, from four
+ * threads at once.
+ * <p>
+ * Products are made of words drawn from a synthetic vocabulary with a skewed frequency, so some words match
+ * a large share of the catalog like "shirt" or "black" would. Queries mix single common and rare words,
+ * two-word queries, prefixes of a word being typed and words with a typo. The sample mode reports the
+ * percentiles; the target is a p99 under 20 ms. Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ligera.backend.benchmark.ProductSearchBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(4)
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final int BRANDS = 500;
+    private static final int QUERIES = 4096;
+
+    @Param({"1000000"})
+    private int products;
+
+    private ProductSearchIndex index;
+    private String[] words;
+    private String[] queries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = randomWord(random);
+        }
+        index = new ProductSearchIndex(32);
+        for (int id = 1; id <= products; id++) {
+            index.put(id, text(random, 3), words[random.nextInt(BRANDS)], text(random, 15));
+        }
+
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = word(random);
+            queries[i] = switch (i % 5) {
+                case 0 -> word;
+                case 1 -> words[random.nextInt(VOCABULARY)];
+                case 2 -> word + " " + word(random);
+                case 3 -> word(random) + " " + word.substring(0, Math.min(word.length(), 2 + random.nextInt(3)));
+                default -> typo(random, word);
+            };
+        }
+    }
+
+    @Benchmark
+    public List<SearchHit> search(QueryCounter counter) {
+        return index.search(queries[counter.next++ & (QUERIES - 1)], 0, 20);
+    }
+
+    /**
+     * Position of each thread in the queries
+     */
+    @State(Scope.Thread)
+    public static class QueryCounter {
+        int next;
+
+        @Setup
+        public void setUp() {
+            next = (int) Thread.currentThread().getId() * 997;
+        }
+    }
+
+    private String text(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(word(random)).append(' ');
+        }
+        return text.toString();
+    }
+
+    // Low ranks are drawn far more often, roughly like words in product texts
+    private String word(Random random) {
+        return words[(int) (Math.pow(random.nextDouble(), 3) * VOCABULARY)];
+    }
+
+    private static String randomWord(Random random) {
+        char[] word = new char[3 + random.nextInt(8)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+
+    private static String typo(Random random, String word) {
+        if (word.length() < 4) {
+            return word;
+        }
+        int i = 1 + random.nextInt(word.length() - 2);
+        return word.substring(0, i) + word.charAt(i + 1) + word.charAt(i) + word.substring(i + 2);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
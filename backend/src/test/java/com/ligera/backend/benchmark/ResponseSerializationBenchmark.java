@@ -0,0 +1,164 @@
+package com.ligera.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.ligera.backend.dtos.request.RegisterRequest;
+import com.ligera.backend.dtos.response.ApiResponse;
+import com.ligera.backend.dtos.response.UserResponse;
+import com.ligera.backend.enums.AccountStatus;
+import com.ligera.backend.enums.Role;
+import com.ligera.backend.exception.GlobalExceptionHandler;
+import com.ligera.backend.json.CachedClock;
+import jakarta.persistence.EntityNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building and writing the response envelopes: {@link ApiResponse#success}, {@link ApiResponse#paginated}
+ * with 20 users, and the error responses of {@link GlobalExceptionHandler} for a fixed message, a variable
+ * message and field validation errors. Each is written with the ObjectMapper Spring Boot would build, with
+ * reflective property access or with the Blackbird module. The clock benchmarks compare the cached clock of
+ * the timestamps with {@link LocalDateTime#now()}.
+ * <p>
+ * The GC profiler reports the bytes allocated per operation as gc.alloc.rate.norm. Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ligera.backend.benchmark.ResponseSerializationBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseSerializationBenchmark {
+
+    @Param({"reflection", "blackbird"})
+    private String propertyAccess;
+
+    private ObjectMapper objectMapper;
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+    private UserResponse user;
+    private Page<UserResponse> page;
+    private AccessDeniedException accessDenied;
+    private EntityNotFoundException notFound;
+    private MethodArgumentNotValidException notValid;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+
+    @Setup
+    public void setUp() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (propertyAccess.equals("blackbird")) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+
+        handler = new GlobalExceptionHandler();
+        request = new MockHttpServletRequest("GET", "/api/v1/admin/users");
+
+        List<UserResponse> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(new UserResponse((long) i, "User " + i, "user" + i + "@ligera.com", Role.USER,
+                    AccountStatus.ACTIVE, LocalDateTime.of(2024, 3, 1, 12, 0).plusMinutes(i)));
+        }
+        user = users.get(0);
+        page = new PageImpl<>(users, PageRequest.of(2, 20), 1000);
+
+        accessDenied = new AccessDeniedException("Access is denied");
+        notFound = new EntityNotFoundException("User not found with id: 42");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new RegisterRequest(), "registerRequest");
+        bindingResult.addError(new FieldError("registerRequest", "email", "must be a well-formed email address"));
+        bindingResult.addError(new FieldError("registerRequest", "password", "size must be between 8 and 128"));
+        notValid = new MethodArgumentNotValidException(
+                new MethodParameter(ResponseSerializationBenchmark.class.getMethod("register", RegisterRequest.class), 0),
+                bindingResult);
+    }
+
+    @Benchmark
+    public int success() throws IOException {
+        return write(ApiResponse.success(user, "User profile retrieved successfully"));
+    }
+
+    @Benchmark
+    public int paginated() throws IOException {
+        return write(ApiResponse.paginated(page));
+    }
+
+    @Benchmark
+    public int fixedMessageError() throws IOException {
+        return write(handler.handleAccessDeniedException(accessDenied, request).getBody());
+    }
+
+    @Benchmark
+    public int variableMessageError() throws IOException {
+        return write(handler.handleEntityNotFoundException(notFound, request).getBody());
+    }
+
+    @Benchmark
+    public int validationError() throws IOException {
+        return write(handler.handleValidationExceptions(notValid, request).getBody());
+    }
+
+    @Benchmark
+    public LocalDateTime cachedClock() {
+        return CachedClock.now();
+    }
+
+    @Benchmark
+    public LocalDateTime systemClock() {
+        return LocalDateTime.now();
+    }
+
+    /**
+     * Handler method whose parameter the validation error refers to
+     */
+    public void register(RegisterRequest registerRequest) {
+    }
+
+    // Written to a reused buffer, as to the response stream
+    private int write(Object value) throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, value);
+        return out.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,174 @@
+package com.ligera.backend.benchmark;
+
+import com.ligera.backend.enums.AccountStatus;
+import com.ligera.backend.enums.Role;
+import com.ligera.backend.models.User;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to import users with IDENTITY ids, which disable JDBC batching, against the pooled-lo
+ * sequence ids of BaseEntity with batched inserts.
+ * <p>
+ * Users are persisted through one session, flushing and clearing every batch so memory stays flat. The
+ * database is an in-memory H2 by default, which hides most of the per-statement round-trip that IDENTITY
+ * pays; point the benchmark at PostgreSQL for representative numbers with
+ * {@code -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/ligera_bench?reWriteBatchedInserts=true}
+ * (plus {@code benchmark.jdbc.username} and {@code benchmark.jdbc.password}). Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ligera.backend.benchmark.UserImportBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class UserImportBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    // BCrypt of "password123", encoding is not part of what is measured
+    private static final String ENCODED_PASSWORD = "$2a$10$FnkNozkIQoWTbVxCBjZJQ.MDhJVXZhQUx9/vGW/FG5uJbXLnH6XuC";
+
+    @Param({"1000000"})
+    private int users;
+
+    @Param({"identity", "pooled-lo"})
+    private String idStrategy;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(IdentityUser.class)
+                .setProperty(AvailableSettings.URL,
+                        System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:import;DB_CLOSE_DELAY=-1"))
+                .setProperty(AvailableSettings.USER, System.getProperty("benchmark.jdbc.username", "sa"))
+                .setProperty(AvailableSettings.PASS, System.getProperty("benchmark.jdbc.password", ""))
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(BATCH_SIZE))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .buildSessionFactory();
+    }
+
+    @Setup(Level.Iteration)
+    public void clear() {
+        sessionFactory.getSchemaManager().truncateMappedObjects();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int importUsers() {
+        boolean identity = idStrategy.equals("identity");
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            for (int i = 0; i < users; i++) {
+                String name = "Imported User " + i;
+                String email = "imported.user" + i + "@ligera.com";
+                session.persist(identity
+                        ? new IdentityUser(name, email)
+                        : User.createDefaultUser(name, email, ENCODED_PASSWORD));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            transaction.commit();
+        }
+        return users;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * The users table as mapped before sequence ids, with an IDENTITY id
+     */
+    @Entity
+    @Table(name = "identity_users")
+    public static class IdentityUser {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "name", nullable = false, length = 50)
+        private String name;
+
+        @Column(name = "email", nullable = false, unique = true, length = 100)
+        private String email;
+
+        @Column(name = "password", nullable = false)
+        private String password;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "role", nullable = false, length = 20)
+        private Role role;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "account_status", nullable = false, length = 20)
+        private AccountStatus accountStatus;
+
+        @Column(name = "created_at", nullable = false, updatable = false)
+        private LocalDateTime createdAt;
+
+        @Column(name = "updated_at")
+        private LocalDateTime updatedAt;
+
+        protected IdentityUser() {
+        }
+
+        IdentityUser(String name, String email) {
+            this.name = name;
+            this.email = email;
+            this.password = ENCODED_PASSWORD;
+            this.role = Role.USER;
+            this.accountStatus = AccountStatus.ACTIVE;
+            this.createdAt = LocalDateTime.now();
+            this.updatedAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ligera.backend.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the access rules of the actuator endpoints
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ActuatorSecurityIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void readinessProbeIsAnsweredWithoutToken() throws Exception {
+        MvcResult result = mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(jsonPath("$.status").isNotEmpty())
+                .andReturn();
+
+        // UP or OUT_OF_SERVICE depending on the warmup, never an authentication challenge
+        assertTrue(List.of(200, 503).contains(result.getResponse().getStatus()));
+    }
+
+    @Test
+    void livenessProbeIsAnsweredWithoutToken() throws Exception {
+        MvcResult result = mockMvc.perform(get("/actuator/health/liveness"))
+                .andExpect(jsonPath("$.status").isNotEmpty())
+                .andReturn();
+
+        assertTrue(List.of(200, 503).contains(result.getResponse().getStatus()));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void startupAndPinningReportsAreForbiddenToCustomers() throws Exception {
+        // Forbidden where the endpoints exist, absent where the timeline is not buffered or threads not virtual
+        for (String endpoint : List.of("/actuator/startup", "/actuator/pinning")) {
+            int status = mockMvc.perform(get(endpoint)).andReturn().getResponse().getStatus();
+            assertTrue(List.of(403, 404).contains(status), endpoint + " answered " + status);
+        }
+    }
+
+    @Test
+    void startupReportNeedsAuthentication() throws Exception {
+        mockMvc.perform(get("/actuator/startup")).andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,87 @@
+package com.ligera.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ligera.backend.concurrency.InstrumentedDataSource;
+import com.ligera.backend.dtos.request.RegisterRequest;
+import com.ligera.backend.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the per-endpoint connection metrics of {@link InstrumentedDataSource}
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConnectionMetricsIntegrationTest {
+
+    // Public and served without the database, so its only connection is the user lookup of the security chain
+    private static final String JWKS_ENDPOINT = "/api/v1/auth/jwks";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void userLookupOfAnAuthenticatedRequestIsRecordedUnderItsEndpoint() throws Exception {
+        InstrumentedDataSource instrumented = dataSource.unwrap(InstrumentedDataSource.class);
+        String token = register("metrics@example.com");
+        assertFalse(instrumented.getEndpointTimers().containsKey("GET " + JWKS_ENDPOINT));
+
+        mockMvc.perform(get(JWKS_ENDPOINT).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        InstrumentedDataSource.EndpointTimers timers = instrumented.getEndpointTimers().get("GET " + JWKS_ENDPOINT);
+        assertNotNull(timers, "no connection recorded for the endpoint: " + instrumented.getEndpointTimers().keySet());
+        assertTrue(timers.acquire().count() >= 1);
+        assertTrue(timers.hold().count() >= 1);
+    }
+
+    private String register(String email) throws Exception {
+        RegisterRequest request = RegisterRequest.builder()
+                .name("Metrics User")
+                .email(email)
+                .password("password123")
+                .build();
+        String response = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+}
@@ -0,0 +1,196 @@
+package com.ligera.backend.integration;
+
+import com.ligera.backend.models.User;
+import com.ligera.backend.repositories.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the query plans of the email lookups against the Flyway schema on PostgreSQL.
+ * <p>
+ * The SQL explained is the SQL Hibernate generates for the repository queries and the natural-id lookup.
+ * Needs Docker; skipped where it is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class UserEmailIndexIntegrationTest {
+
+    private static final int USERS = 10_000;
+    private static final String EMAIL = "User.5000@Ligera.com";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static final List<String> statements = new ArrayList<>();
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void setUpDatabase() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO users (name, email, password, role, account_status, created_at, updated_at)
+                    SELECT 'User ' || i, 'user.' || i || '@ligera.com', 'hash', 'USER', 'ACTIVE', now(), now()
+                    FROM generate_series(1, %d) i""".formatted(USERS));
+            // Index-only scans need an up-to-date visibility map
+            statement.execute("VACUUM ANALYZE users");
+        }
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .setProperty(AvailableSettings.URL, POSTGRES.getJdbcUrl())
+                .setProperty(AvailableSettings.USER, POSTGRES.getUsername())
+                .setProperty(AvailableSettings.PASS, POSTGRES.getPassword())
+                .setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .setProperty(AvailableSettings.STATEMENT_INSPECTOR, RecordingInspector.class.getName())
+                .buildSessionFactory();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        statements.clear();
+    }
+
+    @Test
+    void credentialsLookupIsAnIndexOnlyScan() throws SQLException {
+        String sql = generatedSql("findCredentialsByEmail");
+
+        String plan = explain(sql, EMAIL);
+
+        assertTrue(plan.contains("Index Only Scan using idx_users_email_lower"), plan);
+    }
+
+    @Test
+    void existsByEmailIsAnIndexOnlyScan() throws SQLException {
+        String sql = generatedSql("existsByEmail");
+
+        String plan = explain(sql, EMAIL);
+
+        assertTrue(plan.contains("Index Only Scan using idx_users_email_lower"), plan);
+    }
+
+    @Test
+    void credentialsLookupIgnoresCase() {
+        List<?> found = sessionFactory.fromSession(session -> session.createQuery(queryOf("findCredentialsByEmail"))
+                .setParameter("email", EMAIL)
+                .getResultList());
+
+        assertEquals(1, found.size());
+    }
+
+    @Test
+    void naturalIdResolutionUsesTheUniqueEmailIndex() throws SQLException {
+        User user = sessionFactory.fromSession(session -> session.bySimpleNaturalId(User.class)
+                .load(User.normalizeEmail(EMAIL)));
+        assertEquals("user.5000@ligera.com", user.getEmail());
+
+        String plan = explain(statements.get(0), User.normalizeEmail(EMAIL));
+
+        assertTrue(plan.contains("using users_email_key"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void redundantEmailIndexIsDropped() throws SQLException {
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT count(*) FROM pg_indexes WHERE tablename = 'users' AND indexname = ?")) {
+            statement.setString(1, "idx_users_email");
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                assertEquals(0, result.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    void emailsDifferingOnlyInCaseAreRejected() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            assertThrows(SQLException.class, () -> statement.execute("""
+                    INSERT INTO users (name, email, password, role, account_status, created_at, updated_at)
+                    VALUES ('Duplicate', 'USER.1@LIGERA.COM', 'hash', 'USER', 'ACTIVE', now(), now())"""));
+        }
+    }
+
+    /**
+     * Run a repository query through Hibernate and return the SQL it generated
+     */
+    private static String generatedSql(String repositoryMethod) {
+        String hql = queryOf(repositoryMethod);
+        sessionFactory.inSession(session -> session.createQuery(hql).setParameter("email", EMAIL).getResultList());
+        assertEquals(1, statements.size());
+        return statements.get(0);
+    }
+
+    private static String queryOf(String repositoryMethod) {
+        try {
+            return UserRepository.class.getMethod(repositoryMethod, String.class).getAnnotation(Query.class).value();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static String explain(String sql, String email) throws SQLException {
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            statement.setString(1, email);
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    plan.append(result.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares
+     */
+    public static class RecordingInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
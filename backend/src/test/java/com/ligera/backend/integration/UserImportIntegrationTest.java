@@ -0,0 +1,194 @@
+package com.ligera.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ligera.backend.imports.UserImportEvent;
+import com.ligera.backend.imports.UserImportReader;
+import com.ligera.backend.imports.UserImportService;
+import com.ligera.backend.security.validation.PasswordValidator;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the bulk user import against the Flyway schema on PostgreSQL: staging with {@code COPY}, the
+ * set-based merge into {@code users} and the events reported along the way.
+ * <p>
+ * Needs Docker; skipped where it is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class UserImportIntegrationTest {
+
+    private static final String PASSWORD = "Xy7!Kl9#";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static PGSimpleDataSource dataSource;
+    private static ValidatorFactory validatorFactory;
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private UserImportService importService;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        dataSource = new PGSimpleDataSource();
+        dataSource.setURL(POSTGRES.getJdbcUrl());
+        dataSource.setUser(POSTGRES.getUsername());
+        dataSource.setPassword(POSTGRES.getPassword());
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE users CASCADE");
+            statement.execute("""
+                    INSERT INTO users (name, email, password, role, account_status, created_at, updated_at)
+                    VALUES ('Taken', 'taken@ligera.com', 'hash', 'USER', 'ACTIVE', now(), now())""");
+        }
+
+        PasswordValidator passwordValidator = new PasswordValidator();
+        passwordValidator.initializeCommonPasswords();
+        importService = new UserImportService(dataSource, passwordValidator, passwordEncoder,
+                validatorFactory.getValidator());
+        ReflectionTestUtils.setField(importService, "workers", 2);
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        ReflectionTestUtils.setField(importService, "progressInterval", 2);
+        ReflectionTestUtils.invokeMethod(importService, "start");
+    }
+
+    @AfterEach
+    void stopWorkers() {
+        ReflectionTestUtils.invokeMethod(importService, "stop");
+    }
+
+    @Test
+    void stagesValidRowsAndMergesThemIntoUsers() throws Exception {
+        List<UserImportEvent> events = new ArrayList<>();
+
+        UserImportEvent.Summary summary = importService.importUsers(csv("""
+                name,email,password
+                Ada Lovelace,Ada@Ligera.com,%1$s
+                "Grace\tHopper \\ RADM",grace@ligera.com,%1$s
+                Existing,taken@ligera.com,%1$s
+                Ada Again,ADA@ligera.com,%1$s
+                Not Email,not-an-email,%1$s
+                Too Short,short@ligera.com,Xy7!
+                Alan Turing,alan@ligera.com,%1$s
+                """.formatted(PASSWORD)), events::add);
+
+        assertEquals(new UserImportEvent.Summary(7, 3, 4, 0, summary.durationMs()), summary);
+        assertEquals(summary, events.get(events.size() - 1));
+
+        Map<String, String[]> users = users();
+        assertEquals(List.of("ada@ligera.com", "alan@ligera.com", "grace@ligera.com", "taken@ligera.com"),
+                new ArrayList<>(users.keySet()));
+        assertEquals("Ada Lovelace", users.get("ada@ligera.com")[0]);
+        assertEquals("Grace\tHopper \\ RADM", users.get("grace@ligera.com")[0]);
+        assertEquals("USER", users.get("alan@ligera.com")[2]);
+        assertEquals("ACTIVE", users.get("alan@ligera.com")[3]);
+        assertTrue(passwordEncoder.matches(PASSWORD, users.get("alan@ligera.com")[1]));
+    }
+
+    @Test
+    void reportsRejectsAndProgressInOrder() throws Exception {
+        List<UserImportEvent> events = new ArrayList<>();
+
+        importService.importUsers(csv("""
+                name,email,password
+                Ada Lovelace,ada@ligera.com,%1$s
+                Not Email,not-an-email,%1$s
+                Existing,Taken@ligera.com,%1$s
+                Ada Again,ada@ligera.com,%1$s
+                Alan Turing,alan@ligera.com,%1$s
+                """.formatted(PASSWORD)), events::add);
+
+        assertEquals(List.of(
+                new UserImportEvent.Reject(3, "not-an-email", "Email should be valid"),
+                new UserImportEvent.Progress("staging", 2, 1, 1),
+                new UserImportEvent.Progress("staging", 4, 3, 1),
+                new UserImportEvent.Progress("merging", 5, 4, 1),
+                new UserImportEvent.Reject(5, "ada@ligera.com", "Duplicate email in import"),
+                new UserImportEvent.Reject(4, "taken@ligera.com", "Email already in use")
+        ), events.subList(0, events.size() - 1));
+        assertInstanceOf(UserImportEvent.Summary.class, events.get(events.size() - 1));
+    }
+
+    @Test
+    void importsNothingWhenTheImportFails() throws Exception {
+        UserImportReader reader = csv("""
+                name,email,password
+                Ada Lovelace,ada@ligera.com,%1$s
+                Alan Turing,alan@ligera.com,%1$s
+                """.formatted(PASSWORD));
+
+        assertThrows(IllegalStateException.class, () -> importService.importUsers(reader, event -> {
+            if (event instanceof UserImportEvent.Progress progress && progress.phase().equals("merging")) {
+                throw new IllegalStateException("Client went away");
+            }
+        }));
+
+        assertEquals(List.of("taken@ligera.com"), new ArrayList<>(users().keySet()));
+    }
+
+    private static UserImportReader csv(String content) throws IOException {
+        return UserImportReader.open(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                UserImportReader.TEXT_CSV, new ObjectMapper().reader());
+    }
+
+    /**
+     * Get the name, password, role and account status of every user by email
+     */
+    private static Map<String, String[]> users() throws SQLException {
+        Map<String, String[]> users = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(
+                     "SELECT email, name, password, role, account_status FROM users ORDER BY email")) {
+            while (result.next()) {
+                users.put(result.getString(1), new String[]{result.getString(2), result.getString(3),
+                        result.getString(4), result.getString(5)});
+            }
+        }
+        return users;
+    }
+}
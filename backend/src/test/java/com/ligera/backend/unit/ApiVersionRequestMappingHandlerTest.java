@@ -0,0 +1,175 @@
+package com.ligera.backend.unit;
+
+import com.ligera.backend.versioning.ApiVersion;
+import com.ligera.backend.versioning.ApiVersionRequestMapping;
+import com.ligera.backend.versioning.ApiVersionRequestMappingHandler;
+import com.ligera.backend.versioning.ApiVersionResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the version resolution and dispatch of ApiVersionRequestMappingHandler. The table-driven
+ * ApiVersion parser is checked against the original regex-based lookup, kept below as
+ * {@link #referenceFromString(String)}.
+ */
+public class ApiVersionRequestMappingHandlerTest {
+
+    private static final String ALPHABET = "vV0123latestLATEST \t/+x";
+
+    private ApiVersionRequestMappingHandler mapping;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.registerSingleton("v1Controller", V1Controller.class);
+        context.registerSingleton("v2Controller", V2Controller.class);
+        context.refresh();
+
+        mapping = new ApiVersionRequestMappingHandler("/api", "X-API-Version", "application/vnd.ligera.");
+        mapping.setApplicationContext(context);
+        mapping.afterPropertiesSet();
+    }
+
+    @Test
+    void parseMatchesReferenceOnRandomTokens() {
+        Random random = new Random(20240301L);
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder token = new StringBuilder();
+            int length = random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                token.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertEquals(referenceFromString(token.toString()), ApiVersion.fromString(token.toString()),
+                    "'" + token + "'");
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"v1", "V2", "1", " 2 ", "latest", "Latest", "v3", "v01", "01", "v", "", "lates", "v1x"})
+    void parseMatchesReferenceOnKnownTokens(String token) {
+        assertEquals(referenceFromString(token), ApiVersion.fromString(token));
+    }
+
+    @Test
+    void parsesTokenWithinString() {
+        String accept = "application/vnd.ligera.v2+json";
+        assertEquals(ApiVersion.V2, ApiVersion.parse(accept, 23, 25));
+    }
+
+    @Test
+    void dispatchesOnVersionPath() throws Exception {
+        assertEquals("v1", handlerName(request("/api/v1/items/7")));
+        assertEquals("v2", handlerName(request("/api/v2/items/7")));
+    }
+
+    @Test
+    void versionPathIsRequired() throws Exception {
+        assertNull(handlerName(request("/items/7")));
+    }
+
+    @Test
+    void headerOrAcceptCannotOverrideVersionPath() throws Exception {
+        MockHttpServletRequest byHeader = request("/api/v1/items/7");
+        byHeader.addHeader("X-API-Version", "v2");
+        assertEquals("v1", handlerName(byHeader));
+
+        MockHttpServletRequest byAccept = request("/api/v1/items/7");
+        byAccept.addHeader("Accept", "application/vnd.ligera.v2+json");
+        assertEquals("v1", handlerName(byAccept));
+    }
+
+    @Test
+    void versionIsResolvedOncePerRequest() throws Exception {
+        MockHttpServletRequest request = request("/api/v2/items/7");
+        handlerName(request);
+        assertEquals(ApiVersion.V2, request.getAttribute(ApiVersionResolver.VERSION_ATTRIBUTE));
+
+        // A resolved version is never parsed again
+        MockHttpServletRequest preResolved = request("/api/v2/items/7");
+        preResolved.setAttribute(ApiVersionResolver.VERSION_ATTRIBUTE, ApiVersion.V1);
+        assertNull(handlerName(preResolved));
+    }
+
+    @Test
+    void resolvesHeaderThenAcceptThenDefault() {
+        ApiVersionResolver resolver = new ApiVersionResolver("/api", "X-API-Version", "application/vnd.ligera.");
+
+        MockHttpServletRequest byHeader = request("/health");
+        byHeader.addHeader("X-API-Version", "2");
+        byHeader.addHeader("Accept", "application/vnd.ligera.v1+json");
+        assertEquals(ApiVersion.V2, resolver.resolve(byHeader));
+
+        MockHttpServletRequest byAccept = request("/health");
+        byAccept.addHeader("Accept", "text/plain, application/vnd.ligera.latest+json");
+        assertEquals(ApiVersion.LATEST, resolver.resolve(byAccept));
+
+        assertEquals(ApiVersion.getDefault(), resolver.resolve(request("/api/vnext/items")));
+    }
+
+    private String handlerName(MockHttpServletRequest request) throws Exception {
+        HandlerExecutionChain chain = mapping.getHandler(request);
+        return chain == null ? null : ((HandlerMethod) chain.getHandler()).getMethod().getName();
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        ServletRequestPathUtils.parseAndCache(request);
+        return request;
+    }
+
+    /**
+     * The version lookup as originally written
+     */
+    private static ApiVersion referenceFromString(String version) {
+        if (version == null) {
+            return null;
+        }
+        String normalizedVersion = version.toLowerCase().trim();
+        if (normalizedVersion.matches("\\d+")) {
+            normalizedVersion = "v" + normalizedVersion;
+        }
+        for (ApiVersion apiVersion : ApiVersion.values()) {
+            if (apiVersion.getName().equals(normalizedVersion)) {
+                return apiVersion;
+            }
+        }
+        return null;
+    }
+
+    @RestController
+    @RequestMapping("/items")
+    @ApiVersionRequestMapping(version = ApiVersion.V1)
+    static class V1Controller {
+
+        @GetMapping("/{id}")
+        public String v1() {
+            return "v1";
+        }
+    }
+
+    @RestController
+    @RequestMapping("/items")
+    @ApiVersionRequestMapping(version = ApiVersion.V2)
+    static class V2Controller {
+
+        @GetMapping("/{id}")
+        public String v2() {
+            return "v2";
+        }
+    }
+}
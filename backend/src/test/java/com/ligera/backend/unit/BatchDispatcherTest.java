@@ -0,0 +1,326 @@
+package com.ligera.backend.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ligera.backend.batch.BatchDispatcher;
+import com.ligera.backend.batch.BatchProperties;
+import com.ligera.backend.config.RateLimitConfig;
+import com.ligera.backend.dtos.request.BatchRequest;
+import com.ligera.backend.dtos.response.BatchResponse;
+import com.ligera.backend.exception.InvalidBatchException;
+import com.ligera.backend.exception.RateLimitExceededException;
+import com.ligera.backend.filter.MetricsFilter;
+import com.ligera.backend.service.RateLimitService;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Refill;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.WebInvocationPrivilegeEvaluator;
+import org.springframework.security.web.firewall.StrictHttpFirewall;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the dispatch of batch operations by {@link BatchDispatcher}
+ */
+public class BatchDispatcherTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private BatchProperties properties;
+    private RateLimitService rateLimitService;
+    private StubDispatcherServlet servlet;
+    private BatchDispatcher dispatcher;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BatchProperties();
+        properties.setWorkers(4);
+        properties.setTimeout(Duration.ofSeconds(5));
+
+        RateLimitConfig rateLimitConfig = new RateLimitConfig();
+        ReflectionTestUtils.setField(rateLimitConfig, "enabled", true);
+        Bandwidth bandwidth = Bandwidth.classic(5, Refill.intervally(5, Duration.ofMinutes(1)));
+        rateLimitService = new RateLimitService(rateLimitConfig, bandwidth, bandwidth);
+
+        servlet = new StubDispatcherServlet();
+        dispatcher = new BatchDispatcher(servlet, new AdminPathsDenied(), new StrictHttpFirewall(), rateLimitService,
+                new MetricsFilter(), objectMapper, properties, Executors.newFixedThreadPool(4));
+
+        request = new MockHttpServletRequest("POST", "/api/api/v1/batch");
+        request.setContextPath("/api");
+        request.setContentType("application/json");
+        request.addHeader("Authorization", "Bearer token");
+        request.addHeader("Accept-Language", "fr");
+        request.addHeader("If-None-Match", "\"batch\"");
+        request.setAttribute("requestId", "req-1");
+        request.setAttribute("unrelated", "batch");
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken("ada@ligera.com", null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void answersEveryOperationInOrder() throws Exception {
+        BatchResponse response = dispatcher.dispatch(request, List.of(
+                get("profile", "/api/v1/users/me"),
+                get(null, "/api/v1/categories"),
+                get("featured", "/api/v1/products/featured")));
+
+        List<BatchResponse.Result> results = response.getResults();
+        assertEquals(List.of("profile", "1", "featured"), results.stream().map(BatchResponse.Result::getId).toList());
+        for (BatchResponse.Result result : results) {
+            assertEquals(200, result.getStatus());
+            assertEquals("\"v1\"", result.getHeaders().get("ETag"));
+            assertTrue(result.getHeaders().get("Content-Type").startsWith("application/json"));
+        }
+        assertEquals("/api/api/v1/users/me", objectMapper.readTree(results.get(0).getBody()).get("uri").asText());
+
+        // Results embed the bodies as JSON, not as strings
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(response));
+        assertEquals("/api/api/v1/products/featured", json.get("results").get(2).get("body").get("uri").asText());
+    }
+
+    @Test
+    void runsOperationsConcurrentlyAsTheCaller() throws Exception {
+        CountDownLatch started = new CountDownLatch(3);
+        servlet.handler = (req, res) -> {
+            // Completes only if all three operations run at the same time
+            started.countDown();
+            started.await(5, TimeUnit.SECONDS);
+            servlet.threads.add(Thread.currentThread().getName());
+            servlet.users.add(SecurityContextHolder.getContext().getAuthentication().getName());
+            res.setStatus(204);
+        };
+
+        BatchResponse response = dispatcher.dispatch(request, List.of(
+                get("a", "/api/v1/users/me"), get("b", "/api/v1/categories"), get("c", "/api/v1/products")));
+
+        assertEquals(List.of(204, 204, 204), response.getResults().stream().map(BatchResponse.Result::getStatus).toList());
+        assertEquals(0, started.getCount());
+        assertEquals(3, Set.copyOf(servlet.threads).size());
+        assertTrue(servlet.threads.contains(Thread.currentThread().getName()));
+        assertEquals(List.of("ada@ligera.com", "ada@ligera.com", "ada@ligera.com"), servlet.users);
+        assertNull(response.getResults().get(0).getBody());
+    }
+
+    @Test
+    void buildsEachRequestFromItsOperation() throws Exception {
+        BatchRequest.Operation operation = get("search", "/api/v1/products?q=linen%20shirt&size=M&size=L");
+        operation.setHeaders(Map.of("If-None-Match", "\"v1\"", "Accept-Language", "en"));
+
+        dispatcher.dispatch(request, List.of(operation));
+
+        HttpServletRequest received = servlet.requests.get(0);
+        assertEquals("GET", received.getMethod());
+        assertEquals("/api/api/v1/products", received.getRequestURI());
+        assertEquals("/api/v1/products", received.getServletPath());
+        assertEquals("http://localhost/api/api/v1/products", received.getRequestURL().toString());
+        assertEquals("linen shirt", received.getParameter("q"));
+        assertEquals(List.of("M", "L"), List.of(received.getParameterValues("size")));
+        assertEquals("Bearer token", received.getHeader("Authorization"));
+        assertEquals("en", received.getHeader("Accept-Language"));
+        assertEquals("\"v1\"", received.getHeader("If-None-Match"));
+        assertNull(received.getContentType());
+        assertEquals("req-1/search", received.getAttribute("requestId"));
+        assertNull(received.getAttribute("unrelated"));
+    }
+
+    @Test
+    void readsTheBodyOfAnOperation() throws Exception {
+        properties.getMethods().add("PUT");
+        BatchRequest.Operation operation = BatchRequest.Operation.builder()
+                .method("put")
+                .path("/api/v1/users/me")
+                .body(objectMapper.readTree("{\"name\":\"Ada\"}"))
+                .build();
+        dispatcher.shutdown();
+        dispatcher = new BatchDispatcher(servlet, new AdminPathsDenied(), new StrictHttpFirewall(), rateLimitService,
+                new MetricsFilter(), objectMapper, properties, Executors.newFixedThreadPool(1));
+
+        dispatcher.dispatch(request, List.of(operation));
+
+        HttpServletRequest received = servlet.requests.get(0);
+        assertEquals("PUT", received.getMethod());
+        assertEquals("application/json", received.getContentType());
+        assertEquals("{\"name\":\"Ada\"}", servlet.bodies.get(0));
+    }
+
+    @Test
+    void answersRejectedOperationsWithoutDispatchingThem() throws Exception {
+        BatchResponse response = dispatcher.dispatch(request, List.of(
+                BatchRequest.Operation.builder().id("delete").method("DELETE").path("/api/v1/users/me").build(),
+                get("admin", "/api/v1/admin/users"),
+                get("traversal", "/api/v1/users/../admin/users"),
+                get("nested", "/api/v1/batch"),
+                get("allowed", "/api/v1/users/me")));
+
+        assertEquals(List.of(405, 403, 400, 400, 200),
+                response.getResults().stream().map(BatchResponse.Result::getStatus).toList());
+        assertEquals(1, servlet.requests.size());
+        JsonNode error = objectMapper.readTree(response.getResults().get(1).getBody());
+        assertEquals("Forbidden", error.get("error").asText());
+        assertEquals("/api/api/v1/admin/users", error.get("path").asText());
+    }
+
+    @Test
+    void failsOnlyTheOperationThatFailed() throws Exception {
+        servlet.handler = (req, res) -> {
+            switch (req.getServletPath()) {
+                case "/api/v1/broken" -> throw new IllegalStateException("Broken");
+                case "/api/v1/missing" -> res.sendError(404, "No such page");
+                case "/api/v1/ping" -> {
+                    res.setContentType("text/plain");
+                    res.getWriter().write("pong");
+                }
+                default -> res.setStatus(200);
+            }
+        };
+
+        BatchResponse response = dispatcher.dispatch(request, List.of(
+                get("broken", "/api/v1/broken"), get("missing", "/api/v1/missing"), get("ping", "/api/v1/ping")));
+
+        List<BatchResponse.Result> results = response.getResults();
+        assertEquals(500, results.get(0).getStatus());
+        assertEquals(404, results.get(1).getStatus());
+        assertEquals("No such page", objectMapper.readTree(results.get(1).getBody()).get("message").asText());
+        assertEquals(200, results.get(2).getStatus());
+        assertEquals("\"pong\"", results.get(2).getBody());
+    }
+
+    @Test
+    void answersSlowOperationsWithATimeout() throws Exception {
+        properties.setTimeout(Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        servlet.handler = (req, res) -> {
+            if (req.getServletPath().equals("/api/v1/slow")) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            res.setStatus(200);
+        };
+
+        BatchResponse response = dispatcher.dispatch(request, List.of(
+                get("fast", "/api/v1/users/me"), get("slow", "/api/v1/slow")));
+        release.countDown();
+
+        assertEquals(200, response.getResults().get(0).getStatus());
+        assertEquals(504, response.getResults().get(1).getStatus());
+    }
+
+    @Test
+    void chargesTheRateLimitOncePerOperation() {
+        // Five tokens: the filter's token is not taken here, so a batch of three takes two
+        dispatcher.dispatch(request, List.of(get("a", "/api/v1/a"), get("b", "/api/v1/b"), get("c", "/api/v1/c")));
+        dispatcher.dispatch(request, List.of(get("a", "/api/v1/a"), get("b", "/api/v1/b"), get("c", "/api/v1/c")));
+
+        assertThrows(RateLimitExceededException.class, () -> dispatcher.dispatch(request,
+                List.of(get("a", "/api/v1/a"), get("b", "/api/v1/b"), get("c", "/api/v1/c"))));
+    }
+
+    @Test
+    void rejectsBatchesWithTooManyOperations() {
+        List<BatchRequest.Operation> operations = new ArrayList<>();
+        for (int i = 0; i <= properties.getMaxOperations(); i++) {
+            operations.add(get(null, "/api/v1/users/me"));
+        }
+
+        assertThrows(InvalidBatchException.class, () -> dispatcher.dispatch(request, operations));
+        assertTrue(servlet.requests.isEmpty());
+    }
+
+    private static BatchRequest.Operation get(String id, String path) {
+        return BatchRequest.Operation.builder().id(id).path(path).build();
+    }
+
+    /**
+     * Handler of the requests reaching the stub servlet
+     */
+    private interface Handler {
+        void handle(HttpServletRequest request, HttpServletResponse response) throws Exception;
+    }
+
+    /**
+     * Records the requests it receives and answers them with the handler
+     */
+    private static final class StubDispatcherServlet extends DispatcherServlet {
+
+        private final List<HttpServletRequest> requests = new CopyOnWriteArrayList<>();
+        private final List<String> bodies = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+        private final List<String> users = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile Handler handler = (request, response) -> {
+            response.setContentType("application/json");
+            response.setHeader("ETag", "\"v1\"");
+            response.getOutputStream().write(("{\"uri\":\"" + request.getRequestURI() + "\"}")
+                    .getBytes(StandardCharsets.UTF_8));
+        };
+
+        @Override
+        public void service(ServletRequest req, ServletResponse res) throws IOException {
+            HttpServletRequest request = (HttpServletRequest) req;
+            requests.add(request);
+            if (request.getContentLength() > 0) {
+                bodies.add(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            }
+            try {
+                handler.handle(request, (HttpServletResponse) res);
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Denies the admin paths, as the URL rules of the security configuration would for a user
+     */
+    private static final class AdminPathsDenied implements WebInvocationPrivilegeEvaluator {
+
+        @Override
+        public boolean isAllowed(String uri, Authentication authentication) {
+            return isAllowed(null, uri, "GET", authentication);
+        }
+
+        @Override
+        public boolean isAllowed(String contextPath, String uri, String method, Authentication authentication) {
+            return !uri.startsWith("/api/v1/admin/");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ligera.backend.unit;
+
+import com.ligera.backend.security.validation.BreachedPasswordIndexBuilder;
+import com.ligera.backend.security.validation.PasswordValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the memory-mapped breached password index, through the validator that uses it
+ */
+public class BreachedPasswordIndexTest {
+
+    private static final String COMMON_PASSWORD_ERROR = "Password is too common and easily guessable";
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 10})
+    void rejectsEveryListedPasswordIgnoringCase(int bloomBitsPerEntry) throws IOException {
+        List<String> breached = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            breached.add("Breached!" + i + "x");
+        }
+        breached.add("Pässwört#9Z");
+        breached.add(breached.get(0));
+
+        PasswordValidator validator = validatorFor(breached, bloomBitsPerEntry, 20_001);
+
+        for (String password : breached) {
+            assertTrue(validator.validate(password).errors().contains(COMMON_PASSWORD_ERROR), password);
+            assertTrue(validator.validate(password.toUpperCase()).errors().contains(COMMON_PASSWORD_ERROR), password);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            String password = "Unlisted!" + i + "x";
+            assertFalse(validator.validate(password).errors().contains(COMMON_PASSWORD_ERROR), password);
+        }
+    }
+
+    @Test
+    void acceptsEverythingWithEmptyList() throws IOException {
+        PasswordValidator validator = validatorFor(List.of(), 10, 0);
+        assertTrue(validator.validate("Xy7!Kl9#Pq2$vB").valid());
+    }
+
+    private PasswordValidator validatorFor(List<String> passwords, int bloomBitsPerEntry, long expectedEntries)
+            throws IOException {
+        Path list = tempDir.resolve("list.txt");
+        Path index = tempDir.resolve("breached.idx");
+        Files.write(list, passwords);
+
+        long entries = BreachedPasswordIndexBuilder.build(List.of(list), index, bloomBitsPerEntry);
+        assertEquals(expectedEntries, entries);
+
+        PasswordValidator validator = new PasswordValidator();
+        validator.setBreachedPasswordsPath(index.toString());
+        validator.initializeCommonPasswords();
+        return validator;
+    }
+}
@@ -0,0 +1,245 @@
+package com.ligera.backend.unit;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.ligera.backend.models.CatalogSequence;
+import com.ligera.backend.models.CatalogTombstone;
+import com.ligera.backend.models.Category;
+import com.ligera.backend.models.Product;
+import com.ligera.backend.repositories.CatalogTombstoneRepository;
+import com.ligera.backend.repositories.CategoryRepository;
+import com.ligera.backend.repositories.ProductRepository;
+import com.ligera.backend.repositories.ProductRepositoryCustomImpl;
+import com.ligera.backend.service.CatalogService;
+import com.ligera.backend.sync.CatalogChange;
+import com.ligera.backend.sync.CatalogChangeLog;
+import com.ligera.backend.sync.CatalogFeedReader;
+import com.ligera.backend.sync.CatalogSyncProperties;
+import com.ligera.backend.sync.CatalogSyncService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the catalog change feed, running the change log and feed queries on an in-memory H2 database
+ */
+public class CatalogChangeFeedTest {
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private CatalogService catalogService;
+    private CatalogChangeLog changeLog;
+    private CatalogSyncService syncService;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Category.class)
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(CatalogSequence.class)
+                .addAnnotatedClass(CatalogTombstone.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:catalog-feed;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .buildSessionFactory();
+        entityManager = sessionFactory.createEntityManager();
+
+        JpaRepositoryFactory factory = new JpaRepositoryFactory(entityManager);
+        ProductRepository productRepository = factory.getRepository(ProductRepository.class,
+                RepositoryFragments.just(new ProductRepositoryCustomImpl(entityManager)));
+        CategoryRepository categoryRepository = factory.getRepository(CategoryRepository.class);
+        CatalogTombstoneRepository tombstoneRepository = factory.getRepository(CatalogTombstoneRepository.class);
+
+        CatalogSyncProperties properties = new CatalogSyncProperties();
+        properties.setChunkSize(3);
+        properties.setMaxChanges(6);
+        changeLog = new CatalogChangeLog(entityManager);
+        catalogService = new CatalogService(productRepository, categoryRepository, changeLog);
+        syncService = new CatalogSyncService(new CatalogFeedReader(productRepository, categoryRepository,
+                tombstoneRepository, entityManager), changeLog, properties);
+
+        category = inTransaction(() -> catalogService.saveCategory(
+                Category.builder().name("Shirts").slugUrl("shirts").build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    void firstSyncSendsCategoriesThenProductsInCheckpointedChunks() {
+        List<Product> products = createProducts(5);
+
+        List<CatalogChange> changes = stream(0, false);
+
+        assertEquals(List.of("category", "product", "product", "product", "checkpoint", "product", "product",
+                "checkpoint"), types(changes));
+        assertEquals(products.get(0).getId(), ((CatalogChange.ProductChange) changes.get(1)).product().id());
+        assertEquals(category.getId(), ((CatalogChange.ProductChange) changes.get(1)).product().categoryId());
+        assertEquals(CatalogChange.INSERT, ((CatalogChange.ProductChange) changes.get(1)).op());
+        assertEquals(new CatalogChange.Checkpoint(products.get(2).getChangeSeq(), true), changes.get(4));
+        assertEquals(new CatalogChange.Checkpoint(products.get(4).getChangeSeq(), false), changes.get(7));
+    }
+
+    @Test
+    void deltaSendsOnlyLatestStatesAndTombstonesInSequenceOrder() {
+        List<Product> products = createProducts(4);
+        long since = products.get(3).getChangeSeq();
+
+        inTransaction(() -> {
+            Product renamed = entityManager.find(Product.class, products.get(1).getId());
+            renamed.setName("Renamed");
+            catalogService.saveProduct(renamed);
+            renamed.setName("Renamed twice");
+            return catalogService.saveProduct(renamed);
+        });
+        inTransaction(() -> {
+            catalogService.deleteProduct(products.get(2).getId());
+            return null;
+        });
+        Product added = createProducts(1).get(0);
+
+        List<CatalogChange> changes = stream(since, false);
+
+        assertEquals(List.of("product", "tombstone", "product", "checkpoint"), types(changes));
+        CatalogChange.ProductChange update = (CatalogChange.ProductChange) changes.get(0);
+        assertEquals(CatalogChange.UPDATE, update.op());
+        assertEquals("Renamed twice", update.product().name());
+        assertEquals(new CatalogChange.Tombstone(since + 3, "product", products.get(2).getId()), changes.get(1));
+        assertEquals(CatalogChange.INSERT, ((CatalogChange.ProductChange) changes.get(2)).op());
+        assertEquals(new CatalogChange.Checkpoint(added.getChangeSeq(), false), changes.get(3));
+    }
+
+    @Test
+    void categoriesChangedSinceArePreambleEvenWhenChangedAfterTheirProducts() {
+        long since = lastSeq();
+        Category shoes = inTransaction(() -> catalogService.saveCategory(
+                Category.builder().name("Shoes").slugUrl("shoes").build()));
+        Product product = inTransaction(() -> catalogService.saveProduct(product("Boot", shoes)));
+        inTransaction(() -> {
+            Category renamed = entityManager.find(Category.class, shoes.getId());
+            renamed.setName("Footwear");
+            return catalogService.saveCategory(renamed);
+        });
+
+        List<CatalogChange> changes = stream(since, false);
+
+        assertEquals(List.of("category", "product", "checkpoint"), types(changes));
+        assertEquals("Footwear", ((CatalogChange.CategoryChange) changes.get(0)).category().name());
+        assertEquals(product.getId(), ((CatalogChange.ProductChange) changes.get(1)).product().id());
+    }
+
+    @Test
+    void longFeedStopsAtCheckpointAndResumesFromIt() {
+        createProducts(8);
+
+        List<CatalogChange> first = stream(0, false);
+        CatalogChange.Checkpoint last = (CatalogChange.Checkpoint) first.get(first.size() - 1);
+        assertTrue(last.more());
+        assertEquals(6, first.stream().filter(CatalogChange.ProductChange.class::isInstance).count());
+
+        List<CatalogChange> rest = stream(last.seq(), false);
+        assertEquals(List.of("product", "product", "checkpoint"), types(rest));
+        assertFalse(((CatalogChange.Checkpoint) rest.get(2)).more());
+        assertEquals(lastSeq(), ((CatalogChange.Checkpoint) rest.get(2)).seq());
+    }
+
+    @Test
+    void changesMadeWhileStreamingAreLeftToTheNextSync() {
+        createProducts(4);
+        long head = lastSeq();
+        List<Product> late = new ArrayList<>();
+
+        List<CatalogChange> changes = new ArrayList<>();
+        syncService.streamChanges(0, false, change -> {
+            changes.add(change);
+            // Chunks are written outside any transaction, while the catalog keeps changing
+            if (change instanceof CatalogChange.Checkpoint && late.isEmpty()) {
+                late.add(inTransaction(() -> catalogService.saveProduct(product("Late", category))));
+            }
+        });
+
+        assertEquals(List.of("category", "product", "product", "product", "checkpoint", "product", "checkpoint"),
+                types(changes));
+        assertEquals(new CatalogChange.Checkpoint(head, false), changes.get(changes.size() - 1));
+
+        List<CatalogChange> next = stream(head, false);
+        assertEquals(List.of("product", "checkpoint"), types(next));
+        assertEquals(late.get(0).getId(), ((CatalogChange.ProductChange) next.get(0)).product().id());
+    }
+
+    @Test
+    void clientBehindCompactedTombstonesGetsSnapshot() {
+        List<Product> products = createProducts(3);
+        long since = lastSeq();
+        inTransaction(() -> {
+            catalogService.deleteProduct(products.get(0).getId());
+            return null;
+        });
+        inTransaction(() -> changeLog.compact(LocalDateTime.now().plusMinutes(1)));
+        entityManager.clear();
+
+        List<CatalogChange> changes = stream(since, false);
+
+        assertInstanceOf(CatalogChange.Reset.class, changes.get(0));
+        assertEquals(List.of("reset", "category", "product", "product", "checkpoint"), types(changes));
+
+        // Completing that snapshot from one of its checkpoints does not start it over
+        List<CatalogChange> resumed = stream(products.get(1).getChangeSeq(), true);
+        assertEquals(List.of("product", "checkpoint"), types(resumed));
+    }
+
+    private List<Product> createProducts(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(inTransaction(() -> catalogService.saveProduct(product("Product", category))));
+        }
+        return products;
+    }
+
+    private static Product product(String name, Category category) {
+        return Product.builder().name(name).price(new BigDecimal("19.99")).category(category).quantity(3).build();
+    }
+
+    private long lastSeq() {
+        entityManager.clear();
+        return entityManager.find(CatalogSequence.class, CatalogSequence.ID).getLastSeq();
+    }
+
+    private List<CatalogChange> stream(long since, boolean completingSnapshot) {
+        entityManager.clear();
+        List<CatalogChange> changes = new ArrayList<>();
+        syncService.streamChanges(since, completingSnapshot, changes::add);
+        return changes;
+    }
+
+    private static List<String> types(List<CatalogChange> changes) {
+        return changes.stream().map(change -> change.getClass().getAnnotation(JsonTypeName.class).value()).toList();
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        entityManager.getTransaction().begin();
+        T result = work.get();
+        entityManager.getTransaction().commit();
+        return result;
+    }
+}
@@ -0,0 +1,146 @@
+package com.ligera.backend.unit;
+
+import com.ligera.backend.exception.InvalidCursorException;
+import com.ligera.backend.models.Category;
+import com.ligera.backend.models.Product;
+import com.ligera.backend.pagination.KeysetPage;
+import com.ligera.backend.pagination.SortKeyCursor;
+import com.ligera.backend.repositories.CategoryRepository;
+import com.ligera.backend.repositories.ProductRepository;
+import com.ligera.backend.repositories.ProductRepositoryCustomImpl;
+import com.ligera.backend.repositories.ProductSort;
+import com.ligera.backend.repositories.ProductSummary;
+import com.ligera.backend.service.CatalogService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the keyset-paginated product listings, running the repository queries on an in-memory H2 database
+ */
+public class CatalogKeysetPaginationTest {
+
+    private static final int PRODUCTS = 23;
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private CatalogService catalogService;
+    private Long shirts;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Category.class)
+                .addAnnotatedClass(Product.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:catalog;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .buildSessionFactory();
+        entityManager = sessionFactory.createEntityManager();
+
+        entityManager.getTransaction().begin();
+        Category shirtCategory = Category.builder().name("Shirts").slugUrl("shirts").build();
+        Category shoeCategory = Category.builder().name("Shoes").slugUrl("shoes").build();
+        entityManager.persist(shirtCategory);
+        entityManager.persist(shoeCategory);
+        // Only four distinct names and five distinct prices, so pages have to break ties on the id
+        for (int i = 0; i < PRODUCTS; i++) {
+            entityManager.persist(Product.builder()
+                    .name("Product " + (i % 4))
+                    .price(BigDecimal.valueOf(1000 + (i % 5) * 250, 2))
+                    .category(i % 3 == 0 ? shoeCategory : shirtCategory)
+                    .quantity(i)
+                    .build());
+        }
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+        shirts = shirtCategory.getId();
+
+        ProductRepository productRepository = new JpaRepositoryFactory(entityManager).getRepository(
+                ProductRepository.class, RepositoryFragments.just(new ProductRepositoryCustomImpl(entityManager)));
+        CategoryRepository categoryRepository = new JpaRepositoryFactory(entityManager)
+                .getRepository(CategoryRepository.class);
+        catalogService = new CatalogService(productRepository, categoryRepository, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    void pagesThroughAllProductsByNameWithoutGapsOrDuplicates() {
+        List<ProductSummary> listed = listAll(ProductSort.NAME, Sort.Direction.ASC, null);
+
+        assertEquals(PRODUCTS, listed.size());
+        List<ProductSummary> expected = new ArrayList<>(listed);
+        expected.sort(Comparator.comparing(ProductSummary::name).thenComparing(ProductSummary::id));
+        assertEquals(ids(expected), ids(listed));
+        assertEquals(PRODUCTS, listed.stream().map(ProductSummary::id).distinct().count());
+    }
+
+    @Test
+    void pagesThroughACategoryByDescendingPrice() {
+        List<ProductSummary> listed = listAll(ProductSort.PRICE, Sort.Direction.DESC, shirts);
+
+        assertEquals(15, listed.size());
+        List<ProductSummary> expected = new ArrayList<>(listed);
+        expected.sort(Comparator.comparing(ProductSummary::price).thenComparing(ProductSummary::id).reversed());
+        assertEquals(ids(expected), ids(listed));
+        listed.forEach(product -> assertEquals(shirts, product.categoryId()));
+    }
+
+    @Test
+    void lastFullPageHasNoCursor() {
+        KeysetPage<ProductSummary> page = catalogService.listProducts(ProductSort.PRICE, Sort.Direction.ASC, null,
+                null, PRODUCTS);
+        assertEquals(PRODUCTS, page.content().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void rejectsCursorWhoseKeyIsNotAPrice() {
+        String cursor = new SortKeyCursor("Product 1", 1).encode();
+        assertThrows(InvalidCursorException.class, () -> catalogService.listProducts(ProductSort.PRICE,
+                Sort.Direction.ASC, null, cursor, 5));
+        assertThrows(InvalidCursorException.class, () -> SortKeyCursor.decode("not a cursor"));
+    }
+
+    @Test
+    void cursorKeepsSortKeysHoldingTheSeparator() {
+        SortKeyCursor cursor = new SortKeyCursor("Shirt | blue", 42);
+        assertEquals(cursor, SortKeyCursor.decode(cursor.encode()));
+    }
+
+    private List<ProductSummary> listAll(ProductSort sort, Sort.Direction direction, Long categoryId) {
+        List<ProductSummary> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<ProductSummary> page = catalogService.listProducts(sort, direction, categoryId, cursor, 4);
+            listed.addAll(page.content());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return listed;
+    }
+
+    private static List<Long> ids(List<ProductSummary> products) {
+        return products.stream().map(ProductSummary::id).toList();
+    }
+}
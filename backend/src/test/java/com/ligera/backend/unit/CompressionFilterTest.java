@@ -0,0 +1,238 @@
+package com.ligera.backend.unit;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.ligera.backend.compression.AcceptEncodingNegotiator;
+import com.ligera.backend.compression.CompressionFilter;
+import com.ligera.backend.compression.CompressionProperties;
+import com.ligera.backend.compression.ContentCoding;
+import com.ligera.backend.compression.GzipEncoder;
+import com.ligera.backend.compression.PrecompressedCache;
+import com.ligera.backend.compression.ZstdEncoder;
+import com.ligera.backend.filter.MetricsFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for response compression by {@link CompressionFilter}
+ */
+public class CompressionFilterTest {
+
+    private static final byte[] JSON = json(8 * 1024);
+
+    private CompressionProperties properties;
+    private GzipEncoder gzipEncoder;
+    private MetricsFilter metricsFilter;
+    private CompressionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CompressionProperties();
+        properties.setMaxBufferSize(16 * 1024);
+        gzipEncoder = new GzipEncoder(2);
+        metricsFilter = new MetricsFilter();
+        filter = new CompressionFilter(properties, List.of(gzipEncoder), new PrecompressedCache(1024 * 1024),
+                metricsFilter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        filter.destroy();
+    }
+
+    @Test
+    void compressesWithTheAcceptedCodingTheServerHas() throws Exception {
+        MockHttpServletResponse response = send("br;q=1.0, gzip;q=0.5", writing(JSON));
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        assertTrue(response.getContentLength() < JSON.length / 4);
+        assertArrayEquals(JSON, gunzip(response.getContentAsByteArray()));
+        assertEquals(1, gzipEncoder.idleDeflaters());
+    }
+
+    @Test
+    void sendsSmallBodiesAsTheyAre() throws Exception {
+        byte[] body = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+        MockHttpServletResponse response = send("gzip", writing(body));
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(body.length, response.getContentLength());
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    void sendsBodiesAsTheyAreWhenNoCodingIsAccepted() throws Exception {
+        MockHttpServletResponse response = send("gzip;q=0, identity", writing(JSON));
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertArrayEquals(JSON, response.getContentAsByteArray());
+    }
+
+    @Test
+    void passesFlushesOfOtherTypesThrough() throws Exception {
+        MockHttpServletResponse response = send("gzip", (request, servletResponse) -> {
+            servletResponse.setContentType("application/x-ndjson");
+            OutputStream out = servletResponse.getOutputStream();
+            out.write("{\"type\":\"progress\"}\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            assertTrue(servletResponse.isCommitted());
+            out.write(JSON);
+        });
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertNull(response.getHeader("Vary"));
+    }
+
+    @Test
+    void streamsBodiesLargerThanTheBuffer() throws Exception {
+        byte[] body = json(64 * 1024);
+
+        MockHttpServletResponse response = send("gzip", (request, servletResponse) -> {
+            servletResponse.setContentType("application/json");
+            servletResponse.setContentLength(body.length);
+            OutputStream out = servletResponse.getOutputStream();
+            for (int offset = 0; offset < body.length; offset += 1000) {
+                out.write(body, offset, Math.min(1000, body.length - offset));
+            }
+        });
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertNull(response.getHeader("Content-Length"));
+        assertArrayEquals(body, gunzip(response.getContentAsByteArray()));
+        assertEquals(1, gzipEncoder.idleDeflaters());
+    }
+
+    @Test
+    void streamsZstdBodiesThroughPooledContexts() throws Exception {
+        assumeTrue(ZstdEncoder.isAvailable());
+        byte[] body = json(64 * 1024);
+        ZstdEncoder zstdEncoder = new ZstdEncoder(2);
+        filter.destroy();
+        filter = new CompressionFilter(properties, List.of(zstdEncoder), new PrecompressedCache(1024 * 1024),
+                metricsFilter);
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = send("zstd", (request, servletResponse) -> {
+                servletResponse.setContentType("application/json");
+                OutputStream out = servletResponse.getOutputStream();
+                for (int offset = 0; offset < body.length; offset += 1000) {
+                    out.write(body, offset, Math.min(1000, body.length - offset));
+                }
+            });
+
+            assertEquals("zstd", response.getHeader("Content-Encoding"));
+            assertArrayEquals(body, unzstd(response.getContentAsByteArray()));
+            assertEquals(1, zstdEncoder.idleContexts());
+        }
+    }
+
+    @Test
+    void servesRepeatedTaggedBodiesFromTheCache() throws Exception {
+        FilterChain tagged = (request, servletResponse) -> {
+            ((HttpServletResponse) servletResponse).setHeader("ETag", "\"User-7-3\"");
+            writing(JSON).doFilter(request, servletResponse);
+        };
+
+        byte[] first = send("gzip", tagged).getContentAsByteArray();
+        byte[] second = send("gzip", tagged).getContentAsByteArray();
+        MockHttpServletResponse third = send("gzip", tagged);
+
+        assertEquals("W/\"User-7-3\"", third.getHeader("ETag"));
+        assertArrayEquals(JSON, gunzip(first));
+        assertArrayEquals(second, third.getContentAsByteArray());
+        assertArrayEquals(JSON, gunzip(third.getContentAsByteArray()));
+
+        Map<?, ?> gzip = (Map<?, ?>) metricsFilter.getCompressionMetrics().get("gzip");
+        assertEquals(3L, gzip.get("responses"));
+        assertEquals(1L, gzip.get("cachedResponses"));
+        assertEquals(3L * JSON.length, gzip.get("bytesIn"));
+        assertTrue((Double) gzip.get("ratio") > 4);
+    }
+
+    @Test
+    void leavesResponsesWithoutBodyAlone() throws Exception {
+        MockHttpServletResponse response = send("gzip", (request, servletResponse) -> {
+            servletResponse.setContentType("application/json");
+            ((HttpServletResponse) servletResponse).setStatus(304);
+        });
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void negotiatesByQualityThenServerPreference() {
+        AcceptEncodingNegotiator negotiator = new AcceptEncodingNegotiator(
+                List.of(ContentCoding.ZSTD, ContentCoding.BR, ContentCoding.GZIP));
+
+        assertEquals(ContentCoding.ZSTD, negotiator.negotiate("gzip, deflate, br, zstd"));
+        assertEquals(ContentCoding.GZIP, negotiator.negotiate("gzip;q=1.0, br;q=0.8, zstd ; q=0.8"));
+        assertEquals(ContentCoding.BR, negotiator.negotiate("BR, gzip"));
+        assertEquals(ContentCoding.BR, negotiator.negotiate("*;q=0.5, zstd;q=0"));
+        assertNull(negotiator.negotiate("gzip;q=0, identity"));
+        assertNull(negotiator.negotiate("deflate"));
+        assertNull(negotiator.negotiate(null));
+    }
+
+    private MockHttpServletResponse send(String acceptEncoding, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.setContextPath("/api");
+        request.addHeader("Accept-Encoding", acceptEncoding);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static FilterChain writing(byte[] body) {
+        return (request, response) -> {
+            response.setContentType("application/json;charset=UTF-8");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            response.getOutputStream().flush();
+        };
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] unzstd(byte[] compressed) throws IOException {
+        try (ZstdInputStream in = new ZstdInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] json(int size) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; json.length() < size; i++) {
+            json.append("{\"id\":").append(i).append(",\"name\":\"User ").append(i)
+                    .append("\",\"email\":\"user").append(i).append("@ligera.com\",\"role\":\"USER\"},");
+        }
+        json.setCharAt(json.length() - 1, ']');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
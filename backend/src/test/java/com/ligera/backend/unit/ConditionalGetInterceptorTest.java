@@ -0,0 +1,137 @@
+package com.ligera.backend.unit;
+
+import com.ligera.backend.conditional.ConditionalGet;
+import com.ligera.backend.conditional.ConditionalGetInterceptor;
+import com.ligera.backend.conditional.ResourceVersion;
+import com.ligera.backend.models.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the conditional GET advice of {@link ConditionalGet} methods
+ */
+public class ConditionalGetInterceptorTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 3, 1, 12, 0, 0);
+
+    private Resource target;
+    private Resource resource;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("versions", new Versions());
+
+        target = new Resource();
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(ConditionalGet.class),
+                new ConditionalGetInterceptor(beanFactory)));
+        resource = (Resource) proxyFactory.getProxy();
+
+        request = new MockHttpServletRequest("GET", "/api/v1/resource/7");
+        response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void sendsValidatorsWithTheBody() {
+        assertEquals("body-7", resource.get(7L));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("\"User-7-3\"", response.getHeader("ETag"));
+        assertEquals(UPDATED_AT.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                response.getDateHeader("Last-Modified"));
+        assertEquals(1, target.invocations);
+    }
+
+    @Test
+    void matchingEntityTagSkipsTheMethod() {
+        request.addHeader("If-None-Match", "\"User-7-3\"");
+
+        assertNull(resource.get(7L));
+
+        assertEquals(304, response.getStatus());
+        assertEquals("\"User-7-3\"", response.getHeader("ETag"));
+        assertEquals(0, target.invocations);
+    }
+
+    @Test
+    void staleEntityTagGetsTheBody() {
+        request.addHeader("If-None-Match", "\"User-7-2\"");
+
+        assertEquals("body-7", resource.get(7L));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("\"User-7-3\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    void unknownVersionIsServedUnconditionally() {
+        request.addHeader("If-None-Match", "*");
+
+        assertEquals("body-0", resource.get(0L));
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("ETag"));
+    }
+
+    @Test
+    void otherMethodsAreNotConditional() {
+        request.setMethod("PUT");
+        request.addHeader("If-None-Match", "\"User-7-3\"");
+
+        assertEquals("body-7", resource.get(7L));
+
+        assertNull(response.getHeader("ETag"));
+        assertEquals(1, target.invocations);
+    }
+
+    public static class Resource {
+
+        int invocations;
+
+        @ConditionalGet("@versions.of(#id)")
+        public String get(Long id) {
+            invocations++;
+            return "body-" + id;
+        }
+    }
+
+    public static class Versions {
+
+        public ResourceVersion of(Long id) {
+            if (id == 0) {
+                return null;
+            }
+            User user = new User();
+            user.setId(id);
+            user.setVersion(3L);
+            user.setUpdatedAt(UPDATED_AT);
+            return ResourceVersion.of(user);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.ligera.backend.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ligera.backend.security.JwtKeyRing;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for key selection, hot reload, asymmetric signing and the published key set of the
+ * {@link JwtKeyRing}, with keystores written by keytool
+ */
+public class JwtKeyRingTest {
+
+    private static final String SECRET = "testSecretKeyWhichIsLongEnoughForHmacSha256Signing";
+    private static final String PASSWORD = "changeit";
+
+    @TempDir
+    Path tempDir;
+
+    private Path keystore;
+
+    @BeforeEach
+    void setUp() {
+        keystore = tempDir.resolve("jwt-keys.p12");
+    }
+
+    @Test
+    void signsWithTheConfiguredSecretWithoutKeystore() {
+        JwtKeyRing keyRing = keyRing(null);
+
+        assertEquals(JwtKeyRing.DEFAULT_KEY_ID, keyRing.getSigningKeyId());
+        assertEquals(Set.of(JwtKeyRing.DEFAULT_KEY_ID), keyRing.getKeyIds());
+        assertEquals("user@ligera.com", subject(keyRing, issue(keyRing)));
+    }
+
+    @Test
+    void signsWithTheNewestKeystoreEntry() throws Exception {
+        generateKey("2024-01", "EC", "-groupname", "secp256r1");
+        generateKey("2024-02", "EC", "-groupname", "secp256r1");
+
+        JwtKeyRing keyRing = keyRing(keystore);
+
+        assertEquals("2024-02", keyRing.getSigningKeyId());
+        assertEquals(Set.of(JwtKeyRing.DEFAULT_KEY_ID, "2024-01", "2024-02"), keyRing.getKeyIds());
+    }
+
+    @Test
+    void verifiesTokensWithoutKidWithTheConfiguredSecret() throws Exception {
+        generateKey("2024-01", "EC", "-groupname", "secp256r1");
+        JwtKeyRing keyRing = keyRing(keystore);
+
+        String token = Jwts.builder()
+                .subject("user@ligera.com")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertEquals("user@ligera.com", subject(keyRing, token));
+    }
+
+    @Test
+    void rotatesOnReloadAndVerifiesTokensOfRetiredKeys() throws Exception {
+        generateKey("2024-01", "EC", "-groupname", "secp256r1");
+        JwtKeyRing keyRing = keyRing(keystore);
+        String retiredToken = issue(keyRing);
+
+        generateKey("2024-02", "EC", "-groupname", "secp256r1");
+        touch();
+        keyRing.reloadIfChanged();
+
+        assertEquals("2024-02", keyRing.getSigningKeyId());
+        assertEquals("user@ligera.com", subject(keyRing, retiredToken));
+        assertEquals("2024-02", keyRing.getParser().parseSignedClaims(issue(keyRing)).getHeader().getKeyId());
+
+        keytool("-delete", "-alias", "2024-01");
+        touch();
+        keyRing.reloadIfChanged();
+
+        assertEquals(Set.of(JwtKeyRing.DEFAULT_KEY_ID, "2024-02"), keyRing.getKeyIds());
+        assertThrows(SignatureException.class, () -> subject(keyRing, retiredToken));
+    }
+
+    @Test
+    void keepsTheCurrentKeysWhenTheKeystoreCannotBeRead() throws Exception {
+        generateKey("2024-01", "EC", "-groupname", "secp256r1");
+        JwtKeyRing keyRing = keyRing(keystore);
+        String token = issue(keyRing);
+
+        Files.write(keystore, new byte[]{1, 2, 3});
+        touch();
+        keyRing.reloadIfChanged();
+
+        assertEquals("2024-01", keyRing.getSigningKeyId());
+        assertEquals("user@ligera.com", subject(keyRing, token));
+    }
+
+    @Test
+    void keepsTheCurrentKeysWhenAKeystoreSecretIsTooShort() throws Exception {
+        generateKey("2024-01", "EC", "-groupname", "secp256r1");
+        JwtKeyRing keyRing = keyRing(keystore);
+
+        keytool("-genseckey", "-alias", "2024-02", "-keyalg", "HmacSHA256", "-keysize", "128");
+        touch();
+        keyRing.reloadIfChanged();
+
+        assertEquals("2024-01", keyRing.getSigningKeyId());
+        assertEquals(Set.of(JwtKeyRing.DEFAULT_KEY_ID, "2024-01"), keyRing.getKeyIds());
+    }
+
+    @Test
+    void signsWithTheConfiguredKidOverTheNewest() throws Exception {
+        generateKey("2024-01", "EC", "-groupname", "secp256r1");
+        generateKey("2024-02", "EC", "-groupname", "secp256r1");
+
+        JwtKeyRing keyRing = new JwtKeyRing();
+        configure(keyRing, keystore);
+        ReflectionTestUtils.setField(keyRing, "signingKidOverride", "2024-01");
+        keyRing.init();
+
+        assertEquals("2024-01", keyRing.getSigningKeyId());
+    }
+
+    @Test
+    void signsWithEs256ForP256Entries() throws Exception {
+        generateKey("ec-1", "EC", "-groupname", "secp256r1");
+        JwtKeyRing keyRing = keyRing(keystore);
+
+        Jws<Claims> jws = keyRing.getParser().parseSignedClaims(issue(keyRing));
+
+        assertEquals("ES256", jws.getHeader().getAlgorithm());
+        assertEquals("ec-1", jws.getHeader().getKeyId());
+        assertEquals("user@ligera.com", jws.getPayload().getSubject());
+    }
+
+    @Test
+    void signsWithEdDsaForEd25519Entries() throws Exception {
+        generateKey("ed-1", "Ed25519");
+        JwtKeyRing keyRing = keyRing(keystore);
+
+        Jws<Claims> jws = keyRing.getParser().parseSignedClaims(issue(keyRing));
+
+        assertEquals("EdDSA", jws.getHeader().getAlgorithm());
+        assertEquals("ed-1", jws.getHeader().getKeyId());
+        assertEquals("user@ligera.com", jws.getPayload().getSubject());
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherKeyUnderAKnownKid() throws Exception {
+        generateKey("ec-1", "EC", "-groupname", "secp256r1");
+        JwtKeyRing keyRing = keyRing(keystore);
+
+        String forged = Jwts.builder()
+                .header().keyId("ec-1").and()
+                .subject("admin@ligera.com")
+                .signWith(Jwts.SIG.ES256.keyPair().build().getPrivate())
+                .compact();
+
+        assertThrows(SignatureException.class, () -> subject(keyRing, forged));
+    }
+
+    @Test
+    void publishesOnlyPublicKeysInTheJwkSet() throws Exception {
+        generateKey("ec-1", "EC", "-groupname", "secp256r1");
+        generateKey("ed-1", "Ed25519");
+        JwtKeyRing keyRing = keyRing(keystore);
+
+        JsonNode jwks = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(keyRing.getJwkSet()));
+
+        assertEquals(2, jwks.get("keys").size());
+        JsonNode ec = key(jwks, "ec-1");
+        assertEquals("EC", ec.get("kty").asText());
+        assertEquals("P-256", ec.get("crv").asText());
+        assertTrue(ec.hasNonNull("x") && ec.hasNonNull("y"));
+        JsonNode ed = key(jwks, "ed-1");
+        assertEquals("OKP", ed.get("kty").asText());
+        assertEquals("Ed25519", ed.get("crv").asText());
+        assertTrue(ed.hasNonNull("x"));
+        for (JsonNode jwk : jwks.get("keys")) {
+            assertFalse(jwk.has("d"), "private key material published for " + jwk.get("kid"));
+            assertFalse(jwk.has("k"), "secret key material published for " + jwk.get("kid"));
+        }
+    }
+
+    private static JsonNode key(JsonNode jwks, String kid) {
+        for (JsonNode jwk : jwks.get("keys")) {
+            if (kid.equals(jwk.path("kid").asText())) {
+                return jwk;
+            }
+        }
+        throw new AssertionError("No JWK with kid " + kid + " in " + jwks);
+    }
+
+    private JwtKeyRing keyRing(Path keystorePath) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        configure(keyRing, keystorePath);
+        keyRing.init();
+        return keyRing;
+    }
+
+    private static void configure(JwtKeyRing keyRing, Path keystorePath) {
+        ReflectionTestUtils.setField(keyRing, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(keyRing, "keystorePath", keystorePath != null ? keystorePath.toString() : "");
+        ReflectionTestUtils.setField(keyRing, "keystorePassword", PASSWORD);
+    }
+
+    private static String issue(JwtKeyRing keyRing) {
+        return Jwts.builder()
+                .header().keyId(keyRing.getSigningKeyId()).and()
+                .subject("user@ligera.com")
+                .signWith(keyRing.getSigningKey())
+                .compact();
+    }
+
+    private static String subject(JwtKeyRing keyRing, String token) {
+        return keyRing.getParser().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    private void generateKey(String alias, String keyAlgorithm, String... options) throws Exception {
+        List<String> args = new ArrayList<>(List.of("-genkeypair", "-alias", alias, "-keyalg", keyAlgorithm,
+                "-dname", "CN=" + alias, "-validity", "1"));
+        args.addAll(List.of(options));
+        keytool(args.toArray(String[]::new));
+    }
+
+    // Entry creation dates decide the signing key, and each keytool run is a separate JVM well apart in time
+    private void keytool(String... args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "keytool").toString());
+        command.addAll(List.of(args));
+        command.addAll(List.of("-keystore", keystore.toString(), "-storetype", "PKCS12",
+                "-storepass", PASSWORD, "-noprompt"));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(0, process.waitFor(), output);
+    }
+
+    // The reload is driven by the modification time, which may not move within the file system's resolution
+    private void touch() throws IOException {
+        FileTime modified = Files.getLastModifiedTime(keystore);
+        Files.setLastModifiedTime(keystore, FileTime.fromMillis(modified.toMillis() + 2000));
+    }
+}
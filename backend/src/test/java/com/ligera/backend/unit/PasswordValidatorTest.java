@@ -0,0 +1,237 @@
+package com.ligera.backend.unit;
+
+import com.ligera.backend.security.validation.PasswordValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Property tests checking that the single-pass PasswordValidator reports exactly the same errors as the
+ * original regex-based implementation, kept below as {@link ReferenceValidator}
+ */
+public class PasswordValidatorTest {
+
+    private static final String COMMON_PASSWORDS_PATH = "security/common-passwords.txt";
+
+    // Alphabet biased towards characters that trigger the different rules
+    private static final String ALPHABET = "abcxyzqweasdzxcKLMNOPQR0123456789890!@#$ _-aaa111"
+            + "\u212A\u0130\u00E9\u00C9\u03A3\uD83D\uDE00\uD801\uDC00";
+
+    @Test
+    void matchesReferenceImplementationOnRandomPasswords() throws IOException {
+        Random random = new Random(20240117L);
+        List<String> commonPasswords = readCommonPasswords();
+
+        for (int config = 0; config < 50; config++) {
+            PasswordValidator validator = new PasswordValidator();
+            validator.setMinLength(random.nextInt(12));
+            validator.setMinUppercase(random.nextInt(3));
+            validator.setMinLowercase(random.nextInt(3));
+            validator.setMinDigits(random.nextInt(3));
+            validator.setMinSpecialChars(random.nextInt(3));
+            validator.setCheckCommonPasswords(random.nextInt(4) != 0);
+            validator.initializeCommonPasswords();
+
+            ReferenceValidator reference = new ReferenceValidator(validator);
+
+            for (int i = 0; i < 5_000; i++) {
+                String password = random.nextInt(10) == 0
+                        ? randomCase(commonPasswords.get(random.nextInt(commonPasswords.size())), random)
+                        : randomPassword(random);
+                assertSameResult(reference, validator, password);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "abc", "Abc1!", "Password1!", "PASSWORD", "qWeRtY", "Xy7!Kl9#", "Zyx9!mP2",
+            "aa\u212Al9!Q", "j\u212Al9!Q", "H\u0130JK9!q", "h\u0130jk9!Q", "\uD83D\uDE00\uD83D\uDE00Ab1",
+            "\uD83D\uD83D\uDE00Ab12", "\uDE00\uDE00\uDE00Ab12", "Tr0ub4dor&3", "correct horse battery staple"})
+    void matchesReferenceImplementationOnEdgeCases(String password) {
+        PasswordValidator validator = new PasswordValidator();
+        validator.initializeCommonPasswords();
+        assertSameResult(new ReferenceValidator(validator), validator, password);
+    }
+
+    @Test
+    void matchesReferenceImplementationOnNull() {
+        PasswordValidator validator = new PasswordValidator();
+        assertSameResult(new ReferenceValidator(validator), validator, null);
+    }
+
+    private static void assertSameResult(ReferenceValidator reference, PasswordValidator validator, String password) {
+        PasswordValidator.ValidationResult expected = reference.validate(password);
+        PasswordValidator.ValidationResult actual = validator.validate(password);
+        assertEquals(expected.valid(), actual.valid(), () -> "valid flag differs for: " + password);
+        assertEquals(expected.errors(), actual.errors(), () -> "errors differ for: " + password);
+    }
+
+    private static String randomPassword(Random random) {
+        int length = random.nextInt(20);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private static String randomCase(String password, Random random) {
+        StringBuilder sb = new StringBuilder(password.length());
+        for (char c : password.toCharArray()) {
+            sb.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+        }
+        return sb.toString();
+    }
+
+    private static List<String> readCommonPasswords() throws IOException {
+        List<String> passwords = new ArrayList<>();
+        try (InputStream is = PasswordValidatorTest.class.getClassLoader().getResourceAsStream(COMMON_PASSWORDS_PATH);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    passwords.add(line.trim());
+                }
+            }
+        }
+        return passwords;
+    }
+
+    /**
+     * The original regex-based validation logic, used as the reference for the properties above
+     */
+    private static class ReferenceValidator {
+
+        private static final Pattern UPPERCASE_PATTERN = Pattern.compile("[A-Z]");
+        private static final Pattern LOWERCASE_PATTERN = Pattern.compile("[a-z]");
+        private static final Pattern DIGIT_PATTERN = Pattern.compile("[0-9]");
+        private static final Pattern SPECIAL_CHAR_PATTERN = Pattern.compile("[^A-Za-z0-9]");
+
+        private final int minLength;
+        private final int minUppercase;
+        private final int minLowercase;
+        private final int minDigits;
+        private final int minSpecialChars;
+        private final boolean checkCommonPasswords;
+        private final Set<String> commonPasswords = new HashSet<>();
+
+        ReferenceValidator(PasswordValidator config) {
+            this.minLength = config.getMinLength();
+            this.minUppercase = config.getMinUppercase();
+            this.minLowercase = config.getMinLowercase();
+            this.minDigits = config.getMinDigits();
+            this.minSpecialChars = config.getMinSpecialChars();
+            this.checkCommonPasswords = config.isCheckCommonPasswords();
+            try {
+                readCommonPasswords().forEach(password -> commonPasswords.add(password.toLowerCase()));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        PasswordValidator.ValidationResult validate(String password) {
+            List<String> validationErrors = new ArrayList<>();
+
+            if (password == null || password.length() < minLength) {
+                validationErrors.add("Password must be at least " + minLength + " characters long");
+                if (password == null || password.length() < 4) {
+                    return new PasswordValidator.ValidationResult(false, validationErrors);
+                }
+            }
+
+            if (minUppercase > 0 && (!UPPERCASE_PATTERN.matcher(password).find() ||
+                    countMatches(password, UPPERCASE_PATTERN) < minUppercase)) {
+                validationErrors.add("Password must contain at least " + minUppercase + " uppercase letter(s)");
+            }
+            if (minLowercase > 0 && (!LOWERCASE_PATTERN.matcher(password).find() ||
+                    countMatches(password, LOWERCASE_PATTERN) < minLowercase)) {
+                validationErrors.add("Password must contain at least " + minLowercase + " lowercase letter(s)");
+            }
+            if (minDigits > 0 && (!DIGIT_PATTERN.matcher(password).find() ||
+                    countMatches(password, DIGIT_PATTERN) < minDigits)) {
+                validationErrors.add("Password must contain at least " + minDigits + " digit(s)");
+            }
+            if (minSpecialChars > 0 && (!SPECIAL_CHAR_PATTERN.matcher(password).find() ||
+                    countMatches(password, SPECIAL_CHAR_PATTERN) < minSpecialChars)) {
+                validationErrors.add("Password must contain at least " + minSpecialChars + " special character(s)");
+            }
+            if (checkCommonPasswords && commonPasswords.contains(password.toLowerCase())) {
+                validationErrors.add("Password is too common and easily guessable");
+            }
+            if (hasSequentialPattern(password)) {
+                validationErrors.add("Password contains sequential patterns like '123' or 'abc'");
+            }
+            if (hasRepeatedCharacters(password, 3)) {
+                validationErrors.add("Password contains repeated characters (e.g., 'aaa')");
+            }
+
+            return new PasswordValidator.ValidationResult(validationErrors.isEmpty(), validationErrors);
+        }
+
+        private int countMatches(String string, Pattern pattern) {
+            var matcher = pattern.matcher(string);
+            int count = 0;
+            while (matcher.find()) {
+                count++;
+            }
+            return count;
+        }
+
+        private boolean hasSequentialPattern(String password) {
+            String[] sequences = {
+                    "abcdefghijklmnopqrstuvwxyz",
+                    "0123456789",
+                    "qwertyuiop",
+                    "asdfghjkl",
+                    "zxcvbnm"
+            };
+            String lowerPass = password.toLowerCase();
+            for (String seq : sequences) {
+                for (int i = 0; i < seq.length() - 2; i++) {
+                    String pattern = seq.substring(i, i + 3);
+                    if (lowerPass.contains(pattern)) {
+                        return true;
+                    }
+                    String reversePattern = new StringBuilder(pattern).reverse().toString();
+                    if (lowerPass.contains(reversePattern)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean hasRepeatedCharacters(String password, int repeatCount) {
+            if (password == null || password.length() < repeatCount) {
+                return false;
+            }
+            for (int i = 0; i <= password.length() - repeatCount; i++) {
+                char c = password.charAt(i);
+                boolean repeated = true;
+                for (int j = 1; j < repeatCount; j++) {
+                    if (password.charAt(i + j) != c) {
+                        repeated = false;
+                        break;
+                    }
+                }
+                if (repeated) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
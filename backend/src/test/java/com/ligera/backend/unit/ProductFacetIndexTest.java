@@ -0,0 +1,146 @@
+package com.ligera.backend.unit;
+
+import com.ligera.backend.search.FacetResult;
+import com.ligera.backend.search.ProductFacet;
+import com.ligera.backend.search.ProductFacetIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the in-memory product facet index
+ */
+public class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(List.of(new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100")), 50);
+        index.put(1, 10L, "Ligera", "M", new BigDecimal("19.99"), 5);
+        index.put(2, 10L, "Ligera", "L", new BigDecimal("29.99"), 0);
+        index.put(3, 10L, "Northwind", "M", new BigDecimal("49.99"), 2);
+        index.put(4, 20L, "Northwind", "L", new BigDecimal("120.00"), 1);
+        index.put(5, 20L, "Ligera", null, new BigDecimal("50"), 3);
+    }
+
+    @Test
+    void priceBandsIncludeTheirLowerBound() {
+        assertEquals("0-25", index.priceBand(new BigDecimal("0.00")));
+        assertEquals("25-50", index.priceBand(new BigDecimal("25.00")));
+        assertEquals("50-100", index.priceBand(new BigDecimal("50")));
+        assertEquals("100-max", index.priceBand(new BigDecimal("1000")));
+    }
+
+    @Test
+    void unfilteredListingCountsEveryValue() {
+        FacetResult result = index.filter(Map.of(), 0, 10);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), result.productIds());
+        assertEquals(5, result.total());
+        assertEquals(Map.of("10", 3, "20", 2), result.counts().get(ProductFacet.CATEGORY));
+        assertEquals(List.of("Ligera", "Northwind"), List.copyOf(result.counts().get(ProductFacet.BRAND).keySet()));
+        assertEquals(Map.of("M", 2, "L", 2), result.counts().get(ProductFacet.SIZE));
+        assertEquals(Map.of("true", 4, "false", 1), result.counts().get(ProductFacet.IN_STOCK));
+    }
+
+    @Test
+    void valuesOfAFacetAreAlternativesAndFacetsAreAllRequired() {
+        FacetResult result = index.filter(Map.of(
+                ProductFacet.PRICE, Set.of("0-25", "25-50"),
+                ProductFacet.IN_STOCK, Set.of("true")), 0, 10);
+
+        assertEquals(List.of(1L, 3L), result.productIds());
+        assertEquals(2, result.total());
+        assertEquals(Map.of("Ligera", 1, "Northwind", 1), result.counts().get(ProductFacet.BRAND));
+    }
+
+    @Test
+    void countsOfAFilteredFacetLeaveOutItsOwnFilter() {
+        FacetResult result = index.filter(Map.of(
+                ProductFacet.BRAND, Set.of("Northwind"),
+                ProductFacet.SIZE, Set.of("M")), 0, 10);
+
+        assertEquals(List.of(3L), result.productIds());
+        // Brands of the size M products, sizes of the Northwind products
+        assertEquals(Map.of("Ligera", 1, "Northwind", 1), result.counts().get(ProductFacet.BRAND));
+        assertEquals(Map.of("M", 1, "L", 1), result.counts().get(ProductFacet.SIZE));
+        assertEquals(Map.of("10", 1), result.counts().get(ProductFacet.CATEGORY));
+    }
+
+    @Test
+    void unknownValueMatchesNothing() {
+        FacetResult result = index.filter(Map.of(ProductFacet.BRAND, Set.of("Acme")), 0, 10);
+
+        assertEquals(List.of(), result.productIds());
+        assertEquals(0, result.total());
+        assertEquals(Map.of(), result.counts().get(ProductFacet.SIZE));
+    }
+
+    @Test
+    void updatesMoveProductsBetweenValues() {
+        index.put(2, 20L, "Ligera", "L", new BigDecimal("29.99"), 4);
+        index.remove(4);
+
+        FacetResult result = index.filter(Map.of(ProductFacet.CATEGORY, Set.of("20")), 0, 10);
+
+        assertEquals(List.of(2L, 5L), result.productIds());
+        assertEquals(Map.of("true", 2), result.counts().get(ProductFacet.IN_STOCK));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void productsOfADeletedCategoryAreLeftWithoutOne() {
+        index.removeCategory(10);
+
+        assertEquals(List.of(), index.filter(Map.of(ProductFacet.CATEGORY, Set.of("10")), 0, 10).productIds());
+        FacetResult result = index.filter(Map.of(ProductFacet.BRAND, Set.of("Ligera")), 0, 10);
+        assertEquals(List.of(1L, 2L, 5L), result.productIds());
+        assertEquals(Map.of("20", 1), result.counts().get(ProductFacet.CATEGORY));
+
+        // Later updates of these products find nothing left to remove
+        index.put(1, 20L, "Ligera", "M", new BigDecimal("19.99"), 5);
+        assertEquals(Map.of("20", 3),
+                index.filter(Map.of(), 0, 10).counts().get(ProductFacet.CATEGORY));
+    }
+
+    @Test
+    void pagesFollowIdsPastTheLastIdReturned() {
+        FacetResult first = index.filter(Map.of(ProductFacet.BRAND, Set.of("Ligera")), 0, 2);
+        // One more id than the page size tells a next page exists
+        assertEquals(List.of(1L, 2L, 5L), first.productIds());
+
+        FacetResult second = index.filter(Map.of(ProductFacet.BRAND, Set.of("Ligera")), 2, 2);
+        assertEquals(List.of(5L), second.productIds());
+    }
+
+    @Test
+    void largeAndSparseSetsCountTheSame() {
+        // Enough ids in one 65536 block to be kept as a bitmap, and some far away
+        LongStream.rangeClosed(100, 20_099).forEach(id ->
+                index.put(id, 30L, id % 2 == 0 ? "Even" : "Odd", "S", BigDecimal.TEN, 1));
+        LongStream.of(1_000_000, 5_000_000).forEach(id -> index.put(id, 30L, "Even", "S", BigDecimal.TEN, 1));
+
+        FacetResult result = index.filter(Map.of(ProductFacet.BRAND, Set.of("Even"),
+                ProductFacet.CATEGORY, Set.of("30")), 0, 3);
+        assertEquals(10_002, result.total());
+        assertEquals(List.of(100L, 102L, 104L, 106L), result.productIds());
+        assertEquals(Map.of("Even", 10_002, "Odd", 10_000), result.counts().get(ProductFacet.BRAND));
+
+        assertEquals(List.of(1_000_000L, 5_000_000L),
+                index.filter(Map.of(ProductFacet.BRAND, Set.of("Even")), 20_098, 5).productIds());
+
+        // Back to few enough ids to be kept as an array
+        LongStream.rangeClosed(100, 20_099).filter(id -> id % 4 == 0 || id % 8 == 2).forEach(index::remove);
+        FacetResult remaining = index.filter(Map.of(ProductFacet.BRAND, Set.of("Even")), 0, 2);
+        assertEquals(2_502, remaining.total());
+        assertEquals(List.of(102L, 110L, 118L), remaining.productIds());
+    }
+}
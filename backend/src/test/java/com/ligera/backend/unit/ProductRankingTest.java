@@ -0,0 +1,133 @@
+package com.ligera.backend.unit;
+
+import com.ligera.backend.enums.ProductEventType;
+import com.ligera.backend.ranking.PopularityTracker;
+import com.ligera.backend.ranking.RankedList;
+import com.ligera.backend.ranking.RankingBuilder;
+import com.ligera.backend.ranking.RankingKind;
+import com.ligera.backend.ranking.RankingProperties;
+import com.ligera.backend.repositories.ProductSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the counting of product events and the building of the ranked lists
+ */
+public class ProductRankingTest {
+
+    @Test
+    void eventsAddTheirWeightToPendingPointsUntilDrained() {
+        PopularityTracker tracker = new PopularityTracker(new RankingProperties());
+        tracker.record("ada@ligera.com", 1, ProductEventType.VIEW);
+        tracker.record("grace@ligera.com", 1, ProductEventType.VIEW);
+        tracker.record("ada@ligera.com", 1, ProductEventType.PURCHASE);
+        tracker.record("alan@ligera.com", 2, ProductEventType.FAVORITE);
+
+        assertEquals(Map.of(1L, 22.0, 2L, 5.0), tracker.drain());
+        assertTrue(tracker.drain().isEmpty());
+    }
+
+    @Test
+    void aUserCountsOncePerProductAndKindWithinTheEventWindow() {
+        PopularityTracker tracker = new PopularityTracker(new RankingProperties());
+        Instant start = Instant.parse("2024-03-01T10:00:00Z");
+        ReflectionTestUtils.setField(tracker, "clock", Clock.fixed(start, ZoneOffset.UTC));
+
+        assertTrue(tracker.record("ada@ligera.com", 1, ProductEventType.FAVORITE));
+        assertFalse(tracker.record("ada@ligera.com", 1, ProductEventType.FAVORITE));
+        assertTrue(tracker.record("ada@ligera.com", 1, ProductEventType.VIEW));
+        assertTrue(tracker.record("alan@ligera.com", 1, ProductEventType.FAVORITE));
+        assertTrue(tracker.record("ada@ligera.com", 2, ProductEventType.FAVORITE));
+        assertEquals(Map.of(1L, 11.0, 2L, 5.0), tracker.drain());
+
+        ReflectionTestUtils.setField(tracker, "clock", Clock.fixed(start.plus(Duration.ofHours(1)), ZoneOffset.UTC));
+        assertTrue(tracker.record("ada@ligera.com", 1, ProductEventType.FAVORITE));
+        assertEquals(Map.of(1L, 5.0), tracker.drain());
+    }
+
+    @Test
+    void pointsRestoredAfterAFailedFlushAreKeptWithNewOnes() {
+        PopularityTracker tracker = new PopularityTracker(new RankingProperties());
+        tracker.record("ada@ligera.com", 1, ProductEventType.FAVORITE);
+        Map<Long, Double> drained = tracker.drain();
+        tracker.record("ada@ligera.com", 1, ProductEventType.VIEW);
+
+        tracker.restore(drained);
+
+        assertEquals(Map.of(1L, 6.0), tracker.drain());
+    }
+
+    @Test
+    void eventsAreIgnoredWhenRankingIsDisabled() {
+        RankingProperties properties = new RankingProperties();
+        properties.setEnabled(false);
+        PopularityTracker tracker = new PopularityTracker(properties);
+        tracker.record("ada@ligera.com", 1, ProductEventType.PURCHASE);
+
+        assertEquals(0, tracker.size());
+    }
+
+    @Test
+    void productsAreRankedInTheCatalogAndTheirCategoryBestFirst() {
+        RankingBuilder builder = new RankingBuilder(2);
+        builder.popular(product(1, 10L), 3);
+        builder.popular(product(2, 10L), 8);
+        builder.popular(product(3, 20L), 5);
+        builder.popular(product(4, null), 1);
+
+        Map<String, List<ProductSummary>> lists = builder.build();
+
+        assertEquals(List.of(2L, 3L), ids(lists.get("popular:all")));
+        assertEquals(List.of(2L, 1L), ids(lists.get(RankingKind.POPULAR.key(10L))));
+        assertEquals(List.of(3L), ids(lists.get("popular:20")));
+        assertEquals(3, lists.size());
+    }
+
+    @Test
+    void tiesGoToTheLowerIdAndProductsOfferedTwiceKeepTheirBestScore() {
+        RankingBuilder builder = new RankingBuilder(10);
+        builder.featured(product(7, 10L), 0);
+        builder.featured(product(5, 10L), 0);
+        builder.featured(product(6, 10L), 1);
+        builder.featured(product(5, 10L), 2);
+
+        assertEquals(List.of(5L, 6L, 7L), ids(builder.build().get("featured:all")));
+    }
+
+    @Test
+    void listsKeepTheirVersionWhileTheirProductsAreTheSame() {
+        RankedList unchanged = new RankedList(3, 1000, List.of(product(1, 10L)));
+        RankedList changed = new RankedList(3, 1000, List.of(product(2, 10L)));
+        Map<String, RankedList> previous = Map.of("popular:all", unchanged, "popular:10", changed);
+
+        Map<String, RankedList> versioned = RankingBuilder.version(previous, Map.of(
+                "popular:all", List.of(product(1, 10L)),
+                "popular:10", List.of(product(1, 10L)),
+                "featured:all", List.of(product(2, 10L))), 4, 2000);
+
+        assertSame(unchanged, versioned.get("popular:all"));
+        assertEquals(new RankedList(4, 2000, List.of(product(1, 10L))), versioned.get("popular:10"));
+        assertEquals(4, versioned.get("featured:all").version());
+    }
+
+    private static ProductSummary product(long id, Long categoryId) {
+        return new ProductSummary(id, "Product " + id, new BigDecimal("19.99"), null, categoryId, 3, 0, 4.5f, 10);
+    }
+
+    private static List<Long> ids(List<ProductSummary> products) {
+        return products.stream().map(ProductSummary::id).toList();
+    }
+}
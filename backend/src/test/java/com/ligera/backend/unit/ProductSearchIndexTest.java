@@ -0,0 +1,96 @@
+package com.ligera.backend.unit;
+
+import com.ligera.backend.search.ProductSearchIndex;
+import com.ligera.backend.search.SearchHit;
+import com.ligera.backend.search.TextAnalyzer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the in-memory product search index
+ */
+public class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(32);
+        index.put(1, "Linen shirt", "Ligera", "A light summer shirt");
+        index.put(2, "Denim jacket", "Northwind", "Goes well with a linen shirt");
+        index.put(3, "Leather boots", "Northwind", "Waterproof hiking boots");
+        index.put(4, "Shirtdress", "Ligera", "Cotton dress");
+        index.put(5, "Crème brûlée candle", null, null);
+    }
+
+    @Test
+    void analyzerFoldsCaseAndAccentsAndSplitsOnPunctuation() {
+        assertEquals(List.of("creme", "brulee", "t", "shirt", "42"), TextAnalyzer.terms("Crème-BRÛLÉE T-shirt, 42"));
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        assertEquals(List.of(1L, 2L), ids(index.search("linen", 0, 10)));
+    }
+
+    @Test
+    void everyWordMustMatch() {
+        assertEquals(List.of(2L), ids(index.search("denim linen", 0, 10)));
+        assertEquals(List.of(), index.search("denim boots", 0, 10));
+    }
+
+    @Test
+    void lastWordMatchesAsPrefixBelowExactMatches() {
+        assertEquals(List.of(3L), ids(index.search("waterp", 0, 10)));
+
+        // A rarer completion does not outrank the word typed
+        List<SearchHit> hits = index.search("shirt", 0, 10);
+        assertEquals(List.of(1L, 4L, 2L), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+
+        // Only the last word is a prefix
+        assertEquals(List.of(), index.search("leat boots", 0, 10));
+    }
+
+    @Test
+    void wordsWithinOneTypoMatch() {
+        assertEquals(List.of(3L), ids(index.search("lether", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("jakcet", 0, 10)));
+        assertEquals(List.of(3L), ids(index.search("leather bots", 0, 10)));
+    }
+
+    @Test
+    void accentsAreIgnored() {
+        assertEquals(List.of(5L), ids(index.search("creme brulee", 0, 10)));
+        assertEquals(List.of(5L), ids(index.search("CRÈME", 0, 10)));
+    }
+
+    @Test
+    void updatedAndRemovedProductsAreSearchedAsTheyAreNow() {
+        index.put(3, "Suede boots", "Northwind", "Waterproof hiking boots");
+        index.remove(1);
+
+        assertEquals(List.of(), index.search("leather", 0, 10));
+        assertEquals(List.of(3L), ids(index.search("suede", 0, 10)));
+        assertEquals(List.of(4L, 2L), ids(index.search("shirt", 0, 10)));
+        assertEquals(4, index.size());
+        assertEquals(2.0 / 6, index.garbageRatio(), 1e-9);
+    }
+
+    @Test
+    void pagesFollowTheRanking() {
+        List<SearchHit> all = index.search("shirt", 0, 10);
+
+        assertEquals(all.subList(1, 3), index.search("shirt", 1, 2));
+        assertEquals(List.of(), index.search("shirt", 3, 2));
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::productId).toList();
+    }
+}
@@ -0,0 +1,137 @@
+package com.ligera.backend.unit;
+
+import com.ligera.backend.datasource.ReadWriteRoutingDataSource;
+import com.ligera.backend.datasource.ReadYourWritesTracker;
+import com.ligera.backend.datasource.ReplicaLagMonitor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for read/write routing, using two in-memory H2 databases as primary and replica
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private static final String ALICE = "alice@example.com";
+    private static final String BOB = "bob@example.com";
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaLagMonitor lagMonitor;
+    private ReadYourWritesTracker readYourWrites;
+    private JdbcTemplate routed;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primaryDataSource = h2("primary");
+        DataSource replicaDataSource = h2("replica");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        for (JdbcTemplate database : List.of(primary, replica)) {
+            database.execute("CREATE TABLE node (name VARCHAR(16))");
+            database.execute("CREATE TABLE replication_lag (ms BIGINT)");
+            database.execute("INSERT INTO replication_lag VALUES (0)");
+        }
+        primary.update("INSERT INTO node VALUES ('primary')");
+        replica.update("INSERT INTO node VALUES ('replica')");
+
+        lagMonitor = new ReplicaLagMonitor(replicaDataSource, "SELECT ms FROM replication_lag", 1000);
+        lagMonitor.check();
+        readYourWrites = new ReadYourWritesTracker();
+        ReflectionTestUtils.setField(readYourWrites, "stickinessMs", 5000L);
+
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, lagMonitor, readYourWrites));
+        routed = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.execute("DROP ALL OBJECTS");
+        replica.execute("DROP ALL OBJECTS");
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToReplica() {
+        assertEquals("replica", readNode());
+    }
+
+    @Test
+    void routesWriteTransactionsToPrimary() {
+        assertEquals("primary", writeTransaction.execute(status -> queryNode()));
+    }
+
+    @Test
+    void keepsReadsOnPrimaryAfterOwnWrite() {
+        authenticate(ALICE);
+        writeTransaction.executeWithoutResult(status -> routed.update("UPDATE node SET name = name"));
+        assertEquals("primary", readNode());
+
+        authenticate(BOB);
+        assertEquals("replica", readNode());
+    }
+
+    @Test
+    void keepsReadsOnPrimaryForExplicitKey() {
+        readYourWrites.markWrite(ALICE);
+        assertEquals("primary", readYourWrites.callAs(ALICE, this::readNode));
+        assertEquals("replica", readYourWrites.callAs(BOB, this::readNode));
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaLags() {
+        replica.update("UPDATE replication_lag SET ms = 5000");
+        lagMonitor.check();
+        assertEquals("primary", readNode());
+
+        replica.update("UPDATE replication_lag SET ms = 10");
+        lagMonitor.check();
+        assertEquals("replica", readNode());
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaUnavailable() {
+        replica.execute("DROP TABLE replication_lag");
+        lagMonitor.check();
+        assertEquals("primary", readNode());
+    }
+
+    private String readNode() {
+        return readOnlyTransaction.execute(status -> queryNode());
+    }
+
+    private String queryNode() {
+        return routed.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
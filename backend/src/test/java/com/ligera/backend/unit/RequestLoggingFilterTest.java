@@ -0,0 +1,93 @@
+package com.ligera.backend.unit;
+
+import com.ligera.backend.security.filter.RequestLoggingFilter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the buffering of responses by {@link RequestLoggingFilter}
+ */
+public class RequestLoggingFilterTest {
+
+    private static final String CHECKPOINT = "{\"type\":\"checkpoint\",\"seq\":3,\"more\":true}\n";
+
+    private final RequestLoggingFilter filter = new RequestLoggingFilter();
+
+    @Test
+    void streamedResponseReachesTheClientAtEachFlush() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/catalog/changes");
+        request.addHeader("Accept", MediaType.APPLICATION_NDJSON_VALUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> seenBeforeCompletion = new ArrayList<>();
+
+        filter.doFilter(request, response, writingThenFlushing(response, seenBeforeCompletion));
+
+        assertEquals(List.of(CHECKPOINT), seenBeforeCompletion);
+        assertTrue(response.isCommitted());
+        assertEquals(CHECKPOINT + CHECKPOINT, response.getContentAsString());
+    }
+
+    @Test
+    void feedIsStreamedWhateverTheClientAccepts() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/catalog/changes");
+        request.addHeader("Accept", MediaType.ALL_VALUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> seenBeforeCompletion = new ArrayList<>();
+
+        filter.doFilter(request, response, writingThenFlushing(response, seenBeforeCompletion));
+
+        assertEquals(List.of(CHECKPOINT), seenBeforeCompletion);
+    }
+
+    @Test
+    void otherResponsesAreSentWhenComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/categories");
+        request.addHeader("Accept", MediaType.APPLICATION_JSON_VALUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> seenBeforeCompletion = new ArrayList<>();
+
+        filter.doFilter(request, response, writingThenFlushing(response, seenBeforeCompletion));
+
+        // Held by the logging wrapper until the chain returns
+        assertEquals(List.of(""), seenBeforeCompletion);
+        assertEquals(CHECKPOINT + CHECKPOINT, response.getContentAsString());
+    }
+
+    @Test
+    void askingForAStreamDoesNotBypassTheLoggingOfOtherResponses() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/categories");
+        request.addHeader("Accept", MediaType.APPLICATION_NDJSON_VALUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> seenBeforeCompletion = new ArrayList<>();
+
+        filter.doFilter(request, response, writingThenFlushing(response, seenBeforeCompletion));
+
+        // Held by the logging wrapper until the chain returns
+        assertEquals(List.of(""), seenBeforeCompletion);
+        assertEquals(CHECKPOINT + CHECKPOINT, response.getContentAsString());
+    }
+
+    /**
+     * Chain writing a chunk, flushing, recording what the client has received, then writing another chunk
+     */
+    private static FilterChain writingThenFlushing(MockHttpServletResponse client, List<String> seen) {
+        return (req, res) -> {
+            OutputStream out = res.getOutputStream();
+            out.write(CHECKPOINT.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            seen.add(client.getContentAsString());
+            out.write(CHECKPOINT.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+}
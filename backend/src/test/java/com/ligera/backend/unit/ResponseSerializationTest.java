@@ -0,0 +1,133 @@
+package com.ligera.backend.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.ligera.backend.dtos.response.ApiResponse;
+import com.ligera.backend.dtos.response.UserResponse;
+import com.ligera.backend.enums.AccountStatus;
+import com.ligera.backend.enums.Role;
+import com.ligera.backend.exception.ErrorResponse;
+import com.ligera.backend.json.CachedClock;
+import com.ligera.backend.json.ErrorTemplate;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the serialization of response envelopes and error responses
+ */
+public class ResponseSerializationTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_000_000);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void writesTemplateErrorsWithTheFieldsInOrder() throws Exception {
+        ErrorResponse response = ErrorTemplate.of(HttpStatus.FORBIDDEN, "You don't have \"permission\"")
+                .toResponse("/api/v1/admin/users");
+        response.setTimestamp(TIMESTAMP);
+
+        assertEquals("{\"timestamp\":\"2024-03-01T12:00:00.123\",\"status\":403,\"error\":\"Forbidden\","
+                + "\"message\":\"You don't have \\\"permission\\\"\",\"path\":\"/api/v1/admin/users\","
+                + "\"validationErrors\":[]}", objectMapper.writeValueAsString(response));
+    }
+
+    @Test
+    void writesVariableMessagesAfterTheStatusFragment() throws Exception {
+        ErrorResponse response = ErrorResponse.builder()
+                .timestamp(TIMESTAMP)
+                .status(404)
+                .error("Not Found")
+                .message("User not found with id: 42")
+                .path("/api/v1/users/42")
+                .build();
+
+        assertEquals("{\"timestamp\":\"2024-03-01T12:00:00.123\",\"status\":404,\"error\":\"Not Found\","
+                + "\"message\":\"User not found with id: 42\",\"path\":\"/api/v1/users/42\","
+                + "\"validationErrors\":[]}", objectMapper.writeValueAsString(response));
+    }
+
+    @Test
+    void writesOtherErrorsFieldByField() throws Exception {
+        ErrorResponse response = ErrorResponse.builder()
+                .status(429)
+                .error("Slow Down")
+                .validationErrors(null)
+                .build();
+
+        assertEquals("{\"status\":429,\"error\":\"Slow Down\"}", objectMapper.writeValueAsString(response));
+
+        // A template whose fields were changed afterwards is not used
+        ErrorResponse changed = ErrorTemplate.of(HttpStatus.CONFLICT, "Conflict").toResponse("/api/v1/users/me");
+        changed.setTimestamp(TIMESTAMP);
+        changed.setMessage("Changed");
+        assertEquals("Changed", objectMapper.readTree(objectMapper.writeValueAsString(changed)).get("message").asText());
+    }
+
+    @Test
+    void keepsTheFirstErrorOfEachField() throws Exception {
+        ErrorResponse response = ErrorTemplate.of(HttpStatus.BAD_REQUEST, "Validation failed for request")
+                .toResponse("/api/v1/auth/register");
+        response.addValidationError("email", "must be a well-formed email address");
+        response.addValidationError("password", "size must be between 8 and 128");
+        response.addValidationError("email", "must not be blank");
+
+        JsonNode errors = objectMapper.readTree(objectMapper.writeValueAsString(response)).get("validationErrors");
+
+        assertEquals(2, errors.size());
+        assertEquals("email", errors.get(0).get("field").asText());
+        assertEquals("must be a well-formed email address", errors.get(0).get("message").asText());
+        assertEquals("password", errors.get(1).get("field").asText());
+    }
+
+    @Test
+    void writesValidJsonWhenIndenting() throws Exception {
+        ErrorResponse response = ErrorTemplate.of(HttpStatus.CONFLICT, "Conflict").toResponse("/api/v1/users/me");
+
+        String json = objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValueAsString(response);
+
+        JsonNode tree = objectMapper.readTree(json);
+        assertEquals(409, tree.get("status").asInt());
+        assertEquals("Conflict", tree.get("message").asText());
+        assertTrue(json.contains("\n"));
+    }
+
+    @Test
+    void blackbirdWritesTheSameEnvelopes() throws Exception {
+        ObjectMapper blackbird = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        List<UserResponse> users = List.of(
+                new UserResponse(1L, "Ada", "ada@ligera.com", Role.ADMIN, AccountStatus.ACTIVE, TIMESTAMP),
+                new UserResponse(2L, "Alan", "alan@ligera.com", Role.USER, AccountStatus.SUSPENDED, TIMESTAMP));
+        ApiResponse<List<UserResponse>> response = ApiResponse.paginated(new PageImpl<>(users, PageRequest.of(0, 2), 5));
+        response.setTimestamp(TIMESTAMP);
+
+        String json = blackbird.writeValueAsString(response);
+
+        assertEquals(objectMapper.writeValueAsString(response), json);
+        assertFalse(json.contains("\"errors\""));
+        assertEquals(3, objectMapper.readTree(json).get("meta").get("totalPages").asInt());
+    }
+
+    @Test
+    void cachedClockTruncatesToTheMillisecond() {
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+
+        LocalDateTime now = CachedClock.now();
+
+        assertEquals(0, now.getNano() % 1_000_000);
+        assertTrue(now.isAfter(before));
+        assertFalse(now.isAfter(LocalDateTime.now()));
+    }
+}
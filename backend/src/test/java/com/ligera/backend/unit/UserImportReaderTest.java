@@ -0,0 +1,113 @@
+package com.ligera.backend.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ligera.backend.exception.ImportFormatException;
+import com.ligera.backend.imports.UserImportReader;
+import com.ligera.backend.imports.UserImportRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the streaming CSV and NDJSON readers of the bulk user import
+ */
+public class UserImportReaderTest {
+
+    @Test
+    void readsCsvWithQuotingInAnyColumnOrder() throws IOException {
+        List<UserImportRow> rows = read(UserImportReader.TEXT_CSV, """
+                email,password,name,team
+                ada@ligera.com,Xy7!Kl9#,Ada Lovelace,core
+                "grace@ligera.com","pa""ss,word","Grace
+                Hopper",
+                
+                alan@ligera.com,Zyx9!mP2,"Alan Turing"
+                """);
+
+        assertEquals(3, rows.size());
+        assertRow(rows.get(0), 2, "Ada Lovelace", "ada@ligera.com", "Xy7!Kl9#");
+        assertRow(rows.get(1), 3, "Grace\nHopper", "grace@ligera.com", "pa\"ss,word");
+        assertRow(rows.get(2), 6, "Alan Turing", "alan@ligera.com", "Zyx9!mP2");
+    }
+
+    @Test
+    void rejectsMalformedCsvRecordsAndContinues() throws IOException {
+        List<UserImportRow> rows = read(UserImportReader.TEXT_CSV, """
+                name,email,password
+                Ada,ada@ligera.com
+                "Grace"x,grace@ligera.com,Xy7!Kl9#
+                Alan,alan@ligera.com,Zyx9!mP2
+                "Unterminated,edsger@ligera.com,Xy7!Kl9#
+                """);
+
+        assertEquals(4, rows.size());
+        assertTrue(rows.get(0).isRejected());
+        assertEquals("ada@ligera.com", rows.get(0).email());
+        assertTrue(rows.get(1).isRejected());
+        assertEquals(3, rows.get(1).line());
+        assertRow(rows.get(2), 4, "Alan", "alan@ligera.com", "Zyx9!mP2");
+        assertTrue(rows.get(3).isRejected());
+        assertEquals(5, rows.get(3).line());
+    }
+
+    @Test
+    void rejectsCsvWithoutRequiredColumns() {
+        assertThrows(ImportFormatException.class, () -> read(UserImportReader.TEXT_CSV, "name,email\nAda,ada@ligera.com\n"));
+        assertThrows(ImportFormatException.class, () -> read(UserImportReader.TEXT_CSV, ""));
+    }
+
+    @Test
+    void readsNdjsonAndRejectsMalformedLines() throws IOException {
+        List<UserImportRow> rows = read(MediaType.APPLICATION_NDJSON, """
+                {"name":"Ada Lovelace","email":"ada@ligera.com","password":"Xy7!Kl9#"}
+                {"name":"Grace Hopper","email":
+                
+                ["not", "an", "object"]
+                {"name":"Alan Turing","email":"alan@ligera.com"}
+                """);
+
+        assertEquals(4, rows.size());
+        assertRow(rows.get(0), 1, "Ada Lovelace", "ada@ligera.com", "Xy7!Kl9#");
+        assertTrue(rows.get(1).isRejected());
+        assertEquals(2, rows.get(1).line());
+        assertTrue(rows.get(2).isRejected());
+        assertEquals(4, rows.get(2).line());
+        assertRow(rows.get(3), 5, "Alan Turing", "alan@ligera.com", null);
+    }
+
+    @Test
+    void rejectsUnsupportedFormat() {
+        assertThrows(ImportFormatException.class, () -> read(MediaType.APPLICATION_XML, "<users/>"));
+    }
+
+    private static void assertRow(UserImportRow row, long line, String name, String email, String password) {
+        assertNull(row.rejectReason());
+        assertEquals(line, row.line());
+        assertEquals(name, row.name());
+        assertEquals(email, row.email());
+        assertEquals(password, row.password());
+    }
+
+    private static List<UserImportRow> read(MediaType contentType, String content) throws IOException {
+        List<UserImportRow> rows = new ArrayList<>();
+        try (UserImportReader reader = UserImportReader.open(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), contentType,
+                new ObjectMapper().reader())) {
+            UserImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
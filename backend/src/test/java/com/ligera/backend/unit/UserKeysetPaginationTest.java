@@ -0,0 +1,98 @@
+package com.ligera.backend.unit;
+
+import com.ligera.backend.models.User;
+import com.ligera.backend.pagination.KeysetPage;
+import com.ligera.backend.repositories.UserRepository;
+import com.ligera.backend.repositories.UserRepositoryCustomImpl;
+import com.ligera.backend.repositories.UserSummary;
+import com.ligera.backend.service.UserService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the keyset-paginated user listing, running the repository queries on an in-memory H2 database
+ */
+public class UserKeysetPaginationTest {
+
+    private static final int USERS = 23;
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:keyset;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .buildSessionFactory();
+        entityManager = sessionFactory.createEntityManager();
+
+        entityManager.getTransaction().begin();
+        for (int i = 0; i < USERS; i++) {
+            entityManager.persist(User.createDefaultUser("User " + i, "user" + i + "@ligera.com", "hash"));
+        }
+        entityManager.flush();
+        // Only four distinct creation times, so pages have to break ties on the id
+        entityManager.createNativeQuery(
+                "UPDATE users SET created_at = TIMESTAMP '2024-01-01 00:00:00' + MOD(id, 4) * INTERVAL '1' HOUR")
+                .executeUpdate();
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+
+        UserRepository userRepository = new JpaRepositoryFactory(entityManager).getRepository(UserRepository.class,
+                RepositoryFragments.just(new UserRepositoryCustomImpl(entityManager)));
+        userService = new UserService(userRepository, null, entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    void pagesThroughAllUsersNewestFirstWithoutGapsOrDuplicates() {
+        List<UserSummary> listed = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            KeysetPage<UserSummary> page = userService.listUsers(cursor, 5);
+            listed.addAll(page.content());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(5, pages);
+        assertEquals(USERS, listed.size());
+        List<UserSummary> expected = new ArrayList<>(listed);
+        expected.sort(Comparator.comparing(UserSummary::getCreatedAt).thenComparing(UserSummary::getId).reversed());
+        assertEquals(expected.stream().map(UserSummary::getId).toList(), listed.stream().map(UserSummary::getId).toList());
+        assertEquals(USERS, listed.stream().map(UserSummary::getId).distinct().count());
+    }
+
+    @Test
+    void lastFullPageHasNoCursor() {
+        KeysetPage<UserSummary> page = userService.listUsers(null, USERS);
+        assertEquals(USERS, page.content().size());
+        assertNull(page.nextCursor());
+        assertFalse(page.content().get(0).getEmail().isEmpty());
+    }
+}
@@ -0,0 +1,136 @@
+package com.ligera.backend.unit;
+
+import com.ligera.backend.config.HibernateCacheConfig;
+import com.ligera.backend.models.User;
+import com.ligera.backend.repositories.UserRepositoryCustomImpl;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the second-level caching of users, on an in-memory H2 database with the Ehcache regions of
+ * HibernateCacheConfig
+ */
+public class UserSecondLevelCacheTest {
+
+    private static final String EMAIL = "cached@ligera.com";
+
+    private CacheManager cacheManager;
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = HibernateCacheConfig.createCacheManager(100, 1, Duration.ofMinutes(5));
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(User.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:l2cache;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true")
+                .setProperty(AvailableSettings.CACHE_REGION_FACTORY, "jcache")
+                .setProperty(ConfigSettings.MISSING_CACHE_STRATEGY, "fail")
+                .setProperty(AvailableSettings.GENERATE_STATISTICS, "true");
+        configuration.getProperties().put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        sessionFactory = configuration.buildSessionFactory();
+        statistics = sessionFactory.getStatistics();
+
+        userId = sessionFactory.fromTransaction(session -> {
+            User user = User.createDefaultUser("Cached User", EMAIL, "hash");
+            session.persist(user);
+            return user.getId();
+        });
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+        cacheManager.close();
+    }
+
+    @Test
+    void naturalIdLookupIsServedFromCacheInLaterSessions() {
+        assertTrue(findByEmail(EMAIL).isPresent());
+        long queries = statistics.getPrepareStatementCount();
+
+        Optional<User> cached = findByEmail(EMAIL);
+
+        assertTrue(cached.isPresent());
+        assertEquals(userId, cached.get().getId());
+        assertEquals(queries, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+        assertTrue(statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount() > 0);
+    }
+
+    @Test
+    void findByIdIsServedFromCacheInLaterSessions() {
+        sessionFactory.inSession(session -> session.find(User.class, userId));
+        long queries = statistics.getPrepareStatementCount();
+
+        User cached = sessionFactory.fromSession(session -> session.find(User.class, userId));
+
+        assertEquals(EMAIL, cached.getEmail());
+        assertEquals(queries, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updatedEmailReplacesTheCachedNaturalId() {
+        findByEmail(EMAIL);
+        sessionFactory.inTransaction(session -> session.find(User.class, userId).setEmail("renamed@ligera.com"));
+
+        assertFalse(findByEmail(EMAIL).isPresent());
+        Optional<User> renamed = findByEmail("renamed@ligera.com");
+        assertTrue(renamed.isPresent());
+        assertEquals(userId, renamed.get().getId());
+    }
+
+    @Test
+    void updatedUserReplacesTheCachedEntity() {
+        sessionFactory.inSession(session -> session.find(User.class, userId));
+        sessionFactory.inTransaction(session -> session.find(User.class, userId).setName("Updated User"));
+
+        User cached = sessionFactory.fromSession(session -> session.find(User.class, userId));
+
+        assertEquals("Updated User", cached.getName());
+    }
+
+    @Test
+    void emailsAreStoredAndLookedUpLowerCased() {
+        Long mixedCaseId = sessionFactory.fromTransaction(session -> {
+            User user = User.createDefaultUser("Mixed Case", "Mixed.Case@Ligera.com", "hash");
+            session.persist(user);
+            return user.getId();
+        });
+
+        Optional<User> found;
+        try (Session session = sessionFactory.openSession()) {
+            found = new UserRepositoryCustomImpl(session).findByEmail("MIXED.case@ligera.COM");
+        }
+
+        assertTrue(found.isPresent());
+        assertEquals(mixedCaseId, found.get().getId());
+        assertEquals("mixed.case@ligera.com", found.get().getEmail());
+    }
+
+    private Optional<User> findByEmail(String email) {
+        try (Session session = sessionFactory.openSession()) {
+            return session.bySimpleNaturalId(User.class).loadOptional(email);
+        }
+    }
+}
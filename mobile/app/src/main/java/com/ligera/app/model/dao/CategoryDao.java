@@ -8,6 +8,7 @@ import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.room.Upsert;
 
 import com.ligera.app.model.entity.Category;
 
@@ -169,4 +170,29 @@ public interface CategoryDao {
             update(category);
         }
     }
+
+    /**
+     * Insert or update categories without deleting the rows they replace, which would clear the category
+     * of their products through the foreign key
+     *
+     * @param categories categories to insert or update
+     */
+    @Upsert
+    void upsertAll(List<Category> categories);
+
+    /**
+     * Delete a category by ID
+     *
+     * @param id category ID
+     */
+    @Query("DELETE FROM categories WHERE id = :id")
+    void deleteById(long id);
+
+    /**
+     * Delete old categories (refreshed more than the given time ago)
+     *
+     * @param timestamp timestamp in milliseconds
+     */
+    @Query("DELETE FROM categories WHERE last_refreshed < :timestamp")
+    void deleteOldCategories(long timestamp);
 }
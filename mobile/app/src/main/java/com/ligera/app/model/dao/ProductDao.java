@@ -9,10 +9,14 @@ import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.room.Upsert;
 
 import com.ligera.app.model.entity.Product;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Room DAO for product operations
@@ -294,4 +298,48 @@ public interface ProductDao {
             update(product);
         }
     }
+
+    /**
+     * Insert or update products without deleting the rows they replace
+     *
+     * @param products products to insert or update
+     */
+    @Upsert
+    void upsertAll(List<Product> products);
+
+    /**
+     * Get the ids of the favorite products among some products
+     *
+     * @param ids product IDs
+     * @return IDs of those marked as favorite
+     */
+    @Query("SELECT id FROM products WHERE is_favorite = 1 AND id IN (:ids)")
+    List<Long> getFavoriteIds(List<Long> ids);
+
+    /**
+     * Delete a product by ID
+     *
+     * @param id product ID
+     */
+    @Query("DELETE FROM products WHERE id = :id")
+    void deleteById(long id);
+
+    /**
+     * Insert or update products received from the server, keeping the favorite flag, which only exists
+     * on the device
+     *
+     * @param products products to insert or update
+     */
+    @Transaction
+    default void upsertKeepingFavorites(List<Product> products) {
+        List<Long> ids = new ArrayList<>(products.size());
+        for (Product product : products) {
+            ids.add(product.getId());
+        }
+        Set<Long> favorites = new HashSet<>(getFavoriteIds(ids));
+        for (Product product : products) {
+            product.setFavorite(favorites.contains(product.getId()));
+        }
+        upsertAll(products);
+    }
 }
@@ -3,6 +3,7 @@ package com.ligera.app.repository;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
 
 import com.ligera.app.model.database.AppDatabase;
@@ -10,9 +11,11 @@ import com.ligera.app.model.dao.CategoryDao;
 import com.ligera.app.model.dao.ProductDao;
 import com.ligera.app.model.entity.Category;
 import com.ligera.app.model.entity.Product;
+import com.ligera.app.repository.sync.CatalogSyncEngine;
 import com.ligera.app.util.AppExecutors;
 import com.ligera.app.util.Resource;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -216,4 +219,23 @@ public class ProductRepository {
     public void insertCategories(List<Category> categories) {
         appExecutors.diskIO().execute(() -> categoryDao.insertAll(categories));
     }
+
+    /**
+     * Bring the local catalog up to date with the server's change feed
+     *
+     * @param syncEngine the catalog sync engine
+     * @return LiveData of Resource of the number of changes applied
+     */
+    public LiveData<Resource<Integer>> syncCatalog(CatalogSyncEngine syncEngine) {
+        MutableLiveData<Resource<Integer>> result = new MutableLiveData<>(Resource.loading());
+        appExecutors.networkIO().execute(() -> {
+            try {
+                result.postValue(Resource.success(syncEngine.sync()));
+            } catch (IOException e) {
+                Log.w(TAG, "Catalog sync failed", e);
+                result.postValue(Resource.error("Catalog sync failed", e, null));
+            }
+        });
+        return result;
+    }
 }
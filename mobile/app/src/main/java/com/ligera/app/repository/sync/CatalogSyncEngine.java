@@ -0,0 +1,292 @@
+package com.ligera.app.repository.sync;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.ligera.app.model.dao.CategoryDao;
+import com.ligera.app.model.dao.ProductDao;
+import com.ligera.app.model.database.AppDatabase;
+import com.ligera.app.model.entity.Category;
+import com.ligera.app.model.entity.Product;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the local catalog in sync with the backend through its change feed.
+ * <p>
+ * Instead of reloading the whole catalog when it gets stale, the engine asks for the changes after the
+ * sequence number it last applied: inserts, updates and tombstones, streamed as NDJSON chunks ending with
+ * checkpoints. Each chunk is applied in one Room transaction and its checkpoint saved afterwards, so an
+ * interrupted sync resumes from the last chunk applied, and replaying a chunk is harmless.
+ * <p>
+ * When the server answers with a reset (first sync, or the device was offline for longer than the server
+ * keeps deletions), every row is sent again; rows not received by the end of that snapshot were deleted
+ * on the server and are removed.
+ */
+public class CatalogSyncEngine {
+    private static final String TAG = "CatalogSyncEngine";
+
+    private static final String PREFS_NAME = "catalog_sync";
+    private static final String KEY_SEQ = "seq";
+    private static final String KEY_SNAPSHOT_STARTED_AT = "snapshot_started_at";
+
+    private static final int CONNECT_TIMEOUT_MS = 15_000;
+    private static final int READ_TIMEOUT_MS = 30_000;
+    // Responses are bounded by the server, this only stops a sync that never catches up
+    private static final int MAX_REQUESTS = 50;
+
+    private final AppDatabase database;
+    private final ProductDao productDao;
+    private final CategoryDao categoryDao;
+    private final SharedPreferences preferences;
+    private final String baseUrl;
+    private final Supplier<String> accessToken;
+
+    /**
+     * Constructor
+     *
+     * @param context     context, used for the preferences holding the sync position
+     * @param database    Room database
+     * @param baseUrl     base URL of the versioned API, e.g. {@code https://host/api/api/v1}
+     * @param accessToken supplier of the bearer token of the signed-in user
+     */
+    public CatalogSyncEngine(@NonNull Context context, @NonNull AppDatabase database, @NonNull String baseUrl,
+                             @NonNull Supplier<String> accessToken) {
+        this.database = database;
+        this.productDao = database.productDao();
+        this.categoryDao = database.categoryDao();
+        this.preferences = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.baseUrl = baseUrl;
+        this.accessToken = accessToken;
+    }
+
+    /**
+     * Apply the catalog changes made since the last sync. Blocks on network and disk.
+     *
+     * @return the number of changes applied
+     * @throws IOException if the feed could not be read; changes applied before are kept
+     */
+    @WorkerThread
+    public int sync() throws IOException {
+        if (preferences.getLong(KEY_SEQ, 0) == 0 && !isSnapshotInProgress()) {
+            // Whatever the database holds before the first sync (seed data) is replaced by the catalog
+            startSnapshot();
+        }
+        int applied = 0;
+        for (int request = 0; request < MAX_REQUESTS; request++) {
+            Response response = fetch(preferences.getLong(KEY_SEQ, 0), isSnapshotInProgress());
+            applied += response.applied;
+            if (!response.more) {
+                return applied;
+            }
+        }
+        Log.w(TAG, "Catalog not caught up after " + MAX_REQUESTS + " requests");
+        return applied;
+    }
+
+    private Response fetch(long since, boolean snapshot) throws IOException {
+        URL url = new URL(baseUrl + "/catalog/changes?since=" + since + "&snapshot=" + snapshot);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        connection.setRequestProperty("Accept", "application/x-ndjson");
+        String token = accessToken.get();
+        if (token != null) {
+            connection.setRequestProperty("Authorization", "Bearer " + token);
+        }
+        try {
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Catalog change feed answered " + status);
+            }
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+                return read(reader);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private Response read(BufferedReader reader) throws IOException {
+        Chunk chunk = new Chunk();
+        int applied = 0;
+        boolean atCheckpoint = false;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                JSONObject change = new JSONObject(line);
+                atCheckpoint = false;
+                switch (change.getString("type")) {
+                    case "reset":
+                        startSnapshot();
+                        break;
+                    case "category":
+                        chunk.categories.add(toCategory(change.getJSONObject("category")));
+                        break;
+                    case "product":
+                        chunk.products.add(toProduct(change.getJSONObject("product")));
+                        break;
+                    case "tombstone":
+                        if ("category".equals(change.getString("entity"))) {
+                            chunk.deletedCategories.add(change.getLong("id"));
+                        } else {
+                            chunk.deletedProducts.add(change.getLong("id"));
+                        }
+                        break;
+                    case "checkpoint":
+                        boolean more = change.getBoolean("more");
+                        applied += apply(chunk, change.getLong("seq"), !more);
+                        if (!more) {
+                            return new Response(applied, false);
+                        }
+                        chunk = new Chunk();
+                        atCheckpoint = true;
+                        break;
+                    default:
+                        // Kinds of changes added later are skipped by older clients
+                        break;
+                }
+            } catch (JSONException e) {
+                throw new IOException("Malformed catalog change: " + line, e);
+            }
+        }
+        if (!atCheckpoint) {
+            // Changes after the last checkpoint are dropped, the next sync starts from it
+            throw new IOException("Catalog change feed cut short after " + applied + " changes");
+        }
+        return new Response(applied, true);
+    }
+
+    /**
+     * Apply a chunk in one transaction, then move the sync position to its checkpoint
+     */
+    private int apply(Chunk chunk, long seq, boolean caughtUp) {
+        long now = System.currentTimeMillis();
+        boolean endsSnapshot = caughtUp && isSnapshotInProgress();
+        long snapshotStartedAt = preferences.getLong(KEY_SNAPSHOT_STARTED_AT, 0);
+        for (Category category : chunk.categories) {
+            category.setLastRefreshed(now);
+        }
+        for (Product product : chunk.products) {
+            product.setLastRefreshed(now);
+        }
+        database.runInTransaction(() -> {
+            // Categories first, products may reference those just added
+            categoryDao.upsertAll(chunk.categories);
+            for (long id : chunk.deletedCategories) {
+                categoryDao.deleteById(id);
+            }
+            productDao.upsertKeepingFavorites(chunk.products);
+            for (long id : chunk.deletedProducts) {
+                productDao.deleteById(id);
+            }
+            if (endsSnapshot) {
+                // What was not sent again since the snapshot started no longer exists on the server
+                productDao.deleteOldProducts(snapshotStartedAt);
+                categoryDao.deleteOldCategories(snapshotStartedAt);
+            }
+        });
+
+        SharedPreferences.Editor editor = preferences.edit().putLong(KEY_SEQ, seq);
+        if (endsSnapshot) {
+            editor.remove(KEY_SNAPSHOT_STARTED_AT);
+        }
+        editor.apply();
+        return chunk.size();
+    }
+
+    private boolean isSnapshotInProgress() {
+        return preferences.contains(KEY_SNAPSHOT_STARTED_AT);
+    }
+
+    private void startSnapshot() {
+        preferences.edit().putLong(KEY_SNAPSHOT_STARTED_AT, System.currentTimeMillis()).apply();
+    }
+
+    private static Category toCategory(JSONObject json) throws JSONException {
+        Category category = new Category();
+        category.setId(json.getLong("id"));
+        category.setName(json.getString("name"));
+        category.setDescription(optString(json, "description"));
+        category.setImage(optString(json, "image"));
+        category.setParentId(json.has("parentId") ? json.getLong("parentId") : null);
+        category.setProductCount(json.optInt("productCount"));
+        category.setPosition(json.optInt("position"));
+        category.setActive(json.optBoolean("active", true));
+        category.setDisplayInMenu(json.optBoolean("displayInMenu", true));
+        category.setMetaTitle(optString(json, "metaTitle"));
+        category.setMetaDescription(optString(json, "metaDescription"));
+        category.setSlugUrl(optString(json, "slugUrl"));
+        category.setCreatedAt(json.optLong("createdAt"));
+        category.setLastUpdated(json.optLong("lastUpdated"));
+        return category;
+    }
+
+    private static Product toProduct(JSONObject json) throws JSONException {
+        Product product = new Product();
+        product.setId(json.getLong("id"));
+        product.setName(json.getString("name"));
+        product.setDescription(json.optString("description", ""));
+        product.setPrice(new BigDecimal(json.getString("price")));
+        product.setImageUrl(optString(json, "imageUrl"));
+        product.setQuantity(json.optInt("quantity"));
+        product.setCategoryId(json.has("categoryId") ? json.getLong("categoryId") : null);
+        product.setBrand(json.optString("brand", ""));
+        product.setSize(json.optString("size", ""));
+        product.setFeatured(json.optBoolean("featured"));
+        product.setPopular(json.optBoolean("popular"));
+        product.setDiscountPercent(json.optInt("discountPercent"));
+        product.setRating((float) json.optDouble("rating", 0));
+        product.setRatingCount(json.optInt("ratingCount"));
+        product.setPopularityScore(json.optInt("popularityScore"));
+        product.setCreatedAt(json.optLong("createdAt"));
+        product.setLastUpdated(json.optLong("lastUpdated"));
+        return product;
+    }
+
+    @Nullable
+    private static String optString(JSONObject json, String name) {
+        return json.isNull(name) ? null : json.optString(name);
+    }
+
+    /**
+     * Changes received up to a checkpoint
+     */
+    private static class Chunk {
+        final List<Category> categories = new ArrayList<>();
+        final List<Product> products = new ArrayList<>();
+        final List<Long> deletedCategories = new ArrayList<>();
+        final List<Long> deletedProducts = new ArrayList<>();
+
+        int size() {
+            return categories.size() + products.size() + deletedCategories.size() + deletedProducts.size();
+        }
+    }
+
+    /**
+     * Outcome of one request to the feed
+     */
+    private record Response(int applied, boolean more) {
+    }
+}